@@ -0,0 +1,145 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.benchmarks;
+
+import eu.hansolo.tilesfx.runnermann.benchmarks.BenchmarkComparison.JsonParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Writes a JMH json result to the baseline. Runs of the result replace
+ * the runs of the same benchmark and params in the baseline, all other
+ * runs of the baseline are kept, so suites can be recorded one by one.
+ * The fields that only describe the recording host (the path of the jvm
+ * and its arguments) are removed.
+ *
+ * Usage: BenchmarkBaseline result.json baseline.json
+ */
+public final class BenchmarkBaseline {
+    private static final Set<String> HOST_FIELDS = Set.of("jvm", "jvmArgs");
+
+
+    // ******************** Constructors **************************************
+    private BenchmarkBaseline() {}
+
+
+    // ******************** Methods *******************************************
+    public static void main(final String[] ARGS) throws IOException {
+        if (ARGS.length < 2) {
+            System.err.println("Usage: BenchmarkBaseline result.json baseline.json");
+            System.exit(2);
+        }
+        final Path resultPath   = Paths.get(ARGS[0]);
+        final Path baselinePath = Paths.get(ARGS[1]);
+        final Map<String, Object> runs = new LinkedHashMap<>();
+        if (Files.exists(baselinePath)) { read(baselinePath).forEach(run -> runs.put(key(run), run)); }
+        int noOfRecorded = 0;
+        for (Map<String, Object> run : read(resultPath)) {
+            runs.put(key(run), run);
+            noOfRecorded++;
+        }
+        final StringBuilder json = new StringBuilder();
+        write(new ArrayList<>(runs.values()), json, "");
+        Files.write(baselinePath, json.append('\n').toString().getBytes(StandardCharsets.UTF_8));
+        System.out.println("Recorded " + noOfRecorded + " run(s), the baseline contains " + runs.size() + " run(s)");
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<Map<String, Object>> read(final Path PATH) throws IOException {
+        final Object                    json = new JsonParser(new String(Files.readAllBytes(PATH), StandardCharsets.UTF_8)).parse();
+        final List<Map<String, Object>> runs = new ArrayList<>();
+        if (!(json instanceof List)) { return runs; }
+        for (Object item : (List<?>) json) {
+            final Map<String, Object> run = (Map<String, Object>) item;
+            HOST_FIELDS.forEach(run::remove);
+            runs.add(run);
+        }
+        return runs;
+    }
+
+    private static String key(final Map<String, Object> RUN) { return RUN.get("benchmark") + " " + RUN.get("mode") + " " + RUN.get("params"); }
+
+    private static void write(final Object VALUE, final StringBuilder JSON, final String INDENT) {
+        if (VALUE instanceof Map) {
+            final Map<?, ?> map = (Map<?, ?>) VALUE;
+            if (map.isEmpty()) { JSON.append("{}"); return; }
+            JSON.append("{\n");
+            int i = 0;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                JSON.append(INDENT).append("    ");
+                writeString(String.valueOf(entry.getKey()), JSON);
+                JSON.append(" : ");
+                write(entry.getValue(), JSON, INDENT + "    ");
+                JSON.append(++i < map.size() ? ",\n" : "\n");
+            }
+            JSON.append(INDENT).append('}');
+        } else if (VALUE instanceof List) {
+            final List<?> list = (List<?>) VALUE;
+            if (list.isEmpty()) { JSON.append("[]"); return; }
+            JSON.append("[\n");
+            for (int i = 0 ; i < list.size() ; i++) {
+                JSON.append(INDENT).append("    ");
+                write(list.get(i), JSON, INDENT + "    ");
+                JSON.append(i < list.size() - 1 ? ",\n" : "\n");
+            }
+            JSON.append(INDENT).append(']');
+        } else if (VALUE instanceof Double) {
+            final double value = (Double) VALUE;
+            if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+                JSON.append((long) value);
+            } else {
+                JSON.append(value);
+            }
+        } else if (VALUE instanceof String) {
+            writeString((String) VALUE, JSON);
+        } else {
+            JSON.append(VALUE);
+        }
+    }
+
+    private static void writeString(final String TEXT, final StringBuilder JSON) {
+        JSON.append('"');
+        for (int i = 0 ; i < TEXT.length() ; i++) {
+            final char c = TEXT.charAt(i);
+            switch (c) {
+                case '"' : JSON.append("\\\""); break;
+                case '\\': JSON.append("\\\\"); break;
+                case '\n': JSON.append("\\n"); break;
+                case '\t': JSON.append("\\t"); break;
+                case '\r': JSON.append("\\r"); break;
+                default  :
+                    if (c < 0x20) {
+                        JSON.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        JSON.append(c);
+                    }
+            }
+        }
+        JSON.append('"');
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+
+/**
+ * Compares a JMH json result with a baseline json result and exits
+ * with status 1 if one of the benchmarks regressed by more than the
+ * given threshold (in percent).
+ * For the modes avgt, sample and ss a higher score is worse, for
+ * thrpt a lower score is worse. Benchmarks that only exist in one
+ * of the files are listed but not treated as a regression.
+ *
+ * Usage: BenchmarkComparison baseline.json result.json [threshold]
+ */
+public final class BenchmarkComparison {
+    private static final double DEFAULT_THRESHOLD = 10;
+
+
+    // ******************** Constructors **************************************
+    private BenchmarkComparison() {}
+
+
+    // ******************** Methods *******************************************
+    public static void main(final String[] ARGS) throws IOException {
+        if (ARGS.length < 2) {
+            System.err.println("Usage: BenchmarkComparison baseline.json result.json [threshold]");
+            System.exit(2);
+        }
+        final Path baselinePath = Paths.get(ARGS[0]);
+        final Path resultPath   = Paths.get(ARGS[1]);
+        final double threshold  = ARGS.length > 2 ? Double.parseDouble(ARGS[2]) : DEFAULT_THRESHOLD;
+        if (!Files.exists(baselinePath)) {
+            System.err.println("No baseline found at " + baselinePath);
+            System.exit(2);
+        }
+        final Map<String, Score> baseline = read(baselinePath);
+        final Map<String, Score> result   = read(resultPath);
+
+        int noOfRegressions = 0;
+        System.out.println(String.format(Locale.US, "%-70s %14s %14s %9s", "Benchmark", "Baseline", "Current", "Change"));
+        for (Map.Entry<String, Score> entry : result.entrySet()) {
+            final Score current = entry.getValue();
+            final Score base    = baseline.get(entry.getKey());
+            if (null == base) {
+                System.out.println(String.format(Locale.US, "%-70s %14s %14.3f %9s", entry.getKey(), "-", current.value, "new"));
+                continue;
+            }
+            final double  change     = (current.value - base.value) / base.value * 100.0;
+            final boolean regression = current.higherIsWorse() ? change > threshold : -change > threshold;
+            if (regression) { noOfRegressions++; }
+            System.out.println(String.format(Locale.US, "%-70s %14.3f %14.3f %+8.1f%% %s", entry.getKey(), base.value, current.value, change, regression ? "REGRESSION" : ""));
+        }
+        for (String name : baseline.keySet()) {
+            if (!result.containsKey(name)) { System.out.println(String.format(Locale.US, "%-70s %14.3f %14s %9s", name, baseline.get(name).value, "-", "missing")); }
+        }
+        if (noOfRegressions > 0) {
+            System.out.println(noOfRegressions + " benchmark(s) regressed by more than " + threshold + "%");
+            System.exit(1);
+        }
+        System.out.println("No regressions above " + threshold + "%");
+    }
+
+    static Map<String, Score> read(final Path PATH) throws IOException {
+        final Object             json   = new JsonParser(new String(Files.readAllBytes(PATH), StandardCharsets.UTF_8)).parse();
+        final Map<String, Score> scores = new LinkedHashMap<>();
+        if (!(json instanceof List)) { return scores; }
+        for (Object item : (List<?>) json) {
+            final Map<?, ?>    run           = (Map<?, ?>) item;
+            final Map<?, ?>    primaryMetric = (Map<?, ?>) run.get("primaryMetric");
+            if (!(primaryMetric.get("score") instanceof Number)) { continue; }
+            final StringBuilder name         = new StringBuilder(String.valueOf(run.get("benchmark")));
+            if (run.get("params") instanceof Map) {
+                for (Map.Entry<?, ?> param : ((Map<?, ?>) run.get("params")).entrySet()) { name.append(':').append(param.getKey()).append('=').append(param.getValue()); }
+            }
+            final String mode = String.valueOf(run.get("mode"));
+            scores.put(name.toString() + " (" + mode + ", " + primaryMetric.get("scoreUnit") + ")", new Score(mode, ((Number) primaryMetric.get("score")).doubleValue()));
+        }
+        return scores;
+    }
+
+
+    // ******************** Inner Classes *************************************
+    static class Score {
+        final String mode;
+        final double value;
+
+        Score(final String MODE, final double VALUE) {
+            mode  = MODE;
+            value = VALUE;
+        }
+
+        boolean higherIsWorse() { return !"thrpt".equals(mode); }
+    }
+
+
+    /**
+     * Minimal json parser that is just good enough for the JMH result
+     * format. Objects become LinkedHashMaps, arrays ArrayLists, numbers
+     * Doubles and "NaN" strings stay strings.
+     */
+    static class JsonParser {
+        private final String json;
+        private       int    index;
+
+        JsonParser(final String JSON) { json = JSON; }
+
+        Object parse() {
+            skipWhitespace();
+            final char c = json.charAt(index);
+            switch (c) {
+                case '{': return parseObject();
+                case '[': return parseArray();
+                case '"': return parseString();
+                case 't': index += 4; return Boolean.TRUE;
+                case 'f': index += 5; return Boolean.FALSE;
+                case 'n': index += 4; return null;
+                default : return parseNumber();
+            }
+        }
+
+        private Map<String, Object> parseObject() {
+            final Map<String, Object> object = new LinkedHashMap<>();
+            index++;
+            skipWhitespace();
+            if ('}' == json.charAt(index)) { index++; return object; }
+            while (true) {
+                skipWhitespace();
+                final String key = parseString();
+                skipWhitespace();
+                expect(':');
+                object.put(key, parse());
+                skipWhitespace();
+                if (',' == json.charAt(index)) { index++; continue; }
+                expect('}');
+                return object;
+            }
+        }
+
+        private List<Object> parseArray() {
+            final List<Object> array = new ArrayList<>();
+            index++;
+            skipWhitespace();
+            if (']' == json.charAt(index)) { index++; return array; }
+            while (true) {
+                array.add(parse());
+                skipWhitespace();
+                if (',' == json.charAt(index)) { index++; continue; }
+                expect(']');
+                return array;
+            }
+        }
+
+        private String parseString() {
+            expect('"');
+            final StringBuilder builder = new StringBuilder();
+            while (true) {
+                final char c = json.charAt(index++);
+                if ('"' == c) { return builder.toString(); }
+                if ('\\' == c) {
+                    final char escaped = json.charAt(index++);
+                    switch (escaped) {
+                        case 'n': builder.append('\n'); break;
+                        case 't': builder.append('\t'); break;
+                        case 'r': builder.append('\r'); break;
+                        case 'b': builder.append('\b'); break;
+                        case 'f': builder.append('\f'); break;
+                        case 'u': builder.append((char) Integer.parseInt(json.substring(index, index + 4), 16)); index += 4; break;
+                        default : builder.append(escaped); break;
+                    }
+                } else {
+                    builder.append(c);
+                }
+            }
+        }
+
+        private Double parseNumber() {
+            final int start = index;
+            while (index < json.length() && "+-0123456789.eE".indexOf(json.charAt(index)) >= 0) { index++; }
+            return Double.valueOf(json.substring(start, index));
+        }
+
+        private void expect(final char C) {
+            if (json.charAt(index) != C) { throw new IllegalArgumentException("Expected '" + C + "' at " + index); }
+            index++;
+        }
+
+        private void skipWhitespace() {
+            while (index < json.length() && Character.isWhitespace(json.charAt(index))) { index++; }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.benchmarks;
+
+import eu.hansolo.tilesfx.runnermann.Tile.Downsampling;
+import eu.hansolo.tilesfx.runnermann.tools.Downsampler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the downsampling of a sliding window of 50,000 points to a
+ * chart with a width of 300 pixels, once for the complete series and
+ * once incrementally for one new point.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DownsamplerBenchmark {
+    private static final int          SIZE      = 50_000;
+    private static final int          WIDTH     = 300;
+    @Param({ "LTTB", "MIN_MAX" })
+    private              Downsampling mode;
+    private              int          threshold;
+    private              double[]     xs;
+    private              double[]     ys;
+    private              Downsampler  downsampler;
+    private              Random       rnd;
+
+
+    // ******************** Setup *********************************************
+    @Setup public void setup() {
+        threshold   = Downsampler.getThreshold(mode, WIDTH);
+        rnd         = new Random(42);
+        xs          = new double[SIZE];
+        ys          = new double[SIZE];
+        downsampler = new Downsampler(mode, threshold);
+        for (int i = 0 ; i < SIZE ; i++) {
+            xs[i] = i;
+            ys[i] = Math.sin(i * 0.001) * 50 + rnd.nextGaussian() * 5;
+            downsampler.add(ys[i]);
+        }
+        downsampler.downsample();
+    }
+
+
+    // ******************** Benchmarks ****************************************
+    @Benchmark public int[] fullSeries() { return Downsampler.downsample(mode, xs, ys, SIZE, threshold); }
+
+    @Benchmark public int slidingWindow() {
+        downsampler.removeFirst(1);
+        downsampler.add(rnd.nextGaussian() * 50);
+        return downsampler.downsample();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.benchmarks;
+
+import eu.hansolo.tilesfx.runnermann.FlipBoard;
+import eu.hansolo.tilesfx.runnermann.Tile;
+import eu.hansolo.tilesfx.runnermann.Tile.SkinType;
+import eu.hansolo.tilesfx.runnermann.TileBuilder;
+import eu.hansolo.tilesfx.runnermann.events.TileEvent.EventType;
+import eu.hansolo.tilesfx.runnermann.tools.FlowGridPane;
+import javafx.animation.AnimationTimer;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the refresh of a board of 1,500 flip tiles in a showing window,
+ * every tile flips to its next character. The score is the time until all
+ * flips are finished, the average and max. time between two pulses during
+ * the refresh are reported as the secondary results "averageFrameMillis"
+ * and "maxFrameMillis".
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class FlipBoardBenchmark {
+    private static final int            NO_OF_COLS   = 50;
+    private static final int            NO_OF_ROWS   = 30;
+    private static final int            TILE_SIZE    = 50;
+    private static final long           FLIP_TIME    = 200;
+    private static final String[]       CHARACTERS   = { " ", "A", "B", "C", "D", "E", "F", "G", "H", "I", "J", "K", "L", "M", "N", "O", "P", "Q", "R", "S", "T", "U", "V", "W", "X", "Y", "Z" };
+    @Param({ "0", "1" })
+    private              long           staggerInMS;
+    private              List<Tile>     tiles;
+    private              FlipBoard      board;
+    private              Stage          stage;
+    private              AnimationTimer frameRecorder;
+    private              long           lastFrame;
+    private              long           frames;
+    private              long           totalFrameTime;
+    private              long           maxFrameTime;
+    private              int            step;
+    private volatile     CountDownLatch latch;
+
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class FrameTimes {
+        public double averageFrameMillis;
+        public double maxFrameMillis;
+    }
+
+
+    // ******************** Setup *********************************************
+    @Setup public void setup() {
+        HeadlessFx.start();
+        HeadlessFx.runAndWait(() -> {
+            tiles = new ArrayList<>(NO_OF_COLS * NO_OF_ROWS);
+            for (int i = 0 ; i < NO_OF_COLS * NO_OF_ROWS ; i++) {
+                final Tile tile = TileBuilder.create()
+                                             .skinType(SkinType.FLIP)
+                                             .prefSize(TILE_SIZE, TILE_SIZE)
+                                             .characters(CHARACTERS)
+                                             .flipTimeInMS(FLIP_TIME)
+                                             .build();
+                tile.addTileEventListener(e -> {
+                    if (EventType.FLIP_FINISHED == e.getEventType()) { latch.countDown(); }
+                });
+                tiles.add(tile);
+            }
+            board = new FlipBoard(tiles);
+            board.setStaggerInMS(staggerInMS);
+
+            frameRecorder = new AnimationTimer() {
+                @Override public void handle(final long NOW) {
+                    if (lastFrame > 0) {
+                        final long frameTime = NOW - lastFrame;
+                        totalFrameTime += frameTime;
+                        maxFrameTime    = Math.max(maxFrameTime, frameTime);
+                        frames++;
+                    }
+                    lastFrame = NOW;
+                }
+            };
+
+            stage = new Stage();
+            stage.setScene(new Scene(new FlowGridPane(NO_OF_COLS, NO_OF_ROWS, tiles.toArray(new Tile[0])), NO_OF_COLS * TILE_SIZE, NO_OF_ROWS * TILE_SIZE));
+            stage.show();
+        });
+    }
+
+    @TearDown public void tearDown() {
+        HeadlessFx.runAndWait(() -> {
+            board.dispose();
+            stage.close();
+        });
+    }
+
+
+    // ******************** Benchmarks ****************************************
+    @Benchmark public void boardRefresh(final FrameTimes FRAME_TIMES) throws InterruptedException {
+        latch = new CountDownLatch(tiles.size());
+        HeadlessFx.runAndWait(() -> {
+            step++;
+            final List<String> texts = new ArrayList<>(tiles.size());
+            for (int i = 0 ; i < tiles.size() ; i++) { texts.add(CHARACTERS[step % CHARACTERS.length]); }
+            lastFrame      = 0;
+            frames         = 0;
+            totalFrameTime = 0;
+            maxFrameTime   = 0;
+            frameRecorder.start();
+            board.setTexts(texts);
+        });
+        latch.await(30, TimeUnit.SECONDS);
+        HeadlessFx.runAndWait(() -> {
+            frameRecorder.stop();
+            FRAME_TIMES.averageFrameMillis = 0 == frames ? 0 : totalFrameTime / (double) frames / 1_000_000.0;
+            FRAME_TIMES.maxFrameMillis     = maxFrameTime / 1_000_000.0;
+        });
+    }
+}
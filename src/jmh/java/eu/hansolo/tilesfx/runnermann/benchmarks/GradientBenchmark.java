@@ -0,0 +1,77 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.benchmarks;
+
+import eu.hansolo.tilesfx.runnermann.tools.ConicalGradient;
+import eu.hansolo.tilesfx.runnermann.tools.GradientLookup;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Stop;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GradientBenchmark {
+    private static final Stop[]          STOPS = { new Stop(0.0, Color.BLUE), new Stop(0.25, Color.CYAN), new Stop(0.5, Color.LIME), new Stop(0.75, Color.YELLOW), new Stop(1.0, Color.RED) };
+    private              GradientLookup  gradientLookup;
+    private              ConicalGradient conicalGradient;
+    private              double          position;
+    private              int             size;
+
+
+    // ******************** Setup *********************************************
+    @Setup public void setup() {
+        HeadlessFx.start();
+        gradientLookup  = new GradientLookup(STOPS);
+        conicalGradient = new ConicalGradient(100, 100, STOPS);
+    }
+
+
+    // ******************** Benchmarks ****************************************
+    @Benchmark public Color gradientLookup() {
+        position = position >= 1.0 ? 0 : position + 0.001;
+        return gradientLookup.getColorAt(position);
+    }
+
+    // ConicalGradient caches the last image, changing the size forces a new one
+    @Benchmark @OutputTimeUnit(TimeUnit.MICROSECONDS) public Image conicalGradientImage() {
+        size = 200 == size ? 201 : 200;
+        return conicalGradient.getImage(size, size);
+    }
+
+    @Benchmark @OutputTimeUnit(TimeUnit.MICROSECONDS) public Image conicalGradientRoundImage() {
+        size = 200 == size ? 201 : 200;
+        return conicalGradient.getRoundImage(size);
+    }
+}
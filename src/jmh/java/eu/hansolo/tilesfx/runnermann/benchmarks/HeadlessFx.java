@@ -0,0 +1,80 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.benchmarks;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+
+
+/**
+ * Starts the JavaFX toolkit on the headless Monocle platform with the
+ * software pipeline so that benchmarks of nodes and skins can run
+ * without a display.
+ */
+public final class HeadlessFx {
+    private static boolean started;
+
+
+    // ******************** Constructors **************************************
+    private HeadlessFx() {}
+
+
+    // ******************** Methods *******************************************
+    public static synchronized void start() {
+        if (started) { return; }
+        System.setProperty("glass.platform", "Monocle");
+        System.setProperty("monocle.platform", "Headless");
+        System.setProperty("prism.order", "sw");
+        System.setProperty("prism.text", "t2k");
+        System.setProperty("java.awt.headless", "true");
+        final CountDownLatch latch = new CountDownLatch(1);
+        try {
+            Platform.startup(latch::countDown);
+        } catch (IllegalStateException e) {
+            // Toolkit already running
+            latch.countDown();
+        }
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        started = true;
+    }
+
+    /**
+     * Runs the given task on the JavaFX application thread and waits
+     * for it to finish.
+     * @param TASK
+     */
+    public static void runAndWait(final Runnable TASK) {
+        if (Platform.isFxApplicationThread()) {
+            TASK.run();
+            return;
+        }
+        final FutureTask<Void> future = new FutureTask<>(TASK, null);
+        Platform.runLater(future);
+        try {
+            future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.benchmarks;
+
+import eu.hansolo.tilesfx.runnermann.tools.Helper;
+import eu.hansolo.tilesfx.runnermann.tools.Point;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Stop;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HelperBenchmark {
+    private List<Stop>   stops;
+    private List<Double> sparkLineData;
+    private Rectangle    graphBounds;
+    private List<Point>  hullPoints;
+    private Point[]      curvePoints;
+    private Text         text;
+    private double       position;
+
+
+    // ******************** Setup *********************************************
+    @Setup public void setup() {
+        HeadlessFx.start();
+        final Random rnd = new Random(42);
+        stops = List.of(new Stop(0.0, Color.BLUE), new Stop(0.25, Color.CYAN), new Stop(0.5, Color.LIME), new Stop(0.75, Color.YELLOW), new Stop(1.0, Color.RED));
+        sparkLineData = new ArrayList<>();
+        for (int i = 0 ; i < 100 ; i++) { sparkLineData.add(rnd.nextDouble() * 100); }
+        graphBounds = new Rectangle(10, 10, 380, 200);
+        hullPoints  = new ArrayList<>();
+        for (int i = 0 ; i < 500 ; i++) { hullPoints.add(new Point(rnd.nextDouble() * 400, rnd.nextDouble() * 400)); }
+        curvePoints = new Point[50];
+        for (int i = 0 ; i < curvePoints.length ; i++) { curvePoints[i] = new Point(i * 8, rnd.nextDouble() * 200); }
+        text = new Text("1234.56 kWh");
+        text.setFont(Font.font(24));
+    }
+
+
+    // ******************** Benchmarks ****************************************
+    @Benchmark public Color getColorAt() {
+        position = position >= 1.0 ? 0 : position + 0.001;
+        return Helper.getColorAt(stops, position);
+    }
+
+    @Benchmark public Point[] smoothSparkLine() { return Helper.smoothSparkLine(sparkLineData, 0, 100, graphBounds, sparkLineData.size()); }
+
+    @Benchmark public Point[] subdividePoints() { return Helper.subdividePoints(curvePoints, 16); }
+
+    // createConvexHull() removes points from the given list
+    @Benchmark public List<Point> createConvexHull() { return Helper.createConvexHull(new ArrayList<>(hullPoints)); }
+
+    @Benchmark public double adjustTextSize() { return Helper.adjustTextSize(text, 80, 24); }
+}
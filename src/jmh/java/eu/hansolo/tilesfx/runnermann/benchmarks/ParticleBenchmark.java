@@ -0,0 +1,178 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.benchmarks;
+
+import eu.hansolo.tilesfx.runnermann.tools.ParticleSystem;
+import eu.hansolo.tilesfx.runnermann.tools.ParticleSystem.Decay;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures one frame (update and render) of a smoke effect with 2,000
+ * particles, once with the ParticleSystem and once with the former
+ * object per particle loop that pushed a transformation for each
+ * particle. With rasterize=true the canvas is rendered to an image
+ * after each frame, otherwise only the GraphicsContext commands are
+ * recorded.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParticleBenchmark {
+    private static final int             NO_OF_PARTICLES = 2_000;
+    private static final double          WIDTH           = 400;
+    private static final double          HEIGHT          = 400;
+    @Param({ "false", "true" })
+    private              boolean         rasterize;
+    private              Image           sprite;
+    private              Canvas          canvas;
+    private              GraphicsContext ctx;
+    private              WritableImage   snapshot;
+    private              ParticleSystem  particleSystem;
+    private              List<Particle>  particles;
+
+
+    // ******************** Setup *********************************************
+    @Setup public void setup() {
+        HeadlessFx.start();
+        sprite         = createSprite(32);
+        particleSystem = new ParticleSystem(NO_OF_PARTICLES, sprite, 0.5, 3, Decay.EXPONENTIAL, 0.98);
+        particles      = new CopyOnWriteArrayList<>();
+        for (int i = 0 ; i < NO_OF_PARTICLES ; i++) {
+            particleSystem.emit(WIDTH, HEIGHT);
+            particles.add(new Particle(sprite, WIDTH, HEIGHT));
+        }
+        HeadlessFx.runAndWait(() -> {
+            canvas   = new Canvas(WIDTH, HEIGHT);
+            ctx      = canvas.getGraphicsContext2D();
+            snapshot = new WritableImage((int) WIDTH, (int) HEIGHT);
+        });
+    }
+
+
+    // ******************** Benchmarks ****************************************
+    @Benchmark public void particleSystem() {
+        HeadlessFx.runAndWait(() -> {
+            ctx.clearRect(0, 0, WIDTH, HEIGHT);
+            particleSystem.update(true, WIDTH, HEIGHT);
+            particleSystem.render(ctx);
+            if (rasterize) { canvas.snapshot(null, snapshot); }
+        });
+    }
+
+    @Benchmark public void objectPerParticle() {
+        HeadlessFx.runAndWait(() -> {
+            ctx.clearRect(0, 0, WIDTH, HEIGHT);
+            for (Particle p : particles) {
+                p.opacity = p.remainingLife / p.life * 0.5;
+
+                ctx.save();
+                ctx.translate(p.x, p.y);
+                ctx.scale(p.size, p.size);
+                ctx.translate(-p.halfWidth, -p.halfHeight);
+                ctx.setGlobalAlpha(p.opacity);
+                ctx.drawImage(p.image, 0, 0);
+                ctx.restore();
+
+                p.remainingLife *= 0.98;
+                p.x += p.vX;
+                p.y += p.vY;
+
+                if (p.remainingLife < 0 || p.size < 0 || p.opacity < 0.01) { p.reInit(WIDTH, HEIGHT); }
+            }
+            if (rasterize) { canvas.snapshot(null, snapshot); }
+        });
+    }
+
+    private static Image createSprite(final int SIZE) {
+        final WritableImage image  = new WritableImage(SIZE, SIZE);
+        final PixelWriter   writer = image.getPixelWriter();
+        final double        radius = SIZE * 0.5;
+        for (int y = 0 ; y < SIZE ; y++) {
+            for (int x = 0 ; x < SIZE ; x++) {
+                final double distance = Math.hypot(x + 0.5 - radius, y + 0.5 - radius) / radius;
+                writer.setColor(x, y, Color.gray(0.8, Math.max(0, 1 - distance)));
+            }
+        }
+        return image;
+    }
+
+
+    // ******************** Inner Classes *************************************
+    // The particle of the former Fire and Smoke effects
+    private static class Particle {
+        private static final Random RND = new Random(42);
+        private              double x;
+        private              double y;
+        private              double vX;
+        private              double vY;
+        private              double opacity;
+        private              double size;
+        private        final Image  image;
+        private        final double halfWidth;
+        private        final double halfHeight;
+        private              double life;
+        private              double remainingLife;
+
+
+        // ******************** Constructors **************************************
+        Particle(final Image IMAGE, final double WIDTH, final double HEIGHT) {
+            image      = IMAGE;
+            halfWidth  = IMAGE.getWidth() * 0.5;
+            halfHeight = IMAGE.getHeight() * 0.5;
+            reInit(WIDTH, HEIGHT);
+        }
+
+
+        // ******************** Methods *******************************************
+        void reInit(final double WIDTH, final double HEIGHT) {
+            x             = RND.nextDouble() * WIDTH;
+            y             = HEIGHT + halfHeight;
+            size          = (RND.nextDouble() * 1) + 0.5;
+            vX            = (RND.nextDouble() * 0.5) - 0.25;
+            vY            = -(RND.nextDouble() * 3);
+            opacity       = 1.0;
+            life          = (RND.nextDouble() * 20) + 40;
+            remainingLife = life;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.benchmarks;
+
+import eu.hansolo.tilesfx.runnermann.chart.MatrixFont8x8;
+import eu.hansolo.tilesfx.runnermann.chart.PixelMatrix;
+import javafx.scene.paint.Color;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PixelMatrixBenchmark {
+    private PixelMatrix pixelMatrix;
+    private Random      rnd;
+
+
+    // ******************** Setup *********************************************
+    // The matrix is not part of a scene so its canvas can be drawn from the benchmark thread
+    @Setup public void setup() {
+        HeadlessFx.start();
+        rnd = new Random(42);
+        HeadlessFx.runAndWait(() -> {
+            pixelMatrix = new PixelMatrix(200, 100, 60, 30, Color.ORANGE, Color.rgb(40, 40, 40), PixelMatrix.PixelShape.SQUARE, MatrixFont8x8.INSTANCE);
+            pixelMatrix.resize(200, 100);
+        });
+    }
+
+
+    // ******************** Benchmarks ****************************************
+    @Benchmark public void setPixels() {
+        for (int i = 0 ; i < 100 ; i++) { pixelMatrix.setPixel(rnd.nextInt(60), rnd.nextInt(30), rnd.nextBoolean()); }
+    }
+
+    @Benchmark public void drawMatrix() { pixelMatrix.drawMatrix(); }
+}
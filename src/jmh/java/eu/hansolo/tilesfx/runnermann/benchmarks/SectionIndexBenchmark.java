@@ -0,0 +1,157 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.benchmarks;
+
+import eu.hansolo.tilesfx.runnermann.Section;
+import eu.hansolo.tilesfx.runnermann.TimeSection;
+import eu.hansolo.tilesfx.runnermann.tools.SectionIndex;
+import eu.hansolo.tilesfx.runnermann.tools.TimeSectionIndex;
+import javafx.scene.paint.Color;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the lookup and the check of a random value against 1,000
+ * sections and 1,000 time sections, once with the compiled SectionIndex
+ * and TimeSectionIndex and once with the linear scan over all sections
+ * that the skins used before.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SectionIndexBenchmark {
+    private static final int               NO_OF_SECTIONS = 1_000;
+    private static final int               NO_OF_VALUES   = 4_096;
+    private static final long              NANOS_PER_DAY  = 86_400_000_000_000L;
+    private              List<Section>     sections;
+    private              List<TimeSection> timeSections;
+    private              SectionIndex      sectionIndex;
+    private              TimeSectionIndex  timeSectionIndex;
+    private              double[]          values;
+    private              ZonedDateTime[]   dateTimes;
+    private              int               index;
+
+
+    // ******************** Setup *********************************************
+    @Setup public void setup() {
+        final Random rnd = new Random(42);
+        sections     = new ArrayList<>(NO_OF_SECTIONS);
+        timeSections = new ArrayList<>(NO_OF_SECTIONS);
+        for (int i = 0 ; i < NO_OF_SECTIONS ; i++) {
+            final double start = rnd.nextDouble() * 1_000;
+            sections.add(new Section(start, start + rnd.nextDouble() * 5, Color.RED));
+
+            final long startNanos = (long) (rnd.nextDouble() * (NANOS_PER_DAY - 3_600_000_000_000L));
+            final long stopNanos  = startNanos + (long) (rnd.nextDouble() * 3_600_000_000_000L);
+            final TimeSection timeSection = new TimeSection(LocalTime.ofNanoOfDay(startNanos), LocalTime.ofNanoOfDay(stopNanos), Color.RED);
+            timeSection.setActive(true);
+            timeSections.add(timeSection);
+        }
+        sectionIndex     = new SectionIndex(sections);
+        timeSectionIndex = new TimeSectionIndex(timeSections);
+
+        final ZonedDateTime monday = ZonedDateTime.of(LocalDate.of(2021, 1, 4), LocalTime.MIDNIGHT, ZoneId.of("UTC"));
+        values    = new double[NO_OF_VALUES];
+        dateTimes = new ZonedDateTime[NO_OF_VALUES];
+        for (int i = 0 ; i < NO_OF_VALUES ; i++) {
+            values[i]    = rnd.nextDouble() * 1_000;
+            dateTimes[i] = monday.plusNanos((long) (rnd.nextDouble() * 7 * NANOS_PER_DAY));
+        }
+    }
+
+
+    // ******************** Benchmarks ****************************************
+    @Benchmark public Section indexedLookup() { return sectionIndex.getSection(nextValue()); }
+
+    @Benchmark public Section linearLookup() {
+        final double value = nextValue();
+        for (Section section : sections) {
+            if (section.contains(value)) { return section; }
+        }
+        return null;
+    }
+
+    @Benchmark public double indexedCheck() {
+        final double value = nextValue();
+        sectionIndex.checkForValue(value);
+        return value;
+    }
+
+    @Benchmark public double linearCheck() {
+        final double value = nextValue();
+        for (Section section : sections) { section.checkForValue(value); }
+        return value;
+    }
+
+    @Benchmark public TimeSection indexedTimeLookup() {
+        final ZonedDateTime dateTime = nextDateTime();
+        return timeSectionIndex.getSection(dateTime.toLocalTime(), dateTime.getDayOfWeek());
+    }
+
+    @Benchmark public TimeSection linearTimeLookup() {
+        final ZonedDateTime dateTime = nextDateTime();
+        final LocalTime     time     = dateTime.toLocalTime();
+        for (TimeSection section : timeSections) {
+            if (section.getDays().contains(dateTime.getDayOfWeek()) && section.contains(time)) { return section; }
+        }
+        return null;
+    }
+
+    @Benchmark public ZonedDateTime indexedTimeCheck() {
+        final ZonedDateTime dateTime = nextDateTime();
+        timeSectionIndex.checkForTimeAndDate(dateTime);
+        return dateTime;
+    }
+
+    @Benchmark public ZonedDateTime linearTimeCheck() {
+        final ZonedDateTime dateTime = nextDateTime();
+        for (TimeSection section : timeSections) { section.checkForTimeAndDate(dateTime); }
+        return dateTime;
+    }
+
+    private double nextValue() {
+        index = (index + 1) & (NO_OF_VALUES - 1);
+        return values[index];
+    }
+
+    private ZonedDateTime nextDateTime() {
+        index = (index + 1) & (NO_OF_VALUES - 1);
+        return dateTimes[index];
+    }
+}
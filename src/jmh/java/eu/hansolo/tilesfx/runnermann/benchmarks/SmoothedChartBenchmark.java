@@ -0,0 +1,105 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.benchmarks;
+
+import eu.hansolo.tilesfx.runnermann.chart.SmoothedChart;
+import javafx.scene.Scene;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart.Data;
+import javafx.scene.chart.XYChart.Series;
+import javafx.scene.layout.Pane;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the layout of a SmoothedChart with 10 series of 5,000 points,
+ * once while the chart is resized continuously and once for a layout
+ * pass that does not change the data or the size of the chart.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmoothedChartBenchmark {
+    private static final int                           NO_OF_SERIES = 10;
+    private static final int                           NO_OF_POINTS = 5_000;
+    private              SmoothedChart<Number, Number> chart;
+    private              Scene                         scene;
+    private              int                           step;
+
+
+    // ******************** Setup *********************************************
+    @Setup public void setup() {
+        HeadlessFx.start();
+        final Random rnd = new Random(42);
+        HeadlessFx.runAndWait(() -> {
+            chart = new SmoothedChart<>(new NumberAxis(), new NumberAxis());
+            chart.setAnimated(false);
+            chart.setCreateSymbols(false);
+            final List<Series<Number, Number>> seriesList = new ArrayList<>(NO_OF_SERIES);
+            for (int s = 0 ; s < NO_OF_SERIES ; s++) {
+                final List<Data<Number, Number>> dataList = new ArrayList<>(NO_OF_POINTS);
+                for (int i = 0 ; i < NO_OF_POINTS ; i++) { dataList.add(new Data<>(i, Math.sin(i * 0.01) * 50 + rnd.nextGaussian() * 5 + s * 10)); }
+                final Series<Number, Number> series = new Series<>();
+                series.getData().setAll(dataList);
+                seriesList.add(series);
+            }
+            chart.getData().setAll(seriesList);
+            scene = new Scene(new Pane(chart), 800, 600);
+            chart.resize(800, 600);
+            scene.getRoot().applyCss();
+            chart.layout();
+        });
+    }
+
+    @TearDown public void tearDown() { HeadlessFx.runAndWait(() -> scene.setRoot(new Pane())); }
+
+
+    // ******************** Benchmarks ****************************************
+    @Benchmark public void resize() {
+        HeadlessFx.runAndWait(() -> {
+            step = (step + 1) % 200;
+            chart.resize(600 + step, 400 + step / 2);
+            chart.layout();
+        });
+    }
+
+    @Benchmark public void relayout() {
+        HeadlessFx.runAndWait(() -> {
+            chart.requestLayout();
+            chart.layout();
+        });
+    }
+}
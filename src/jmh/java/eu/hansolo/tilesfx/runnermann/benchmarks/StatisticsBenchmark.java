@@ -0,0 +1,104 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.benchmarks;
+
+import eu.hansolo.tilesfx.runnermann.chart.ChartData;
+import eu.hansolo.tilesfx.runnermann.tools.BucketStatistics;
+import eu.hansolo.tilesfx.runnermann.tools.QuantileSketch;
+import eu.hansolo.tilesfx.runnermann.tools.Statistics;
+import eu.hansolo.tilesfx.runnermann.tools.WindowedStatistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatisticsBenchmark {
+    private static final int                SIZE = 10_000;
+    private              double[]           values;
+    private              List<Double>       valueList;
+    private              List<ChartData>    dayOfData;
+    private              QuantileSketch     sketch;
+    private              WindowedStatistics window;
+    private              Random             rnd;
+
+
+    // ******************** Setup *********************************************
+    @Setup public void setup() {
+        HeadlessFx.start();
+        rnd       = new Random(42);
+        values    = new double[SIZE];
+        valueList = new ArrayList<>(SIZE);
+        for (int i = 0 ; i < SIZE ; i++) {
+            values[i] = rnd.nextGaussian() * 20 + 100;
+            valueList.add(values[i]);
+        }
+        // One day of data in seconds resolution
+        final Instant start = Instant.parse("2021-03-01T00:00:00Z");
+        dayOfData = new ArrayList<>(86_400);
+        for (int i = 0 ; i < 86_400 ; i++) { dayOfData.add(new ChartData(rnd.nextDouble() * 100, start.plusSeconds(i))); }
+        sketch = new QuantileSketch();
+        sketch.addAll(values);
+        window = new WindowedStatistics(1_000);
+    }
+
+
+    // ******************** Benchmarks ****************************************
+    @Benchmark public double meanOfList() { return Statistics.getMean(valueList); }
+
+    @Benchmark public double stdDevOfArray() { return Statistics.getStdDev(values); }
+
+    @Benchmark public double medianOfList() { return Statistics.getMedian(valueList); }
+
+    @Benchmark public double percentile95OfList() { return Statistics.percentile(valueList, 95); }
+
+    @Benchmark public double sketchQuantile() { return sketch.getQuantile(0.95); }
+
+    @Benchmark public double windowedAdd() {
+        window.add(rnd.nextDouble() * 100);
+        return window.getStdDev();
+    }
+
+    @Benchmark @OutputTimeUnit(TimeUnit.MILLISECONDS) public BucketStatistics analyzeDay() {
+        return Statistics.analyze(dayOfData, Duration.ofMinutes(10), ZoneId.of("Europe/Berlin"));
+    }
+
+    @Benchmark @OutputTimeUnit(TimeUnit.MILLISECONDS) public BucketStatistics analyzeDayParallel() {
+        return Statistics.analyzeParallel(dayOfData, Duration.ofMinutes(10), ZoneId.of("Europe/Berlin"));
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.benchmarks;
+
+import eu.hansolo.tilesfx.runnermann.Tile;
+import eu.hansolo.tilesfx.runnermann.Tile.SkinType;
+import eu.hansolo.tilesfx.runnermann.VirtualTileGrid;
+import eu.hansolo.tilesfx.runnermann.tools.FlowGridPane;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.StackPane;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the startup time of a dashboard with 5,000 tiles, i.e. creating
+ * the tiles, adding them to a container and running the first css and
+ * layout pass. The retained heap of the dashboard is reported as the
+ * secondary result "retainedBytes".
+ * The FlowGridPane creates the skins of all tiles, the VirtualTileGrid
+ * only the skins of the tiles in or near the viewport.
+ * The skins lay out text, so the benchmark needs the native text stack
+ * of JavaFX and has no entry in the baseline of a host without it. The
+ * attaching and pooling of the VirtualTileGrid is covered by
+ * VirtualTileGridTest with plain skins.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class TileGridBenchmark {
+    private static final int        NO_OF_TILES = 5_000;
+    private static final int        NO_OF_COLS  = 10;
+    private static final SkinType[] SKIN_TYPES  = { SkinType.GAUGE, SkinType.PERCENTAGE, SkinType.SPARK_LINE, SkinType.NUMBER };
+    @Param({ "FLOW_GRID", "VIRTUAL_GRID" })
+    private String                  container;
+    private Scene                   scene;
+
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Heap {
+        public long retainedBytes;
+    }
+
+
+    // ******************** Setup *********************************************
+    @Setup(Level.Trial) public void setup() {
+        HeadlessFx.start();
+        HeadlessFx.runAndWait(() -> scene = new Scene(new StackPane(), 1280, 800));
+    }
+
+    @TearDown(Level.Iteration) public void tearDown() { HeadlessFx.runAndWait(() -> scene.setRoot(new StackPane())); }
+
+
+    // ******************** Benchmarks ****************************************
+    @Benchmark public Scene startup(final Heap HEAP) {
+        final long before = usedHeap();
+        HeadlessFx.runAndWait(() -> {
+            final Tile[] tiles = new Tile[NO_OF_TILES];
+            for (int i = 0 ; i < NO_OF_TILES ; i++) {
+                tiles[i] = new Tile(SKIN_TYPES[i % SKIN_TYPES.length]);
+                tiles[i].setValue(i % 100);
+            }
+            final Parent root;
+            if ("FLOW_GRID".equals(container)) {
+                final FlowGridPane grid = new FlowGridPane(NO_OF_COLS, NO_OF_TILES / NO_OF_COLS, tiles);
+                root = new ScrollPane(grid);
+            } else {
+                root = new VirtualTileGrid(NO_OF_COLS, tiles);
+            }
+            scene.setRoot(root);
+            root.applyCss();
+            root.layout();
+        });
+        HEAP.retainedBytes = usedHeap() - before;
+        return scene;
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0 ; i < 3 ; i++) { System.gc(); }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
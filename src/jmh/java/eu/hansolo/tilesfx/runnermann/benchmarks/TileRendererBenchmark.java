@@ -0,0 +1,97 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.benchmarks;
+
+import eu.hansolo.tilesfx.runnermann.Tile;
+import eu.hansolo.tilesfx.runnermann.Tile.SkinType;
+import eu.hansolo.tilesfx.runnermann.TileBuilder;
+import eu.hansolo.tilesfx.runnermann.TileRenderer;
+import eu.hansolo.tilesfx.runnermann.tools.PngEncoder;
+import javafx.scene.image.WritableImage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the throughput of the TileRenderer in images per second, every
+ * invocation renders NO_OF_IMAGES tiles of 400x400 pixels with random
+ * values and encodes them as PNG.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@OperationsPerInvocation(TileRendererBenchmark.NO_OF_IMAGES)
+@Fork(1)
+public class TileRendererBenchmark {
+    public  static final int          NO_OF_IMAGES = 100;
+    private static final double       SIZE         = 400;
+    @Param({ "GAUGE", "SPARK_LINE", "PERCENTAGE" })
+    private              SkinType     skinType;
+    @Param({ "1", "16" })
+    private              int          batchSize;
+    private              TileRenderer renderer;
+    private              TileBuilder  builder;
+    private              Random       rnd;
+
+
+    // ******************** Setup *********************************************
+    @Setup public void setup() {
+        HeadlessFx.start();
+        rnd      = new Random(42);
+        renderer = new TileRenderer();
+        renderer.setBatchSize(batchSize);
+        builder  = TileBuilder.create()
+                              .skinType(skinType)
+                              .title("Report")
+                              .unit("%")
+                              .minValue(0)
+                              .maxValue(100);
+    }
+
+
+    // ******************** Benchmarks ****************************************
+    @Benchmark public int renderToPng() {
+        final List<CompletableFuture<byte[]>> images = new ArrayList<>(NO_OF_IMAGES);
+        for (int i = 0 ; i < NO_OF_IMAGES ; i++) {
+            final double value = rnd.nextDouble() * 100;
+            images.add(renderer.render(builder, (Tile tile) -> tile.setValue(value), SIZE, SIZE)
+                               .thenApplyAsync((WritableImage image) -> PngEncoder.encode(image)));
+        }
+        int bytes = 0;
+        for (CompletableFuture<byte[]> image : images) { bytes += image.join().length; }
+        return bytes;
+    }
+}
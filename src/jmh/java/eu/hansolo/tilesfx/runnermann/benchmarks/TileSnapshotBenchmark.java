@@ -0,0 +1,148 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.benchmarks;
+
+import eu.hansolo.tilesfx.runnermann.Section;
+import eu.hansolo.tilesfx.runnermann.Tile;
+import eu.hansolo.tilesfx.runnermann.TileBuilder;
+import eu.hansolo.tilesfx.runnermann.TileSnapshot;
+import eu.hansolo.tilesfx.runnermann.tools.MappedTimeSeriesStore;
+import javafx.scene.paint.Color;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the restart of a dashboard of 1,000 tiles with a history of
+ * 10,000 values per tile (kept in a MappedTimeSeriesStore). "restore"
+ * reads a TileSnapshot and restores it, "replay" sets all values of the
+ * history again like an application without snapshots has to do.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TileSnapshotBenchmark {
+    private static final int                         NO_OF_TILES   = 1_000;
+    private static final int                         HISTORY_SIZE  = 10_000;
+    private static final int                         SEGMENT_SIZE  = 16_384;
+    private              List<Tile>                  tiles;
+    private              List<MappedTimeSeriesStore> stores;
+    private              double[][]                  histories;
+    private              byte[]                      snapshot;
+    private              Path                        directory;
+
+
+    // ******************** Setup *********************************************
+    @Setup(Level.Trial) public void setup() throws IOException {
+        HeadlessFx.start();
+        directory = Files.createTempDirectory("tile-snapshot");
+        histories = new double[NO_OF_TILES][HISTORY_SIZE];
+        final Random rnd = new Random(42);
+        for (double[] history : histories) {
+            for (int i = 0 ; i < HISTORY_SIZE ; i++) { history[i] = rnd.nextDouble() * 100; }
+        }
+        HeadlessFx.runAndWait(() -> {
+            tiles  = new ArrayList<>(NO_OF_TILES);
+            stores = new ArrayList<>(NO_OF_TILES);
+            try {
+                for (int i = 0 ; i < NO_OF_TILES ; i++) {
+                    final Tile tile = TileBuilder.create()
+                                                 .minValue(0)
+                                                 .maxValue(100)
+                                                 .animated(false)
+                                                 .averagingEnabled(true)
+                                                 .averagingPeriod(100)
+                                                 .sections(new Section(0, 80, Color.GREEN), new Section(80, 100, Color.RED))
+                                                 .build();
+                    final MappedTimeSeriesStore store = new MappedTimeSeriesStore(directory.resolve("tile-" + i + ".ts"), SEGMENT_SIZE);
+                    tile.setTimeSeriesStore(store);
+                    for (double value : histories[i]) { tile.setValue(value); }
+                    tiles.add(tile);
+                    stores.add(store);
+                }
+                final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                TileSnapshot.of(tiles).writeTo(bytes);
+                snapshot = bytes.toByteArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Setup(Level.Invocation) public void clearStores() {
+        HeadlessFx.runAndWait(() -> {
+            for (int i = 0 ; i < NO_OF_TILES ; i++) {
+                stores.get(i).clear();
+                tiles.get(i).getMovingAverage().reset();
+            }
+        });
+    }
+
+    @TearDown(Level.Trial) public void tearDown() throws IOException {
+        for (MappedTimeSeriesStore store : stores) {
+            store.close();
+            Files.deleteIfExists(store.getFile());
+        }
+        Files.deleteIfExists(directory);
+    }
+
+
+    // ******************** Benchmarks ****************************************
+    @Benchmark public void restore() {
+        HeadlessFx.runAndWait(() -> {
+            try {
+                TileSnapshot.readFrom(new ByteArrayInputStream(snapshot)).restore(tiles);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Benchmark public void replay() {
+        HeadlessFx.runAndWait(() -> {
+            for (int i = 0 ; i < NO_OF_TILES ; i++) {
+                final Tile tile = tiles.get(i);
+                for (double value : histories[i]) { tile.setValue(value); }
+            }
+        });
+    }
+}
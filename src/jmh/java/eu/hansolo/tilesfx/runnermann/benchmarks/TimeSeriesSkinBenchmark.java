@@ -0,0 +1,91 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.benchmarks;
+
+import eu.hansolo.tilesfx.runnermann.Tile;
+import eu.hansolo.tilesfx.runnermann.Tile.SkinType;
+import eu.hansolo.tilesfx.runnermann.TileBuilder;
+import javafx.scene.Scene;
+import javafx.scene.layout.StackPane;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the cost of one value update of the time series skins
+ * including the layout and css pass of the scene.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeSeriesSkinBenchmark {
+    @Param({ "SPARK_LINE", "GAUGE_SPARK_LINE", "TIMELINE" })
+    private SkinType skinType;
+    private Tile     tile;
+    private Scene    scene;
+    private Random   rnd;
+
+
+    // ******************** Setup *********************************************
+    @Setup public void setup() {
+        HeadlessFx.start();
+        rnd = new Random(42);
+        HeadlessFx.runAndWait(() -> {
+            tile = TileBuilder.create()
+                              .skinType(skinType)
+                              .prefSize(400, 400)
+                              .minValue(0)
+                              .maxValue(100)
+                              .averagingPeriod(100)
+                              .animated(false)
+                              .build();
+            scene = new Scene(new StackPane(tile), 400, 400);
+            scene.getRoot().applyCss();
+            scene.getRoot().layout();
+            // Fill the averaging window before measuring
+            for (int i = 0 ; i < 100 ; i++) { tile.setValue(rnd.nextDouble() * 100); }
+        });
+    }
+
+    @TearDown public void tearDown() { HeadlessFx.runAndWait(() -> scene.setRoot(new StackPane())); }
+
+
+    // ******************** Benchmarks ****************************************
+    @Benchmark public void setValue() {
+        HeadlessFx.runAndWait(() -> {
+            tile.setValue(rnd.nextDouble() * 100);
+            scene.getRoot().layout();
+        });
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.benchmarks;
+
+import eu.hansolo.tilesfx.runnermann.tools.TreeNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TreeNodeBenchmark {
+    private TreeNode<String> root;
+    private TreeNode<String> leaf;
+
+
+    // ******************** Setup *********************************************
+    // 1 + 10 + 100 + 1000 nodes
+    @Setup public void setup() {
+        root = new TreeNode<>("root");
+        for (int i = 0 ; i < 10 ; i++) {
+            final TreeNode<String> level1 = new TreeNode<>("node " + i, root);
+            for (int j = 0 ; j < 10 ; j++) {
+                final TreeNode<String> level2 = new TreeNode<>("node " + i + "." + j, level1);
+                for (int k = 0 ; k < 10 ; k++) {
+                    leaf = new TreeNode<>("node " + i + "." + j + "." + k, level2);
+                }
+            }
+        }
+    }
+
+
+    // ******************** Benchmarks ****************************************
+    @Benchmark public int noOfNodes() { return root.getNoOfNodes(); }
+
+    @Benchmark public List<TreeNode<String>> flattened() { return root.getAll(); }
+
+    @Benchmark public int depthOfLeaf() { return leaf.getDepth(); }
+
+    @Benchmark public List<TreeNode<String>> nodesAtSameLevel() { return leaf.nodesAtSameLevel(); }
+}
@@ -28,6 +28,7 @@ import javafx.scene.paint.Color;
 
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.Objects;
 
 
 /**
@@ -47,6 +48,7 @@ public class Alarm {
     private             String           text;
     private             Command          command;
     private             Color            color;
+    private volatile    AlarmScheduler   scheduler;
 
 
     // ******************** Constructors **************************************
@@ -99,7 +101,11 @@ public class Alarm {
      * The values are ONCE, HALF_HOURLY, HOURLY, DAILY, WEEKLY
      * @param REPETITION
      */
-    public void setRepetition(final Repetition REPETITION) { repetition = REPETITION; }
+    public void setRepetition(final Repetition REPETITION) {
+        if (REPETITION == repetition) { return; }
+        repetition = REPETITION;
+        reschedule();
+    }
 
     /**
      * Returns the time of the alarm.
@@ -110,7 +116,11 @@ public class Alarm {
      * Defines the time of the alarm.
      * @param TIME
      */
-    public void setTime(final ZonedDateTime TIME) { time = TIME; }
+    public void setTime(final ZonedDateTime TIME) {
+        if (Objects.equals(TIME, time)) { return; }
+        time = TIME;
+        reschedule();
+    }
 
     /**
      * Returns true if the alarm is activated.
@@ -165,6 +175,16 @@ public class Alarm {
      */
     public void setColor(final Color COLOR) { color = COLOR; }
 
+    void setScheduler(final AlarmScheduler SCHEDULER) { scheduler = SCHEDULER; }
+
+    void clearScheduler(final AlarmScheduler SCHEDULER) { if (SCHEDULER == scheduler) { scheduler = null; } }
+
+    // Lets the scheduler that holds this alarm recalculate the next fire time
+    private void reschedule() {
+        final AlarmScheduler alarmScheduler = scheduler;
+        if (null != alarmScheduler) { alarmScheduler.reschedule(Alarm.this); }
+    }
+
     @Override public String toString() {
         return new StringBuilder()
             .append("{\n")
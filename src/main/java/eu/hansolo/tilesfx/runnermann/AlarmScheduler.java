@@ -0,0 +1,373 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann;
+
+import eu.hansolo.tilesfx.runnermann.events.AlarmEvent;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+
+/**
+ * Keeps alarms in a min-heap that is ordered by the next point in time
+ * each alarm will fire. Instead of comparing every alarm against the
+ * current time on each tick, only the alarms that are due will be taken
+ * from the heap, fired on the tile that owns them and (if repeating)
+ * put back with their next fire time.
+ * A scheduler can be shared by several tiles as long as these tiles
+ * run on the same clock.
+ *
+ * Repeating alarms follow the wall clock in the zone of the alarm time.
+ * HALF_HOURLY and HOURLY alarms fire every 30/60 minutes on the instant
+ * timeline (so twice in a repeated hour when DST ends), DAILY and WEEKLY
+ * alarms fire once per day/week at the alarm's local time (shifted forward
+ * if that local time does not exist because DST starts).
+ * If several occurrences of an alarm were missed (e.g. because no check
+ * happened for a while) the alarm fires only once and is rescheduled to
+ * its next occurrence after the current time.
+ * Alarms of a tile that has alarms disabled stay due and will fire on the
+ * first check after alarms were enabled again, as if the tile had checked
+ * them on its own. Until then they are parked outside of the heap.
+ * Changing the time or the repetition of a scheduled alarm reschedules it.
+ */
+public class AlarmScheduler {
+    public  static final long                   DEFAULT_CLOCK_SKEW_TOLERANCE = Tile.LONG_INTERVAL;
+    private        final PriorityQueue<Entry>   queue;
+    private        final Map<Alarm, Entry>      entries;
+    private        final Map<Tile, List<Entry>> parked;
+    private              long                   sequence;
+    private              long                   lastCheck;
+    private              ZonedDateTime          lastNow;
+    private              long                   clockSkewTolerance;
+    private              int                    cancelledInQueue;
+
+
+    // ******************** Constructors **************************************
+    public AlarmScheduler() {
+        this(DEFAULT_CLOCK_SKEW_TOLERANCE);
+    }
+    /**
+     * Creates a scheduler that only reschedules all alarms if a check goes
+     * back in time by more than the given tolerance. Tiles that share a
+     * scheduler tick on their own, so their clocks differ by a few ms.
+     * @param CLOCK_SKEW_TOLERANCE_IN_MS
+     */
+    public AlarmScheduler(final long CLOCK_SKEW_TOLERANCE_IN_MS) {
+        queue              = new PriorityQueue<>();
+        entries            = new HashMap<>();
+        parked             = new HashMap<>();
+        sequence           = 0;
+        lastCheck          = Long.MIN_VALUE;
+        clockSkewTolerance = Math.max(0, CLOCK_SKEW_TOLERANCE_IN_MS);
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Schedules the given alarm for the given tile. The next fire time will
+     * be calculated from the given time. If the alarm was already scheduled
+     * it will be rescheduled.
+     * @param ALARM
+     * @param TILE the tile that will fire the AlarmEvent
+     * @param NOW
+     */
+    public synchronized void schedule(final Alarm ALARM, final Tile TILE, final ZonedDateTime NOW) {
+        if (null == ALARM || null == ALARM.getTime()) { return; }
+        cancel(ALARM);
+        if (null == lastNow || NOW.isAfter(lastNow)) { lastNow = NOW; }
+        final Entry entry = new Entry(ALARM, TILE, firstFireTime(ALARM, NOW), sequence++);
+        entries.put(ALARM, entry);
+        queue.add(entry);
+        ALARM.setScheduler(AlarmScheduler.this);
+    }
+
+    /**
+     * Recalculates the next fire time of the given alarm from the given
+     * time. A change of the time or the repetition of a scheduled alarm
+     * reschedules it from the latest checked time on its own.
+     * @param ALARM
+     * @param NOW
+     */
+    public synchronized void reschedule(final Alarm ALARM, final ZonedDateTime NOW) {
+        final Entry entry = entries.get(ALARM);
+        if (null == entry) { return; }
+        schedule(ALARM, entry.tile, NOW);
+    }
+
+    /**
+     * Recalculates the next fire time of the given alarm from the latest
+     * time the scheduler has seen.
+     * @param ALARM
+     */
+    synchronized void reschedule(final Alarm ALARM) {
+        if (null == lastNow) { return; }
+        if (null == ALARM.getTime()) {
+            cancel(ALARM);
+        } else {
+            reschedule(ALARM, lastNow);
+        }
+    }
+
+    /**
+     * Removes the given alarm from the scheduler.
+     * @param ALARM
+     */
+    public synchronized void cancel(final Alarm ALARM) {
+        final Entry entry = entries.remove(ALARM);
+        if (null == entry) { return; }
+        ALARM.clearScheduler(AlarmScheduler.this);
+        entry.cancelled = true;
+        if (entry.parked) {
+            final List<Entry> parkedEntries = parked.get(entry.tile);
+            parkedEntries.remove(entry);
+            if (parkedEntries.isEmpty()) { parked.remove(entry.tile); }
+        } else {
+            cancelledInQueue++;
+            compact();
+        }
+    }
+
+    /**
+     * Removes all alarms of the given tile from the scheduler.
+     * @param TILE
+     */
+    public synchronized void cancelAll(final Tile TILE) {
+        entries.values().removeIf(entry -> {
+            if (entry.tile != TILE) { return false; }
+            entry.alarm.clearScheduler(AlarmScheduler.this);
+            entry.cancelled = true;
+            if (!entry.parked) { cancelledInQueue++; }
+            return true;
+        });
+        parked.remove(TILE);
+        compact();
+    }
+
+    /**
+     * Puts the alarms of the given tile that got due while the tile had
+     * alarms disabled back into the heap, they will fire on the next check.
+     * @param TILE
+     */
+    public synchronized void resume(final Tile TILE) {
+        final List<Entry> parkedEntries = parked.remove(TILE);
+        if (null == parkedEntries) { return; }
+        for (Entry entry : parkedEntries) {
+            entry.parked = false;
+            queue.add(entry);
+        }
+    }
+
+    /**
+     * Returns the time in ms a check may go back in time before all
+     * alarms will be rescheduled.
+     * @return the time in ms a check may go back in time
+     */
+    public synchronized long getClockSkewTolerance() { return clockSkewTolerance; }
+    /**
+     * Defines the time in ms a check may go back in time (e.g. because
+     * tiles that share this scheduler run on slightly different clocks)
+     * before all alarms will be rescheduled.
+     * @param TOLERANCE_IN_MS
+     */
+    public synchronized void setClockSkewTolerance(final long TOLERANCE_IN_MS) { clockSkewTolerance = Math.max(0, TOLERANCE_IN_MS); }
+
+    public synchronized boolean isScheduled(final Alarm ALARM) { return entries.containsKey(ALARM); }
+
+    public synchronized int size() { return entries.size(); }
+
+    /**
+     * Returns the next time the given alarm will fire or null if
+     * the alarm is not scheduled.
+     * @param ALARM
+     * @return the next time the given alarm will fire
+     */
+    public synchronized ZonedDateTime getNextFireTime(final Alarm ALARM) {
+        final Entry entry = entries.get(ALARM);
+        return null == entry ? null : entry.fireTime;
+    }
+
+    /**
+     * Fires all alarms that are due at the given time. Repeating alarms will
+     * be rescheduled, alarms with repetition ONCE will be removed from the
+     * scheduler and from their tile.
+     * If the given time is before the last checked time by more than the
+     * clock skew tolerance (the clock was set back) all alarms will be
+     * rescheduled from the given time.
+     * @param NOW
+     */
+    public void checkAlarms(final ZonedDateTime NOW) {
+        final long now = NOW.toInstant().toEpochMilli();
+        List<Entry> due = null;
+        synchronized (this) {
+            if (now < lastCheck && lastCheck - now > clockSkewTolerance) {
+                rescheduleAll(NOW);
+                lastCheck = now;
+                lastNow   = NOW;
+            } else if (now > lastCheck) {
+                lastCheck = now;
+                lastNow   = NOW;
+            }
+            while (!queue.isEmpty() && queue.peek().fireTimeMillis <= now) {
+                final Entry entry = queue.poll();
+                if (entry.cancelled) {
+                    cancelledInQueue--;
+                    continue;
+                }
+                if (null != entry.tile && !entry.tile.isAlarmsEnabled()) {
+                    // Alarms of disabled tiles stay due until the tile enables alarms again (see resume())
+                    entry.parked = true;
+                    parked.computeIfAbsent(entry.tile, tile -> new ArrayList<>()).add(entry);
+                    continue;
+                }
+                if (null == due) { due = new ArrayList<>(); }
+                due.add(entry);
+                if (Alarm.Repetition.ONCE == entry.alarm.getRepetition()) {
+                    entries.remove(entry.alarm);
+                    entry.alarm.clearScheduler(AlarmScheduler.this);
+                } else {
+                    entry.setFireTime(nextFireTime(entry.alarm, NOW.plusNanos(1)));
+                    entry.sequence = sequence++;
+                    queue.add(entry);
+                }
+            }
+        }
+        if (null == due) { return; }
+
+        // Fire outside of the lock, listeners and commands might (re)schedule alarms
+        for (Entry entry : due) {
+            final Alarm alarm = entry.alarm;
+            if (alarm.isArmed()) {
+                if (null != entry.tile) { entry.tile.fireAlarmEvent(entry.event); }
+                alarm.executeCommand();
+            }
+            if (Alarm.Repetition.ONCE == alarm.getRepetition() && null != entry.tile) { entry.tile.removeAlarm(alarm); }
+        }
+    }
+
+    /**
+     * Returns the number of entries in the heap including cancelled
+     * entries that were not removed so far.
+     * @return the number of entries in the heap
+     */
+    synchronized int getQueueSize() { return queue.size(); }
+
+    // Cancelled entries are skipped when they get due, the heap is only compacted
+    // if they make up more than half of it, so cancel() stays amortized O(1)
+    private void compact() {
+        if (cancelledInQueue <= queue.size() / 2) { return; }
+        queue.removeIf(entry -> entry.cancelled);
+        cancelledInQueue = 0;
+    }
+
+    private void rescheduleAll(final ZonedDateTime NOW) {
+        queue.clear();
+        parked.clear();
+        cancelledInQueue = 0;
+        for (Entry entry : entries.values()) {
+            entry.parked = false;
+            entry.setFireTime(firstFireTime(entry.alarm, NOW));
+            entry.sequence = sequence++;
+            queue.add(entry);
+        }
+    }
+
+    private static ZonedDateTime firstFireTime(final Alarm ALARM, final ZonedDateTime NOW) {
+        return Alarm.Repetition.ONCE == ALARM.getRepetition() ? ALARM.getTime() : nextFireTime(ALARM, NOW);
+    }
+
+    /**
+     * Returns the first occurrence of the given repeating alarm at or after the given time.
+     * @param ALARM
+     * @param FROM
+     * @return the first occurrence of the given alarm at or after the given time
+     */
+    static ZonedDateTime nextFireTime(final Alarm ALARM, final ZonedDateTime FROM) {
+        final ZonedDateTime alarmTime = ALARM.getTime();
+        final ZoneId        zone      = alarmTime.getZone();
+        final ZonedDateTime from      = FROM.withZoneSameInstant(zone);
+        final LocalTime     localTime = alarmTime.toLocalTime().withNano(0);
+        ZonedDateTime candidate;
+        switch (ALARM.getRepetition()) {
+            case HALF_HOURLY:
+                candidate = from.truncatedTo(ChronoUnit.HOURS).withMinute(localTime.getMinute() % 30).withSecond(localTime.getSecond());
+                while (candidate.isBefore(from)) { candidate = candidate.plusMinutes(30); }
+                return candidate;
+            case HOURLY:
+                candidate = from.truncatedTo(ChronoUnit.HOURS).withMinute(localTime.getMinute()).withSecond(localTime.getSecond());
+                while (candidate.isBefore(from)) { candidate = candidate.plusHours(1); }
+                return candidate;
+            case DAILY:
+                LocalDate day = from.toLocalDate();
+                candidate = ZonedDateTime.of(day, localTime, zone);
+                if (candidate.isBefore(from)) { candidate = ZonedDateTime.of(day.plusDays(1), localTime, zone); }
+                return candidate;
+            case WEEKLY:
+                LocalDate weekDay = from.toLocalDate().with(TemporalAdjusters.nextOrSame(alarmTime.getDayOfWeek()));
+                candidate = ZonedDateTime.of(weekDay, localTime, zone);
+                if (candidate.isBefore(from)) { candidate = ZonedDateTime.of(weekDay.plusWeeks(1), localTime, zone); }
+                return candidate;
+            case ONCE:
+            default:
+                return alarmTime;
+        }
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static class Entry implements Comparable<Entry> {
+        private final Alarm         alarm;
+        private final Tile          tile;
+        private final AlarmEvent    event;
+        private       ZonedDateTime fireTime;
+        private       long          fireTimeMillis;
+        private       long          sequence;
+        private       boolean       cancelled;
+        private       boolean       parked;
+
+
+        // ******************** Constructors **************************************
+        Entry(final Alarm ALARM, final Tile TILE, final ZonedDateTime FIRE_TIME, final long SEQUENCE) {
+            alarm    = ALARM;
+            tile     = TILE;
+            event    = new AlarmEvent(ALARM);
+            sequence = SEQUENCE;
+            setFireTime(FIRE_TIME);
+        }
+
+
+        // ******************** Methods *******************************************
+        void setFireTime(final ZonedDateTime FIRE_TIME) {
+            fireTime       = FIRE_TIME;
+            fireTimeMillis = FIRE_TIME.toInstant().toEpochMilli();
+        }
+
+        @Override public int compareTo(final Entry ENTRY) {
+            int result = Long.compare(fireTimeMillis, ENTRY.fireTimeMillis);
+            return 0 == result ? Long.compare(sequence, ENTRY.sequence) : result;
+        }
+    }
+}
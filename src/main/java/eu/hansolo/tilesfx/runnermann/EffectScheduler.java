@@ -0,0 +1,360 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Drives all registered effects (particles, waves, rotations etc.)
+ * from one AnimationTimer instead of one timer per effect.
+ * Each effect runs with its own target frame rate and is paused
+ * automatically as long as its node is not visible (the node or one
+ * of its parents is invisible, the node is outside of the viewport or
+ * not part of a showing window, see TileVisibility).
+ * If the effects of one pulse need more time than the frame budget,
+ * the remaining effects are deferred to the next pulse and all
+ * effects are slowed down by a degradation factor which goes back
+ * to 1 once the effects fit into the budget again.
+ * Only the running effects are visited in a pulse, effects that are
+ * stopped or unregistered are removed from the running list lazily at
+ * the beginning of the next pulse, so start(), stop() and unregister()
+ * are O(1) even for boards with thousands of idle effects.
+ * The scheduler must only be used on the JavaFX application thread.
+ */
+public class EffectScheduler {
+    public  static final long               DEFAULT_FRAME_BUDGET = 8_000_000L;  // 8 ms of a 16.6 ms pulse
+    private static final double             MAX_DEGRADATION      = 4.0;
+    private static final long               VISIBILITY_INTERVAL  = 250_000_000L;
+    private        final List<Registration> active;
+    private        final AnimationTimer     timer;
+    private              boolean            timerRunning;
+    private              boolean            pulsing;
+    private              int                noOfEffects;
+    private              int                noOfRunning;
+    private              long               frameBudget;
+    private              double             degradation;
+    private              int                startIndex;
+    private              long               lastPulseTime;
+
+
+    // ******************** Constructors **************************************
+    public EffectScheduler() {
+        active       = new ArrayList<>();
+        timer        = new AnimationTimer() {
+            @Override public void handle(final long NOW) { pulse(NOW); }
+        };
+        timerRunning = false;
+        frameBudget  = DEFAULT_FRAME_BUDGET;
+        degradation  = 1.0;
+        startIndex   = 0;
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Returns the scheduler that is shared by all effects of TilesFX.
+     * @return the shared scheduler
+     */
+    public static EffectScheduler getDefault() { return Holder.INSTANCE; }
+
+    /**
+     * Registers the given effect. The effect won't be called before
+     * start() was called on the returned registration.
+     * @param NODE the node that shows the effect, used to pause the effect while it is not visible
+     * @param FRAME_RATE the target frame rate in frames per second
+     * @param EFFECT
+     * @return the registration that controls the effect
+     */
+    public Registration register(final Node NODE, final double FRAME_RATE, final Effect EFFECT) {
+        final Registration registration = new Registration(NODE, EFFECT);
+        registration.setFrameRate(FRAME_RATE);
+        noOfEffects++;
+        return registration;
+    }
+
+    /**
+     * Max. time in nanoseconds all effects together may use per pulse.
+     * @return the max. time in nanoseconds all effects may use per pulse
+     */
+    public long getFrameBudget() { return frameBudget; }
+    public void setFrameBudget(final long FRAME_BUDGET) { frameBudget = Math.max(1, FRAME_BUDGET); }
+
+    /**
+     * Returns the factor (1 - 4) the intervals of all effects are currently
+     * stretched by because the effects did not fit into the frame budget.
+     * @return the factor the intervals of all effects are stretched by
+     */
+    public double getDegradation() { return degradation; }
+
+    public int getNoOfEffects() { return noOfEffects; }
+
+    public int getNoOfRunningEffects() { return noOfRunning; }
+
+    /**
+     * Returns the time in nanoseconds all effects needed in the last pulse.
+     * @return the time in nanoseconds all effects needed in the last pulse
+     */
+    public long getLastPulseTime() { return lastPulseTime; }
+
+    // A board of flip tiles starts and stops thousands of effects at once, so the running effects are counted instead of searched
+    private void updateTimer() {
+        final boolean anyRunning = noOfRunning > 0;
+        if (anyRunning && !timerRunning) {
+            timer.start();
+            timerRunning = true;
+        } else if (!anyRunning && timerRunning) {
+            timer.stop();
+            timerRunning = false;
+            // No pulse will come to remove the stopped effects, so release them now (or at the end of the current pulse)
+            if (!pulsing) { removeStopped(); }
+        }
+    }
+
+    // Removes the effects that were stopped or unregistered since the last pulse
+    private void removeStopped() {
+        int count = 0;
+        for (int i = 0, n = active.size() ; i < n ; i++) {
+            final Registration registration = active.get(i);
+            if (registration.running) {
+                active.set(count++, registration);
+            } else {
+                registration.active = false;
+            }
+        }
+        active.subList(count, active.size()).clear();
+    }
+
+    void pulse(final long NOW) {
+        final long pulseStart = System.nanoTime();
+        if (active.size() > noOfRunning) { removeStopped(); }
+        // Effects that are started by an effect in this pulse will be called in the next pulse
+        final int noOfActive = active.size();
+        boolean   overBudget = false;
+        int       deferred   = -1;
+        pulsing = true;
+        try {
+            // Start with a different effect in each pulse so that deferring effects is fair
+            for (int i = 0 ; i < noOfActive ; i++) {
+                final int          index        = (startIndex + i) % noOfActive;
+                final Registration registration = active.get(index);
+                if (!registration.running || !registration.isDue(NOW, degradation)) { continue; }
+                if (!registration.isShowing(NOW)) {
+                    registration.lastCall = NOW;
+                    continue;
+                }
+                if (System.nanoTime() - pulseStart > frameBudget) {
+                    registration.deferredFrames++;
+                    if (deferred < 0) { deferred = index; }
+                    overBudget = true;
+                    continue;
+                }
+                registration.call(NOW);
+            }
+        } finally {
+            pulsing = false;
+        }
+        startIndex    = deferred < 0 ? 0 : deferred;
+        lastPulseTime = System.nanoTime() - pulseStart;
+        if (!timerRunning) { removeStopped(); }
+
+        if (overBudget || lastPulseTime > frameBudget) {
+            degradation = Math.min(MAX_DEGRADATION, degradation * 1.25);
+        } else if (degradation > 1.0 && lastPulseTime < frameBudget / 2) {
+            degradation = Math.max(1.0, degradation * 0.95);
+        }
+    }
+
+
+    // ******************** Inner Classes *************************************
+    @FunctionalInterface public interface Effect {
+        /**
+         * Called on the JavaFX application thread with the timestamp of the
+         * current pulse in nanoseconds.
+         * @param NOW
+         */
+        void update(long NOW);
+    }
+
+    /**
+     * Controls one registered effect and provides its frame time metrics.
+     */
+    public class Registration {
+        private final Node    node;
+        private final Effect  effect;
+        private       long    interval;
+        private       long    lastCall;
+        private       boolean running;
+        private       boolean active;
+        private       boolean registered;
+        private       boolean showing;
+        private       long    lastVisibilityCheck;
+        private       long    frameCount;
+        private       long    deferredFrames;
+        private       long    lastFrameTime;
+        private       long    maxFrameTime;
+        private       double  averageFrameTime;
+        private       Tile    tile;
+        private       boolean tileResolved;
+
+
+        // ******************** Constructors **************************************
+        private Registration(final Node NODE, final Effect EFFECT) {
+            node                = NODE;
+            effect              = EFFECT;
+            running             = false;
+            active              = false;
+            registered          = true;
+            showing             = true;
+            // Check the visibility in the first pulse
+            lastVisibilityCheck = System.nanoTime() - VISIBILITY_INTERVAL;
+        }
+
+
+        // ******************** Methods *******************************************
+        public void start() {
+            if (running || !registered) { return; }
+            running  = true;
+            lastCall = System.nanoTime();
+            // A registration that was stopped since the last pulse is still in the list
+            if (!active) {
+                active = true;
+                EffectScheduler.this.active.add(this);
+            }
+            noOfRunning++;
+            updateTimer();
+        }
+
+        public void stop() {
+            if (!running) { return; }
+            running = false;
+            noOfRunning--;
+            updateTimer();
+        }
+
+        public boolean isRunning() { return running; }
+
+        /**
+         * Stops the effect and removes it from the scheduler.
+         */
+        public void unregister() {
+            if (!registered) { return; }
+            if (running) { noOfRunning--; }
+            running    = false;
+            registered = false;
+            noOfEffects--;
+            updateTimer();
+        }
+
+        public double getFrameRate() { return 1_000_000_000.0 / interval; }
+        public void setFrameRate(final double FRAME_RATE) { interval = FRAME_RATE <= 0 ? 0 : (long) (1_000_000_000.0 / FRAME_RATE); }
+
+        /**
+         * Interval between two calls of the effect in nanoseconds.
+         * @return interval between two calls of the effect in nanoseconds
+         */
+        public long getInterval() { return interval; }
+        public void setInterval(final long INTERVAL) { interval = Math.max(0, INTERVAL); }
+
+        /**
+         * Returns false if the effect was paused in the last pulse because
+         * its node was not visible.
+         * @return false if the node of the effect was not visible
+         */
+        public boolean isShowing() { return showing; }
+
+        public long getFrameCount() { return frameCount; }
+
+        /**
+         * Number of frames that were due but deferred to the next pulse
+         * because the frame budget was exceeded.
+         * @return number of deferred frames
+         */
+        public long getDeferredFrames() { return deferredFrames; }
+
+        /**
+         * Time in nanoseconds the last call of the effect took.
+         * @return time in nanoseconds of the last call
+         */
+        public long getLastFrameTime() { return lastFrameTime; }
+
+        public long getMaxFrameTime() { return maxFrameTime; }
+
+        /**
+         * Exponential moving average of the time in nanoseconds a call
+         * of the effect took.
+         * @return average time in nanoseconds of a call
+         */
+        public double getAverageFrameTime() { return averageFrameTime; }
+
+        public void resetMetrics() {
+            frameCount       = 0;
+            deferredFrames   = 0;
+            lastFrameTime    = 0;
+            maxFrameTime     = 0;
+            averageFrameTime = 0;
+        }
+
+        // The tile that contains the node, only needed for the PulseProfiler
+        private Tile getTile() {
+            if (!tileResolved) {
+                Node parent = node;
+                while (null != parent && !(parent instanceof Tile)) { parent = parent.getParent(); }
+                tile         = (Tile) parent;
+                tileResolved = null != node && null != node.getScene();
+            }
+            return tile;
+        }
+
+        private boolean isDue(final long NOW, final double DEGRADATION) { return NOW - lastCall >= (long) (interval * DEGRADATION); }
+
+        private boolean isShowing(final long NOW) {
+            // Walking up the scene graph in every pulse is not needed to pause hidden effects in time
+            if (NOW - lastVisibilityCheck >= VISIBILITY_INTERVAL) {
+                showing             = isTreeShowing(node);
+                lastVisibilityCheck = NOW;
+            }
+            return showing;
+        }
+
+        private void call(final long NOW) {
+            final boolean profiled = PulseProfiler.isEnabled();
+            final long    start    = profiled ? PulseProfiler.begin() : System.nanoTime();
+            effect.update(NOW);
+            lastFrameTime    = System.nanoTime() - start;
+            if (profiled) { PulseProfiler.end(getTile(), "effect", start); }
+            maxFrameTime     = Math.max(maxFrameTime, lastFrameTime);
+            averageFrameTime = 0 == frameCount ? lastFrameTime : averageFrameTime * 0.9 + lastFrameTime * 0.1;
+            lastCall         = NOW;
+            frameCount++;
+        }
+    }
+
+    private static boolean isTreeShowing(final Node NODE) {
+        if (null == NODE) { return true; }
+        return TileVisibility.isShowing(NODE) && TileVisibility.isTreeVisible(NODE) && TileVisibility.isInViewport(NODE);
+    }
+
+    private static class Holder {
+        private static final EffectScheduler INSTANCE = new EffectScheduler();
+    }
+}
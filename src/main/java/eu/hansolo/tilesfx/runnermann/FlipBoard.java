@@ -0,0 +1,156 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann;
+
+import eu.hansolo.tilesfx.runnermann.EffectScheduler.Registration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Controls a board of flip tiles (e.g. a departure board) and starts the
+ * flips of all tiles with a stagger, so that a new text runs over the
+ * board like on a real split-flap display.
+ * The flips are started from one effect of the EffectScheduler, the
+ * flaps of the tiles are animated by the EffectScheduler as well, so a
+ * board of thousands of tiles is driven by one AnimationTimer.
+ * The tiles are addressed by their index in the list of tiles (e.g. row
+ * by row), tile i starts to flip i * stagger milliseconds after the
+ * text was set.
+ * The board must only be used on the JavaFX application thread.
+ */
+public class FlipBoard {
+    public  static final long         DEFAULT_STAGGER_IN_MS = 10;
+    private static final String       BLANK                 = " ";
+    private        final List<Tile>   tiles;
+    private        final String[]     pendingTexts;
+    private        final Registration timer;
+    private              long         staggerInMS;
+    private              long         start;
+    private              int          nextIndex;
+
+
+    // ******************** Constructors **************************************
+    public FlipBoard(final List<Tile> TILES) {
+        this(TILES, EffectScheduler.getDefault());
+    }
+    FlipBoard(final List<Tile> TILES, final EffectScheduler SCHEDULER) {
+        tiles        = Collections.unmodifiableList(new ArrayList<>(TILES));
+        pendingTexts = new String[tiles.size()];
+        timer        = SCHEDULER.register(null, 0, now -> startFlips(now));
+        staggerInMS  = DEFAULT_STAGGER_IN_MS;
+        nextIndex    = tiles.size();
+    }
+
+
+    // ******************** Methods *******************************************
+    public List<Tile> getTiles() { return tiles; }
+
+    public int getNoOfTiles() { return tiles.size(); }
+
+    /**
+     * Returns the time in milliseconds between the start of the flips of two
+     * consecutive tiles (default is DEFAULT_STAGGER_IN_MS).
+     * @return the time in milliseconds between the flips of two consecutive tiles
+     */
+    public long getStaggerInMS() { return staggerInMS; }
+    public void setStaggerInMS(final long STAGGER) { staggerInMS = Math.max(0, STAGGER); }
+
+    /**
+     * Shows the given text on the board, one character per tile. Tiles behind
+     * the end of the text will show a blank.
+     * @param TEXT
+     */
+    public void setText(final String TEXT) {
+        final List<String> texts = new ArrayList<>(tiles.size());
+        final String       text  = null == TEXT ? "" : TEXT;
+        text.codePoints().limit(tiles.size()).forEach(codePoint -> texts.add(new String(Character.toChars(codePoint))));
+        setTexts(texts);
+    }
+
+    /**
+     * Shows the given texts on the board, text i will be shown on tile i.
+     * Tiles without a text will show a blank. Flips of a previous text that
+     * did not start yet are replaced.
+     * @param TEXTS
+     */
+    public void setTexts(final List<String> TEXTS) {
+        final int noOfTexts = null == TEXTS ? 0 : TEXTS.size();
+        for (int i = 0 ; i < pendingTexts.length ; i++) {
+            final String text = i < noOfTexts ? TEXTS.get(i) : null;
+            pendingTexts[i] = null == text ? BLANK : text;
+        }
+        start     = System.nanoTime();
+        nextIndex = 0;
+        timer.start();
+        // Flips without a stagger start right away
+        startFlips(start);
+    }
+
+    /**
+     * Sets the text of a single tile without a stagger.
+     * @param INDEX
+     * @param TEXT
+     */
+    public void setText(final int INDEX, final String TEXT) {
+        pendingTexts[INDEX] = null;
+        tiles.get(INDEX).setFlipText(null == TEXT ? BLANK : TEXT);
+    }
+
+    /**
+     * Returns the number of tiles that did not start to flip to the last text yet.
+     * @return the number of tiles that did not start to flip yet
+     */
+    public int getNoOfPendingFlips() {
+        int pending = 0;
+        for (int i = nextIndex ; i < pendingTexts.length ; i++) {
+            if (null != pendingTexts[i]) { pending++; }
+        }
+        return pending;
+    }
+
+    /**
+     * Stops starting the pending flips, flips that already started will be finished.
+     */
+    public void stop() {
+        timer.stop();
+        nextIndex = pendingTexts.length;
+    }
+
+    /**
+     * Removes the board from the EffectScheduler, the board can't be used
+     * any longer afterwards.
+     */
+    public void dispose() {
+        stop();
+        timer.unregister();
+    }
+
+    private void startFlips(final long NOW) {
+        final long stagger = staggerInMS * 1_000_000L;
+        while (nextIndex < pendingTexts.length && (0 == stagger || NOW - start >= nextIndex * stagger)) {
+            final String text = pendingTexts[nextIndex];
+            pendingTexts[nextIndex] = null;
+            if (null != text) { tiles.get(nextIndex).setFlipText(text); }
+            nextIndex++;
+        }
+        if (nextIndex >= pendingTexts.length) { timer.stop(); }
+    }
+}
@@ -0,0 +1,442 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Opt-in profiler that splits the time of each JavaFX pulse across
+ * the tiles that did some work in it. The Platform.runLater() tasks
+ * of the library (e.g. Tile.tick(), SparkLineTileSkin.smooth(),
+ * MapTileSkin), the effects of the EffectScheduler and the event,
+ * value, resize and redraw handling of TileSkin are measured and
+ * tagged with the tile and the kind of work.
+ * The samples of the last HISTORY_SIZE frames are kept for a rolling
+ * breakdown by skin type and tile. Frames in which the measured work
+ * took longer than the budget are stored with their top offenders
+ * in a ring buffer that can be exported as json (see toJson()) or
+ * shown in a tile with the skin type PULSE_PROFILER.
+ * As long as the profiler is disabled, tasks are passed through
+ * without measurement. Samples must only be recorded on the JavaFX
+ * application thread.
+ */
+public final class PulseProfiler {
+    public  static final    long             DEFAULT_BUDGET   = 16_000_000L;  // 16 ms
+    public  static final    int              DEFAULT_CAPACITY = 64;
+    public  static final    int              HISTORY_SIZE     = 120;
+    private static final    int              TOP_N            = 5;
+    private static final    Object           LOCK             = new Object();
+    private static final    Frame[]          FRAMES           = new Frame[HISTORY_SIZE];
+    private static final    List<Tile>       FRAME_TILES      = new ArrayList<>();
+    private static final    List<String>     FRAME_TAGS       = new ArrayList<>();
+    private static final    Map<Tile, Slots> FRAME_SLOTS      = new IdentityHashMap<>();
+    private static          long[]           frameNanos       = new long[16];
+    private static          int[]            frameCounts      = new int[16];
+    private static volatile boolean          enabled;
+    private static          long             budget           = DEFAULT_BUDGET;
+    private static          Frame[]          slowFrames       = new Frame[DEFAULT_CAPACITY];
+    private static          int              noOfSlowFrames;
+    private static          int              slowFrameIndex;
+    private static          int              historyIndex;
+    private static          long             frameNo;
+    private static          long             lastPulse;
+    private static          int              depth;
+    private static          AnimationTimer   pulseTimer;
+
+
+    // ******************** Constructors **************************************
+    private PulseProfiler() {}
+
+
+    // ******************** Methods *******************************************
+    public static boolean isEnabled() { return enabled; }
+    public static void setEnabled(final boolean ENABLED) {
+        if (ENABLED == enabled) { return; }
+        enabled = ENABLED;
+        if (!ENABLED && null != pulseTimer) {
+            final AnimationTimer timer = pulseTimer;
+            pulseTimer = null;
+            Platform.runLater(timer::stop);
+        }
+    }
+
+    /**
+     * Returns the time in nanoseconds the measured work of one frame
+     * may take before the frame is recorded as slow frame.
+     * @return the budget per frame in nanoseconds
+     */
+    public static long getBudget() { return budget; }
+    public static void setBudget(final long NANOS) { budget = Math.max(0, NANOS); }
+
+    /**
+     * Returns the number of slow frames that will be kept in the ring buffer.
+     * @return the number of slow frames that will be kept
+     */
+    public static int getCapacity() { synchronized (LOCK) { return slowFrames.length; } }
+    public static void setCapacity(final int CAPACITY) {
+        synchronized (LOCK) {
+            final List<Frame> frames = getSlowFrames();
+            slowFrames     = new Frame[Math.max(1, CAPACITY)];
+            noOfSlowFrames = 0;
+            slowFrameIndex = 0;
+            for (Frame frame : frames.subList(Math.max(0, frames.size() - slowFrames.length), frames.size())) { addSlowFrame(frame); }
+        }
+    }
+
+    /**
+     * Runs the given task via Platform.runLater() and measures it
+     * if the profiler is enabled.
+     * @param TILE the tile the work belongs to (might be null)
+     * @param TAG describes the kind of work, e.g. "tick"
+     * @param TASK
+     */
+    public static void runLater(final Tile TILE, final String TAG, final Runnable TASK) {
+        if (!enabled) {
+            Platform.runLater(TASK);
+        } else {
+            Platform.runLater(() -> measure(TILE, TAG, TASK));
+        }
+    }
+
+    /**
+     * Runs the given task on the calling (JavaFX application) thread and
+     * measures it if the profiler is enabled.
+     * @param TILE the tile the work belongs to (might be null)
+     * @param TAG describes the kind of work
+     * @param TASK
+     */
+    public static void measure(final Tile TILE, final String TAG, final Runnable TASK) {
+        if (!enabled) {
+            TASK.run();
+            return;
+        }
+        final long start = begin();
+        try { TASK.run(); } finally { end(TILE, TAG, start); }
+    }
+
+    /**
+     * Starts a measurement, the returned start time has to be passed to
+     * end(). Measurements can be nested, only the outermost measurement
+     * is recorded so that no work is counted twice.
+     * @return the start time in nanoseconds
+     */
+    public static long begin() {
+        depth++;
+        return System.nanoTime();
+    }
+
+    /**
+     * Ends a measurement that was started with begin().
+     * @param TILE the tile the work belongs to (might be null)
+     * @param TAG describes the kind of work
+     * @param START the start time returned by begin()
+     */
+    public static void end(final Tile TILE, final String TAG, final long START) {
+        depth = Math.max(0, depth - 1);
+        if (!enabled || depth > 0) { return; }
+        final long nanos = System.nanoTime() - START;
+        ensurePulseTimer();
+        Slots slots = FRAME_SLOTS.get(TILE);
+        if (null == slots) {
+            slots = new Slots();
+            FRAME_SLOTS.put(TILE, slots);
+        }
+        final int slot = slots.indexOf(TAG);
+        if (slot >= 0) {
+            frameNanos[slot] += nanos;
+            frameCounts[slot]++;
+            return;
+        }
+        final int size = FRAME_TILES.size();
+        if (size == frameNanos.length) {
+            frameNanos  = Arrays.copyOf(frameNanos, size * 2);
+            frameCounts = Arrays.copyOf(frameCounts, size * 2);
+        }
+        FRAME_TILES.add(TILE);
+        FRAME_TAGS.add(TAG);
+        slots.add(TAG, size);
+        frameNanos[size]  = nanos;
+        frameCounts[size] = 1;
+    }
+
+    /**
+     * Returns the slow frames in the ring buffer, oldest first.
+     * @return the slow frames in the ring buffer
+     */
+    public static List<Frame> getSlowFrames() {
+        synchronized (LOCK) {
+            final List<Frame> frames = new ArrayList<>(noOfSlowFrames);
+            for (int i = 0 ; i < noOfSlowFrames ; i++) {
+                frames.add(slowFrames[(slowFrameIndex - noOfSlowFrames + i + slowFrames.length) % slowFrames.length]);
+            }
+            return frames;
+        }
+    }
+
+    /**
+     * Returns the frames of the rolling window, oldest first.
+     * @return the last HISTORY_SIZE frames
+     */
+    public static List<Frame> getFrames() {
+        synchronized (LOCK) {
+            final List<Frame> frames = new ArrayList<>(HISTORY_SIZE);
+            for (int i = 0 ; i < HISTORY_SIZE ; i++) {
+                final Frame frame = FRAMES[(historyIndex + i) % HISTORY_SIZE];
+                if (null != frame) { frames.add(frame); }
+            }
+            return frames;
+        }
+    }
+
+    /**
+     * Returns the average time per frame in nanoseconds each skin type
+     * needed over the rolling window, sorted by time (descending).
+     * @return the average time per frame of each skin type
+     */
+    public static Map<String, Long> getBreakdownBySkinType() { return breakdown(true); }
+
+    /**
+     * Returns the average time per frame in nanoseconds each tile needed
+     * over the rolling window, sorted by time (descending).
+     * @return the average time per frame of each tile
+     */
+    public static Map<String, Long> getBreakdownByTile() { return breakdown(false); }
+
+    public static void clear() {
+        synchronized (LOCK) {
+            Arrays.fill(FRAMES, null);
+            Arrays.fill(slowFrames, null);
+            noOfSlowFrames = 0;
+            slowFrameIndex = 0;
+            historyIndex   = 0;
+        }
+    }
+
+    /**
+     * Returns the slow frames in the ring buffer as json array.
+     * @return the slow frames in the ring buffer as json
+     */
+    public static String toJson() {
+        final StringBuilder json = new StringBuilder("[");
+        for (Frame frame : getSlowFrames()) {
+            if (json.length() > 1) { json.append(","); }
+            json.append(frame.toJson());
+        }
+        return json.append("]").toString();
+    }
+
+    private static Map<String, Long> breakdown(final boolean BY_SKIN_TYPE) {
+        final List<Frame>       frames = getFrames();
+        final Map<String, Long> totals = new LinkedHashMap<>();
+        for (Frame frame : frames) {
+            for (Sample sample : frame.getSamples()) { totals.merge(BY_SKIN_TYPE ? sample.getSkinType() : sample.getTileId(), sample.getNanos(), Long::sum); }
+        }
+        final List<Map.Entry<String, Long>> entries = new ArrayList<>(totals.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        final Map<String, Long> averages = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : entries) { averages.put(entry.getKey(), entry.getValue() / Math.max(1, frames.size())); }
+        return averages;
+    }
+
+    private static void ensurePulseTimer() {
+        if (null != pulseTimer) { return; }
+        pulseTimer = new AnimationTimer() {
+            @Override public void handle(final long NOW) { closeFrame(NOW); }
+        };
+        pulseTimer.start();
+    }
+
+    static void closeFrame(final long NOW) {
+        final int          size    = FRAME_TILES.size();
+        final List<Sample> samples = new ArrayList<>(size);
+        long total = 0;
+        for (int i = 0 ; i < size ; i++) {
+            samples.add(new Sample(FRAME_TILES.get(i), FRAME_TAGS.get(i), frameNanos[i], frameCounts[i]));
+            total += frameNanos[i];
+        }
+        FRAME_TILES.clear();
+        FRAME_TAGS.clear();
+        FRAME_SLOTS.clear();
+        samples.sort((s1, s2) -> Long.compare(s2.nanos, s1.nanos));
+        final Frame frame = new Frame(frameNo++, System.currentTimeMillis(), 0 == lastPulse ? 0 : NOW - lastPulse, total, samples);
+        lastPulse = NOW;
+        synchronized (LOCK) {
+            FRAMES[historyIndex] = frame;
+            historyIndex = (historyIndex + 1) % HISTORY_SIZE;
+            if (total > budget) { addSlowFrame(frame); }
+        }
+    }
+
+    private static void addSlowFrame(final Frame FRAME) {
+        slowFrames[slowFrameIndex] = FRAME;
+        slowFrameIndex = (slowFrameIndex + 1) % slowFrames.length;
+        noOfSlowFrames = Math.min(noOfSlowFrames + 1, slowFrames.length);
+    }
+
+    private static String quote(final String TEXT) {
+        return new StringBuilder("\"").append(TEXT.replace("\\", "\\\\").replace("\"", "\\\"")).append("\"").toString();
+    }
+
+
+    // ******************** Inner Classes *************************************
+    // The slots of the samples of one tile in the current frame by tag, a tile only has a few tags
+    private static class Slots {
+        private String[] tags    = new String[4];
+        private int[]    indices = new int[4];
+        private int      size;
+
+
+        // ******************** Methods *******************************************
+        int indexOf(final String TAG) {
+            for (int i = 0 ; i < size ; i++) {
+                // The tags are mostly constants, so the identity check usually hits
+                if (tags[i] == TAG || tags[i].equals(TAG)) { return indices[i]; }
+            }
+            return -1;
+        }
+
+        void add(final String TAG, final int INDEX) {
+            if (size == tags.length) {
+                tags    = Arrays.copyOf(tags, size * 2);
+                indices = Arrays.copyOf(indices, size * 2);
+            }
+            tags[size]    = TAG;
+            indices[size] = INDEX;
+            size++;
+        }
+    }
+
+
+    /**
+     * The measured work of one pulse.
+     */
+    public static class Frame {
+        private final long         frameNo;
+        private final long         timestamp;
+        private final long         interval;
+        private final long         total;
+        private final List<Sample> samples;
+
+
+        // ******************** Constructors **************************************
+        Frame(final long FRAME_NO, final long TIMESTAMP, final long INTERVAL, final long TOTAL, final List<Sample> SAMPLES) {
+            frameNo   = FRAME_NO;
+            timestamp = TIMESTAMP;
+            interval  = INTERVAL;
+            total     = TOTAL;
+            samples   = Collections.unmodifiableList(SAMPLES);
+        }
+
+
+        // ******************** Methods *******************************************
+        public long getFrameNo() { return frameNo; }
+
+        /**
+         * Returns the time in milliseconds since the epoch when the frame was closed.
+         * @return the time in milliseconds since the epoch when the frame was closed
+         */
+        public long getTimestamp() { return timestamp; }
+
+        /**
+         * Returns the time in nanoseconds between this and the previous pulse.
+         * @return the time in nanoseconds between this and the previous pulse
+         */
+        public long getInterval() { return interval; }
+
+        /**
+         * Returns the time in nanoseconds of all measured work in this frame.
+         * @return the time of all measured work in this frame
+         */
+        public long getTotal() { return total; }
+
+        /**
+         * Returns all samples of this frame sorted by time (descending).
+         * @return all samples of this frame
+         */
+        public List<Sample> getSamples() { return samples; }
+
+        public List<Sample> getTopOffenders() { return samples.subList(0, Math.min(TOP_N, samples.size())); }
+
+        public String toJson() {
+            final StringBuilder json = new StringBuilder().append("{\"frame\":").append(frameNo)
+                                                          .append(",\"timestamp\":").append(timestamp)
+                                                          .append(",\"interval\":").append(interval)
+                                                          .append(",\"total\":").append(total)
+                                                          .append(",\"offenders\":[");
+            final List<Sample> offenders = getTopOffenders();
+            for (int i = 0 ; i < offenders.size() ; i++) {
+                if (i > 0) { json.append(","); }
+                json.append(offenders.get(i).toJson());
+            }
+            return json.append("]}").toString();
+        }
+    }
+
+
+    /**
+     * The measured work of one tile and tag in one frame.
+     */
+    public static class Sample {
+        private final String skinType;
+        private final String tileId;
+        private final String tag;
+        private final long   nanos;
+        private final int    count;
+
+
+        // ******************** Constructors **************************************
+        Sample(final Tile TILE, final String TAG, final long NANOS, final int COUNT) {
+            skinType = null == TILE ? "" : TILE.getSkinType().name();
+            tileId   = null == TILE ? "" : (null == TILE.getId() ? "Tile@" + Integer.toHexString(System.identityHashCode(TILE)) : TILE.getId());
+            tag      = TAG;
+            nanos    = NANOS;
+            count    = COUNT;
+        }
+
+
+        // ******************** Methods *******************************************
+        public String getSkinType() { return skinType; }
+
+        public String getTileId() { return tileId; }
+
+        public String getTag() { return tag; }
+
+        public long getNanos() { return nanos; }
+
+        public int getCount() { return count; }
+
+        public String toJson() {
+            return new StringBuilder().append("{\"skinType\":").append(quote(skinType))
+                                      .append(",\"tile\":").append(quote(tileId))
+                                      .append(",\"tag\":").append(quote(tag))
+                                      .append(",\"nanos\":").append(nanos)
+                                      .append(",\"count\":").append(count)
+                                      .append("}").toString();
+        }
+    }
+}
@@ -34,32 +34,37 @@ import javafx.event.EventType;
 import javafx.scene.image.Image;
 import javafx.scene.paint.Color;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
 
 /**
  * Created by hansolo on 19.12.16.
  */
 public class Section implements Comparable<Section> {
-    public  final SectionEvent          ENTERED_EVENT = new SectionEvent(this, null, SectionEvent.TILES_FX_SECTION_ENTERED);
-    public  final SectionEvent          LEFT_EVENT    = new SectionEvent(this, null, SectionEvent.TILES_FX_SECTION_LEFT);
-    public  final SectionEvent          UPDATE_EVENT  = new SectionEvent(this, null, SectionEvent.TILES_FX_SECTION_UPDATE);
-    private       double                _start;
-    private       DoubleProperty        start;
-    private       double                _stop;
-    private       DoubleProperty        stop;
-    private       String                _text;
-    private       StringProperty        text;
-    private       Image                 _icon;
-    private       ObjectProperty<Image> icon;
-    private       Color                 _color;
-    private       ObjectProperty<Color> color;
-    private       Color                 _highlightColor;
-    private       ObjectProperty<Color> highlightColor;
-    private       Color                 _textColor;
-    private       ObjectProperty<Color> textColor;
-    private       boolean               _active;
-    private       BooleanProperty       active;
-    private       double                checkedValue;
-    private       String                styleClass;
+    public  final SectionEvent                  ENTERED_EVENT = new SectionEvent(this, null, SectionEvent.TILES_FX_SECTION_ENTERED);
+    public  final SectionEvent                  LEFT_EVENT    = new SectionEvent(this, null, SectionEvent.TILES_FX_SECTION_LEFT);
+    public  final SectionEvent                  UPDATE_EVENT  = new SectionEvent(this, null, SectionEvent.TILES_FX_SECTION_UPDATE);
+    private       double                        _start;
+    private       DoubleProperty                start;
+    private       double                        _stop;
+    private       DoubleProperty                stop;
+    private       String                        _text;
+    private       StringProperty                text;
+    private       Image                         _icon;
+    private       ObjectProperty<Image>         icon;
+    private       Color                         _color;
+    private       ObjectProperty<Color>         color;
+    private       Color                         _highlightColor;
+    private       ObjectProperty<Color>         highlightColor;
+    private       Color                         _textColor;
+    private       ObjectProperty<Color>         textColor;
+    private       boolean                       _active;
+    private       BooleanProperty               active;
+    private       double                        checkedValue;
+    private       String                        styleClass;
+    private       List<WeakReference<Runnable>> updateListeners;
 
 
     // ******************** Constructors **************************************
@@ -131,7 +136,9 @@ public class Section implements Comparable<Section> {
     public DoubleProperty startProperty() {
         if (null == start) {
             start = new DoublePropertyBase(_start) {
-                @Override protected void invalidated() { fireSectionEvent(UPDATE_EVENT); }
+                @Override protected void invalidated() {
+                    fireSectionEvent(UPDATE_EVENT);
+                }
                 @Override public Object getBean() { return Section.this; }
                 @Override public String getName() { return "start"; }
             };
@@ -159,7 +166,9 @@ public class Section implements Comparable<Section> {
     public DoubleProperty stopProperty() {
         if (null == stop) {
             stop = new DoublePropertyBase(_stop) {
-                @Override protected void invalidated() { fireSectionEvent(UPDATE_EVENT); }
+                @Override protected void invalidated() {
+                    fireSectionEvent(UPDATE_EVENT);
+                }
                 @Override public Object getBean() { return Section.this; }
                 @Override public String getName() { return "stop"; }
             };
@@ -433,6 +442,16 @@ public class Section implements Comparable<Section> {
         } else if (SectionEvent.TILES_FX_SECTION_LEFT == TYPE) {
             HANDLER = getOnSectionLeft();
         } else if (SectionEvent.TILES_FX_SECTION_UPDATE == TYPE) {
+            if (null != updateListeners) {
+                for (int i = updateListeners.size() - 1 ; i >= 0 ; i--) {
+                    final Runnable listener = updateListeners.get(i).get();
+                    if (null == listener) {
+                        updateListeners.remove(i);
+                    } else {
+                        listener.run();
+                    }
+                }
+            }
             HANDLER = getOnSectionUpdate();
         } else {
             HANDLER = null;
@@ -443,6 +462,25 @@ public class Section implements Comparable<Section> {
         HANDLER.handle(EVENT);
     }
 
+    /**
+     * Listeners of the tiles that contain this section and that have to
+     * rebuild their SectionIndex and redraw their skin when the section
+     * fires an UPDATE_EVENT (e.g. start, stop or color changed in place).
+     * In difference to setOnSectionUpdate() this doesn't replace the handler
+     * of the user.
+     * The listeners are only weakly referenced so that a section doesn't
+     * keep a tile alive, the tile has to hold on to its listener.
+     * @param LISTENER
+     */
+    void addUpdateListener(final Runnable LISTENER) {
+        if (null == updateListeners) { updateListeners = new ArrayList<>(2); }
+        updateListeners.add(new WeakReference<>(LISTENER));
+    }
+    void removeUpdateListener(final Runnable LISTENER) {
+        if (null == updateListeners) { return; }
+        updateListeners.removeIf(reference -> null == reference.get() || LISTENER == reference.get());
+    }
+
 
     // ******************** Inner Classes *************************************
     public static class SectionEvent extends Event {
@@ -18,6 +18,7 @@
 package eu.hansolo.tilesfx.runnermann;
 
 import eu.hansolo.tilesfx.runnermann.chart.ChartData;
+import eu.hansolo.tilesfx.runnermann.chart.ChartDataList;
 import eu.hansolo.tilesfx.runnermann.chart.RadarChartMode;
 import eu.hansolo.tilesfx.runnermann.chart.SunburstChart;
 import eu.hansolo.tilesfx.runnermann.chart.TilesFXSeries;
@@ -46,14 +47,13 @@ import eu.hansolo.tilesfx.runnermann.tools.MovingAverage;
 import eu.hansolo.tilesfx.runnermann.tools.NotifyRegion;
 import eu.hansolo.tilesfx.runnermann.tools.Rank;
 import eu.hansolo.tilesfx.runnermann.tools.SectionComparator;
+import eu.hansolo.tilesfx.runnermann.tools.SectionIndex;
 import eu.hansolo.tilesfx.runnermann.tools.TimeData;
 import eu.hansolo.tilesfx.runnermann.tools.TimeSectionComparator;
-import javafx.animation.Animation.Status;
+import eu.hansolo.tilesfx.runnermann.tools.TimeSectionIndex;
+import eu.hansolo.tilesfx.runnermann.tools.TimeSeriesStore;
+import eu.hansolo.tilesfx.runnermann.tools.ValueAnimator;
 import javafx.animation.Interpolator;
-import javafx.animation.KeyFrame;
-import javafx.animation.KeyValue;
-import javafx.animation.Timeline;
-import javafx.application.Platform;
 import javafx.beans.NamedArg;
 import javafx.beans.binding.Bindings;
 import javafx.beans.binding.BooleanBinding;
@@ -67,6 +67,8 @@ import javafx.beans.property.LongProperty;
 import javafx.beans.property.LongPropertyBase;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ObjectPropertyBase;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
 import javafx.beans.property.ReadOnlyDoubleProperty;
 import javafx.beans.property.ReadOnlyLongProperty;
 import javafx.beans.property.SimpleBooleanProperty;
@@ -74,6 +76,7 @@ import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.StringProperty;
 import javafx.beans.property.StringPropertyBase;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.css.CssMetaData;
 import javafx.css.SimpleStyleableObjectProperty;
@@ -99,7 +102,6 @@ import javafx.scene.paint.Stop;
 import javafx.scene.shape.SVGPath;
 import javafx.scene.text.Font;
 import javafx.scene.text.TextAlignment;
-import javafx.util.Duration;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -111,19 +113,21 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static eu.hansolo.tilesfx.runnermann.tools.Helper.clamp;
@@ -159,7 +163,8 @@ public class Tile extends Control {
                            LED("LedTileSkin"), COUNTDOWN_TIMER("CountdownTimerTileSkin"),
                            CYCLE_STEP("CycleStepTileSkin"), COLOR("ColorTileSkin"),
                            FLUID("FluidTileSkin"), FIRE_SMOKE("FireSmokeTileSkin"),
-                           TURNOVER("TurnoverTileSkin"), RADIAL_DISTRIBUTION("RadialDistributionTileSkin");
+                           TURNOVER("TurnoverTileSkin"), RADIAL_DISTRIBUTION("RadialDistributionTileSkin"),
+                           PULSE_PROFILER("PulseProfilerTileSkin");
 
         public final String CLASS_NAME;
         SkinType(final String CLASS_NAME) {
@@ -215,6 +220,7 @@ public class Tile extends Control {
         }
     }
     public enum ChartType { LINE, AREA }
+    public enum Downsampling { NONE, LTTB, MIN_MAX }
     public enum ImageMask {
         NONE, ROUND, RECTANGULAR
     }
@@ -224,6 +230,42 @@ public class Tile extends Control {
     public enum ItemSortingTopic {
         VALUE, TIMESTAMP, DURATION
     }
+    // Rarely used properties that are kept in a side table which is only allocated on the first write
+    private enum Extra {
+        NOTIFY_REGION_BACKGROUND_COLOR(Tile.YELLOW),
+        NOTIFY_REGION_FOREGROUND_COLOR(Tile.BACKGROUND),
+        NOTIFY_REGION_TOOLTIP_TEXT(""),
+        INFO_REGION_BACKGROUND_COLOR(Tile.DARK_BLUE),
+        INFO_REGION_FOREGROUND_COLOR(Tile.FOREGROUND),
+        INFO_REGION_TOOLTIP_TEXT(""),
+        LOWER_RIGHT_REGION_BACKGROUND_COLOR(Tile.GRAY),
+        LOWER_RIGHT_REGION_FOREGROUND_COLOR(Tile.BACKGROUND),
+        LOWER_RIGHT_REGION_TOOLTIP_TEXT(""),
+        BACKGROUND_IMAGE(null),
+        BACKGROUND_IMAGE_OPACITY(0.2),
+        BACKGROUND_IMAGE_KEEP_ASPECT(true),
+        LEFT_TEXT(""),
+        MIDDLE_TEXT(""),
+        RIGHT_TEXT(""),
+        LEFT_VALUE(0.0),
+        MIDDLE_VALUE(0.0),
+        RIGHT_VALUE(0.0),
+        LEFT_GRAPHICS(null),
+        MIDDLE_GRAPHICS(null),
+        RIGHT_GRAPHICS(null),
+        DOWNSAMPLING(Downsampling.LTTB),
+        TIME_SERIES_STORE(null),
+        INDEXED_PICKING(false),
+        MARKER_LAYER_ENABLED(false),
+        MARKER_CLUSTERING_ENABLED(false);
+
+        private static final Extra[] VALUES = values();
+        private final        Object  defaultValue;
+
+        Extra(final Object DEFAULT_VALUE) {
+            defaultValue = DEFAULT_VALUE;
+        }
+    }
 
 
     public static final  Color                          BACKGROUND                     = Color.rgb(42, 42, 42); // #2a2a2a
@@ -245,58 +287,73 @@ public class Tile extends Control {
     public static final  java.time.Duration             DEFAULT_TIME_PERIOD            = java.time.Duration.ofMinutes(1);
     public static final  TimeUnit                       DEFAULT_TIME_PERIOD_RESOLUTION = TimeUnit.SECONDS;
     private static final int                            MAX_NO_OF_DECIMALS             = 3;
-
-    private final        TileEvent                      SHOW_NOTIFY_REGION_EVENT       = new TileEvent(EventType.SHOW_NOTIFY_REGION);
-    private final        TileEvent                      HIDE_NOTIFY_REGION_EVENT       = new TileEvent(EventType.HIDE_NOTIFY_REGION);
-    private final        TileEvent                      SHOW_INFO_REGION_EVENT         = new TileEvent(EventType.SHOW_INFO_REGION);
-    private final        TileEvent                      HIDE_INFO_REGION_EVENT         = new TileEvent(EventType.HIDE_INFO_REGION);
-    private final        TileEvent                      SHOW_LOWER_RIGHT_REGION_EVENT  = new TileEvent(EventType.SHOW_LOWER_RIGHT_REGION);
-    private final        TileEvent                      HIDE_LOWER_RIGHT_REGION_EVENT  = new TileEvent(EventType.HIDE_LOWER_RIGHT_REGION);
-    private final        TileEvent                      EXCEEDED_THRESHOLD_EVENT       = new TileEvent(EventType.THRESHOLD_EXCEEDED);
-    private final        TileEvent                      UNDERRUN_THRESHOLD_EVENT       = new TileEvent(EventType.THRESHOLD_UNDERRUN);
-    private final        TileEvent                      EXCEEDED_LOWER_THRESHOLD_EVENT = new TileEvent(EventType.LOWER_THRESHOLD_EXCEEDED);
-    private final        TileEvent                      UNDERRUN_LOWER_THRESHOLD_EVENT = new TileEvent(EventType.LOWER_THRESHOLD_UNDERRUN);
-    private final        TileEvent                      MAX_VALUE_EXCEEDED             = new TileEvent(EventType.MAX_VALUE_EXCEEDED);
-    private final        TileEvent                      MIN_VALUE_UNDERRUN             = new TileEvent(EventType.MIN_VALUE_UNDERRUN);
-    private final        TileEvent                      VALUE_IN_RANGE                 = new TileEvent(EventType.VALUE_IN_RANGE);
-    private final        TileEvent                      RECALC_EVENT                   = new TileEvent(EventType.RECALC);
-    private final        TileEvent                      REDRAW_EVENT                   = new TileEvent(EventType.REDRAW);
-    private final        TileEvent                      RESIZE_EVENT                   = new TileEvent(EventType.RESIZE);
-    private final        TileEvent                      VISIBILITY_EVENT               = new TileEvent(EventType.VISIBILITY);
-    private final        TileEvent                      SECTION_EVENT                  = new TileEvent(EventType.SECTION);
-    private final        TileEvent                      SERIES_EVENT                   = new TileEvent(EventType.SERIES);
-    private final        TileEvent                      DATA_EVENT                     = new TileEvent(EventType.DATA);
-    private final        TileEvent                      ALERT_EVENT                    = new TileEvent(EventType.ALERT);
-    private final        TileEvent                      VALUE_EVENT                    = new TileEvent(EventType.VALUE);
-    private final        TileEvent                      FINISHED_EVENT                 = new TileEvent(EventType.FINISHED);
-    private final        TileEvent                      GRAPHIC_EVENT                  = new TileEvent(EventType.GRAPHIC);
-    private final        TileEvent                      AVERAGING_EVENT                = new TileEvent(EventType.AVERAGING);
-    private final        TileEvent                      TIME_PERIOD_EVENT              = new TileEvent(EventType.TIME_PERIOD);
-    private final        TileEvent                      LOCATION_EVENT                 = new TileEvent(EventType.LOCATION);
-    private final        TileEvent                      TRACK_EVENT                    = new TileEvent(EventType.TRACK);
-    private final        TileEvent                      MAP_PROVIDER_EVENT             = new TileEvent(EventType.MAP_PROVIDER);
-    private final        TileEvent                      FLIP_START_EVENT               = new TileEvent(EventType.FLIP_START);
-    private final        TileEvent                      BKG_IMAGE_EVENT                = new TileEvent(EventType.BACKGROUND_IMAGE);
-    private final        TileEvent                      REGIONS_ON_TOP_EVENT           = new TileEvent(EventType.REGIONS_ON_TOP);
-    private final        TileEvent                      INFO_REGION_HANDLER_EVENT      = new TileEvent(EventType.INFO_REGION_HANDLER);
-    private final        TileEvent                      CLEAR_DATA_EVENT               = new TileEvent(EventType.CLEAR_DATA);
-    private final        TileEvent                      HIGHLIGHT_SECTIONS             = new TileEvent(EventType.HIGHLIGHT_SECTIONS);
-    private final        TileEvent                      ANIMATED_ON_EVENT              = new TileEvent(EventType.ANIMATED_ON);
-    private final        TileEvent                      ANIMATED_OFF_EVENT             = new TileEvent(EventType.ANIMATED_OFF);
+    private static final int                            VALUE_CHANNEL                  = 0;  // currentValue
+    private static final int                            RETURN_TO_ZERO_CHANNEL         = 1;  // value, used by tiles with returnToZero
+    private static final int                            TIME_CHANNEL                   = 2;  // currentTime
+    private static final Interpolator                   EASE_OUT                       = Interpolator.SPLINE(0.5, 0.4, 0.4, 1.0);
+    private static final ValueAnimator<Tile>            ANIMATOR                       = new ValueAnimator<>(new ValueAnimator.Callback<>() {
+        @Override public int getSlot(final Tile TILE, final int CHANNEL) { return TILE.getAnimationSlot(CHANNEL); }
+        @Override public void setSlot(final Tile TILE, final int CHANNEL, final int SLOT) { TILE.setAnimationSlot(CHANNEL, SLOT); }
+        @Override public void update(final Tile TILE, final int CHANNEL, final double VALUE) { TILE.updateAnimation(CHANNEL, VALUE); }
+        @Override public void finish(final Tile TILE, final int CHANNEL) { TILE.finishAnimation(CHANNEL); }
+    }, 3);
+
+    private static final TileEvent                      SHOW_NOTIFY_REGION_EVENT       = new TileEvent(EventType.SHOW_NOTIFY_REGION);
+    private static final TileEvent                      HIDE_NOTIFY_REGION_EVENT       = new TileEvent(EventType.HIDE_NOTIFY_REGION);
+    private static final TileEvent                      SHOW_INFO_REGION_EVENT         = new TileEvent(EventType.SHOW_INFO_REGION);
+    private static final TileEvent                      HIDE_INFO_REGION_EVENT         = new TileEvent(EventType.HIDE_INFO_REGION);
+    private static final TileEvent                      SHOW_LOWER_RIGHT_REGION_EVENT  = new TileEvent(EventType.SHOW_LOWER_RIGHT_REGION);
+    private static final TileEvent                      HIDE_LOWER_RIGHT_REGION_EVENT  = new TileEvent(EventType.HIDE_LOWER_RIGHT_REGION);
+    private static final TileEvent                      EXCEEDED_THRESHOLD_EVENT       = new TileEvent(EventType.THRESHOLD_EXCEEDED);
+    private static final TileEvent                      UNDERRUN_THRESHOLD_EVENT       = new TileEvent(EventType.THRESHOLD_UNDERRUN);
+    private static final TileEvent                      EXCEEDED_LOWER_THRESHOLD_EVENT = new TileEvent(EventType.LOWER_THRESHOLD_EXCEEDED);
+    private static final TileEvent                      UNDERRUN_LOWER_THRESHOLD_EVENT = new TileEvent(EventType.LOWER_THRESHOLD_UNDERRUN);
+    private static final TileEvent                      MAX_VALUE_EXCEEDED             = new TileEvent(EventType.MAX_VALUE_EXCEEDED);
+    private static final TileEvent                      MIN_VALUE_UNDERRUN             = new TileEvent(EventType.MIN_VALUE_UNDERRUN);
+    private static final TileEvent                      VALUE_IN_RANGE                 = new TileEvent(EventType.VALUE_IN_RANGE);
+    private static final TileEvent                      RECALC_EVENT                   = new TileEvent(EventType.RECALC);
+    private static final TileEvent                      REDRAW_EVENT                   = new TileEvent(EventType.REDRAW);
+    private static final TileEvent                      RESIZE_EVENT                   = new TileEvent(EventType.RESIZE);
+    private static final TileEvent                      VISIBILITY_EVENT               = new TileEvent(EventType.VISIBILITY);
+    private static final TileEvent                      SECTION_EVENT                  = new TileEvent(EventType.SECTION);
+    private static final TileEvent                      SERIES_EVENT                   = new TileEvent(EventType.SERIES);
+    private static final TileEvent                      DATA_EVENT                     = new TileEvent(EventType.DATA);
+    private static final TileEvent                      ALERT_EVENT                    = new TileEvent(EventType.ALERT);
+    private static final TileEvent                      VALUE_EVENT                    = new TileEvent(EventType.VALUE);
+    private static final TileEvent                      FINISHED_EVENT                 = new TileEvent(EventType.FINISHED);
+    private static final TileEvent                      GRAPHIC_EVENT                  = new TileEvent(EventType.GRAPHIC);
+    private static final TileEvent                      AVERAGING_EVENT                = new TileEvent(EventType.AVERAGING);
+    private static final TileEvent                      TIME_PERIOD_EVENT              = new TileEvent(EventType.TIME_PERIOD);
+    private static final TileEvent                      LOCATION_EVENT                 = new TileEvent(EventType.LOCATION);
+    private static final TileEvent                      TRACK_EVENT                    = new TileEvent(EventType.TRACK);
+    private static final TileEvent                      TRACK_APPEND_EVENT             = new TileEvent(EventType.TRACK_APPEND);
+    private static final TileEvent                      MAP_PROVIDER_EVENT             = new TileEvent(EventType.MAP_PROVIDER);
+    private static final TileEvent                      FLIP_START_EVENT               = new TileEvent(EventType.FLIP_START);
+    private static final TileEvent                      BKG_IMAGE_EVENT                = new TileEvent(EventType.BACKGROUND_IMAGE);
+    private static final TileEvent                      REGIONS_ON_TOP_EVENT           = new TileEvent(EventType.REGIONS_ON_TOP);
+    private static final TileEvent                      INFO_REGION_HANDLER_EVENT      = new TileEvent(EventType.INFO_REGION_HANDLER);
+    private static final TileEvent                      CLEAR_DATA_EVENT               = new TileEvent(EventType.CLEAR_DATA);
+    private static final TileEvent                      HIGHLIGHT_SECTIONS             = new TileEvent(EventType.HIGHLIGHT_SECTIONS);
+    private static final TileEvent                      ANIMATED_ON_EVENT              = new TileEvent(EventType.ANIMATED_ON);
+    private static final TileEvent                      ANIMATED_OFF_EVENT             = new TileEvent(EventType.ANIMATED_OFF);
 
     private static final StyleablePropertyFactory<Tile> FACTORY                        = new StyleablePropertyFactory<>(Region.getClassCssMetaData());
     private static final CssMetaData<Tile, Color>       THUMB_COLOR                    = FACTORY.createColorCssMetaData("-thumb-color", s -> s.thumbColor, Color.rgb(223, 223, 223, 0.5), false);
 
     private static       String                         userAgentStyleSheet;
 
-    // Tile events
-    private              Queue<TileEvent>               tileEventQueue                 = new LinkedBlockingQueue<>();
-    private              List<TileEventListener>        tileEventListeners             = new CopyOnWriteArrayList<>();
-    private              List<AlarmEventListener>       alarmEventListeners            = new CopyOnWriteArrayList<>();
-    private              List<TimeEventListener>        timeEventListeners             = new CopyOnWriteArrayList<>();
-    private              List<BoundsEventListener>      boundsListeners                = new CopyOnWriteArrayList<>();
+    // Tile events (queue and listener lists will be created on first use)
+    private volatile     Set<TileEvent>                 tileEventQueue;
+    private volatile     List<TileEventListener>        tileEventListeners;
+    private volatile     List<AlarmEventListener>       alarmEventListeners;
+    private volatile     List<TimeEventListener>        timeEventListeners;
+    private              List<BoundsEventListener>      boundsListeners;
 
     private              BooleanBinding                 showing;
+    private              boolean                        _renderSuspended;
+    private              ReadOnlyBooleanWrapper         renderSuspended;
+    private              TileMetrics                    metrics;
+    private              Object[]                       extras;
 
     // Data related
     private DoubleProperty                                value;
@@ -350,6 +407,9 @@ public class Tile extends Control {
     private boolean                                       _fixedYScale;
     private BooleanProperty                               fixedYScale;
     private ObservableList<Section>                       sections;
+    private SectionIndex                                  sectionIndex;
+    private boolean                                       sectionIndexDirty;
+    private Runnable                                      sectionUpdateListener;
     private ObservableList<TilesFXSeries<String, Number>> series;
     private List<Stop>                                    gradientStops;
     private ObjectProperty<ZonedDateTime>                 time;
@@ -357,6 +417,9 @@ public class Tile extends Control {
     private ZoneId                                        zoneId;
     private int                                           updateInterval;
     private ObservableList<TimeSection>                   timeSections;
+    private TimeSectionIndex                              timeSectionIndex;
+    private boolean                                       timeSectionIndexDirty;
+    private Runnable                                      timeSectionIndexListener;
     private LocalTime                                     _duration;
     private ObjectProperty<LocalTime>                     duration;
     private ObservableList<BarChartItem>                  barChartItems;
@@ -369,7 +432,7 @@ public class Tile extends Control {
     private Location                                      _currentLocation;
     private ObjectProperty<Location>                      currentLocation;
     private ObservableList<Location>                      poiList;
-    private ObservableList<ChartData>                     chartDataList;
+    private ChartDataList                                 chartDataList;
     private List<Location>                                track;
     private TileColor                                     _trackColor;
     private ObjectProperty<TileColor>                     trackColor;
@@ -514,9 +577,13 @@ public class Tile extends Control {
     private double                                        originalMinValue;
     private double                                        originalMaxValue;
     private double                                        originalThreshold;
-    private Timeline                                      timeline;
-    private Instant                                       lastCall;
+    private int                                           valueSlot;
+    private int                                           returnToZeroSlot;
+    private int                                           timeSlot;
+    private long                                          lastCall;
     private boolean                                       withinSpeedLimit;
+    private boolean                                       returningToZero;
+    private boolean                                       restoring;
     private boolean                                       _discreteSeconds;
     private BooleanProperty                               discreteSeconds;
     private boolean                                       _discreteMinutes;
@@ -560,7 +627,7 @@ public class Tile extends Control {
     private boolean                                       _alarmsVisible;
     private BooleanProperty                               alarmsVisible;
     private ObservableList<Alarm>                         alarms;
-    private List<Alarm>                                   alarmsToRemove;
+    private AlarmScheduler                                alarmScheduler;
     private boolean                                       _strokeWithGradient;
     private BooleanProperty                               strokeWithGradient;
     private boolean                                       _fillWithGradient;
@@ -591,35 +658,14 @@ public class Tile extends Control {
     private ChartType                                     _chartType;
     private double                                        _tooltipTimeout;
     private DoubleProperty                                tooltipTimeout;
-    private Color                                         _notifyRegionBackgroundColor;
-    private Color                                         _notifyRegionForegroundColor;
-    private String                                        _notifyRegionTooltipText;
-    private Color                                         _infoRegionBackgroundColor;
-    private Color                                         _infoRegionForegroundColor;
-    private String                                        _infoRegionTooltipText;
-    private Color                                         _lowerRightRegionBackgroundColor;
-    private Color                                         _lowerRightRegionForegroundColor;
-    private String                                        _lowerRightRegionTooltipText;
-    private Image                                         _backgroundImage;
-    private double                                        _backgroundImageOpacity;
-    private boolean                                       _backgroundImageKeepAspect;
-    private String                                        _leftText;
     private StringProperty                                leftText;
-    private String                                        _middleText;
     private StringProperty                                middleText;
-    private String                                        _rightText;
     private StringProperty                                rightText;
-    private double                                        _leftValue;
     private DoubleProperty                                leftValue;
-    private double                                        _middleValue;
     private DoubleProperty                                middleValue;
-    private double                                        _rightValue;
     private DoubleProperty                                rightValue;
-    private Node                                          _leftGraphics;
     private ObjectProperty<Node>                          leftGraphics;
-    private Node                                          _middleGraphics;
     private ObjectProperty<Node>                          middleGraphics;
-    private Node                                          _rightGraphics;
     private ObjectProperty<Node>                          rightGraphics;
     private boolean                                       _trendVisible;
     private BooleanProperty                               trendVisible;
@@ -819,21 +865,28 @@ public class Tile extends Control {
         value                               = new DoublePropertyBase(_minValue) {
             private void update() {
                 final double VALUE = get();
-                withinSpeedLimit = !(Instant.now().minusMillis(getAnimationDuration()).isBefore(lastCall));
-                lastCall = Instant.now();
-                if (isAnimated() && withinSpeedLimit) {
+                // A restored value is already part of the restored history (see TileSnapshot)
+                if (restoring) { currentValue.set(VALUE); return; }
+                final long now = System.nanoTime();
+                withinSpeedLimit = now - lastCall >= getAnimationDuration() * 1_000_000L;
+                lastCall         = now;
+                // Values that are set while the return to zero animation is running stop it
+                if (returnToZeroSlot >= 0 && !returningToZero) { ANIMATOR.stop(Tile.this, RETURN_TO_ZERO_CHANNEL); }
+                // No need to animate a tile that nobody sees, the skin renders the latest value when it becomes visible
+                // A value that is set faster than the speed limit retargets a running animation
+                if (isAnimated() && (withinSpeedLimit || valueSlot >= 0) && !isRenderSuspended()) {
                     long animationDuration = isReturnToZero() ? (long) (0.2 * getAnimationDuration()) : getAnimationDuration();
-                    timeline.stop();
-
-                    final KeyValue KEY_VALUE = new KeyValue(currentValue, VALUE, Interpolator.SPLINE(0.5, 0.4, 0.4, 1.0));
-                    final KeyFrame KEY_FRAME = new KeyFrame(Duration.millis(animationDuration), KEY_VALUE);
-                    timeline.getKeyFrames().setAll(KEY_FRAME);
-                    timeline.play();
+                    ANIMATOR.animate(Tile.this, VALUE_CHANNEL, currentValue.get(), VALUE, animationDuration, EASE_OUT);
                 } else {
+                    if (valueSlot >= 0) { ANIMATOR.stop(Tile.this, VALUE_CHANNEL); }
                     currentValue.set(VALUE);
+                    checkSectionsForValue(VALUE);
                     fireTileEvent(FINISHED_EVENT);
                 }
-                if (isAveragingEnabled()) { movingAverage.addData(new TimeData(VALUE)); }
+                if (isAveragingEnabled()) { getMovingAverage().addData(new TimeData(VALUE)); }
+                final TimeSeriesStore store = getTimeSeriesStore();
+                // The wall clock might go back a bit (e.g. after a time sync)
+                if (null != store) { store.append(Math.max(System.currentTimeMillis(), store.getLastEpochMillis()), VALUE); }
             }
             @Override protected void invalidated() { update(); }
             @Override public void set(final double VALUE) {
@@ -841,7 +894,7 @@ public class Tile extends Control {
                 // only get invalid if the the new value is different from the old value
                 if (Helper.equals(VALUE, getFormerValue())) { update(); }
                 super.set(VALUE);
-                fireTileEvent(VALUE_EVENT);
+                if (!restoring) { fireTileEvent(VALUE_EVENT); }
             }
             @Override public Object getBean() { return Tile.this; }
             @Override public String getName() { return "value"; }
@@ -941,7 +994,6 @@ public class Tile extends Control {
         _autoScale                          = true;
         _shadowsEnabled                     = false;
         _locale                             = Locale.US;
-        _numberFormat                       = NumberFormat.getInstance(_locale);
         _decimals                           = 1;
         _tickLabelDecimals                  = 1;
         _tickLabelsXVisible                 = true;
@@ -984,7 +1036,6 @@ public class Tile extends Control {
         _customFontEnabled                  = false;
         _customFont                         = Fonts.latoRegular(12);
         _customDecimalFormatEnabled         = false;
-        _customDecimalFormat                = new DecimalFormat("#");
         _alert                              = false;
         _alertMessage                       = "";
         _smoothing                          = false;
@@ -1001,9 +1052,6 @@ public class Tile extends Control {
         _alarmsVisible                      = false;
         _strokeWithGradient                 = false;
         _fillWithGradient                   = false;
-        tooltip                             = new Tooltip(null);
-        _xAxis                              = new CategoryAxis();
-        _yAxis                              = new NumberAxis();
         _radarChartMode                     = RadarChartMode.POLYGON;
         _chartGridColor                     = Tile.GRAY;
         _dataPointsVisible                  = false;
@@ -1011,30 +1059,8 @@ public class Tile extends Control {
         _minorTickCount                     = 0;
         _majorTickUnit                      = 1;
         _matrixSize                         = new int[]{ 30, 25 };
-        matrixIcons                         = FXCollections.observableArrayList();
         _chartType                          = ChartType.LINE;
         _tooltipTimeout                     = 2000;
-        _notifyRegionBackgroundColor        = Tile.YELLOW;
-        _notifyRegionForegroundColor        = Tile.BACKGROUND;
-        _notifyRegionTooltipText            = "";
-        _infoRegionBackgroundColor          = Tile.DARK_BLUE;
-        _infoRegionForegroundColor          = Tile.FOREGROUND;
-        _infoRegionTooltipText              = "";
-        _lowerRightRegionBackgroundColor    = Tile.GRAY;
-        _lowerRightRegionForegroundColor    = Tile.BACKGROUND;
-        _lowerRightRegionTooltipText        = "";
-        _backgroundImage                    = null;
-        _backgroundImageOpacity             = 0.2;
-        _backgroundImageKeepAspect          = true;
-        _leftText                           = "";
-        _middleText                         = "";
-        _rightText                          = "";
-        _leftValue                          = 0;
-        _middleValue                        = 0;
-        _rightValue                         = 0;
-        _leftGraphics                       = null;
-        _middleGraphics                     = null;
-        _rightGraphics                      = null;
         _trendVisible                       = false;
         _timeoutMs                          = 1000;
         _rank                               = Rank.DEFAULT;
@@ -1045,18 +1071,103 @@ public class Tile extends Control {
         originalMinValue                    = -Double.MAX_VALUE;
         originalMaxValue                    = Double.MAX_VALUE;
         originalThreshold                   = Double.MAX_VALUE;
-        lastCall                            = Instant.now();
-        timeline                            = new Timeline();
-        timeline.setOnFinished(e -> {
+        valueSlot                           = -1;
+        returnToZeroSlot                    = -1;
+        timeSlot                            = -1;
+        lastCall                            = System.nanoTime();
+        presetTileParameters(skinType);
+    }
+
+    /**
+     * Returns the animator that animates the values and the clock time of
+     * all tiles, e.g. to limit the number of animations per frame under load.
+     * @return the animator that animates the values of all tiles
+     */
+    public static ValueAnimator<Tile> getAnimator() { return ANIMATOR; }
+
+    private int getAnimationSlot(final int CHANNEL) {
+        switch (CHANNEL) {
+            case VALUE_CHANNEL         : return valueSlot;
+            case RETURN_TO_ZERO_CHANNEL: return returnToZeroSlot;
+            case TIME_CHANNEL          : return timeSlot;
+            default                         : return -1;
+        }
+    }
+    private void setAnimationSlot(final int CHANNEL, final int SLOT) {
+        switch (CHANNEL) {
+            case VALUE_CHANNEL         : valueSlot        = SLOT; break;
+            case RETURN_TO_ZERO_CHANNEL: returnToZeroSlot = SLOT; break;
+            case TIME_CHANNEL          : timeSlot         = SLOT; break;
+        }
+    }
+
+    private void updateAnimation(final int CHANNEL, final double VALUE) {
+        switch (CHANNEL) {
+            case VALUE_CHANNEL         : currentValue.set(VALUE); break;
+            case RETURN_TO_ZERO_CHANNEL:
+                returningToZero = true;
+                try { value.set(VALUE); } finally { returningToZero = false; }
+                break;
+            case TIME_CHANNEL          : currentTime.set((long) VALUE); break;
+        }
+    }
+
+    private void finishAnimation(final int CHANNEL) {
+        if (TIME_CHANNEL != CHANNEL) {
             if (isReturnToZero() && !Helper.equals(currentValue.get(), 0.0)) {
-                final KeyValue KEY_VALUE2 = new KeyValue(value, 0, Interpolator.SPLINE(0.5, 0.4, 0.4, 1.0));
-                final KeyFrame KEY_FRAME2 = new KeyFrame(Duration.millis((long) (0.8 * getAnimationDuration())), KEY_VALUE2);
-                timeline.getKeyFrames().setAll(KEY_FRAME2);
-                timeline.play();
+                ANIMATOR.animate(Tile.this, RETURN_TO_ZERO_CHANNEL, value.get(), 0, (long) (0.8 * getAnimationDuration()), EASE_OUT);
             }
-            fireTileEvent(FINISHED_EVENT);
-        });
-        presetTileParameters(skinType);
+            checkSectionsForValue(currentValue.get());
+        }
+        fireTileEvent(FINISHED_EVENT);
+    }
+
+    /**
+     * Sets the value and the current value without animation and without
+     * firing events. The value won't be added to the moving average and the
+     * time series store because it is part of the restored history.
+     * @param VALUE
+     */
+    void restoreValue(final double VALUE) {
+        if (valueSlot >= 0)        { ANIMATOR.stop(Tile.this, VALUE_CHANNEL); }
+        if (returnToZeroSlot >= 0) { ANIMATOR.stop(Tile.this, RETURN_TO_ZERO_CHANNEL); }
+        // No threshold events for a restored value
+        formerValue.set(VALUE);
+        restoring = true;
+        try {
+            value.set(VALUE);
+            currentValue.set(VALUE);
+        } finally {
+            restoring = false;
+        }
+        oldValue.set(VALUE);
+    }
+
+    /**
+     * Refreshes the skin once after the state of the tile was restored.
+     * @param SECTIONS_CHANGED
+     * @param DATA_CHANGED
+     */
+    void finishRestore(final boolean SECTIONS_CHANGED, final boolean DATA_CHANGED) {
+        if (SECTIONS_CHANGED) { fireTileEvent(SECTION_EVENT); }
+        if (DATA_CHANGED)     { fireTileEvent(DATA_EVENT); }
+        fireTileEvent(RECALC_EVENT);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T getExtra(final Extra EXTRA) { return (T) (null == extras ? EXTRA.defaultValue : extras[EXTRA.ordinal()]); }
+    private void setExtra(final Extra EXTRA, final Object VALUE) {
+        if (null == extras) {
+            // Setting a default value (e.g. in reInit()) doesn't need the table
+            if (Objects.equals(VALUE, EXTRA.defaultValue)) { return; }
+            extras = new Object[Extra.VALUES.length];
+            for (Extra extra : Extra.VALUES) { extras[extra.ordinal()] = extra.defaultValue; }
+        }
+        extras[EXTRA.ordinal()] = VALUE;
+    }
+    private void clearExtra(final Extra EXTRA) {
+        if (null == extras) { return; }
+        extras[EXTRA.ordinal()] = null;
     }
 
     public void reInit() {
@@ -1137,6 +1248,13 @@ public class Tile extends Control {
                 fireTileEvent(VALUE_IN_RANGE);
             }
         });
+        skinProperty().addListener((o, ov, nv) -> {
+            if (null == ov && null != nv) {
+                TileVisibility.register(Tile.this);
+            } else if (null != ov && null == nv) {
+                TileVisibility.unregister(Tile.this);
+            }
+        });
         if (null != getScene()) {
             setupBinding();
         } else {
@@ -1231,7 +1349,7 @@ public class Tile extends Control {
      * @param VALUE
      */
     public void setMinValue(final double VALUE) {
-        if (Status.RUNNING == timeline.getStatus()) { timeline.jumpTo(Duration.ONE); }
+        if (valueSlot >= 0 || returnToZeroSlot >= 0) { ANIMATOR.finish(Tile.this); }
         if (null == minValue) {
             if (VALUE > getMaxValue()) { setMaxValue(VALUE); }
             _minValue = clamp(-Double.MAX_VALUE, getMaxValue(), VALUE);
@@ -1280,7 +1398,7 @@ public class Tile extends Control {
      * @param VALUE
      */
     public void setMaxValue(final double VALUE) {
-        if (Status.RUNNING == timeline.getStatus()) { timeline.jumpTo(Duration.ONE); }
+        if (valueSlot >= 0 || returnToZeroSlot >= 0) { ANIMATOR.finish(Tile.this); }
         if (null == maxValue) {
             if (VALUE < getMinValue()) { setMinValue(VALUE); }
             _maxValue = clamp(getMinValue(), Double.MAX_VALUE, VALUE);
@@ -1474,7 +1592,10 @@ public class Tile extends Control {
     }
 
     public SunburstChart getSunburstChart() {
-        if (null == sunburstChart) { sunburstChart = new SunburstChart(); }
+        if (null == sunburstChart) {
+            sunburstChart = new SunburstChart();
+            sunburstChart.setIndexedPicking(isIndexedPicking());
+        }
         return sunburstChart;
     }
 
@@ -1807,7 +1928,7 @@ public class Tile extends Control {
      * be used to calculate the moving average.
      * @return the current list of Data objects used for the moving average
      */
-    public Queue<TimeData> getAveragingWindow() { return movingAverage.getWindow(); }
+    public Queue<TimeData> getAveragingWindow() { return getMovingAverage().getWindow(); }
 
     /**
      * Returns the moving average over the number of values
@@ -1823,7 +1944,7 @@ public class Tile extends Control {
      * @param DURATION
      * @return the moving average over the given duration
      */
-    public double getTimeBasedAverageOf(final java.time.Duration DURATION) { return movingAverage.getTimeBasedAverageOf(DURATION); }
+    public double getTimeBasedAverageOf(final java.time.Duration DURATION) { return getMovingAverage().getTimeBasedAverageOf(DURATION); }
 
     /**
      * Returns the duration that should be used for the data shown in the TimelineTileSkin
@@ -1999,9 +2120,42 @@ public class Tile extends Control {
      * @return an observable list of Section objects
      */
     public ObservableList<Section> getSections() {
-        if (null == sections) { sections = FXCollections.observableArrayList(); }
+        if (null == sections) {
+            sections = FXCollections.observableArrayList();
+            // A section that changed in place has to be indexed and drawn again
+            sectionUpdateListener = () -> {
+                sectionIndexDirty = true;
+                fireTileEvent(SECTION_EVENT);
+                fireTileEvent(REDRAW_EVENT);
+            };
+            sections.addListener((ListChangeListener<Section>) c -> {
+                sectionIndexDirty = true;
+                while (c.next()) {
+                    c.getRemoved().forEach(section -> section.removeUpdateListener(sectionUpdateListener));
+                    c.getAddedSubList().forEach(section -> section.addUpdateListener(sectionUpdateListener));
+                }
+            });
+        }
         return sections;
     }
+    /**
+     * Returns a compiled index of the current sections that resolves
+     * the section(s) of a given value by binary search instead of
+     * iterating over all sections. The index will be rebuilt lazily
+     * after the sections changed, a section changed in place or a
+     * SECTION event was fired.
+     *
+     * @return a compiled index of the current sections
+     */
+    public SectionIndex getSectionIndex() {
+        if (null == sectionIndex) {
+            sectionIndex = new SectionIndex(getSections());
+        } else if (sectionIndexDirty) {
+            sectionIndex = new SectionIndex(getSections(), sectionIndex.getCheckedValue());
+        }
+        sectionIndexDirty = false;
+        return sectionIndex;
+    }
     /**
      * Sets the sections to the given list of Section objects. The
      * sections will be used to colorize areas with a special
@@ -2311,6 +2465,18 @@ public class Tile extends Control {
         getTrack().addAll(LOCATIONS);
         fireTileEvent(TRACK_EVENT);
     }
+    /**
+     * Adds the given locations to the end of the track. In contrast to
+     * setTrack() the skin only has to draw the new locations.
+     * @param LOCATIONS
+     */
+    public void addToTrack(final Location... LOCATIONS) {
+        addToTrack(Arrays.asList(LOCATIONS));
+    }
+    public void addToTrack(final List<Location> LOCATIONS) {
+        getTrack().addAll(LOCATIONS);
+        fireTileEvent(TRACK_APPEND_EVENT);
+    }
     public void clearTrack() {
         getTrack().clear();
         fireTileEvent(TRACK_EVENT);
@@ -2424,28 +2590,49 @@ public class Tile extends Control {
     }
 
     public ObservableList<ChartData> getChartData() {
-        if (null == chartDataList) { chartDataList = FXCollections.observableArrayList(); }
+        if (null == chartDataList) { chartDataList = new ChartDataList(this::configureChartData); }
         return chartDataList;
     }
     public void addChartData(final ChartData... DATA) { addChartData(Arrays.asList(DATA)); }
-    public void addChartData(final List<ChartData> DATA) {
-        getChartData().addAll(DATA);
-        updateChartData();
-    }
+    public void addChartData(final List<ChartData> DATA) { updateChartData(transaction -> transaction.addAll(DATA)); }
     public void setChartData(final ChartData... DATA) { setChartData(Arrays.asList(DATA)); }
-    public void setChartData(final List<ChartData> DATA) {
-        getChartData().setAll(DATA);
-        updateChartData();
-    }
+    public void setChartData(final List<ChartData> DATA) { updateChartData(transaction -> transaction.setAll(DATA)); }
     public void removeChartData(final ChartData... DATA) { removeChartData(Arrays.asList(DATA)); }
     public void removeChartData(final List<ChartData> DATA) { getChartData().removeAll(DATA); }
     public void clearChartData() { getChartData().clear(); }
-    private void updateChartData() {
-        getChartData().forEach(chartData -> {
-            chartData.setAnimated(isAnimated());
-            chartData.setAnimationDuration(getAnimationDuration());
+    /**
+     * Applies all adds, removes and value changes of the given transaction to
+     * the chart data and notifies the listeners of the chart data (e.g. the
+     * skin) once with one change. Only the added items will be configured
+     * with the animation settings of the tile.
+     * @param TRANSACTION
+     */
+    public void updateChartData(final Consumer<ChartDataList.Transaction> TRANSACTION) {
+        getChartData();
+        chartDataList.update(TRANSACTION);
+    }
+    /**
+     * Appends the given items to the chart data and removes the oldest items
+     * if the chart data contains more than MAX_NO_OF_ITEMS items afterwards,
+     * the listeners of the chart data will be notified once.
+     * @param MAX_NO_OF_ITEMS
+     * @param DATA
+     */
+    public void appendChartData(final int MAX_NO_OF_ITEMS, final ChartData... DATA) { appendChartData(MAX_NO_OF_ITEMS, Arrays.asList(DATA)); }
+    public void appendChartData(final int MAX_NO_OF_ITEMS, final List<ChartData> DATA) {
+        updateChartData(transaction -> {
+            transaction.addAll(DATA);
+            transaction.trimTo(MAX_NO_OF_ITEMS);
         });
     }
+    private void configureChartData(final ChartData DATA) {
+        DATA.setAnimated(isAnimated());
+        DATA.setAnimationDuration(getAnimationDuration());
+    }
+    private void configureAllChartData() {
+        if (null == chartDataList) { return; }
+        chartDataList.forEach(this::configureChartData);
+    }
 
     /**
      * A convenient method to set the color of foreground elements like
@@ -3055,7 +3242,7 @@ public class Tile extends Control {
     public void setAnimated(final boolean ANIMATED) {
         if (null == animated) {
             _animated = ANIMATED;
-            updateChartData();
+            configureAllChartData();
             fireTileEvent(ANIMATED ? ANIMATED_ON_EVENT : ANIMATED_OFF_EVENT);
         } else {
             if (!animated.isBound()) {
@@ -3067,7 +3254,7 @@ public class Tile extends Control {
         if (null == animated) {
             animated = new BooleanPropertyBase(_animated) {
                 @Override protected void invalidated() {
-                    updateChartData();
+                    configureAllChartData();
                     fireTileEvent(get() ? ANIMATED_ON_EVENT : ANIMATED_OFF_EVENT);
                 }
                 @Override public Object getBean() { return Tile.this; }
@@ -3359,7 +3546,11 @@ public class Tile extends Control {
      *
      * @return the number format that will bused to format the value
      */
-    public NumberFormat getNumberFormat() { return null == numberFormat ? _numberFormat : numberFormat.get(); }
+    public NumberFormat getNumberFormat() {
+        if (null != numberFormat) { return numberFormat.get(); }
+        if (null == _numberFormat) { _numberFormat = NumberFormat.getInstance(getLocale()); }
+        return _numberFormat;
+    }
     /**
      * Defines the number format that will be used to format the value
      * in the tile (NOT USED AT THE MOMENT)
@@ -3378,7 +3569,7 @@ public class Tile extends Control {
     }
     public ObjectProperty<NumberFormat> numberFormatProperty() {
         if (null == numberFormat) {
-            numberFormat  = new ObjectPropertyBase<NumberFormat>(_numberFormat) {
+            numberFormat  = new ObjectPropertyBase<NumberFormat>(getNumberFormat()) {
                 @Override protected void invalidated() {
                     if (null == get()) set(NumberFormat.getInstance(getLocale()));
                     fireTileEvent(RESIZE_EVENT);
@@ -4438,15 +4629,10 @@ public class Tile extends Control {
                     zoneId = get().getZone();
                     fireTileEvent(RECALC_EVENT);
                     if (!isRunning() && isAnimated()) {
-                        long animationDuration = getAnimationDuration();
-                        timeline.stop();
-                        final KeyValue KEY_VALUE = new KeyValue(currentTime, now.toEpochSecond());
-                        final KeyFrame KEY_FRAME = new KeyFrame(javafx.util.Duration.millis(animationDuration), KEY_VALUE);
-                        timeline.getKeyFrames().setAll(KEY_FRAME);
-                        timeline.setOnFinished(e -> fireTileEvent(FINISHED_EVENT));
-                        timeline.play();
+                        ANIMATOR.animate(Tile.this, TIME_CHANNEL, currentTime.get(), get().toEpochSecond(), getAnimationDuration(), Interpolator.LINEAR);
                     } else {
-                        currentTime.set(now.toEpochSecond());
+                        if (timeSlot >= 0) { ANIMATOR.stop(Tile.this, TIME_CHANNEL); }
+                        currentTime.set(get().toEpochSecond());
                         fireTileEvent(FINISHED_EVENT);
                     }
                 }
@@ -4559,9 +4745,35 @@ public class Tile extends Control {
      * @return an observable list of TimeSection objects
      */
     public ObservableList<TimeSection> getTimeSections() {
-        if (null == timeSections) { timeSections = FXCollections.observableArrayList(); }
+        if (null == timeSections) {
+            timeSections = FXCollections.observableArrayList();
+            timeSectionIndexListener = () -> timeSectionIndexDirty = true;
+            timeSections.addListener((ListChangeListener<TimeSection>) c -> {
+                timeSectionIndexDirty = true;
+                while (c.next()) {
+                    c.getRemoved().forEach(section -> section.removeIndexListener(timeSectionIndexListener));
+                    c.getAddedSubList().forEach(section -> section.addIndexListener(timeSectionIndexListener));
+                }
+            });
+        }
         return timeSections;
     }
+    /**
+     * Returns a compiled index of the current time sections that resolves
+     * the section(s) of a given day and time by binary search instead of
+     * iterating over all time sections. The index will be rebuilt lazily
+     * after the time sections changed or a SECTION event was fired.
+     * @return a compiled index of the current time sections
+     */
+    public TimeSectionIndex getTimeSectionIndex() {
+        if (null == timeSectionIndex) {
+            timeSectionIndex = new TimeSectionIndex(getTimeSections());
+        } else if (timeSectionIndexDirty) {
+            timeSectionIndex = new TimeSectionIndex(getTimeSections(), timeSectionIndex.getCheckedDateTime());
+        }
+        timeSectionIndexDirty = false;
+        return timeSectionIndex;
+    }
     /**
      * Sets the sections to the given list of TimeSection objects. The
      * sections will be used to colorize areas with a special
@@ -5223,6 +5435,7 @@ public class Tile extends Control {
     public void setAlarmsEnabled(final boolean CHECK) {
         if (null == alarmsEnabled) {
             _alarmsEnabled = CHECK;
+            if (CHECK && null != alarmScheduler) { alarmScheduler.resume(Tile.this); }
             fireTileEvent(VISIBILITY_EVENT);
         } else {
             if (!alarmsEnabled.isBound()) {
@@ -5233,7 +5446,10 @@ public class Tile extends Control {
     public BooleanProperty alarmsEnabledProperty() {
         if (null == alarmsEnabled) {
             alarmsEnabled = new BooleanPropertyBase(_alarmsEnabled) {
-                @Override protected void invalidated() { fireTileEvent(VISIBILITY_EVENT); }
+                @Override protected void invalidated() {
+                    if (get() && null != alarmScheduler) { alarmScheduler.resume(Tile.this); }
+                    fireTileEvent(VISIBILITY_EVENT);
+                }
                 @Override public Object getBean() { return Tile.this; }
                 @Override public String getName() { return "alarmsEnabled"; }
             };
@@ -5276,7 +5492,16 @@ public class Tile extends Control {
      * @return an observable list of Alarm objects
      */
     public ObservableList<Alarm> getAlarms() {
-        if (null == alarms) { alarms = FXCollections.observableArrayList(); }
+        if (null == alarms) {
+            alarms = FXCollections.observableArrayList();
+            alarms.addListener((ListChangeListener<Alarm>) c -> {
+                final AlarmScheduler scheduler = getAlarmScheduler();
+                while (c.next()) {
+                    c.getRemoved().forEach(alarm -> scheduler.cancel(alarm));
+                    c.getAddedSubList().forEach(alarm -> scheduler.schedule(alarm, Tile.this, getTime()));
+                }
+            });
+        }
         return alarms;
     }
     /**
@@ -5303,6 +5528,37 @@ public class Tile extends Control {
      * Clears the list of alarms.
      */
     public void clearAlarms() { getAlarms().clear(); }
+    /**
+     * Recalculates the next fire time of the given Alarm from the time of
+     * this tile. Alarms that were added to the tile are rescheduled on
+     * their own when their time or repetition changes.
+     * @param ALARM
+     */
+    public void rescheduleAlarm(final Alarm ALARM) { getAlarmScheduler().reschedule(ALARM, getTime()); }
+
+    /**
+     * Returns the scheduler that keeps track of the next fire time of
+     * the alarms of this tile. By default each tile has its own
+     * scheduler.
+     * @return the scheduler that triggers the alarms of this tile
+     */
+    public AlarmScheduler getAlarmScheduler() {
+        if (null == alarmScheduler) { alarmScheduler = new AlarmScheduler(); }
+        return alarmScheduler;
+    }
+    /**
+     * Defines the scheduler that will be used to trigger the alarms of
+     * this tile. A scheduler can be shared by several tiles that run on
+     * the same clock, in this case each tick of each tile will fire all
+     * alarms that are due.
+     * @param SCHEDULER
+     */
+    public void setAlarmScheduler(final AlarmScheduler SCHEDULER) {
+        if (null == SCHEDULER || SCHEDULER == alarmScheduler) { return; }
+        if (null != alarmScheduler) { alarmScheduler.cancelAll(Tile.this); }
+        alarmScheduler = SCHEDULER;
+        if (null != alarms) { alarms.forEach(alarm -> alarmScheduler.schedule(alarm, Tile.this, getTime())); }
+    }
 
     /**
      * Returns the text that will be shown in the Tile tooltip
@@ -5315,12 +5571,8 @@ public class Tile extends Control {
      */
     public void setTooltipText(final String TEXT) {
         if (null == tooltipText) {
-        tooltip.setText(TEXT);
-            if (null == TEXT || TEXT.isEmpty()) {
-                setTooltip(null);
-            } else {
-                setTooltip(tooltip);
-            }
+            _tooltipText = TEXT;
+            updateTooltip(TEXT);
         } else {
             if (!tooltipText.isBound()) {
                 tooltipText.set(TEXT);
@@ -5330,15 +5582,8 @@ public class Tile extends Control {
     }
     public StringProperty tooltipTextProperty() {
         if (null == tooltipText) {
-            tooltipText = new StringPropertyBase() {
-                @Override protected void invalidated() {
-                    tooltip.setText(get());
-                    if (null == get() || get().isEmpty()) {
-                        setTooltip(null);
-                    } else {
-                        setTooltip(tooltip);
-                    }
-                }
+            tooltipText = new StringPropertyBase(_tooltipText) {
+                @Override protected void invalidated() { updateTooltip(get()); }
                 @Override public Object getBean() { return Tile.this; }
                 @Override public String getName() { return "tooltipText"; }
             };
@@ -5347,7 +5592,23 @@ public class Tile extends Control {
         return tooltipText;
     }
 
-    public Axis getXAxis() { return null == xAxis ? _xAxis : xAxis.get(); }
+    // The tooltip will only be created when a tooltip text is set
+    private void updateTooltip(final String TEXT) {
+        if (null == TEXT || TEXT.isEmpty()) {
+            if (null != tooltip) { tooltip.setText(TEXT); }
+            setTooltip(null);
+        } else {
+            if (null == tooltip) { tooltip = new Tooltip(null); }
+            tooltip.setText(TEXT);
+            setTooltip(tooltip);
+        }
+    }
+
+    public Axis getXAxis() {
+        if (null != xAxis) { return xAxis.get(); }
+        if (null == _xAxis) { _xAxis = new CategoryAxis(); }
+        return _xAxis;
+    }
     public void setXAxis(final Axis AXIS) {
         if (null == xAxis) {
             _xAxis = AXIS;
@@ -5360,7 +5621,7 @@ public class Tile extends Control {
     }
     public ObjectProperty<Axis> xAxisProperty() {
         if (null == xAxis) {
-            xAxis = new ObjectPropertyBase<Axis>(_xAxis) {
+            xAxis = new ObjectPropertyBase<Axis>(getXAxis()) {
                 @Override protected void invalidated() { fireTileEvent(RESIZE_EVENT); }
                 @Override public Object getBean() { return Tile.this; }
                 @Override public String getName() {
@@ -5372,7 +5633,11 @@ public class Tile extends Control {
         return xAxis;
     }
 
-    public Axis getYAxis() { return null == yAxis ? _yAxis : yAxis.get(); }
+    public Axis getYAxis() {
+        if (null != yAxis) { return yAxis.get(); }
+        if (null == _yAxis) { _yAxis = new NumberAxis(); }
+        return _yAxis;
+    }
     public void setYAxis(final Axis AXIS) {
         if (null == yAxis) {
             _yAxis = AXIS;
@@ -5385,7 +5650,7 @@ public class Tile extends Control {
     }
     public ObjectProperty<Axis> yAxisProperty() {
         if (null == yAxis) {
-            yAxis = new ObjectPropertyBase<Axis>(_yAxis) {
+            yAxis = new ObjectPropertyBase<Axis>(getYAxis()) {
                 @Override protected void invalidated() { fireTileEvent(RESIZE_EVENT); }
                 @Override public Object getBean() { return Tile.this; }
                 @Override public String getName() { return "yAxis"; }
@@ -5591,19 +5856,23 @@ public class Tile extends Control {
         fireTileEvent(RECALC_EVENT);
     }
 
-    public List<MatrixIcon> getMatrixIcons() { return matrixIcons; }
+    public List<MatrixIcon> getMatrixIcons() {
+        if (null == matrixIcons) { matrixIcons = FXCollections.observableArrayList(); }
+        return matrixIcons;
+    }
     public void setMatrixIcons(final MatrixIcon... MATRIX_ICONS) { setMatrixIcons(Arrays.asList(MATRIX_ICONS)); }
     public void setMatrixIcons(final List<MatrixIcon> MATRIX_ICONS) {
+        getMatrixIcons();
         matrixIcons.setAll(MATRIX_ICONS);
         fireTileEvent(REDRAW_EVENT);
     }
     public void addMatrixIcon(final MatrixIcon MATRIX_ICON) {
-        if (matrixIcons.contains(MATRIX_ICON)) { return; }
+        if (getMatrixIcons().contains(MATRIX_ICON)) { return; }
         matrixIcons.add(MATRIX_ICON);
         fireTileEvent(REDRAW_EVENT);
     }
     public void removeMatrixIcon(final MatrixIcon MATRIX_ICON) {
-        if (matrixIcons.contains(MATRIX_ICON)) {
+        if (null != matrixIcons && matrixIcons.contains(MATRIX_ICON)) {
             matrixIcons.remove(MATRIX_ICON);
         }
         fireTileEvent(REDRAW_EVENT);
@@ -5615,6 +5884,83 @@ public class Tile extends Control {
         fireTileEvent(SERIES_EVENT);
     }
 
+    /**
+     * Returns the algorithm that is used to reduce the data points of time
+     * series (e.g. in the sparkline, timeline and smooth area chart skins)
+     * to about one point per pixel of the chart width (default is LTTB).
+     * @return the algorithm that is used to reduce the data points of time series
+     */
+    public Downsampling getDownsampling() { return getExtra(Extra.DOWNSAMPLING); }
+    public void setDownsampling(final Downsampling DOWNSAMPLING) {
+        setExtra(Extra.DOWNSAMPLING, null == DOWNSAMPLING ? Downsampling.NONE : DOWNSAMPLING);
+        fireTileEvent(REDRAW_EVENT);
+    }
+
+    /**
+     * Returns the store that keeps the history of the values of the tile
+     * (default is null). The time series skins (e.g. timeline and sparkline)
+     * read their window from the store instead of keeping it on the heap,
+     * a store that is backed by a file (see MappedTimeSeriesStore) brings
+     * the history back after a restart.
+     * @return the store that keeps the history of the values of the tile
+     */
+    public TimeSeriesStore getTimeSeriesStore() { return getExtra(Extra.TIME_SERIES_STORE); }
+    /**
+     * Defines the store that keeps the history of the values of the tile,
+     * each new value will be appended to the store. The tile won't close
+     * the store.
+     * @param STORE
+     */
+    public void setTimeSeriesStore(final TimeSeriesStore STORE) {
+        setExtra(Extra.TIME_SERIES_STORE, STORE);
+        fireTileEvent(DATA_EVENT);
+    }
+
+    /**
+     * Returns true if skins with many interactive shapes (e.g. the world map
+     * and the sunburst chart) resolve hover and click with a spatial index
+     * and one shared tooltip and mouse handler instead of a tooltip and
+     * handler per node (default is false).
+     * @return true if mouse events are resolved with a spatial index
+     */
+    public boolean isIndexedPicking() { return getExtra(Extra.INDEXED_PICKING); }
+    /**
+     * Defines if skins with many interactive shapes resolve hover and click
+     * with a spatial index. Has to be set before the skin is created.
+     * @param INDEXED
+     */
+    public void setIndexedPicking(final boolean INDEXED) {
+        setExtra(Extra.INDEXED_PICKING, INDEXED);
+        if (null != sunburstChart) { sunburstChart.setIndexedPicking(INDEXED); }
+    }
+
+    /**
+     * Returns true if the world map skin draws the poi and chart data
+     * locations on one canvas (see MarkerLayer) instead of using one node
+     * per location (default is false). Recommended for thousands of
+     * locations that change frequently.
+     * @return true if the locations on the world map are drawn on a canvas
+     */
+    public boolean isMarkerLayerEnabled() { return getExtra(Extra.MARKER_LAYER_ENABLED); }
+    /**
+     * Defines if the world map skin draws the locations on one canvas.
+     * Has to be set before the skin is created.
+     * @param ENABLED
+     */
+    public void setMarkerLayerEnabled(final boolean ENABLED) { setExtra(Extra.MARKER_LAYER_ENABLED, ENABLED); }
+
+    /**
+     * Returns true if locations that are close to each other on the
+     * canvas of the world map are drawn as one bubble with the number of
+     * locations (default is false). Only used if the marker layer is enabled.
+     * @return true if locations that are close to each other are clustered
+     */
+    public boolean isMarkerClusteringEnabled() { return getExtra(Extra.MARKER_CLUSTERING_ENABLED); }
+    public void setMarkerClusteringEnabled(final boolean ENABLED) {
+        setExtra(Extra.MARKER_CLUSTERING_ENABLED, ENABLED);
+        fireTileEvent(REDRAW_EVENT);
+    }
+
     public double getTooltipTimeout() { return null == tooltipTimeout ? _tooltipTimeout : tooltipTimeout.get(); }
     public void setTooltipTimeout(final double TIMEOUT) {
         if (null == tooltipTimeout) {
@@ -5734,7 +6080,11 @@ public class Tile extends Control {
         return customDecimalFormatEnabled;
     }
 
-    public DecimalFormat getCustomDecimalFormat() { return null == customDecimalFormat ? _customDecimalFormat : customDecimalFormat.get(); }
+    public DecimalFormat getCustomDecimalFormat() {
+        if (null != customDecimalFormat) { return customDecimalFormat.get(); }
+        if (null == _customDecimalFormat) { _customDecimalFormat = new DecimalFormat("#"); }
+        return _customDecimalFormat;
+    }
     public void setCustomDecimalFormat(final DecimalFormat DECIMAL_FORMAT) {
         if (null == customDecimalFormat) {
             _customDecimalFormat = DECIMAL_FORMAT;
@@ -5747,7 +6097,7 @@ public class Tile extends Control {
     }
     public ObjectProperty<DecimalFormat> customDecimalFormatProperty() {
         if (null == customDecimalFormat) {
-            customDecimalFormat = new ObjectPropertyBase(_customDecimalFormat) {
+            customDecimalFormat = new ObjectPropertyBase(getCustomDecimalFormat()) {
                 @Override protected void invalidated() { fireTileEvent(REDRAW_EVENT); }
                 @Override public Object getBean() { return Tile.this; }
                 @Override public String getName() { return "customDecimalFormat"; }
@@ -5839,21 +6189,21 @@ public class Tile extends Control {
         return ((TileSkin) getSkin()).getNotifyRegion();
     }
 
-    public Color getNotifyRegionBackgroundColor() { return _notifyRegionBackgroundColor; }
+    public Color getNotifyRegionBackgroundColor() { return getExtra(Extra.NOTIFY_REGION_BACKGROUND_COLOR); }
     public void setNotifyRegionBackgroundColor(final Color COLOR) {
-        _notifyRegionBackgroundColor = COLOR;
+        setExtra(Extra.NOTIFY_REGION_BACKGROUND_COLOR, COLOR);
         fireTileEvent(REDRAW_EVENT);
     }
 
-    public Color getNotifyRegionForegroundColor() { return _notifyRegionForegroundColor; }
+    public Color getNotifyRegionForegroundColor() { return getExtra(Extra.NOTIFY_REGION_FOREGROUND_COLOR); }
     public void setNotifyRegionForegroundColor(final Color COLOR) {
-        _notifyRegionForegroundColor = COLOR;
+        setExtra(Extra.NOTIFY_REGION_FOREGROUND_COLOR, COLOR);
         fireTileEvent(REDRAW_EVENT);
     }
     
-    public String getNotifyRegionTooltipText() { return _notifyRegionTooltipText; }
+    public String getNotifyRegionTooltipText() { return getExtra(Extra.NOTIFY_REGION_TOOLTIP_TEXT); }
     public void setNotifyRegionTooltipText(final String TEXT) {
-        _notifyRegionTooltipText = TEXT;
+        setExtra(Extra.NOTIFY_REGION_TOOLTIP_TEXT, TEXT);
         fireTileEvent(REDRAW_EVENT);
     }
 
@@ -5867,21 +6217,21 @@ public class Tile extends Control {
         return ((TileSkin) getSkin()).getInfoRegion();
     }
 
-    public Color getInfoRegionBackgroundColor() { return _infoRegionBackgroundColor; }
+    public Color getInfoRegionBackgroundColor() { return getExtra(Extra.INFO_REGION_BACKGROUND_COLOR); }
     public void setInfoRegionBackgroundColor(final Color COLOR) {
-        _infoRegionBackgroundColor = COLOR;
+        setExtra(Extra.INFO_REGION_BACKGROUND_COLOR, COLOR);
         fireTileEvent(REDRAW_EVENT);
     }
 
-    public Color getInfoRegionForegroundColor() { return _infoRegionForegroundColor; }
+    public Color getInfoRegionForegroundColor() { return getExtra(Extra.INFO_REGION_FOREGROUND_COLOR); }
     public void setInfoRegionForegroundColor(final Color COLOR) {
-        _infoRegionForegroundColor = COLOR;
+        setExtra(Extra.INFO_REGION_FOREGROUND_COLOR, COLOR);
         fireTileEvent(REDRAW_EVENT);
     }
 
-    public String getInfoRegionTooltipText() { return _infoRegionTooltipText; }
+    public String getInfoRegionTooltipText() { return getExtra(Extra.INFO_REGION_TOOLTIP_TEXT); }
     public void setInfoRegionTooltipText(final String TEXT) {
-        _infoRegionTooltipText = TEXT;
+        setExtra(Extra.INFO_REGION_TOOLTIP_TEXT, TEXT);
         fireTileEvent(REDRAW_EVENT);
     }
 
@@ -5895,47 +6245,47 @@ public class Tile extends Control {
         return ((TileSkin) getSkin()).getLowerRightRegion();
     }
 
-    public Color getLowerRightRegionBackgroundColor() { return _lowerRightRegionBackgroundColor; }
+    public Color getLowerRightRegionBackgroundColor() { return getExtra(Extra.LOWER_RIGHT_REGION_BACKGROUND_COLOR); }
     public void setLowerRightRegionBackgroundColor(final Color COLOR) {
-        _lowerRightRegionBackgroundColor = COLOR;
+        setExtra(Extra.LOWER_RIGHT_REGION_BACKGROUND_COLOR, COLOR);
         fireTileEvent(REDRAW_EVENT);
     }
 
-    public Color getLowerRightRegionForegroundColor() { return _lowerRightRegionForegroundColor; }
+    public Color getLowerRightRegionForegroundColor() { return getExtra(Extra.LOWER_RIGHT_REGION_FOREGROUND_COLOR); }
     public void setLowerRightRegionForegroundColor(final Color COLOR) {
-        _lowerRightRegionForegroundColor = COLOR;
+        setExtra(Extra.LOWER_RIGHT_REGION_FOREGROUND_COLOR, COLOR);
         fireTileEvent(REDRAW_EVENT);
     }
 
-    public String getLowerRightRegionTooltipText() { return _lowerRightRegionTooltipText; }
+    public String getLowerRightRegionTooltipText() { return getExtra(Extra.LOWER_RIGHT_REGION_TOOLTIP_TEXT); }
     public void setLowerRightRegionTooltipText(final String TEXT) {
-        _lowerRightRegionTooltipText = TEXT;
+        setExtra(Extra.LOWER_RIGHT_REGION_TOOLTIP_TEXT, TEXT);
         fireTileEvent(REDRAW_EVENT);
     }
     
-    public Image getBackgroundImage() { return _backgroundImage; }
+    public Image getBackgroundImage() { return getExtra(Extra.BACKGROUND_IMAGE); }
     public void setBackgroundImage(final Image IMAGE) {
-        _backgroundImage = IMAGE;
+        setExtra(Extra.BACKGROUND_IMAGE, IMAGE);
         fireTileEvent(BKG_IMAGE_EVENT);
     }
 
-    public double getBackgroundImageOpacity() { return _backgroundImageOpacity; }
+    public double getBackgroundImageOpacity() { return getExtra(Extra.BACKGROUND_IMAGE_OPACITY); }
     public void setBackgroundImageOpacity(final double OPACITY) {
-        _backgroundImageOpacity = Helper.clamp(0, 1, OPACITY);
-        if (null == _backgroundImage) return;
+        setExtra(Extra.BACKGROUND_IMAGE_OPACITY, Helper.clamp(0, 1, OPACITY));
+        if (null == getExtra(Extra.BACKGROUND_IMAGE)) return;
         fireTileEvent(REDRAW_EVENT);
     }
 
-    public boolean getBackgroundImageKeepAspect() { return _backgroundImageKeepAspect; }
+    public boolean getBackgroundImageKeepAspect() { return getExtra(Extra.BACKGROUND_IMAGE_KEEP_ASPECT); }
     public void setBackgroundImageKeepAspect(final boolean KEEP_ASPECT) {
-        _backgroundImageKeepAspect = KEEP_ASPECT;
+        setExtra(Extra.BACKGROUND_IMAGE_KEEP_ASPECT, KEEP_ASPECT);
         fireTileEvent(REDRAW_EVENT);
     }
 
-    public String getLeftText() { return null == leftText ? _leftText : leftText.get(); }
+    public String getLeftText() { return null == leftText ? getExtra(Extra.LEFT_TEXT) : leftText.get(); }
     public void setLeftText(final String TEXT) {
         if (null == leftText) {
-            _leftText = TEXT;
+            setExtra(Extra.LEFT_TEXT, TEXT);
             fireTileEvent(REDRAW_EVENT);
         } else {
             if (!leftText.isBound()) {
@@ -5945,20 +6295,20 @@ public class Tile extends Control {
     }
     public StringProperty leftTextProperty() {
         if (null == leftText) {
-            leftText = new StringPropertyBase(_leftText) {
+            leftText = new StringPropertyBase(getExtra(Extra.LEFT_TEXT)) {
                 @Override protected void invalidated() { fireTileEvent(REDRAW_EVENT); }
                 @Override public Object getBean() { return Tile.this; }
                 @Override public String getName() { return "leftText"; }
             };
-            _leftText = null;
+            clearExtra(Extra.LEFT_TEXT);
         }
         return leftText;
     }
 
-    public String getMiddleText() { return null == middleText ? _middleText : middleText.get(); }
+    public String getMiddleText() { return null == middleText ? getExtra(Extra.MIDDLE_TEXT) : middleText.get(); }
     public void setMiddleText(final String TEXT) {
         if (null == middleText) {
-            _middleText = TEXT;
+            setExtra(Extra.MIDDLE_TEXT, TEXT);
             fireTileEvent(REDRAW_EVENT);
         } else {
             if (!middleText.isBound()) {
@@ -5968,20 +6318,20 @@ public class Tile extends Control {
     }
     public StringProperty middleTextProperty() {
         if (null == middleText) {
-            middleText = new StringPropertyBase(_middleText) {
+            middleText = new StringPropertyBase(getExtra(Extra.MIDDLE_TEXT)) {
                 @Override protected void invalidated() { fireTileEvent(REDRAW_EVENT); }
                 @Override public Object getBean() { return Tile.this; }
                 @Override public String getName() { return "middleText"; }
             };
-            _middleText = null;
+            clearExtra(Extra.MIDDLE_TEXT);
         }
         return middleText;
     }
 
-    public String getRightText() { return null == rightText ? _rightText : rightText.get(); }
+    public String getRightText() { return null == rightText ? getExtra(Extra.RIGHT_TEXT) : rightText.get(); }
     public void setRightText(final String TEXT) {
         if (null == rightText) {
-            _rightText = TEXT;
+            setExtra(Extra.RIGHT_TEXT, TEXT);
             fireTileEvent(REDRAW_EVENT);
         } else {
             if (!rightText.isBound()) {
@@ -5991,20 +6341,20 @@ public class Tile extends Control {
     }
     public StringProperty rightTextProperty() {
         if (null == rightText) {
-            rightText = new StringPropertyBase(_rightText) {
+            rightText = new StringPropertyBase(getExtra(Extra.RIGHT_TEXT)) {
                 @Override protected void invalidated() { fireTileEvent(REDRAW_EVENT); }
                 @Override public Object getBean() { return Tile.this; }
                 @Override public String getName() { return "rightText"; }
             };
-            _rightText = null;
+            clearExtra(Extra.RIGHT_TEXT);
         }
         return rightText;
     }
     
-    public double getLeftValue() { return null == leftValue ? _leftValue : leftValue.get(); }
+    public double getLeftValue() { return null == leftValue ? getExtra(Extra.LEFT_VALUE) : leftValue.get(); }
     public void setLeftValue(final double VALUE) {
         if (null == leftValue) {
-            _leftValue = VALUE;
+            setExtra(Extra.LEFT_VALUE, VALUE);
             fireTileEvent(REDRAW_EVENT);
         } else {
             if (!leftValue.isBound()) {
@@ -6014,7 +6364,7 @@ public class Tile extends Control {
     }
     public DoubleProperty leftValueProperty() {
         if (null == leftValue) {
-            leftValue = new DoublePropertyBase(_leftValue) {
+            leftValue = new DoublePropertyBase(getExtra(Extra.LEFT_VALUE)) {
                 @Override protected void invalidated() { fireTileEvent(REDRAW_EVENT); }
                 @Override public Object getBean() { return Tile.this; }
                 @Override public String getName() { return "leftValue"; }
@@ -6023,10 +6373,10 @@ public class Tile extends Control {
         return leftValue;
     }
 
-    public double getMiddleValue() { return null == middleValue ? _middleValue : middleValue.get(); }
+    public double getMiddleValue() { return null == middleValue ? getExtra(Extra.MIDDLE_VALUE) : middleValue.get(); }
     public void setMiddleValue(final double VALUE) {
         if (null == middleValue) {
-            _middleValue = VALUE;
+            setExtra(Extra.MIDDLE_VALUE, VALUE);
             fireTileEvent(REDRAW_EVENT);
         } else {
             if (!middleValue.isBound()) {
@@ -6036,7 +6386,7 @@ public class Tile extends Control {
     }
     public DoubleProperty middleValueProperty() {
         if (null == middleValue) {
-            middleValue = new DoublePropertyBase(_middleValue) {
+            middleValue = new DoublePropertyBase(getExtra(Extra.MIDDLE_VALUE)) {
                 @Override protected void invalidated() { fireTileEvent(REDRAW_EVENT); }
                 @Override public Object getBean() { return Tile.this; }
                 @Override public String getName() { return "middleValue"; }
@@ -6045,10 +6395,10 @@ public class Tile extends Control {
         return middleValue;
     }
 
-    public double getRightValue() { return null == rightValue ? _rightValue : rightValue.get(); }
+    public double getRightValue() { return null == rightValue ? getExtra(Extra.RIGHT_VALUE) : rightValue.get(); }
     public void setRightValue(final double VALUE) {
         if (null == rightValue) {
-            _rightValue = VALUE;
+            setExtra(Extra.RIGHT_VALUE, VALUE);
             fireTileEvent(REDRAW_EVENT);
         } else {
             if (!rightValue.isBound()) {
@@ -6058,7 +6408,7 @@ public class Tile extends Control {
     }
     public DoubleProperty rightValueProperty() {
         if (null == rightValue) {
-            rightValue = new DoublePropertyBase(_rightValue) {
+            rightValue = new DoublePropertyBase(getExtra(Extra.RIGHT_VALUE)) {
                 @Override protected void invalidated() { fireTileEvent(REDRAW_EVENT); }
                 @Override public Object getBean() { return Tile.this; }
                 @Override public String getName() { return "rightValue"; }
@@ -6067,10 +6417,10 @@ public class Tile extends Control {
         return rightValue;
     }
     
-    public Node getLeftGraphics() { return null == leftGraphics ? _leftGraphics : leftGraphics.get(); }
+    public Node getLeftGraphics() { return null == leftGraphics ? getExtra(Extra.LEFT_GRAPHICS) : leftGraphics.get(); }
     public void setLeftGraphics(final Node NODE) {
         if (null == leftGraphics) {
-            _leftGraphics = NODE;
+            setExtra(Extra.LEFT_GRAPHICS, NODE);
             fireTileEvent(RECALC_EVENT);
         } else {
             if (!leftGraphics.isBound()) {
@@ -6080,20 +6430,20 @@ public class Tile extends Control {
     }
     public ObjectProperty<Node> leftGraphicsProperty() {
         if (null == leftGraphics) {
-            leftGraphics = new ObjectPropertyBase<Node>(_leftGraphics) {
+            leftGraphics = new ObjectPropertyBase<Node>(getExtra(Extra.LEFT_GRAPHICS)) {
                 @Override protected void invalidated() { fireTileEvent(RECALC_EVENT); }
                 @Override public Object getBean() { return Tile.this; }
                 @Override public String getName() { return "leftGraphics"; }
             };
-            _leftGraphics = null;
+            clearExtra(Extra.LEFT_GRAPHICS);
         }
         return leftGraphics;
     }
 
-    public Node getMiddleGraphics() { return null == middleGraphics ? _middleGraphics : middleGraphics.get(); }
+    public Node getMiddleGraphics() { return null == middleGraphics ? getExtra(Extra.MIDDLE_GRAPHICS) : middleGraphics.get(); }
     public void setMiddleGraphics(final Node NODE) {
         if (null == middleGraphics) {
-            _middleGraphics = NODE;
+            setExtra(Extra.MIDDLE_GRAPHICS, NODE);
             fireTileEvent(RECALC_EVENT);
         } else {
             if (!middleGraphics.isBound()) {
@@ -6103,20 +6453,20 @@ public class Tile extends Control {
     }
     public ObjectProperty<Node> middleGraphicsProperty() {
         if (null == middleGraphics) {
-            middleGraphics = new ObjectPropertyBase<Node>(_middleGraphics) {
+            middleGraphics = new ObjectPropertyBase<Node>(getExtra(Extra.MIDDLE_GRAPHICS)) {
                 @Override protected void invalidated() { fireTileEvent(RECALC_EVENT); }
                 @Override public Object getBean() { return Tile.this; }
                 @Override public String getName() { return "middleGraphics"; }
             };
-            _middleGraphics = null;
+            clearExtra(Extra.MIDDLE_GRAPHICS);
         }
         return middleGraphics;
     }
 
-    public Node getRightGraphics() { return null == rightGraphics ? _rightGraphics : rightGraphics.get(); }
+    public Node getRightGraphics() { return null == rightGraphics ? getExtra(Extra.RIGHT_GRAPHICS) : rightGraphics.get(); }
     public void setRightGraphics(final Node NODE) {
         if (null == rightGraphics) {
-            _rightGraphics = NODE;
+            setExtra(Extra.RIGHT_GRAPHICS, NODE);
             fireTileEvent(RECALC_EVENT);
         } else {
             if (!rightGraphics.isBound()) {
@@ -6126,12 +6476,12 @@ public class Tile extends Control {
     }
     public ObjectProperty<Node> rightGraphicsProperty() {
         if (null == rightGraphics) {
-            rightGraphics = new ObjectPropertyBase<Node>(_rightGraphics) {
+            rightGraphics = new ObjectPropertyBase<Node>(getExtra(Extra.RIGHT_GRAPHICS)) {
                 @Override protected void invalidated() { fireTileEvent(RECALC_EVENT); }
                 @Override public Object getBean() { return Tile.this; }
                 @Override public String getName() { return "rightGraphics"; }
             };
-            _rightGraphics = null;
+            clearExtra(Extra.RIGHT_GRAPHICS);
         }
         return rightGraphics;
     }
@@ -6269,7 +6619,31 @@ public class Tile extends Control {
     public boolean isShowing() { return null == showing ? false : showing.get(); }
     public BooleanBinding showingProperty() { return showing; }
 
+    /**
+     * Returns true if the tile is not visible (see TileVisibility) and its
+     * skin only updates the data model without rendering. The skin renders
+     * the latest state once the tile becomes visible again.
+     * @return true if the rendering of the tile is suspended
+     */
+    public boolean isRenderSuspended() { return null == renderSuspended ? _renderSuspended : renderSuspended.get(); }
+    void setRenderSuspended(final boolean SUSPENDED) {
+        if (null == renderSuspended) {
+            _renderSuspended = SUSPENDED;
+        } else {
+            renderSuspended.set(SUSPENDED);
+        }
+    }
+    public ReadOnlyBooleanProperty renderSuspendedProperty() {
+        if (null == renderSuspended) { renderSuspended = new ReadOnlyBooleanWrapper(Tile.this, "renderSuspended", _renderSuspended); }
+        return renderSuspended.getReadOnlyProperty();
+    }
+
+    /**
+     * Clears the data of the skin including the records of the time
+     * series store of the tile.
+     */
     public void clearData() {
+        if (null != getTimeSeriesStore()) { getTimeSeriesStore().clear(); }
         fireTileEvent(CLEAR_DATA_EVENT);
     }
 
@@ -6285,81 +6659,35 @@ public class Tile extends Control {
     }
 
     /**
-     * Calling this method will check the current time against all Alarm
-     * objects in alarms. The Alarm object will fire events in case the
-     * time is after the alarm time.
+     * Calling this method will fire all alarms that are due at the given
+     * time. The Alarm objects are kept in the AlarmScheduler ordered by
+     * their next fire time, so only due alarms will be touched.
      * @param TIME
      */
     private void checkAlarms(final ZonedDateTime TIME) {
-        if (null == alarmsToRemove) { alarmsToRemove = new ArrayList<>(); }
-        alarmsToRemove.clear();
-        for (Alarm alarm : alarms) {
-            final ZonedDateTime ALARM_TIME = alarm.getTime();
-            switch (alarm.getRepetition()) {
-                case ONCE:
-                    if (TIME.isAfter(ALARM_TIME)) {
-                        if (alarm.isArmed()) {
-                            fireAlarmEvent(new AlarmEvent(alarm));
-                            alarm.executeCommand();
-                        }
-                        alarmsToRemove.add(alarm);
-                    }
-                    break;
-                case HALF_HOURLY:
-                    if ((ALARM_TIME.getMinute() == TIME.getMinute() ||
-                         ALARM_TIME.plusMinutes(30).getMinute() == TIME.getMinute()) &&
-                        ALARM_TIME.getSecond() == TIME.getSecond()) {
-                        if (alarm.isArmed()) {
-                            fireAlarmEvent(new AlarmEvent(alarm));
-                            alarm.executeCommand();
-                        }
-                    }
-                    break;
-                case HOURLY:
-                    if (ALARM_TIME.getMinute() == TIME.getMinute() &&
-                        ALARM_TIME.getSecond() == TIME.getSecond()) {
-                        if (alarm.isArmed()) {
-                            fireAlarmEvent(new AlarmEvent(alarm));
-                            alarm.executeCommand();
-                        }
-                    }
-                    break;
-                case DAILY:
-                    if (ALARM_TIME.getHour()   == TIME.getHour() &&
-                        ALARM_TIME.getMinute() == TIME.getMinute() &&
-                        ALARM_TIME.getSecond() == TIME.getSecond()) {
-                        if (alarm.isArmed()) {
-                            fireAlarmEvent(new AlarmEvent(alarm));
-                            alarm.executeCommand();
-                        }
-                    }
-                    break;
-                case WEEKLY:
-                    if (ALARM_TIME.getDayOfWeek() == TIME.getDayOfWeek() &&
-                        ALARM_TIME.getHour()      == TIME.getHour() &&
-                        ALARM_TIME.getMinute()    == TIME.getMinute() &&
-                        ALARM_TIME.getSecond()    == TIME.getSecond()) {
-                        if (alarm.isArmed()) {
-                            fireAlarmEvent(new AlarmEvent(alarm));
-                            alarm.executeCommand();
-                        }
-                    }
-                    break;
-            }
-        }
-        for (Alarm alarm : alarmsToRemove) { removeAlarm(alarm); }
+        if (null == alarms || alarms.isEmpty()) { return; }
+        getAlarmScheduler().checkAlarms(TIME);
     }
 
-    private void tick() { Platform.runLater(() -> {
+    /**
+     * Checks the given value against all sections by using the section
+     * index. Sections will only fire an event if the value entered or
+     * left them.
+     * @param VALUE
+     */
+    private void checkSectionsForValue(final double VALUE) {
+        if (!getCheckSectionsForValue() || null == sections || sections.isEmpty()) { return; }
+        getSectionIndex().checkForValue(VALUE);
+    }
+
+    private void tick() { PulseProfiler.runLater(Tile.this, "tick", () -> {
         ZonedDateTime oldTime = getTime();
         setTime(getTime().plus(java.time.Duration.ofMillis(updateInterval)));
         ZonedDateTime now = time.get();
         if (isAlarmsEnabled()) checkAlarms(now);
-        if (getCheckSectionsForValue() && timeSections != null) {
-            for (TimeSection timeSection : timeSections) { timeSection.checkForTimeAndDate(now); }
-        }
+        if (getCheckSectionsForValue() && timeSections != null) { getTimeSectionIndex().checkForTimeAndDate(now); }
 
-        if (timeEventListeners.isEmpty()) return;
+        if (null == timeEventListeners || timeEventListeners.isEmpty()) return;
         // Fire TimeEvents
         if (oldTime.getSecond() != now.getSecond()) fireTimeEvent(new TimeEvent(Tile.this, now, TimeEventType.SECOND));
         if (oldTime.getMinute() != now.getMinute()) fireTimeEvent(new TimeEvent(Tile.this, now, TimeEventType.MINUTE));
@@ -6404,41 +6732,109 @@ public class Tile extends Control {
         if (null != periodicTickExecutorService) { periodicTickExecutorService.shutdownNow(); }
     }
 
+    /**
+     * Stops the running animations of the tile and its chart data, the
+     * values stay where they are. Used to dispose offscreen tiles.
+     */
+    void stopAnimations() {
+        if (valueSlot >= 0)        { ANIMATOR.stop(Tile.this, VALUE_CHANNEL); }
+        if (returnToZeroSlot >= 0) { ANIMATOR.stop(Tile.this, RETURN_TO_ZERO_CHANNEL); }
+        if (timeSlot >= 0)         { ANIMATOR.stop(Tile.this, TIME_CHANNEL); }
+        if (null != chartDataList) { chartDataList.forEach(ChartData::stopAnimations); }
+    }
+
     private void createShutdownHook() { Runtime.getRuntime().addShutdownHook(new Thread(() -> stop())); }
 
     
     // ******************** Event handling ************************************
     public void setOnTileEvent(final TileEventListener LISTENER) { addTileEventListener(LISTENER); }
-    public void addTileEventListener(final TileEventListener LISTENER) { if (!tileEventListeners.contains(LISTENER)) tileEventListeners.add(LISTENER); }
-    public void removeTileEventListener(final TileEventListener LISTENER) { if (tileEventListeners.contains(LISTENER)) tileEventListeners.remove(LISTENER); }
-    public void removeAllTileEventListeners() { tileEventListeners.clear(); }
+    public synchronized void addTileEventListener(final TileEventListener LISTENER) {
+        if (null == tileEventListeners) { tileEventListeners = new CopyOnWriteArrayList<>(); }
+        if (!tileEventListeners.contains(LISTENER)) tileEventListeners.add(LISTENER);
+    }
+    public void removeTileEventListener(final TileEventListener LISTENER) { if (null != tileEventListeners) tileEventListeners.remove(LISTENER); }
+    public void removeAllTileEventListeners() { if (null != tileEventListeners) tileEventListeners.clear(); }
 
     public void fireTileEvent(final TileEvent EVENT) {
+        if (EventType.SECTION == EVENT.getEventType()) {
+            sectionIndexDirty     = true;
+            timeSectionIndexDirty = true;
+        }
+        final TileMetrics tileMetrics = getMetrics();
         if (null != showing && showing.get()) {
-            for (TileEventListener listener : tileEventListeners) { listener.onTileEvent(EVENT); }
-        } else {
-            tileEventQueue.add(EVENT);
+            final List<TileEventListener> listeners = tileEventListeners;
+            if (null != listeners) { for (TileEventListener listener : listeners) { listener.onTileEvent(EVENT); } }
+            if (null != tileMetrics) { tileMetrics.eventFired(); }
+        } else {
+            final Set<TileEvent> queue = getTileEventQueue();
+            final boolean        collapsed;
+            synchronized (queue) {
+                // An event that is already queued (the events without data are shared constants) moves to the end of the
+                // queue, so it is still delivered after an opposite event that was queued in the meantime (e.g. SHOW/HIDE_NOTIFY_REGION).
+                // This also keeps the queue small for tiles that are not showing for a long time
+                collapsed = queue.remove(EVENT);
+                queue.add(EVENT);
+            }
+            if (null != tileMetrics) {
+                if (collapsed) {
+                    tileMetrics.eventCollapsed();
+                } else {
+                    tileMetrics.eventQueued();
+                }
+            }
         }
     }
 
+    private Set<TileEvent> getTileEventQueue() {
+        Set<TileEvent> queue = tileEventQueue;
+        if (null == queue) {
+            synchronized (this) {
+                if (null == tileEventQueue) { tileEventQueue = new LinkedHashSet<>(); }
+                queue = tileEventQueue;
+            }
+        }
+        return queue;
+    }
+
+    /**
+     * Returns the rendering metrics of this tile or null if the metrics
+     * are disabled (see TileMetrics.setEnabled()).
+     * @return the rendering metrics of this tile or null
+     */
+    public TileMetrics getMetrics() {
+        if (!TileMetrics.isEnabled()) { return null; }
+        if (null == metrics) { metrics = TileMetrics.create(Tile.this); }
+        return metrics;
+    }
+
     
     public void setOnAlarm(final AlarmEventListener LISTENER) { addAlarmEventListener(LISTENER); }
-    public void addAlarmEventListener(final AlarmEventListener LISTENER) { if (!alarmEventListeners.contains(LISTENER)) alarmEventListeners.add(LISTENER); }
-    public void removeAlarmEventListener(final AlarmEventListener LISTENER) { if (alarmEventListeners.contains(LISTENER)) alarmEventListeners.remove(LISTENER); }
-    public void removeAllAlarmEventListeners() { alarmEventListeners.clear(); }
+    public synchronized void addAlarmEventListener(final AlarmEventListener LISTENER) {
+        if (null == alarmEventListeners) { alarmEventListeners = new CopyOnWriteArrayList<>(); }
+        if (!alarmEventListeners.contains(LISTENER)) alarmEventListeners.add(LISTENER);
+    }
+    public void removeAlarmEventListener(final AlarmEventListener LISTENER) { if (null != alarmEventListeners) alarmEventListeners.remove(LISTENER); }
+    public void removeAllAlarmEventListeners() { if (null != alarmEventListeners) alarmEventListeners.clear(); }
 
     public void fireAlarmEvent(final AlarmEvent EVENT) {
-        for (AlarmEventListener listener : alarmEventListeners) { listener.onAlarmEvent(EVENT); }
+        final List<AlarmEventListener> listeners = alarmEventListeners;
+        if (null == listeners) { return; }
+        for (AlarmEventListener listener : listeners) { listener.onAlarmEvent(EVENT); }
     }
 
 
     public void setOnTimeEvent(final TimeEventListener LISTENER) { addTimeEventListener(LISTENER); }
-    public void addTimeEventListener(final TimeEventListener LISTENER) { if (!timeEventListeners.contains(LISTENER)) timeEventListeners.add(LISTENER); }
-    public void removeTimeEventListener(final TimeEventListener LISTENER) { if (timeEventListeners.contains(LISTENER)) timeEventListeners.remove(LISTENER); }
-    public void removeAllTimeEventListeners() { timeEventListeners.clear(); }
+    public synchronized void addTimeEventListener(final TimeEventListener LISTENER) {
+        if (null == timeEventListeners) { timeEventListeners = new CopyOnWriteArrayList<>(); }
+        if (!timeEventListeners.contains(LISTENER)) timeEventListeners.add(LISTENER);
+    }
+    public void removeTimeEventListener(final TimeEventListener LISTENER) { if (null != timeEventListeners) timeEventListeners.remove(LISTENER); }
+    public void removeAllTimeEventListeners() { if (null != timeEventListeners) timeEventListeners.clear(); }
 
     public void fireTimeEvent(final TimeEvent EVENT) {
-        for (TimeEventListener listener : timeEventListeners) { listener.onTimeEvent(EVENT); }
+        final List<TimeEventListener> listeners = timeEventListeners;
+        if (null == listeners) { return; }
+        for (TimeEventListener listener : listeners) { listener.onTimeEvent(EVENT); }
     }
 
 
@@ -6450,16 +6846,19 @@ public class Tile extends Control {
 
     public void setOnContentSizeChanged(final BoundsEventListener LISTENER) {
         if (null == getSkin()) {
+            if (null == boundsListeners) { boundsListeners = new CopyOnWriteArrayList<>(); }
             if (!boundsListeners.contains(LISTENER)) { boundsListeners.add(LISTENER); }
         } else {
             ((TileSkin) (getSkin())).setOnContentBoundsChanged(LISTENER);
         }
     }
     public void removeOnContentSizeChanged(final BoundsEventListener LISTENER) {
-        if (boundsListeners.contains(LISTENER)) { boundsListeners.remove(LISTENER); }
+        if (null != boundsListeners) { boundsListeners.remove(LISTENER); }
     }
 
     private void setupBinding() {
+        // A tile that moves to another scene (e.g. in a VirtualTileGrid) gets a new binding
+        if (null != showing) { showing.dispose(); }
         showing = Bindings.createBooleanBinding(() -> {
             if (getScene() != null && getScene().getWindow() != null) {
                 return getScene().getWindow().isShowing();
@@ -6468,20 +6867,34 @@ public class Tile extends Control {
             }            
         }, sceneProperty(), getScene().windowProperty(), getScene().getWindow().showingProperty());
         
-        showing.addListener(o -> {
-        if (showing.get()) {
-            while(tileEventQueue.peek() != null) {
-                TileEvent event = tileEventQueue.poll();
-                    for (TileEventListener listener : tileEventListeners) { listener.onTileEvent(event); }
-                }
+        showing.addListener(o -> { if (showing.get()) { flushTileEvents(); } });
+        // Validate the binding, if the window is already showing deliver the events that were queued in the meantime
+        if (showing.get()) { flushTileEvents(); }
+    }
+
+    private void flushTileEvents() {
+        final TileMetrics    tileMetrics = getMetrics();
+        final Set<TileEvent> queue       = tileEventQueue;
+        if (null != queue) {
+            final TileEvent[] events;
+            synchronized (queue) {
+                events = queue.toArray(new TileEvent[0]);
+                queue.clear();
+            }
+            for (TileEvent event : events) {
+                if (null != tileEventListeners) { for (TileEventListener listener : tileEventListeners) { listener.onTileEvent(event); } }
+                if (null != tileMetrics) { tileMetrics.eventFired(); }
             }
+        }
 
-            boundsListeners.forEach(listener -> ((TileSkin) (getSkin())).setOnContentBoundsChanged(listener));
-            ((TileSkin) (getSkin())).getContentBounds().fireBoundsEvent();
+        // The skin will be created with the next css pass if the tile was just added to the scene
+        if (!(getSkin() instanceof TileSkin)) { return; }
+        TileVisibility.update(Tile.this);
+        if (null != boundsListeners) { boundsListeners.forEach(listener -> ((TileSkin) (getSkin())).setOnContentBoundsChanged(listener)); }
+        ((TileSkin) (getSkin())).getContentBounds().fireBoundsEvent();
 
-            fireTileEvent(REGIONS_ON_TOP_EVENT);
-            fireTileEvent(RESIZE_EVENT);
-        });
+        fireTileEvent(REGIONS_ON_TOP_EVENT);
+        fireTileEvent(RESIZE_EVENT);
     }
 
 
@@ -6541,6 +6954,7 @@ public class Tile extends Control {
             case FIRE_SMOKE          : return new FireSmokeTileSkin(Tile.this);
             case TURNOVER            : return new TurnoverTileSkin(Tile.this);
             case RADIAL_DISTRIBUTION : return new RadialDistributionTileSkin(Tile.this);
+            case PULSE_PROFILER      : return new PulseProfilerTileSkin(Tile.this);
             default                  : return new TileSkin(Tile.this);
         }
     }
@@ -6753,6 +7167,9 @@ public class Tile extends Control {
                 setTickLabelDecimals(0);
                 setBarBackgroundColor(BACKGROUND.brighter());
                 break;
+            case PULSE_PROFILER:
+                setTitle("Pulse Profiler");
+                break;
             default:
                 break;
         }
@@ -6814,6 +7231,7 @@ public class Tile extends Control {
             case FIRE_SMOKE         : setSkin(new FireSmokeTileSkin(Tile.this)); break;
             case TURNOVER           : setSkin(new TurnoverTileSkin(Tile.this)); break;
             case RADIAL_DISTRIBUTION: setSkin(new RadialDistributionTileSkin(Tile.this)); break;
+            case PULSE_PROFILER     : setSkin(new PulseProfilerTileSkin(Tile.this)); break;
             default                 : setSkin(new TileSkin(Tile.this)); break;
         }
         fireTileEvent(RESIZE_EVENT);
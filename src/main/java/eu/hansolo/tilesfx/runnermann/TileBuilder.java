@@ -18,6 +18,7 @@
 package eu.hansolo.tilesfx.runnermann;
 
 import eu.hansolo.tilesfx.runnermann.Tile.ChartType;
+import eu.hansolo.tilesfx.runnermann.Tile.Downsampling;
 import eu.hansolo.tilesfx.runnermann.Tile.ImageMask;
 import eu.hansolo.tilesfx.runnermann.Tile.ItemSorting;
 import eu.hansolo.tilesfx.runnermann.Tile.ItemSortingTopic;
@@ -42,6 +43,7 @@ import eu.hansolo.tilesfx.runnermann.tools.Helper;
 import eu.hansolo.tilesfx.runnermann.tools.Location;
 import eu.hansolo.tilesfx.runnermann.tools.MatrixIcon;
 import eu.hansolo.tilesfx.runnermann.tools.Rank;
+import eu.hansolo.tilesfx.runnermann.tools.TimeSeriesStore;
 import eu.hansolo.tilesfx.runnermann.tools.TreeNode;
 import javafx.beans.InvalidationListener;
 import javafx.beans.property.BooleanProperty;
@@ -104,6 +106,8 @@ public class TileBuilder<B extends TileBuilder<B>> {
         return (B)this;
     }
 
+    SkinType getSkinType() { return properties.containsKey("skinType") ? ((ObjectProperty<SkinType>) properties.get("skinType")).get() : SkinType.GAUGE; }
+
     public final B value(final double VALUE) {
         properties.put("value", new SimpleDoubleProperty(VALUE));
         return (B) this;
@@ -409,6 +413,31 @@ public class TileBuilder<B extends TileBuilder<B>> {
         return (B)this;
     }
 
+    public final B downsampling(final Downsampling DOWNSAMPLING) {
+        properties.put("downsampling", new SimpleObjectProperty(DOWNSAMPLING));
+        return (B)this;
+    }
+
+    public final B indexedPicking(final boolean INDEXED) {
+        properties.put("indexedPicking", new SimpleBooleanProperty(INDEXED));
+        return (B)this;
+    }
+
+    public final B markerLayerEnabled(final boolean ENABLED) {
+        properties.put("markerLayerEnabled", new SimpleBooleanProperty(ENABLED));
+        return (B)this;
+    }
+
+    public final B markerClusteringEnabled(final boolean ENABLED) {
+        properties.put("markerClusteringEnabled", new SimpleBooleanProperty(ENABLED));
+        return (B)this;
+    }
+
+    public final B timeSeriesStore(final TimeSeriesStore STORE) {
+        properties.put("timeSeriesStore", new SimpleObjectProperty(STORE));
+        return (B)this;
+    }
+
     public final B tooltipTimeout(final double TIMEOUT) {
         properties.put("tooltipTimeout", new SimpleDoubleProperty(TIMEOUT));
         return (B)this;
@@ -1396,6 +1425,9 @@ public class TileBuilder<B extends TileBuilder<B>> {
                     TILE.setTickLabelDecimals(0);
                     TILE.setBarBackgroundColor(Tile.BACKGROUND.brighter());
                     break;
+                case PULSE_PROFILER:
+                    TILE.setTitle("Pulse Profiler");
+                    break;
                 default:
                     break;
             }
@@ -1840,6 +1872,16 @@ public class TileBuilder<B extends TileBuilder<B>> {
                 TILE.setMatrixSize(COLS, ROWS);
             } else if ("chartType".equals(key)) {
                 TILE.setChartType(((ObjectProperty<ChartType>) properties.get(key)).get());
+            } else if ("downsampling".equals(key)) {
+                TILE.setDownsampling(((ObjectProperty<Downsampling>) properties.get(key)).get());
+            } else if ("timeSeriesStore".equals(key)) {
+                TILE.setTimeSeriesStore(((ObjectProperty<TimeSeriesStore>) properties.get(key)).get());
+            } else if ("indexedPicking".equals(key)) {
+                TILE.setIndexedPicking(((BooleanProperty) properties.get(key)).get());
+            } else if ("markerLayerEnabled".equals(key)) {
+                TILE.setMarkerLayerEnabled(((BooleanProperty) properties.get(key)).get());
+            } else if ("markerClusteringEnabled".equals(key)) {
+                TILE.setMarkerClusteringEnabled(((BooleanProperty) properties.get(key)).get());
             } else if ("tooltipTimeout".equals(key)) {
                 TILE.setTooltipTimeout(((DoubleProperty) properties.get(key)).get());
             } else if ("notifyRegionBackgroundColor".equals(key)) {
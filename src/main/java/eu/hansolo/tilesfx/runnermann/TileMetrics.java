@@ -0,0 +1,416 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann;
+
+import eu.hansolo.tilesfx.runnermann.tools.LatencyHistogram;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import javax.management.ConstructorParameters;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Cleaner;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Opt-in rendering metrics of tiles. As long as the metrics are not
+ * enabled Tile.getMetrics() returns null and the skins skip the
+ * measurement, so the overhead is one static flag check per call.
+ * Once enabled every tile records counts and latency histograms of
+ * handleCurrentValue(), handleEvents(), resize(), redraw() and the
+ * static layer of the skin (see TileSkin.drawStaticLayer()), the
+ * number of fired, queued and collapsed tile events and the time
+ * the tile spent on the JavaFX application thread per pulse.
+ * The metrics of each tile and the aggregate of all tiles are
+ * published as MXBeans in the domain eu.hansolo.tilesfx.runnermann
+ * (type=TileMetrics), snapshot() returns the same data for
+ * programmatic export.
+ * The metrics of a tile are unregistered when the tile is garbage
+ * collected.
+ */
+public class TileMetrics implements TileMetricsMXBean {
+    public  enum Operation { CURRENT_VALUE, EVENT, RESIZE, REDRAW, STATIC_LAYER, PULSE }
+
+    public  static final String                   DOMAIN         = "eu.hansolo.tilesfx.runnermann";
+    private static final Operation[]              OPERATIONS     = Operation.values();
+    private static final AtomicLong               ID_COUNTER     = new AtomicLong();
+    private static final Map<String, TileMetrics> REGISTRY       = new LinkedHashMap<>();
+    private static final TileMetrics              AGGREGATE      = new TileMetrics("aggregate", null);
+    private static volatile boolean               enabled;
+    private static       AnimationTimer           pulseTimer;
+    private static       long                     pulse;
+    private static       int                      aggregateDepth;
+    private        final String                   id;
+    private        final WeakReference<Tile>      tileRef;
+    private        final LatencyHistogram[]       histograms;
+    private        final LongAdder                eventsFired;
+    private        final LongAdder                eventsQueued;
+    private        final LongAdder                eventsCollapsed;
+    private              int                      depth;
+    private              long                     pulseId;
+    private              long                     pulseNanos;
+
+
+    // ******************** Constructors **************************************
+    private TileMetrics(final String ID, final Tile TILE) {
+        id              = ID;
+        tileRef         = new WeakReference<>(TILE);
+        histograms      = new LatencyHistogram[OPERATIONS.length];
+        for (int i = 0 ; i < OPERATIONS.length ; i++) { histograms[i] = new LatencyHistogram(); }
+        eventsFired     = new LongAdder();
+        eventsQueued    = new LongAdder();
+        eventsCollapsed = new LongAdder();
+    }
+
+
+    // ******************** Methods *******************************************
+    public static boolean isEnabled() { return enabled; }
+    /**
+     * Enables or disables the recording of metrics for all tiles. Metrics
+     * that were recorded before stay available until they are reset.
+     * @param ENABLED
+     */
+    public static synchronized void setEnabled(final boolean ENABLED) {
+        if (ENABLED == enabled) { return; }
+        enabled = ENABLED;
+        if (ENABLED) {
+            register(AGGREGATE);
+        } else if (null != pulseTimer) {
+            final AnimationTimer timer = pulseTimer;
+            pulseTimer = null;
+            Platform.runLater(timer::stop);
+        }
+    }
+
+    /**
+     * Returns the aggregated metrics of all tiles.
+     * @return the aggregated metrics of all tiles
+     */
+    public static TileMetrics getAggregate() { return AGGREGATE; }
+
+    /**
+     * Returns a snapshot of the aggregate (first entry) and of every
+     * tile that recorded metrics so far.
+     * @return a snapshot of the aggregate and of all tile metrics
+     */
+    public static List<Snapshot> snapshot() {
+        final List<Snapshot> snapshots = new ArrayList<>();
+        snapshots.add(AGGREGATE.getSnapshot());
+        final List<TileMetrics> metrics;
+        synchronized (REGISTRY) { metrics = new ArrayList<>(REGISTRY.values()); }
+        for (TileMetrics tileMetrics : metrics) {
+            if (AGGREGATE != tileMetrics) { snapshots.add(tileMetrics.getSnapshot()); }
+        }
+        return snapshots;
+    }
+
+    /**
+     * Resets the metrics of the aggregate and of all tiles.
+     */
+    public static void resetAll() {
+        final List<TileMetrics> metrics;
+        synchronized (REGISTRY) { metrics = new ArrayList<>(REGISTRY.values()); }
+        metrics.forEach(TileMetrics::reset);
+        AGGREGATE.reset();
+    }
+
+    /**
+     * Creates and registers the metrics of the given tile, use
+     * Tile.getMetrics() to get the metrics of a tile.
+     * @param TILE
+     * @return the new metrics of the given tile
+     */
+    static TileMetrics create(final Tile TILE) {
+        final long        no      = ID_COUNTER.incrementAndGet();
+        final String      tileId  = null == TILE.getId() || TILE.getId().isEmpty() ? "tile-" + no : TILE.getId() + "-" + no;
+        final TileMetrics metrics = new TileMetrics(tileId, TILE);
+        register(metrics);
+        // The cleaner action must not reference the tile
+        CleanerHolder.CLEANER.register(TILE, () -> unregister(metrics));
+        return metrics;
+    }
+
+    private static void register(final TileMetrics METRICS) {
+        synchronized (REGISTRY) {
+            if (REGISTRY.containsKey(METRICS.id)) { return; }
+            REGISTRY.put(METRICS.id, METRICS);
+        }
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName  name   = METRICS.getObjectName();
+            if (!server.isRegistered(name)) { server.registerMBean(METRICS, name); }
+        } catch (InstanceAlreadyExistsException exception) {
+            // Registered by a concurrent call
+        } catch (JMException exception) {
+            // The names are quoted and the metrics are compliant MXBeans
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private static void unregister(final TileMetrics METRICS) {
+        synchronized (REGISTRY) { REGISTRY.remove(METRICS.id); }
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName  name   = METRICS.getObjectName();
+            if (server.isRegistered(name)) { server.unregisterMBean(name); }
+        } catch (InstanceNotFoundException exception) {
+            // Unregistered by a concurrent call
+        } catch (JMException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    public ObjectName getObjectName() throws JMException {
+        return new ObjectName(DOMAIN + ":type=TileMetrics,name=" + ObjectName.quote(id));
+    }
+
+    /**
+     * Starts the measurement of an operation on the JavaFX application
+     * thread, the returned start time has to be passed to end().
+     * Measurements can be nested, only the outermost measurement adds
+     * to the time per pulse.
+     * @return the start time in nanoseconds
+     */
+    public long begin() {
+        depth++;
+        aggregateDepth++;
+        return System.nanoTime();
+    }
+
+    /**
+     * Ends the measurement that was started with begin() and records
+     * its duration for the given operation.
+     * @param OPERATION
+     * @param START the start time returned by begin()
+     */
+    public void end(final Operation OPERATION, final long START) {
+        final long nanos = System.nanoTime() - START;
+        depth--;
+        aggregateDepth--;
+        ensurePulseTimer();
+        synchronized (this) {
+            histograms[OPERATION.ordinal()].record(nanos);
+            if (0 == depth) { addToPulse(nanos); }
+        }
+        if (AGGREGATE == this) { return; }
+        synchronized (AGGREGATE) {
+            AGGREGATE.histograms[OPERATION.ordinal()].record(nanos);
+            if (0 == aggregateDepth) { AGGREGATE.addToPulse(nanos); }
+        }
+    }
+
+    public void eventFired() {
+        eventsFired.increment();
+        if (AGGREGATE != this) { AGGREGATE.eventsFired.increment(); }
+    }
+
+    public void eventQueued() {
+        eventsQueued.increment();
+        if (AGGREGATE != this) { AGGREGATE.eventsQueued.increment(); }
+    }
+
+    public void eventCollapsed() {
+        eventsCollapsed.increment();
+        if (AGGREGATE != this) { AGGREGATE.eventsCollapsed.increment(); }
+    }
+
+    /**
+     * Returns a copy of the histogram of the given operation. The
+     * histogram of PULSE contains the time per pulse in which the tile
+     * did some work on the JavaFX application thread.
+     * @param OPERATION
+     * @return a copy of the histogram of the given operation
+     */
+    public synchronized LatencyHistogram getHistogram(final Operation OPERATION) {
+        final LatencyHistogram histogram = new LatencyHistogram(histograms[OPERATION.ordinal()]);
+        if (Operation.PULSE == OPERATION && pulseNanos > 0) { histogram.record(pulseNanos); }
+        return histogram;
+    }
+
+    public Snapshot getSnapshot() { return new Snapshot(this); }
+
+    @Override public String getTileId() { return id; }
+
+    @Override public String getSkinType() {
+        final Tile tile = tileRef.get();
+        return null == tile ? "" : tile.getSkinType().name();
+    }
+
+    @Override public long getEventsFired() { return eventsFired.sum(); }
+
+    @Override public long getEventsQueued() { return eventsQueued.sum(); }
+
+    @Override public long getEventsCollapsed() { return eventsCollapsed.sum(); }
+
+    @Override public Summary getCurrentValueLatency() { return new Summary(getHistogram(Operation.CURRENT_VALUE)); }
+
+    @Override public Summary getEventLatency() { return new Summary(getHistogram(Operation.EVENT)); }
+
+    @Override public Summary getResizeLatency() { return new Summary(getHistogram(Operation.RESIZE)); }
+
+    @Override public Summary getRedrawLatency() { return new Summary(getHistogram(Operation.REDRAW)); }
+
+    @Override public Summary getStaticLayerLatency() { return new Summary(getHistogram(Operation.STATIC_LAYER)); }
+
+    @Override public Summary getPulseTime() { return new Summary(getHistogram(Operation.PULSE)); }
+
+    @Override public synchronized void reset() {
+        for (LatencyHistogram histogram : histograms) { histogram.reset(); }
+        eventsFired.reset();
+        eventsQueued.reset();
+        eventsCollapsed.reset();
+        pulseNanos = 0;
+    }
+
+    private void addToPulse(final long NANOS) {
+        if (pulseId != pulse) {
+            if (pulseNanos > 0) { histograms[Operation.PULSE.ordinal()].record(pulseNanos); }
+            pulseNanos = 0;
+            pulseId    = pulse;
+        }
+        pulseNanos += NANOS;
+    }
+
+    private static void ensurePulseTimer() {
+        if (null != pulseTimer || !enabled) { return; }
+        pulseTimer = new AnimationTimer() {
+            @Override public void handle(final long NOW) { pulse++; }
+        };
+        pulseTimer.start();
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static class CleanerHolder {
+        private static final Cleaner CLEANER = Cleaner.create();
+    }
+
+
+    /**
+     * Immutable summary of a latency histogram, all values in nanoseconds.
+     */
+    public static class Summary {
+        private final long   count;
+        private final double mean;
+        private final long   p50;
+        private final long   p90;
+        private final long   p99;
+        private final long   max;
+
+
+        // ******************** Constructors **************************************
+        @ConstructorParameters({ "count", "mean", "p50", "p90", "p99", "max" })
+        public Summary(final long COUNT, final double MEAN, final long P50, final long P90, final long P99, final long MAX) {
+            count = COUNT;
+            mean  = MEAN;
+            p50   = P50;
+            p90   = P90;
+            p99   = P99;
+            max   = MAX;
+        }
+        public Summary(final LatencyHistogram HISTOGRAM) {
+            this(HISTOGRAM.getCount(), HISTOGRAM.getMean(), HISTOGRAM.getValueAtPercentile(50), HISTOGRAM.getValueAtPercentile(90), HISTOGRAM.getValueAtPercentile(99), HISTOGRAM.getMax());
+        }
+
+
+        // ******************** Methods *******************************************
+        public long getCount() { return count; }
+
+        public double getMean() { return mean; }
+
+        public long getP50() { return p50; }
+
+        public long getP90() { return p90; }
+
+        public long getP99() { return p99; }
+
+        public long getMax() { return max; }
+
+        @Override public String toString() {
+            return new StringBuilder().append("{\"count\":").append(count)
+                                      .append(",\"mean\":").append(mean)
+                                      .append(",\"p50\":").append(p50)
+                                      .append(",\"p90\":").append(p90)
+                                      .append(",\"p99\":").append(p99)
+                                      .append(",\"max\":").append(max)
+                                      .append("}").toString();
+        }
+    }
+
+
+    /**
+     * Immutable copy of the metrics of one tile or of the aggregate.
+     */
+    public static class Snapshot {
+        private final String             id;
+        private final String             skinType;
+        private final long               eventsFired;
+        private final long               eventsQueued;
+        private final long               eventsCollapsed;
+        private final LatencyHistogram[] histograms;
+
+
+        // ******************** Constructors **************************************
+        private Snapshot(final TileMetrics METRICS) {
+            id              = METRICS.getTileId();
+            skinType        = METRICS.getSkinType();
+            eventsFired     = METRICS.getEventsFired();
+            eventsQueued    = METRICS.getEventsQueued();
+            eventsCollapsed = METRICS.getEventsCollapsed();
+            histograms      = new LatencyHistogram[OPERATIONS.length];
+            for (Operation operation : OPERATIONS) { histograms[operation.ordinal()] = METRICS.getHistogram(operation); }
+        }
+
+
+        // ******************** Methods *******************************************
+        public String getId() { return id; }
+
+        public String getSkinType() { return skinType; }
+
+        public long getEventsFired() { return eventsFired; }
+
+        public long getEventsQueued() { return eventsQueued; }
+
+        public long getEventsCollapsed() { return eventsCollapsed; }
+
+        public LatencyHistogram getHistogram(final Operation OPERATION) { return new LatencyHistogram(histograms[OPERATION.ordinal()]); }
+
+        public Summary getSummary(final Operation OPERATION) { return new Summary(histograms[OPERATION.ordinal()]); }
+
+        @Override public String toString() {
+            final StringBuilder json = new StringBuilder().append("{\"id\":\"").append(id.replace("\\", "\\\\").replace("\"", "\\\""))
+                                                          .append("\",\"skinType\":\"").append(skinType)
+                                                          .append("\",\"eventsFired\":").append(eventsFired)
+                                                          .append(",\"eventsQueued\":").append(eventsQueued)
+                                                          .append(",\"eventsCollapsed\":").append(eventsCollapsed);
+            for (Operation operation : OPERATIONS) { json.append(",\"").append(operation.name()).append("\":").append(getSummary(operation)); }
+            return json.append("}").toString();
+        }
+    }
+}
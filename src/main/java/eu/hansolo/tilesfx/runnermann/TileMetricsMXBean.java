@@ -0,0 +1,48 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann;
+
+/**
+ * Management interface of the TileMetrics of one tile or of the
+ * aggregate of all tiles. All latencies are in nanoseconds.
+ */
+public interface TileMetricsMXBean {
+    String getTileId();
+
+    String getSkinType();
+
+    long getEventsFired();
+
+    long getEventsQueued();
+
+    long getEventsCollapsed();
+
+    TileMetrics.Summary getCurrentValueLatency();
+
+    TileMetrics.Summary getEventLatency();
+
+    TileMetrics.Summary getResizeLatency();
+
+    TileMetrics.Summary getRedrawLatency();
+
+    TileMetrics.Summary getStaticLayerLatency();
+
+    TileMetrics.Summary getPulseTime();
+
+    void reset();
+}
@@ -0,0 +1,316 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann;
+
+import eu.hansolo.tilesfx.runnermann.Tile.SkinType;
+import eu.hansolo.tilesfx.runnermann.tools.PngEncoder;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+
+/**
+ * Renders tiles to images without showing them, e.g. for reports that
+ * contain the same tiles as a dashboard. Each job builds a tile from a
+ * TileBuilder, fills it with data (e.g. from a TileSnapshot), lays it out
+ * at the requested size and renders it to a WritableImage.
+ * The jobs are started in batches (see setBatchSize()) in the pulses of
+ * the JavaFX application thread and all images of a batch are rendered in
+ * the next pulse. The tiles are rendered in offscreen scenes (scenes
+ * without a window) that are reused for the next jobs, the number of
+ * scenes per SkinType is limited (see setMaxScenesPerSkinType()) which
+ * also limits the number of tiles that exist at the same time. The jobs
+ * wait in one queue per SkinType and the SkinTypes take turns, so a
+ * SkinType whose scenes are all in use does not hold up the others. The
+ * tile of a job is stopped and disposed after it was rendered.
+ * Jobs can be submitted from any thread, the futures are completed on the
+ * JavaFX application thread. The renderer also works on the headless
+ * Monocle platform (glass.platform=Monocle, monocle.platform=Headless,
+ * prism.order=sw), so reports can be rendered on a server or in CI.
+ */
+public class TileRenderer {
+    public  static final int                          DEFAULT_BATCH_SIZE               = 16;
+    public  static final int                          DEFAULT_MAX_SCENES_PER_SKIN_TYPE = 16;
+    private        final Queue<Job>                   submitted;
+    private        final Map<SkinType, Deque<Job>>    pending;
+    private        final Deque<SkinType>              waitingSkinTypes;
+    private        final Map<SkinType, Deque<Scene>>  freeScenes;
+    private        final int[]                        noOfScenes;
+    private        final AtomicBoolean                wakeUpRequested;
+    private              int                          batchSize;
+    private              int                          maxScenesPerSkinType;
+    private              int                          noOfPendingJobs;
+    private              int                          noOfRunningJobs;
+    private              long                         noOfRenderedImages;
+    private              AnimationTimer               timer;
+    private              boolean                      timerRunning;
+
+
+    // ******************** Constructors **************************************
+    public TileRenderer() {
+        submitted            = new ConcurrentLinkedQueue<>();
+        pending              = new EnumMap<>(SkinType.class);
+        waitingSkinTypes     = new ArrayDeque<>();
+        freeScenes           = new EnumMap<>(SkinType.class);
+        noOfScenes           = new int[SkinType.values().length];
+        wakeUpRequested      = new AtomicBoolean(false);
+        batchSize            = DEFAULT_BATCH_SIZE;
+        maxScenesPerSkinType = DEFAULT_MAX_SCENES_PER_SKIN_TYPE;
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Returns the renderer that is shared by the application.
+     * @return the shared renderer
+     */
+    public static TileRenderer getDefault() { return Holder.INSTANCE; }
+
+    public CompletableFuture<WritableImage> render(final TileBuilder<?> BUILDER, final double WIDTH, final double HEIGHT) {
+        return render(BUILDER, tile -> {}, WIDTH, HEIGHT);
+    }
+    /**
+     * Renders the i-th tile of the given snapshot with a tile that is built
+     * by the given builder.
+     * @param BUILDER
+     * @param SNAPSHOT
+     * @param INDEX
+     * @param WIDTH
+     * @param HEIGHT
+     * @return the future of the rendered image
+     */
+    public CompletableFuture<WritableImage> render(final TileBuilder<?> BUILDER, final TileSnapshot SNAPSHOT, final int INDEX, final double WIDTH, final double HEIGHT) {
+        return render(BUILDER, tile -> {
+            try {
+                SNAPSHOT.restore(INDEX, tile);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, WIDTH, HEIGHT);
+    }
+    /**
+     * Builds a tile with the given builder, fills it with the given data
+     * function (called on the JavaFX application thread before the tile is
+     * laid out) and renders it with the given size. The builder must not be
+     * changed before the future is completed.
+     * @param BUILDER
+     * @param DATA
+     * @param WIDTH
+     * @param HEIGHT
+     * @return the future of the rendered image
+     */
+    public CompletableFuture<WritableImage> render(final TileBuilder<?> BUILDER, final Consumer<Tile> DATA, final double WIDTH, final double HEIGHT) {
+        final Job job = new Job(BUILDER, DATA, WIDTH, HEIGHT);
+        submitted.add(job);
+        if (Platform.isFxApplicationThread()) {
+            updateTimer();
+        } else if (wakeUpRequested.compareAndSet(false, true)) {
+            Platform.runLater(() -> {
+                wakeUpRequested.set(false);
+                updateTimer();
+            });
+        }
+        return job.future;
+    }
+
+    /**
+     * Renders the tile like render() and writes the image as PNG to the
+     * given file, the image is encoded in the common ForkJoinPool.
+     * @param BUILDER
+     * @param DATA
+     * @param WIDTH
+     * @param HEIGHT
+     * @param FILE
+     * @return the future of the written file
+     */
+    public CompletableFuture<Path> renderToPng(final TileBuilder<?> BUILDER, final Consumer<Tile> DATA, final double WIDTH, final double HEIGHT, final Path FILE) {
+        return render(BUILDER, DATA, WIDTH, HEIGHT).thenApplyAsync(image -> {
+            try {
+                PngEncoder.write(image, FILE);
+                return FILE;
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Returns the max. number of jobs that will be started per pulse
+     * (default is DEFAULT_BATCH_SIZE).
+     * @return the max. number of jobs that will be started per pulse
+     */
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(final int SIZE) { batchSize = Math.max(1, SIZE); }
+
+    /**
+     * Returns the max. number of offscreen scenes per SkinType (default is
+     * DEFAULT_MAX_SCENES_PER_SKIN_TYPE). Jobs of a SkinType whose scenes are
+     * all in use wait until one of them is free again.
+     * @return the max. number of offscreen scenes per SkinType
+     */
+    public int getMaxScenesPerSkinType() { return maxScenesPerSkinType; }
+    public void setMaxScenesPerSkinType(final int MAX) { maxScenesPerSkinType = Math.max(1, MAX); }
+
+    /**
+     * Returns the number of offscreen scenes of all SkinTypes that were
+     * created so far.
+     * @return the number of offscreen scenes
+     */
+    public int getNoOfScenes() {
+        int scenes = 0;
+        for (int noOfScenesOfType : noOfScenes) { scenes += noOfScenesOfType; }
+        return scenes;
+    }
+
+    public int getNoOfPendingJobs() { return noOfPendingJobs + submitted.size(); }
+
+    public int getNoOfRunningJobs() { return noOfRunningJobs; }
+
+    public long getNoOfRenderedImages() { return noOfRenderedImages; }
+
+    private void pulse() {
+        for (Job job = submitted.poll() ; null != job ; job = submitted.poll()) {
+            final Deque<Job> jobs = pending.computeIfAbsent(job.skinType, skinType -> new ArrayDeque<>());
+            if (jobs.isEmpty()) { waitingSkinTypes.add(job.skinType); }
+            jobs.add(job);
+            noOfPendingJobs++;
+        }
+        // Each SkinType with waiting jobs gets one turn per pulse, the ones that still have jobs queue up again
+        int noOfStartedJobs = 0;
+        for (int turns = waitingSkinTypes.size() ; turns > 0 && noOfStartedJobs < batchSize ; turns--) {
+            final SkinType   skinType = waitingSkinTypes.poll();
+            final Deque<Job> jobs     = pending.get(skinType);
+            while (noOfStartedJobs < batchSize && !jobs.isEmpty()) {
+                final Scene scene = acquireScene(skinType);
+                // All scenes of this skin type are in use, the jobs have to wait
+                if (null == scene) { break; }
+                noOfPendingJobs--;
+                start(jobs.poll(), scene);
+                noOfStartedJobs++;
+            }
+            if (!jobs.isEmpty()) { waitingSkinTypes.add(skinType); }
+        }
+        updateTimer();
+    }
+
+    private void start(final Job JOB, final Scene SCENE) {
+        final Group root = (Group) SCENE.getRoot();
+        final Tile  tile;
+        try {
+            tile = JOB.builder.build();
+            tile.setAnimated(false);
+            JOB.data.accept(tile);
+            tile.setPrefSize(JOB.width, JOB.height);
+            root.getChildren().setAll(tile);
+            root.applyCss();
+            root.layout();
+        } catch (RuntimeException e) {
+            root.getChildren().clear();
+            releaseScene(JOB.skinType, SCENE);
+            JOB.future.completeExceptionally(e);
+            return;
+        }
+        noOfRunningJobs++;
+        final SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        // The snapshots of all tiles of a batch are rendered in the next pulse
+        tile.snapshot(result -> {
+            root.getChildren().clear();
+            // Stops the tick task of a running tile and frees the slots of its animations in the shared animators
+            tile.stop();
+            tile.stopAnimations();
+            tile.setSkin(null);
+            releaseScene(JOB.skinType, SCENE);
+            noOfRunningJobs--;
+            noOfRenderedImages++;
+            JOB.future.complete(result.getImage());
+            updateTimer();
+            return null;
+        }, parameters, null);
+    }
+
+    private Scene acquireScene(final SkinType SKIN_TYPE) {
+        final Deque<Scene> scenes = freeScenes.computeIfAbsent(SKIN_TYPE, skinType -> new ArrayDeque<>());
+        if (!scenes.isEmpty()) { return scenes.pop(); }
+        if (noOfScenes[SKIN_TYPE.ordinal()] >= maxScenesPerSkinType) { return null; }
+        noOfScenes[SKIN_TYPE.ordinal()]++;
+        return new Scene(new Group());
+    }
+
+    private void releaseScene(final SkinType SKIN_TYPE, final Scene SCENE) { freeScenes.get(SKIN_TYPE).push(SCENE); }
+
+    private void updateTimer() {
+        final boolean hasJobs = noOfPendingJobs > 0 || !submitted.isEmpty();
+        if (hasJobs && !timerRunning) {
+            if (null == timer) {
+                timer = new AnimationTimer() {
+                    @Override public void handle(final long NOW) { pulse(); }
+                };
+            }
+            timer.start();
+            timerRunning = true;
+        } else if (!hasJobs && timerRunning) {
+            timer.stop();
+            timerRunning = false;
+        }
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static class Job {
+        private final TileBuilder<?>                   builder;
+        private final Consumer<Tile>                   data;
+        private final double                           width;
+        private final double                           height;
+        private final SkinType                         skinType;
+        private final CompletableFuture<WritableImage> future;
+
+
+        // ******************** Constructors **********************************
+        private Job(final TileBuilder<?> BUILDER, final Consumer<Tile> DATA, final double WIDTH, final double HEIGHT) {
+            builder  = BUILDER;
+            data     = null == DATA ? tile -> {} : DATA;
+            width    = WIDTH;
+            height   = HEIGHT;
+            skinType = BUILDER.getSkinType();
+            future   = new CompletableFuture<>();
+        }
+    }
+
+    private static class Holder {
+        private static final TileRenderer INSTANCE = new TileRenderer();
+    }
+}
@@ -0,0 +1,344 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann;
+
+import eu.hansolo.tilesfx.runnermann.chart.ChartData;
+import eu.hansolo.tilesfx.runnermann.skins.LeaderBoardItem;
+import eu.hansolo.tilesfx.runnermann.tools.MovingAverage;
+import eu.hansolo.tilesfx.runnermann.tools.TimeData;
+import eu.hansolo.tilesfx.runnermann.tools.TimeSeriesStore;
+import javafx.scene.paint.Color;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+
+/**
+ * Snapshot of the model state of a list of tiles in a compact binary
+ * format, so that dashboards look right directly after a restart instead
+ * of replaying the history through setValue() and addChartData().
+ * A snapshot contains per tile the value, the min- and maxMeasuredValue,
+ * the window of the moving average, the chart data, the sections, the
+ * leader board items and the records of the time series store. Settings
+ * of the tiles (colors, skin, averaging period etc.) and images are not
+ * part of the snapshot, they come from the code that creates the tiles.
+ * The file starts with a magic number, the format version and the number
+ * of tiles, followed by one length prefixed block per tile in the order of
+ * the list of tiles.
+ * restore() loads the state into the models without animations and
+ * without firing events per item, each skin is refreshed once afterwards.
+ * of() and restore() must be called on the JavaFX application thread (or
+ * before the tiles are shown), writing and reading can be done on any
+ * thread.
+ */
+public class TileSnapshot {
+    public  static final int          VERSION = 1;
+    private static final long         MAGIC   = 0x5449_4C45_534E_4150L; // "TILESNAP"
+    private static final long         NONE    = Long.MIN_VALUE;
+    private        final List<byte[]> states;
+
+
+    // ******************** Constructors **************************************
+    private TileSnapshot(final List<byte[]> STATES) {
+        states = STATES;
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Takes a snapshot of the model state of the given tiles.
+     * @param TILES
+     * @return a snapshot of the model state of the given tiles
+     */
+    public static TileSnapshot of(final List<Tile> TILES) {
+        final List<byte[]> states = new ArrayList<>(TILES.size());
+        try {
+            for (Tile tile : TILES) { states.add(encode(tile)); }
+        } catch (IOException e) {
+            // Can't happen when writing to a byte array
+            throw new IllegalStateException(e);
+        }
+        return new TileSnapshot(states);
+    }
+
+    /**
+     * Reads a snapshot that was written by writeTo().
+     * @param IN
+     * @return the snapshot
+     * @throws IOException if the stream could not be read or doesn't contain a snapshot
+     */
+    public static TileSnapshot readFrom(final InputStream IN) throws IOException {
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(IN));
+        if (MAGIC != in.readLong()) { throw new IOException("Not a tile snapshot"); }
+        final int version = in.readInt();
+        if (version <= 0 || version > VERSION) { throw new IOException("Unsupported tile snapshot version " + version); }
+        final int          noOfTiles = readCount(in);
+        final List<byte[]> states    = new ArrayList<>(Math.min(noOfTiles, 1024));
+        for (int i = 0 ; i < noOfTiles ; i++) {
+            final byte[] state = new byte[readCount(in)];
+            in.readFully(state);
+            states.add(state);
+        }
+        return new TileSnapshot(states);
+    }
+
+    public static TileSnapshot load(final Path FILE) throws IOException {
+        try (InputStream in = Files.newInputStream(FILE)) { return readFrom(in); }
+    }
+
+    public int getNoOfTiles() { return states.size(); }
+
+    /**
+     * Returns the number of bytes of the snapshot without the header.
+     * @return the number of bytes of the snapshot without the header
+     */
+    public long getSizeInBytes() {
+        long size = 0;
+        for (byte[] state : states) { size += Integer.BYTES + state.length; }
+        return size;
+    }
+
+    public void writeTo(final OutputStream OUT) throws IOException {
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(OUT));
+        out.writeLong(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(states.size());
+        for (byte[] state : states) {
+            out.writeInt(state.length);
+            out.write(state);
+        }
+        out.flush();
+    }
+
+    public void save(final Path FILE) throws IOException {
+        try (OutputStream out = Files.newOutputStream(FILE)) { writeTo(out); }
+    }
+
+    /**
+     * Restores the state of the given tiles, tile i gets the state of the
+     * i-th tile of the snapshot. Records of the time series store are only
+     * appended if they are newer than the last record of the store, so a
+     * store that is backed by a file won't get them twice.
+     * @param TILES
+     * @throws IOException if the state of a tile is corrupt, the tiles before it are restored
+     */
+    public void restore(final List<Tile> TILES) throws IOException {
+        if (TILES.size() != states.size()) { throw new IllegalArgumentException("Snapshot contains " + states.size() + " tiles but " + TILES.size() + " tiles were given"); }
+        for (int i = 0 ; i < states.size() ; i++) { decode(TILES.get(i), states.get(i)); }
+    }
+
+    /**
+     * Restores the state of the i-th tile of the snapshot in the given tile
+     * (e.g. a tile that is rendered to an image by the TileRenderer).
+     * @param INDEX
+     * @param TILE
+     * @throws IOException if the state of the tile is corrupt
+     */
+    public void restore(final int INDEX, final Tile TILE) throws IOException { decode(TILE, states.get(INDEX)); }
+
+    private static byte[] encode(final Tile TILE) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        final DataOutputStream      out   = new DataOutputStream(bytes);
+
+        out.writeDouble(TILE.getValue());
+        out.writeDouble(TILE.getMinMeasuredValue());
+        out.writeDouble(TILE.getMaxMeasuredValue());
+
+        final Queue<TimeData> window = TILE.getMovingAverage().getWindow();
+        out.writeInt(window.size());
+        for (TimeData data : window) {
+            writeInstant(out, data.getTimestamp());
+            out.writeDouble(data.getValue());
+        }
+
+        final List<ChartData> chartData = TILE.getChartData();
+        out.writeInt(chartData.size());
+        for (ChartData data : chartData) {
+            writeString(out, data.getName());
+            out.writeDouble(data.getValue());
+            writeInstant(out, data.getTimestamp());
+            writeDuration(out, data.getDuration());
+            writeColor(out, data.getFillColor());
+            writeColor(out, data.getStrokeColor());
+            writeColor(out, data.getTextColor());
+        }
+
+        final List<Section> sections = TILE.getSections();
+        out.writeInt(sections.size());
+        for (Section section : sections) {
+            out.writeDouble(section.getStart());
+            out.writeDouble(section.getStop());
+            writeString(out, section.getText());
+            writeColor(out, section.getColor());
+            writeColor(out, section.getHighlightColor());
+            writeColor(out, section.getTextColor());
+            writeString(out, section.getStyleClass());
+        }
+
+        final List<LeaderBoardItem> leaderBoardItems = TILE.getLeaderBoardItems();
+        out.writeInt(leaderBoardItems.size());
+        for (LeaderBoardItem item : leaderBoardItems) {
+            writeString(out, item.getName());
+            out.writeDouble(item.getValue());
+            writeInstant(out, item.getTimestamp());
+            writeDuration(out, item.getDuration());
+        }
+
+        final TimeSeriesStore store       = TILE.getTimeSeriesStore();
+        final long            noOfRecords = null == store ? 0 : store.size();
+        out.writeLong(noOfRecords);
+        for (long i = 0 ; i < noOfRecords ; i++) {
+            out.writeLong(store.getEpochMillis(i));
+            out.writeDouble(store.getValue(i));
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void decode(final Tile TILE, final byte[] STATE) throws IOException {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(STATE));
+
+        final double value            = in.readDouble();
+        final double minMeasuredValue = in.readDouble();
+        final double maxMeasuredValue = in.readDouble();
+
+        final int            windowSize = readCount(in);
+        final List<TimeData> window     = new ArrayList<>(windowSize);
+        for (int i = 0 ; i < windowSize ; i++) {
+            final Instant timestamp = readInstant(in);
+            window.add(new TimeData(in.readDouble(), timestamp));
+        }
+
+        final int             noOfChartData = readCount(in);
+        final List<ChartData> chartData     = new ArrayList<>(noOfChartData);
+        for (int i = 0 ; i < noOfChartData ; i++) {
+            final String   name      = readString(in);
+            final double   dataValue = in.readDouble();
+            final Instant  timestamp = readInstant(in);
+            final Duration duration  = readDuration(in);
+            chartData.add(new ChartData(null, name, dataValue, readColor(in), readColor(in), readColor(in), timestamp, duration, false, 0));
+        }
+
+        final int           noOfSections = readCount(in);
+        final List<Section> sections     = new ArrayList<>(noOfSections);
+        for (int i = 0 ; i < noOfSections ; i++) {
+            final double start = in.readDouble();
+            final double stop  = in.readDouble();
+            final String text  = readString(in);
+            sections.add(new Section(start, stop, text, null, readColor(in), readColor(in), readColor(in), readString(in)));
+        }
+
+        final int                   noOfItems        = readCount(in);
+        final List<LeaderBoardItem> leaderBoardItems = new ArrayList<>(noOfItems);
+        for (int i = 0 ; i < noOfItems ; i++) {
+            final String  name      = readString(in);
+            final double  itemValue = in.readDouble();
+            final Instant timestamp = readInstant(in);
+            leaderBoardItems.add(new LeaderBoardItem(name, itemValue, timestamp, readDuration(in)));
+        }
+
+        final long noOfRecords = in.readLong();
+        if (noOfRecords < 0) { throw new IOException("Corrupt tile snapshot, negative number of records " + noOfRecords); }
+
+        // Restore the models, the skins are refreshed once at the end
+        TILE.restoreValue(value);
+        TILE.setMinMeasuredValue(minMeasuredValue);
+        TILE.setMaxMeasuredValue(maxMeasuredValue);
+
+        final MovingAverage movingAverage = TILE.getMovingAverage();
+        movingAverage.reset();
+        movingAverage.addListOfData(window);
+
+        if (!chartData.isEmpty() || !TILE.getChartData().isEmpty()) { TILE.updateChartData(transaction -> transaction.setAll(chartData)); }
+
+        final boolean sectionsChanged = !sections.isEmpty() || !TILE.getSections().isEmpty();
+        if (sectionsChanged) { TILE.getSections().setAll(sections); }
+
+        boolean dataChanged = !leaderBoardItems.isEmpty() || !TILE.getLeaderBoardItems().isEmpty();
+        if (dataChanged) { TILE.getLeaderBoardItems().setAll(leaderBoardItems); }
+
+        final TimeSeriesStore store = TILE.getTimeSeriesStore();
+        if (null != store) {
+            final long lastEpochMillis = store.getLastEpochMillis();
+            for (long i = 0 ; i < noOfRecords ; i++) {
+                final long   epochMillis = in.readLong();
+                final double recordValue = in.readDouble();
+                if (epochMillis > lastEpochMillis) {
+                    store.append(epochMillis, recordValue);
+                    dataChanged = true;
+                }
+            }
+        }
+
+        TILE.finishRestore(sectionsChanged, dataChanged);
+    }
+
+    // Counts and lengths are never negative, a negative one means the data is corrupt
+    private static int readCount(final DataInput IN) throws IOException {
+        final int count = IN.readInt();
+        if (count < 0) { throw new IOException("Corrupt tile snapshot, negative count " + count); }
+        return count;
+    }
+
+    private static void writeString(final DataOutput OUT, final String TEXT) throws IOException {
+        OUT.writeBoolean(null != TEXT);
+        if (null != TEXT) { OUT.writeUTF(TEXT); }
+    }
+    private static String readString(final DataInput IN) throws IOException { return IN.readBoolean() ? IN.readUTF() : null; }
+
+    private static void writeInstant(final DataOutput OUT, final Instant INSTANT) throws IOException { OUT.writeLong(null == INSTANT ? NONE : INSTANT.toEpochMilli()); }
+    private static Instant readInstant(final DataInput IN) throws IOException {
+        final long epochMillis = IN.readLong();
+        return NONE == epochMillis ? null : Instant.ofEpochMilli(epochMillis);
+    }
+
+    private static void writeDuration(final DataOutput OUT, final Duration DURATION) throws IOException { OUT.writeLong(null == DURATION ? NONE : DURATION.toMillis()); }
+    private static Duration readDuration(final DataInput IN) throws IOException {
+        final long millis = IN.readLong();
+        return NONE == millis ? null : Duration.ofMillis(millis);
+    }
+
+    // Colors are stored as RGBA with 8 bit per channel
+    private static void writeColor(final DataOutput OUT, final Color COLOR) throws IOException {
+        OUT.writeBoolean(null != COLOR);
+        if (null == COLOR) { return; }
+        OUT.writeInt((int) Math.round(COLOR.getRed() * 255) << 24 | (int) Math.round(COLOR.getGreen() * 255) << 16 | (int) Math.round(COLOR.getBlue() * 255) << 8 | (int) Math.round(COLOR.getOpacity() * 255));
+    }
+    private static Color readColor(final DataInput IN) throws IOException {
+        if (!IN.readBoolean()) { return null; }
+        final int rgba = IN.readInt();
+        return Color.rgb(rgba >>> 24, rgba >>> 16 & 0xFF, rgba >>> 8 & 0xFF, (rgba & 0xFF) / 255.0);
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.stage.Window;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+
+/**
+ * Visibility model of the tiles. A node is visible if its window is
+ * showing, the node and all its parents are visible with an opacity > 0
+ * (which also covers the content of non selected tabs and collapsed
+ * titled panes) and its bounds intersect the clips of its parents (e.g.
+ * the viewport of a ScrollPane) and the scene. Nodes in a scene without
+ * a window (e.g. for snapshots) are always visible.
+ * Each tile with a skin listens to the properties that the visibility
+ * depends on: the visible, opacity, parent and clip of the tile and its
+ * parents, the bounds of the clips, the transform of the tile to the
+ * scene, the size of the scene and the showing state of the window. A
+ * change marks the tile and all marked tiles are checked once at the end
+ * of the current event. A tile that is not visible gets renderSuspended.
+ * While rendering is suspended the tile only updates its data model and
+ * its skin won't redraw, when the tile becomes visible again the skin
+ * renders once from the latest state of the tile (see TileSkin).
+ * Polling all tiles every CHECK_INTERVAL can be enabled as a fallback
+ * for changes the listeners don't see (see setPollingEnabled()).
+ * The checks must only be done on the JavaFX application thread.
+ */
+public final class TileVisibility {
+    public  static final long           CHECK_INTERVAL = 250_000_000L;  // 250 ms
+    private static final List<Watcher>  WATCHERS       = new ArrayList<>();
+    private static final List<Watcher>  DIRTY          = new ArrayList<>();
+    private static       boolean        enabled        = true;
+    private static       boolean        pollingEnabled = false;
+    private static       boolean        checkScheduled;
+    private static       AnimationTimer timer;
+    private static       long           lastCheck;
+
+
+    // ******************** Constructors **************************************
+    private TileVisibility() {}
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Returns true if the rendering of tiles that are not visible will be
+     * suspended (default is true).
+     * @return true if the rendering of tiles that are not visible will be suspended
+     */
+    public static boolean isEnabled() { return enabled; }
+    public static void setEnabled(final boolean ENABLED) {
+        if (ENABLED == enabled) { return; }
+        enabled = ENABLED;
+        if (ENABLED) {
+            update();
+        } else {
+            forEachTile(tile -> tile.setRenderSuspended(false));
+        }
+        updateTimer();
+    }
+
+    /**
+     * Returns true if all tiles are checked every CHECK_INTERVAL in addition
+     * to the checks after a change (default is false).
+     * @return true if all tiles are checked every CHECK_INTERVAL
+     */
+    public static boolean isPollingEnabled() { return pollingEnabled; }
+    public static void setPollingEnabled(final boolean ENABLED) {
+        pollingEnabled = ENABLED;
+        updateTimer();
+    }
+
+    /**
+     * Checks the visibility of all registered tiles now instead of waiting
+     * for the next check.
+     */
+    public static void update() {
+        lastCheck = System.nanoTime();
+        if (!enabled) { return; }
+        forEachTile(tile -> tile.setRenderSuspended(!isVisible(tile)));
+    }
+    public static boolean isVisible(final Node NODE) {
+        if (null == NODE || null == NODE.getScene()) { return false; }
+        if (null == NODE.getScene().getWindow()) { return true; }
+        return isShowing(NODE) && isTreeVisible(NODE) && isInViewport(NODE);
+    }
+
+    /**
+     * Returns true if the node is part of a scene in a showing window.
+     * @param NODE
+     * @return true if the node is part of a scene in a showing window
+     */
+    public static boolean isShowing(final Node NODE) {
+        if (null == NODE) { return false; }
+        final Scene scene = NODE.getScene();
+        if (null == scene) { return false; }
+        final Window window = scene.getWindow();
+        return null != window && window.isShowing();
+    }
+
+    /**
+     * Returns true if the node and all its parents are visible and not
+     * completely transparent.
+     * @param NODE
+     * @return true if the node and all its parents are visible
+     */
+    public static boolean isTreeVisible(final Node NODE) {
+        Node node = NODE;
+        while (null != node) {
+            if (!node.isVisible() || node.getOpacity() == 0) { return false; }
+            node = node.getParent();
+        }
+        return null != NODE;
+    }
+
+    /**
+     * Returns true if the bounds of the node intersect the clips of all
+     * its parents and the area of the scene.
+     * @param NODE
+     * @return true if the node is in the viewport of its parents and the scene
+     */
+    public static boolean isInViewport(final Node NODE) {
+        if (null == NODE || null == NODE.getScene()) { return false; }
+        final Scene  scene  = NODE.getScene();
+        final Bounds bounds = NODE.localToScene(NODE.getLayoutBounds());
+        Node node = NODE;
+        while (null != node) {
+            final Node clip = node.getClip();
+            if (null != clip) {
+                final Bounds clipBounds = node.localToScene(clip.getBoundsInParent());
+                if (clipBounds.getWidth() <= 0 || clipBounds.getHeight() <= 0 || !bounds.intersects(clipBounds)) { return false; }
+            }
+            node = node.getParent();
+        }
+        return bounds.intersects(0, 0, scene.getWidth(), scene.getHeight());
+    }
+
+    /**
+     * Checks the visibility of the given tile now, e.g. after it was
+     * added to a scene or moved into the viewport.
+     * @param TILE
+     */
+    static void update(final Tile TILE) {
+        if (enabled && null != TILE.getSkin()) { TILE.setRenderSuspended(!isVisible(TILE)); }
+    }
+
+    // Called by the tile when it gets its first skin
+    static void register(final Tile TILE) {
+        final Watcher watcher = new Watcher(TILE);
+        WATCHERS.add(watcher);
+        watcher.attach();
+        update(TILE);
+        updateTimer();
+    }
+
+    static void unregister(final Tile TILE) {
+        WATCHERS.removeIf(watcher -> {
+            final Tile tile = watcher.tile.get();
+            if (null != tile && tile != TILE) { return false; }
+            watcher.detach();
+            return true;
+        });
+        TILE.setRenderSuspended(false);
+        updateTimer();
+    }
+
+    private static void invalidated(final Watcher WATCHER) {
+        if (WATCHER.dirty) { return; }
+        WATCHER.dirty = true;
+        DIRTY.add(WATCHER);
+        if (checkScheduled) { return; }
+        // One check for all changes of the current event (e.g. a scroll that moves all tiles of a grid)
+        checkScheduled = true;
+        Platform.runLater(TileVisibility::checkDirty);
+    }
+
+    private static void checkDirty() {
+        checkScheduled = false;
+        final Watcher[] watchers = DIRTY.toArray(new Watcher[0]);
+        DIRTY.clear();
+        for (Watcher watcher : watchers) {
+            watcher.dirty = false;
+            final Tile tile = watcher.tile.get();
+            if (null == tile || !watcher.attached) { continue; }
+            // Follows new parents, scenes and windows and validates the observed properties, so the next change is reported again
+            watcher.attach();
+            update(tile);
+        }
+    }
+
+    private static void forEachTile(final Consumer<Tile> ACTION) {
+        final Iterator<Watcher> iterator = WATCHERS.iterator();
+        final List<Tile> tiles = new ArrayList<>(WATCHERS.size());
+        while (iterator.hasNext()) {
+            final Watcher watcher = iterator.next();
+            final Tile    tile    = watcher.tile.get();
+            if (null == tile) {
+                watcher.detach();
+                iterator.remove();
+            } else {
+                tiles.add(tile);
+            }
+        }
+        // Resuming a tile renders its skin which might register or unregister other tiles
+        tiles.forEach(ACTION);
+    }
+
+    private static void updateTimer() {
+        final boolean needed = enabled && pollingEnabled && !WATCHERS.isEmpty();
+        if (needed && null == timer) {
+            timer = new AnimationTimer() {
+                @Override public void handle(final long NOW) {
+                    if (NOW - lastCheck < CHECK_INTERVAL) { return; }
+                    update();
+                    if (WATCHERS.isEmpty()) { updateTimer(); }
+                }
+            };
+            timer.start();
+        } else if (!needed && null != timer) {
+            timer.stop();
+            timer = null;
+        }
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static class Watcher implements InvalidationListener {
+        private final WeakReference<Tile> tile;
+        private       List<Observable>    observables;
+        private       boolean             attached;
+        private       boolean             dirty;
+
+
+        // ******************** Constructors **************************************
+        Watcher(final Tile TILE) {
+            tile        = new WeakReference<>(TILE);
+            observables = List.of();
+        }
+
+
+        // ******************** Methods *******************************************
+        @Override public void invalidated(final Observable OBSERVABLE) { TileVisibility.invalidated(Watcher.this); }
+
+        // Collects the properties the visibility of the tile depends on, reading them validates them
+        void attach() {
+            final Tile tile = this.tile.get();
+            if (null == tile) { return; }
+            final List<Observable> current = new ArrayList<>(observables.size());
+            tile.getLocalToSceneTransform();
+            tile.getLayoutBounds();
+            current.add(tile.localToSceneTransformProperty());
+            current.add(tile.layoutBoundsProperty());
+            current.add(tile.sceneProperty());
+            for (Node node = tile ; null != node ; node = node.getParent()) {
+                node.isVisible();
+                node.getOpacity();
+                current.add(node.visibleProperty());
+                current.add(node.opacityProperty());
+                current.add(node.parentProperty());
+                current.add(node.clipProperty());
+                final Node clip = node.getClip();
+                if (null != clip) {
+                    clip.getBoundsInParent();
+                    current.add(clip.boundsInParentProperty());
+                }
+            }
+            final Scene scene = tile.getScene();
+            if (null != scene) {
+                scene.getWidth();
+                scene.getHeight();
+                current.add(scene.windowProperty());
+                current.add(scene.widthProperty());
+                current.add(scene.heightProperty());
+                final Window window = scene.getWindow();
+                if (null != window) {
+                    window.isShowing();
+                    current.add(window.showingProperty());
+                }
+            }
+            if (attached && current.equals(observables)) { return; }
+            detach();
+            current.forEach(observable -> observable.addListener(Watcher.this));
+            observables = current;
+            attached    = true;
+        }
+
+        void detach() {
+            observables.forEach(observable -> observable.removeListener(Watcher.this));
+            observables = List.of();
+            attached    = false;
+        }
+    }
+}
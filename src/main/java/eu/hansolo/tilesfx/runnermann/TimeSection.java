@@ -20,6 +20,7 @@ package eu.hansolo.tilesfx.runnermann;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.BooleanPropertyBase;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ObjectPropertyBase;
 import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -34,6 +35,7 @@ import javafx.scene.paint.Color;
 import java.time.DayOfWeek;
 import java.time.LocalTime;
 import java.time.ZonedDateTime;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -46,26 +48,27 @@ import java.util.Set;
  * Created by hansolo on 31.01.16.
  */
 public class TimeSection implements Comparable<TimeSection> {
-    public  final TimeSectionEvent          ENTERED_EVENT = new TimeSectionEvent(this, null, TimeSectionEvent.TIME_SECTION_ENTERED);
-    public  final TimeSectionEvent          LEFT_EVENT    = new TimeSectionEvent(this, null, TimeSectionEvent.TIME_SECTION_LEFT);
-    private       LocalTime                 _start;
-    private       ObjectProperty<LocalTime> start;
-    private       LocalTime                 _stop;
-    private       ObjectProperty<LocalTime> stop;
-    private       String                    _text;
-    private       StringProperty            text;
-    private       Image                     _icon;
-    private       ObjectProperty<Image>     icon;
-    private       Color                     _color;
-    private       ObjectProperty<Color>     color;
-    private       Color                     _highlightColor;
-    private       ObjectProperty<Color>     highlightColor;
-    private       Color                     _textColor;
-    private       ObjectProperty<Color>     textColor;
-    private       LocalTime                 checkedValue;
-    private       boolean                   _active;
-    private       BooleanProperty           active;
-    private       Set<DayOfWeek>            days;
+    public  final TimeSectionEvent              ENTERED_EVENT = new TimeSectionEvent(this, null, TimeSectionEvent.TIME_SECTION_ENTERED);
+    public  final TimeSectionEvent              LEFT_EVENT    = new TimeSectionEvent(this, null, TimeSectionEvent.TIME_SECTION_LEFT);
+    private       LocalTime                     _start;
+    private       ObjectProperty<LocalTime>     start;
+    private       LocalTime                     _stop;
+    private       ObjectProperty<LocalTime>     stop;
+    private       String                        _text;
+    private       StringProperty                text;
+    private       Image                         _icon;
+    private       ObjectProperty<Image>         icon;
+    private       Color                         _color;
+    private       ObjectProperty<Color>         color;
+    private       Color                         _highlightColor;
+    private       ObjectProperty<Color>         highlightColor;
+    private       Color                         _textColor;
+    private       ObjectProperty<Color>         textColor;
+    private       LocalTime                     checkedValue;
+    private       boolean                       _active;
+    private       BooleanProperty               active;
+    private       Set<DayOfWeek>                days;
+    private       List<WeakReference<Runnable>> indexListeners;
 
 
     // ******************** Constructors **************************************
@@ -130,12 +133,19 @@ public class TimeSection implements Comparable<TimeSection> {
     public void setStart(final LocalTime START) {
         if (null == start) {
             _start = START;
+            fireIndexInvalidated();
         } else {
             start.set(START);
         }
     }
     public ObjectProperty<LocalTime> startProperty() {
-        if (null == start) { start = new SimpleObjectProperty<>(TimeSection.this, "start", _start); }
+        if (null == start) {
+            start = new ObjectPropertyBase<>(_start) {
+                @Override protected void invalidated() { fireIndexInvalidated(); }
+                @Override public Object getBean() { return TimeSection.this; }
+                @Override public String getName() { return "start"; }
+            };
+        }
         return start;
     }
 
@@ -151,12 +161,19 @@ public class TimeSection implements Comparable<TimeSection> {
     public void setStop(final LocalTime STOP) {
         if (null == stop) {
             _stop = STOP;
+            fireIndexInvalidated();
         } else {
             stop.set(STOP);
         }
     }
     public ObjectProperty<LocalTime> stopProperty() {
-        if (null == stop) { stop = new SimpleObjectProperty<>(TimeSection.this, "stop", _stop); }
+        if (null == stop) {
+            stop = new ObjectPropertyBase<>(_stop) {
+                @Override protected void invalidated() { fireIndexInvalidated(); }
+                @Override public Object getBean() { return TimeSection.this; }
+                @Override public String getName() { return "stop"; }
+            };
+        }
         return stop;
     }
 
@@ -272,6 +289,7 @@ public class TimeSection implements Comparable<TimeSection> {
     public void setActive(final boolean ACTIVE) {
         if (null == active) {
             _active = ACTIVE;
+            fireIndexInvalidated();
         } else {
             active.set(ACTIVE);
         }
@@ -279,6 +297,7 @@ public class TimeSection implements Comparable<TimeSection> {
     public ReadOnlyBooleanProperty activeProperty() {
         if (null == active) {
             active = new BooleanPropertyBase(_active) {
+                @Override protected void invalidated() { fireIndexInvalidated(); }
                 @Override public Object getBean() { return TimeSection.this; }
                 @Override public String getName() { return "active"; }
             };
@@ -291,14 +310,25 @@ public class TimeSection implements Comparable<TimeSection> {
     public void setDays(final DayOfWeek... DAYS) {
         days.clear();
         Collections.addAll(days, DAYS);
+        fireIndexInvalidated();
     }
     public void setDays(final Set<DayOfWeek> DAYS) {
         days.clear();
         days.addAll(DAYS);
+        fireIndexInvalidated();
+    }
+    public void addDay(final DayOfWeek DAY) {
+        days.add(DAY);
+        fireIndexInvalidated();
+    }
+    public void removeDay(final DayOfWeek DAY) {
+        days.remove(DAY);
+        fireIndexInvalidated();
+    }
+    public void clearDays() {
+        days.clear();
+        fireIndexInvalidated();
     }
-    public void addDay(final DayOfWeek DAY) { days.add(DAY); }
-    public void removeDay(final DayOfWeek DAY) { days.remove(DAY); }
-    public void clearDays() { days.clear(); }
 
 
     /**
@@ -413,6 +443,35 @@ public class TimeSection implements Comparable<TimeSection> {
         HANDLER.handle(EVENT);
     }
 
+    /**
+     * Listeners of the tiles that contain this time section and that have
+     * to rebuild their TimeSectionIndex when start, stop, days or the active
+     * state of the time section changed.
+     * The listeners are only weakly referenced so that a time section
+     * doesn't keep a tile alive, the tile has to hold on to its listener.
+     * @param LISTENER
+     */
+    void addIndexListener(final Runnable LISTENER) {
+        if (null == indexListeners) { indexListeners = new ArrayList<>(2); }
+        indexListeners.add(new WeakReference<>(LISTENER));
+    }
+    void removeIndexListener(final Runnable LISTENER) {
+        if (null == indexListeners) { return; }
+        indexListeners.removeIf(reference -> null == reference.get() || LISTENER == reference.get());
+    }
+
+    private void fireIndexInvalidated() {
+        if (null == indexListeners) { return; }
+        for (int i = indexListeners.size() - 1 ; i >= 0 ; i--) {
+            final Runnable listener = indexListeners.get(i).get();
+            if (null == listener) {
+                indexListeners.remove(i);
+            } else {
+                listener.run();
+            }
+        }
+    }
+
 
     // ******************** Inner Classes *************************************
     public static class TimeSectionEvent extends Event {
@@ -0,0 +1,396 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann;
+
+import eu.hansolo.tilesfx.runnermann.Tile.SkinType;
+import eu.hansolo.tilesfx.runnermann.tools.FlowGridPane;
+import eu.hansolo.tilesfx.runnermann.tools.Helper;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.DoublePropertyBase;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.IntegerPropertyBase;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+import javafx.scene.shape.Rectangle;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * A scrollable grid of tiles that lays out the tiles row by row with a
+ * fixed number of columns (like the FlowGridPane) but only adds the tiles
+ * that are in or near the viewport to the scene graph. So only those tiles
+ * get a skin with its nodes, listeners and timers, all other tiles only
+ * keep their model.
+ * Tiles that leave the viewport are parked in a pool per SkinType and keep
+ * their skin, so scrolling back and forth won't create new skins. If the
+ * pool of a SkinType is full, the skin of the tile that was parked first
+ * will be released and a new skin will be created from the model of the
+ * tile when it becomes visible again.
+ * Events that are fired while a parked tile is not part of the scene will
+ * be delivered to its skin when the tile is added again.
+ * The grid must only be used on the JavaFX application thread.
+ */
+public class VirtualTileGrid extends Region {
+    public  static final int                                DEFAULT_NO_OF_COLS  = 4;
+    public  static final int                                DEFAULT_OVERSCAN    = 1;
+    public  static final int                                DEFAULT_POOL_SIZE   = 16;
+    private static final double                             DEFAULT_GAP         = 5;
+    private static final double                             PREFERRED_SIZE      = 250;
+    private static final double                             SCROLL_STEP         = 40;
+    private        final ObservableList<Tile>               tiles;
+    private        final Pane                               viewport;
+    private        final Rectangle                          clip;
+    private        final ScrollBar                          scrollBar;
+    private        final Set<Tile>                          attached;
+    private        final Map<SkinType, LinkedHashSet<Tile>> pool;
+    private              IntegerProperty                    noOfCols;
+    private              double                             _cellHeight;
+    private              DoubleProperty                     cellHeight;
+    private              double                             hgap;
+    private              double                             vgap;
+    private              int                                overscan;
+    private              int                                poolSize;
+    private              int                                firstIndex;
+    private              int                                lastIndex;
+    private              boolean                            dirty;
+
+
+    // ******************** Constructors **************************************
+    public VirtualTileGrid() {
+        this(DEFAULT_NO_OF_COLS);
+    }
+    public VirtualTileGrid(final int NO_OF_COLS, final Tile... TILES) {
+        tiles       = FXCollections.observableArrayList();
+        viewport    = new Pane();
+        clip        = new Rectangle();
+        scrollBar   = new ScrollBar();
+        attached    = new HashSet<>();
+        pool        = new EnumMap<>(SkinType.class);
+        noOfCols    = new IntegerPropertyBase(Helper.clamp(1, Integer.MAX_VALUE, NO_OF_COLS)) {
+            @Override protected void invalidated() {
+                if (get() < 1) { set(1); }
+                invalidateRange();
+            }
+            @Override public Object getBean() { return VirtualTileGrid.this; }
+            @Override public String getName() { return "noOfCols"; }
+        };
+        _cellHeight = -1;
+        hgap        = DEFAULT_GAP;
+        vgap        = DEFAULT_GAP;
+        overscan    = DEFAULT_OVERSCAN;
+        poolSize    = DEFAULT_POOL_SIZE;
+        firstIndex  = 0;
+        lastIndex   = -1;
+        dirty       = true;
+
+        initGraphics();
+        registerListeners();
+        if (null != TILES) { tiles.setAll(TILES); }
+    }
+
+
+    // ******************** Initialization ************************************
+    private void initGraphics() {
+        getStyleClass().add("virtual-tile-grid");
+
+        viewport.setClip(clip);
+        viewport.setManaged(false);
+
+        scrollBar.setOrientation(Orientation.VERTICAL);
+        scrollBar.setManaged(false);
+
+        getChildren().setAll(viewport, scrollBar);
+    }
+
+    private void registerListeners() {
+        tiles.addListener((ListChangeListener<Tile>) change -> {
+            while (change.next()) {
+                if (change.wasRemoved()) {
+                    for (Tile tile : change.getRemoved()) {
+                        if (change.getAddedSubList().contains(tile)) { continue; }
+                        attached.remove(tile);
+                        viewport.getChildren().remove(tile);
+                        unpark(tile);
+                    }
+                }
+            }
+            invalidateRange();
+        });
+        scrollBar.valueProperty().addListener(o -> requestLayout());
+        addEventHandler(ScrollEvent.SCROLL, e -> {
+            if (Double.compare(e.getDeltaY(), 0.0) == 0) { return; }
+            scrollBar.setValue(Helper.clamp(scrollBar.getMin(), scrollBar.getMax(), scrollBar.getValue() - e.getDeltaY()));
+            e.consume();
+        });
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Returns the tiles of the grid. Only the tiles in or near the
+     * viewport will be part of the scene graph.
+     * @return the tiles of the grid
+     */
+    public ObservableList<Tile> getTiles() { return tiles; }
+
+    public int getNoOfCols() { return noOfCols.get(); }
+    public void setNoOfCols(final int COLS) { noOfCols.set(COLS); }
+    public IntegerProperty noOfColsProperty() { return noOfCols; }
+
+    /**
+     * Returns the height of the cells, a value <= 0 means that the cells
+     * are as high as they are wide.
+     * @return the height of the cells
+     */
+    public double getCellHeight() { return null == cellHeight ? _cellHeight : cellHeight.get(); }
+    public void setCellHeight(final double HEIGHT) {
+        if (null == cellHeight) {
+            _cellHeight = HEIGHT;
+            invalidateRange();
+        } else {
+            cellHeight.set(HEIGHT);
+        }
+    }
+    public DoubleProperty cellHeightProperty() {
+        if (null == cellHeight) {
+            cellHeight = new DoublePropertyBase(_cellHeight) {
+                @Override protected void invalidated() { invalidateRange(); }
+                @Override public Object getBean() { return VirtualTileGrid.this; }
+                @Override public String getName() { return "cellHeight"; }
+            };
+        }
+        return cellHeight;
+    }
+
+    public double getHgap() { return hgap; }
+    public void setHgap(final double GAP) {
+        hgap = Helper.clamp(0, Double.MAX_VALUE, GAP);
+        invalidateRange();
+    }
+
+    public double getVgap() { return vgap; }
+    public void setVgap(final double GAP) {
+        vgap = Helper.clamp(0, Double.MAX_VALUE, GAP);
+        invalidateRange();
+    }
+
+    /**
+     * Returns the number of rows above and below the viewport whose
+     * tiles will be kept in the scene graph.
+     * @return the number of rows that will be kept around the viewport
+     */
+    public int getOverscan() { return overscan; }
+    public void setOverscan(final int ROWS) {
+        overscan = Helper.clamp(0, Integer.MAX_VALUE, ROWS);
+        invalidateRange();
+    }
+
+    /**
+     * Returns the number of tiles per SkinType that keep their skin
+     * after they left the viewport.
+     * @return the number of parked tiles per SkinType that keep their skin
+     */
+    public int getPoolSize() { return poolSize; }
+    public void setPoolSize(final int SIZE) {
+        poolSize = Helper.clamp(0, Integer.MAX_VALUE, SIZE);
+        for (LinkedHashSet<Tile> parked : pool.values()) { trim(parked); }
+    }
+
+    /**
+     * Returns the tiles that are currently part of the scene graph.
+     * @return the tiles that are currently part of the scene graph
+     */
+    public List<Tile> getAttachedTiles() { return new ArrayList<>(attached); }
+
+    public boolean isAttached(final Tile TILE) { return attached.contains(TILE); }
+
+    /**
+     * Scrolls the grid so that the tile at the given index is visible.
+     * @param INDEX
+     */
+    public void scrollTo(final int INDEX) {
+        if (INDEX < 0 || INDEX >= tiles.size()) { return; }
+        final double rowHeight = getRowHeight(getCellWidth());
+        final double top       = (INDEX / getNoOfCols()) * rowHeight;
+        final double bottom    = top + rowHeight - vgap;
+        final double offset    = scrollBar.getValue();
+        final double height    = getViewportHeight();
+        if (top < offset) {
+            scrollBar.setValue(Helper.clamp(scrollBar.getMin(), scrollBar.getMax(), top));
+        } else if (bottom > offset + height) {
+            scrollBar.setValue(Helper.clamp(scrollBar.getMin(), scrollBar.getMax(), bottom - height));
+        }
+    }
+    public void scrollTo(final Tile TILE) { scrollTo(tiles.indexOf(TILE)); }
+
+    /**
+     * Releases the skins of all parked tiles.
+     */
+    public void clearPool() {
+        for (LinkedHashSet<Tile> parked : pool.values()) {
+            for (Tile tile : parked) { tile.setSkin(null); }
+            parked.clear();
+        }
+    }
+
+    private void invalidateRange() {
+        dirty = true;
+        requestLayout();
+    }
+
+    private int offsetToCol(final int OFFSET) { return FlowGridPane.offsetToCol(OFFSET, getNoOfCols()); }
+    private int offsetToRow(final int OFFSET) { return FlowGridPane.offsetToRow(OFFSET, getNoOfCols()); }
+
+    private double getViewportWidth()  { return Math.max(0, getWidth() - snappedLeftInset() - snappedRightInset() - (scrollBar.isVisible() ? scrollBar.prefWidth(-1) : 0)); }
+    private double getViewportHeight() { return Math.max(0, getHeight() - snappedTopInset() - snappedBottomInset()); }
+
+    private double getCellWidth() {
+        final int cols = getNoOfCols();
+        return Math.max(0, (getViewportWidth() - (cols - 1) * hgap) / cols);
+    }
+    private double getRowHeight(final double CELL_WIDTH) {
+        final double cellHeight = getCellHeight();
+        return (cellHeight > 0 ? cellHeight : CELL_WIDTH) + vgap;
+    }
+
+    private void park(final Tile TILE) {
+        final LinkedHashSet<Tile> parked = pool.computeIfAbsent(TILE.getSkinType(), skinType -> new LinkedHashSet<>());
+        parked.add(TILE);
+        trim(parked);
+    }
+
+    private void unpark(final Tile TILE) {
+        final LinkedHashSet<Tile> parked = pool.get(TILE.getSkinType());
+        if (null != parked) { parked.remove(TILE); }
+    }
+
+    private void trim(final LinkedHashSet<Tile> PARKED) {
+        final Iterator<Tile> iterator = PARKED.iterator();
+        while (PARKED.size() > poolSize && iterator.hasNext()) {
+            final Tile tile = iterator.next();
+            iterator.remove();
+            // Disposes the skin, a new one will be created from the model when the tile gets visible again
+            tile.setSkin(null);
+        }
+    }
+
+    private void updateAttachedTiles(final int FROM, final int TO) {
+        if (!dirty && FROM == firstIndex && TO == lastIndex) { return; }
+        dirty      = false;
+        firstIndex = FROM;
+        lastIndex  = TO;
+
+        final Set<Tile> visible = new LinkedHashSet<>();
+        for (int i = FROM ; i <= TO ; i++) { visible.add(tiles.get(i)); }
+
+        final List<Tile> leaving = new ArrayList<>();
+        for (Tile tile : attached) {
+            if (!visible.contains(tile)) { leaving.add(tile); }
+        }
+        for (Tile tile : leaving) {
+            attached.remove(tile);
+            viewport.getChildren().remove(tile);
+            park(tile);
+        }
+
+        final List<Tile> entering = new ArrayList<>();
+        for (Tile tile : visible) {
+            if (attached.add(tile)) {
+                unpark(tile);
+                tile.setManaged(false);
+                entering.add(tile);
+            }
+        }
+        if (!entering.isEmpty()) { viewport.getChildren().addAll(entering); }
+    }
+
+
+    // ******************** Layout ********************************************
+    @Override protected double computePrefWidth(final double HEIGHT) {
+        return snappedLeftInset() + snappedRightInset() + getNoOfCols() * (PREFERRED_SIZE + hgap) - hgap + scrollBar.prefWidth(-1);
+    }
+    @Override protected double computePrefHeight(final double WIDTH) {
+        return snappedTopInset() + snappedBottomInset() + 2 * (PREFERRED_SIZE + vgap) - vgap;
+    }
+
+    @Override protected void layoutChildren() {
+        final double left   = snappedLeftInset();
+        final double top    = snappedTopInset();
+        final double height = getViewportHeight();
+        final int    count  = tiles.size();
+        final int    rows   = (count + getNoOfCols() - 1) / getNoOfCols();
+
+        double cellWidth     = getCellWidth();
+        double rowHeight     = getRowHeight(cellWidth);
+        double contentHeight = Math.max(0, rows * rowHeight - vgap);
+        final boolean scrollable = contentHeight > height;
+        if (scrollable != scrollBar.isVisible()) {
+            scrollBar.setVisible(scrollable);
+            cellWidth     = getCellWidth();
+            rowHeight     = getRowHeight(cellWidth);
+            contentHeight = Math.max(0, rows * rowHeight - vgap);
+        }
+        final double width = getViewportWidth();
+
+        scrollBar.setMin(0);
+        scrollBar.setMax(Math.max(0, contentHeight - height));
+        scrollBar.setVisibleAmount(contentHeight > 0 ? height * scrollBar.getMax() / contentHeight : 0);
+        scrollBar.setUnitIncrement(SCROLL_STEP);
+        scrollBar.setBlockIncrement(height);
+        if (scrollBar.getValue() > scrollBar.getMax()) { scrollBar.setValue(scrollBar.getMax()); }
+        scrollBar.resizeRelocate(left + width, top, scrollBar.prefWidth(-1), height);
+
+        viewport.resizeRelocate(left, top, width, height);
+        clip.setWidth(width);
+        clip.setHeight(height);
+
+        if (0 == count || rowHeight <= 0 || height <= 0) {
+            updateAttachedTiles(0, -1);
+            return;
+        }
+
+        final double offset   = scrollBar.getValue();
+        final int    firstRow = Math.max(0, (int) (offset / rowHeight) - overscan);
+        final int    lastRow  = Math.min(rows - 1, (int) ((offset + height) / rowHeight) + overscan);
+        final int    from     = firstRow * getNoOfCols();
+        final int    to       = Math.min(count - 1, (lastRow + 1) * getNoOfCols() - 1);
+        updateAttachedTiles(from, to);
+
+        final double tileHeight = rowHeight - vgap;
+        for (int i = from ; i <= to ; i++) {
+            final Tile tile = tiles.get(i);
+            tile.resizeRelocate(offsetToCol(i) * (cellWidth + hgap), offsetToRow(i) * rowHeight - offset, cellWidth, tileHeight);
+            // Tiles in the overscan rows are suspended until they are scrolled into the viewport
+            TileVisibility.update(tile);
+        }
+    }
+}
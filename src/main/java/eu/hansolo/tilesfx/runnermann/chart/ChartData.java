@@ -23,10 +23,8 @@ import eu.hansolo.tilesfx.runnermann.events.ChartDataEvent.EventType;
 import eu.hansolo.tilesfx.runnermann.events.ChartDataEventListener;
 import eu.hansolo.tilesfx.runnermann.tools.GradientLookup;
 import eu.hansolo.tilesfx.runnermann.tools.Location;
+import eu.hansolo.tilesfx.runnermann.tools.ValueAnimator;
 import javafx.animation.Interpolator;
-import javafx.animation.KeyFrame;
-import javafx.animation.KeyValue;
-import javafx.animation.Timeline;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.DoublePropertyBase;
 import javafx.beans.property.ObjectProperty;
@@ -35,7 +33,6 @@ import javafx.beans.property.ReadOnlyDoubleProperty;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.scene.image.Image;
 import javafx.scene.paint.Color;
-import javafx.util.Duration;
 
 import java.time.Instant;
 import java.time.LocalDate;
@@ -52,6 +49,15 @@ import static eu.hansolo.tilesfx.runnermann.tools.Helper.clamp;
  * Created by hansolo on 17.02.17.
  */
 public class ChartData implements Comparable<ChartData> {
+    private static final int                           VALUE_CHANNEL     = 0;
+    private static final int                           TIMESTAMP_CHANNEL = 1;
+    private static final int                           DURATION_CHANNEL  = 2;
+    private static final ValueAnimator<ChartData>      ANIMATOR          = new ValueAnimator<>(new ValueAnimator.Callback<>() {
+        @Override public int getSlot(final ChartData DATA, final int CHANNEL) { return DATA.getAnimationSlot(CHANNEL); }
+        @Override public void setSlot(final ChartData DATA, final int CHANNEL, final int SLOT) { DATA.setAnimationSlot(CHANNEL, SLOT); }
+        @Override public void update(final ChartData DATA, final int CHANNEL, final double VALUE) { DATA.updateAnimation(CHANNEL, VALUE); }
+        @Override public void finish(final ChartData DATA, final int CHANNEL) { DATA.finishAnimation(CHANNEL); }
+    }, 3);
     protected final ChartDataEvent                     UPDATE_EVENT   = new ChartDataEvent(EventType.UPDATE, ChartData.this);
     protected final ChartDataEvent                     FINISHED_EVENT = new ChartDataEvent(EventType.FINISHED, ChartData.this);
     protected       Image                              image;
@@ -72,12 +78,15 @@ public class ChartData implements Comparable<ChartData> {
     protected       DoubleProperty                     currentValue;
     protected       ObjectProperty<java.time.Duration> currentDuration;
     protected       ObjectProperty<Instant>            currentTimestamp;
-    protected       Timeline                           timeline;
     protected       String                             formatString;
     protected       double                             minValue;
     protected       double                             maxValue;
     protected       GradientLookup                     gradientLookup;
     protected       boolean                            useChartDataColors;
+    private         int                                valueSlot      = -1;
+    private         int                                timestampSlot  = -1;
+    private         int                                durationSlot   = -1;
+    private         boolean                            valueUpdatePending;
 
 
     // ******************** Constructors **************************************
@@ -170,19 +179,23 @@ public class ChartData implements Comparable<ChartData> {
             @Override public Object getBean() { return ChartData.this; }
             @Override public String getName() { return "currentTimestamp"; }
         };
-        timeline           = new Timeline();
         animated           = ANIMATED;
         animationDuration  = ANIMATION_DURATION;
         formatString       = "";
         minValue           = 0;
         maxValue           = 100;
         useChartDataColors = false;
-
-        timeline.setOnFinished(e -> fireChartDataEvent(FINISHED_EVENT));
     }
 
 
     // ******************** Methods *******************************************
+    /**
+     * Returns the animator that animates the values of all chart data,
+     * e.g. to limit the number of animations per frame under load.
+     * @return the animator that animates the values of all chart data
+     */
+    public static ValueAnimator<ChartData> getAnimator() { return ANIMATOR; }
+
     public Image getImage() { return image; }
     public void setImage(final Image IMAGE) {
         image = IMAGE;
@@ -201,20 +214,46 @@ public class ChartData implements Comparable<ChartData> {
         if (animated) {
             oldValue = value;
             value    = VALUE;
-            timeline.stop();
-            KeyValue kv1 = new KeyValue(currentValue, oldValue, Interpolator.EASE_BOTH);
-            KeyValue kv2 = new KeyValue(currentValue, VALUE, Interpolator.EASE_BOTH);
-            KeyFrame kf1 = new KeyFrame(Duration.ZERO, kv1);
-            KeyFrame kf2 = new KeyFrame(Duration.millis(animationDuration), kv2);
-            timeline.getKeyFrames().setAll(kf1, kf2);
-            timeline.play();
+            ANIMATOR.animate(ChartData.this, VALUE_CHANNEL, oldValue, VALUE, animationDuration, Interpolator.EASE_BOTH);
         } else {
+            if (valueSlot >= 0) { ANIMATOR.stop(ChartData.this, VALUE_CHANNEL); }
             oldValue = value;
             value    = VALUE;
             fireChartDataEvent(FINISHED_EVENT);
         }
     }
 
+    /**
+     * Stops all running animations of this item, the values stay where
+     * they are.
+     */
+    public void stopAnimations() {
+        if (valueSlot >= 0)     { ANIMATOR.stop(ChartData.this, VALUE_CHANNEL); }
+        if (timestampSlot >= 0) { ANIMATOR.stop(ChartData.this, TIMESTAMP_CHANNEL); }
+        if (durationSlot >= 0)  { ANIMATOR.stop(ChartData.this, DURATION_CHANNEL); }
+    }
+
+    // Used by the transactions of ChartDataList which report the change to the listeners of the list,
+    // returns false if the value was already changed in the running transaction
+    boolean setValueSilently(final double VALUE) {
+        if (valueSlot >= 0) { ANIMATOR.stop(ChartData.this, VALUE_CHANNEL); }
+        if (valueUpdatePending) {
+            value = VALUE;
+            return false;
+        }
+        oldValue           = value;
+        value              = VALUE;
+        valueUpdatePending = true;
+        return true;
+    }
+
+    // Called once per changed item after the transaction was reported to the listeners of the list,
+    // returns the event setValue() fires without animation, the list delivers it to the listeners
+    ChartDataEvent finishValueUpdate() {
+        valueUpdatePending = false;
+        return FINISHED_EVENT;
+    }
+
     public ReadOnlyDoubleProperty currentValueProperty() { return currentValue; }
 
     public double getOldValue() { return oldValue; }
@@ -243,14 +282,9 @@ public class ChartData implements Comparable<ChartData> {
         if (animated) {
             oldTimestamp = timestamp;
             timestamp    = TIMESTAMP;
-            timeline.stop();
-            KeyValue kv1 = new KeyValue(currentTimestamp, oldTimestamp, Interpolator.EASE_BOTH);
-            KeyValue kv2 = new KeyValue(currentTimestamp, TIMESTAMP, Interpolator.EASE_BOTH);
-            KeyFrame kf1 = new KeyFrame(Duration.ZERO, kv1);
-            KeyFrame kf2 = new KeyFrame(Duration.millis(animationDuration), kv2);
-            timeline.getKeyFrames().setAll(kf1, kf2);
-            timeline.play();
+            ANIMATOR.animate(ChartData.this, TIMESTAMP_CHANNEL, 0, 1, animationDuration, Interpolator.EASE_BOTH);
         } else {
+            if (timestampSlot >= 0) { ANIMATOR.stop(ChartData.this, TIMESTAMP_CHANNEL); }
             oldTimestamp = timestamp;
             timestamp    = TIMESTAMP;
             fireChartDataEvent(FINISHED_EVENT);
@@ -264,14 +298,9 @@ public class ChartData implements Comparable<ChartData> {
         if (animated) {
             oldDuration = duration;
             duration    = DURATION;
-            timeline.stop();
-            KeyValue kv1 = new KeyValue(currentDuration, oldDuration, Interpolator.EASE_BOTH);
-            KeyValue kv2 = new KeyValue(currentDuration, DURATION, Interpolator.EASE_BOTH);
-            KeyFrame kf1 = new KeyFrame(Duration.ZERO, kv1);
-            KeyFrame kf2 = new KeyFrame(Duration.millis(animationDuration), kv2);
-            timeline.getKeyFrames().setAll(kf1, kf2);
-            timeline.play();
+            ANIMATOR.animate(ChartData.this, DURATION_CHANNEL, 0, 1, animationDuration, Interpolator.EASE_BOTH);
         } else {
+            if (durationSlot >= 0) { ANIMATOR.stop(ChartData.this, DURATION_CHANNEL); }
             oldDuration = duration;
             duration    = DURATION;
             fireChartDataEvent(FINISHED_EVENT);
@@ -322,6 +351,35 @@ public class ChartData implements Comparable<ChartData> {
     public boolean getUseChartDataColor() { return useChartDataColors; }
     public void setUseChartDataColors(final boolean USE) { useChartDataColors = USE; }
 
+    private int getAnimationSlot(final int CHANNEL) {
+        switch (CHANNEL) {
+            case VALUE_CHANNEL    : return valueSlot;
+            case TIMESTAMP_CHANNEL: return timestampSlot;
+            case DURATION_CHANNEL : return durationSlot;
+            default                     : return -1;
+        }
+    }
+    private void setAnimationSlot(final int CHANNEL, final int SLOT) {
+        switch (CHANNEL) {
+            case VALUE_CHANNEL    : valueSlot     = SLOT; break;
+            case TIMESTAMP_CHANNEL: timestampSlot = SLOT; break;
+            case DURATION_CHANNEL : durationSlot  = SLOT; break;
+        }
+    }
+
+    // Timestamps and durations are not interpolated, they are set when their animation finishes
+    private void updateAnimation(final int CHANNEL, final double VALUE) {
+        if (VALUE_CHANNEL == CHANNEL) { currentValue.set(VALUE); }
+    }
+
+    private void finishAnimation(final int CHANNEL) {
+        switch (CHANNEL) {
+            case TIMESTAMP_CHANNEL: currentTimestamp.set(timestamp); break;
+            case DURATION_CHANNEL : currentDuration.set(duration); break;
+        }
+        if (valueSlot < 0 && timestampSlot < 0 && durationSlot < 0) { fireChartDataEvent(FINISHED_EVENT); }
+    }
+
     @Override public String toString() {
         return new StringBuilder().append("{\n")
                                   .append("  \"name\":\"").append(name).append("\",\n")
@@ -0,0 +1,182 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.chart;
+
+import eu.hansolo.tilesfx.runnermann.events.ChartDataEvent;
+import eu.hansolo.tilesfx.runnermann.events.ChartDataEventListener;
+import javafx.collections.ModifiableObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+
+/**
+ * Observable list of ChartData that can apply many adds, removes and value
+ * changes in one transaction (see update()). The listeners of the list are
+ * notified once per transaction with one change that contains all
+ * modifications, value changes are reported as updates (wasUpdated()).
+ * Afterwards the listeners of the items whose value was changed get one
+ * FINISHED event each, so skins that listen to the items show the new
+ * values. A listener that was added to several changed items (e.g. the
+ * one listener of a skin that redraws the whole chart) only gets the
+ * event of the last of them and redraws once per transaction.
+ * The configurator (e.g. the animation settings of the tile) is only
+ * applied to the items that are added in a transaction.
+ */
+public class ChartDataList extends ModifiableObservableListBase<ChartData> {
+    private final List<ChartData>     list;
+    private final Consumer<ChartData> configurator;
+    private final Transaction         transaction;
+
+
+    // ******************** Constructors **************************************
+    public ChartDataList() {
+        this(data -> {});
+    }
+    public ChartDataList(final Consumer<ChartData> CONFIGURATOR) {
+        list         = new ArrayList<>();
+        configurator = null == CONFIGURATOR ? data -> {} : CONFIGURATOR;
+        transaction  = new Transaction();
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Applies all modifications of the given transaction and notifies the
+     * listeners of the list once with one change.
+     * @param TRANSACTION
+     */
+    public void update(final Consumer<Transaction> TRANSACTION) {
+        beginChange();
+        try {
+            TRANSACTION.accept(transaction);
+        } finally {
+            endChange();
+            transaction.finishValueUpdates();
+        }
+    }
+
+    @Override public ChartData get(final int INDEX) { return list.get(INDEX); }
+
+    @Override public int size() { return list.size(); }
+
+    @Override protected void doAdd(final int INDEX, final ChartData DATA) { list.add(INDEX, DATA); }
+
+    @Override protected ChartData doSet(final int INDEX, final ChartData DATA) { return list.set(INDEX, DATA); }
+
+    @Override protected ChartData doRemove(final int INDEX) { return list.remove(INDEX); }
+
+    // Removes the range in one step instead of item by item, e.g. when old items of a feed are dropped
+    @Override public void remove(final int FROM, final int TO) { removeRange(FROM, TO); }
+
+    @Override protected void removeRange(final int FROM, final int TO) {
+        if (FROM >= TO) { return; }
+        final List<ChartData> range   = list.subList(FROM, TO);
+        final List<ChartData> removed = new ArrayList<>(range);
+        beginChange();
+        try {
+            range.clear();
+            modCount++;
+            nextRemove(FROM, removed);
+        } finally {
+            endChange();
+        }
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Modifications of a ChartDataList that will be reported to the listeners
+     * of the list as one change. Value changes are not animated, they are
+     * reported as updates of the list and the listeners of the changed items
+     * get one FINISHED event after the change, no matter how often a value
+     * was set or how many of the changed items a listener observes.
+     */
+    public class Transaction {
+        private final List<ChartData> updated = new ArrayList<>();
+
+        // ******************** Constructors **********************************
+        private Transaction() {}
+
+
+        // ******************** Methods ***************************************
+        public void add(final ChartData DATA) {
+            configurator.accept(DATA);
+            ChartDataList.this.add(DATA);
+        }
+
+        public void addAll(final Collection<? extends ChartData> DATA) {
+            DATA.forEach(configurator);
+            ChartDataList.this.addAll(DATA);
+        }
+
+        public void setAll(final Collection<? extends ChartData> DATA) {
+            DATA.forEach(configurator);
+            ChartDataList.this.setAll(DATA);
+        }
+
+        public boolean remove(final ChartData DATA) { return ChartDataList.this.remove(DATA); }
+
+        public void removeAll(final Collection<? extends ChartData> DATA) { ChartDataList.this.removeAll(DATA); }
+
+        /**
+         * Removes the oldest (first) items so that the list contains not more
+         * than the given number of items.
+         * @param MAX_NO_OF_ITEMS
+         */
+        public void trimTo(final int MAX_NO_OF_ITEMS) {
+            final int noOfItemsToRemove = list.size() - Math.max(0, MAX_NO_OF_ITEMS);
+            if (noOfItemsToRemove > 0) { ChartDataList.this.remove(0, noOfItemsToRemove); }
+        }
+
+        public void clear() { ChartDataList.this.clear(); }
+
+        public void setValue(final int INDEX, final double VALUE) {
+            final ChartData data = list.get(INDEX);
+            if (data.setValueSilently(VALUE)) { updated.add(data); }
+            nextUpdate(INDEX);
+        }
+
+        public void setValue(final ChartData DATA, final double VALUE) {
+            final int index = list.indexOf(DATA);
+            if (index < 0) { return; }
+            setValue(index, VALUE);
+        }
+
+        public int size() { return list.size(); }
+
+        public ChartData get(final int INDEX) { return list.get(INDEX); }
+
+        private void finishValueUpdates() {
+            if (updated.isEmpty()) { return; }
+            final ChartData[] items = updated.toArray(new ChartData[0]);
+            updated.clear();
+            // Each listener once with the event of the last changed item it observes, in the order they were first notified
+            final Map<ChartDataEventListener, ChartDataEvent> events = new LinkedHashMap<>();
+            for (ChartData data : items) {
+                final ChartDataEvent event = data.finishValueUpdate();
+                for (ChartDataEventListener listener : data.listenerList) { events.put(listener, event); }
+            }
+            events.forEach((listener, event) -> listener.onChartDataEvent(event));
+        }
+    }
+}
@@ -19,12 +19,15 @@ package eu.hansolo.tilesfx.runnermann.chart;
 
 //import com.sun.javafx.charts.Legend;
 //import com.sun.javafx.charts.Legend.LegendItem;
+import eu.hansolo.tilesfx.runnermann.Tile.Downsampling;
 import eu.hansolo.tilesfx.runnermann.events.SmoothedChartEvent;
+import eu.hansolo.tilesfx.runnermann.tools.Downsampler;
 import eu.hansolo.tilesfx.runnermann.tools.Helper;
-import eu.hansolo.tilesfx.runnermann.tools.Point;
 import javafx.animation.FadeTransition;
 import javafx.animation.PauseTransition;
 import javafx.animation.SequentialTransition;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.BooleanPropertyBase;
 import javafx.beans.property.DoubleProperty;
@@ -46,7 +49,9 @@ import javafx.scene.Group;
 import javafx.scene.Node;
 import javafx.scene.chart.AreaChart;
 import javafx.scene.chart.Axis;
+import javafx.scene.chart.CategoryAxis;
 import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.ValueAxis;
 import javafx.scene.chart.XYChart;
 import javafx.scene.control.Tooltip;
 import javafx.scene.input.MouseEvent;
@@ -70,8 +75,12 @@ import javafx.scene.shape.PathElement;
 import javafx.util.Duration;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 
@@ -84,6 +93,8 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
     private              BooleanProperty                  smoothed;
     private              ChartType                        _chartType;
     private              ObjectProperty<ChartType>        chartType;
+    private              Downsampling                     _downsampling;
+    private              ObjectProperty<Downsampling>     downsampling;
     private              int                              _subDivisions;
     private              IntegerProperty                  subDivisions;
     private              boolean                          _snapToTicks;
@@ -116,6 +127,9 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
     private              EventHandler<MouseEvent>         clickHandler;
     private              EventHandler<ActionEvent>        endOfTransformationHandler;
     private              ListChangeListener<Series<X, Y>> seriesListener;
+    private              InvalidationListener             categoryListener;
+    private              Map<Series<X, Y>, SeriesCache>   caches;
+    private              long                             layoutVersion;
 
 
     // ******************** Constructors **************************************
@@ -135,6 +149,7 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
     private void init() {
         _smoothed                  = true;
         _chartType                 = ChartType.LINE;
+        _downsampling              = Downsampling.LTTB;
         _subDivisions              = 16;
         _snapToTicks               = false;
         _selectorFillColor         = Color.WHITE;
@@ -145,31 +160,15 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
         _tooltipTimeout            = 2000;
         formatString               = "%.2f";
         strokePaths                = new ArrayList<>();
+        caches                     = new HashMap<>();
         clickHandler               = e -> select(e);
         endOfTransformationHandler = e -> selectorTooltip.hide();
+        categoryListener           = o -> layoutVersion++;
         seriesListener             = change -> {
             while (change.next()) {
-                if (change.wasAdded()) {
-                    change.getAddedSubList().forEach(addedItem -> {
-                        final Series<X, Y> series     = addedItem;
-                        final Path         strokePath = (Path) ((Group) series.getNode()).getChildren().get(1);
-                        final Path         fillPath   = (Path) ((Group) series.getNode()).getChildren().get(0);
-                        fillPath.addEventHandler(MouseEvent.MOUSE_PRESSED, clickHandler);
-                        strokePath.addEventHandler(MouseEvent.MOUSE_PRESSED, clickHandler);
-                        strokePaths.add(strokePath);
-
-                        series.getData().forEach(data -> data.YValueProperty().addListener(o -> layoutPlotChildren()));
-                    });
-                } else if (change.wasRemoved()) {
-                    change.getRemoved().forEach(removedItem -> {
-                        final Series<X, Y> series     = removedItem;
-                        final Path         strokePath = (Path) ((Group) series.getNode()).getChildren().get(1);
-                        final Path         fillPath   = (Path) ((Group) series.getNode()).getChildren().get(0);
-                        fillPath.removeEventHandler(MouseEvent.MOUSE_PRESSED, clickHandler);
-                        strokePath.removeEventHandler(MouseEvent.MOUSE_PRESSED, clickHandler);
-                        strokePaths.remove(strokePath);
-                    });
-                }
+                // A setAll() results in a change that was removed and added
+                if (change.wasRemoved()) { change.getRemoved().forEach(removedItem -> removeSeries(removedItem)); }
+                if (change.wasAdded())   { change.getAddedSubList().forEach(addedItem -> addSeries(addedItem)); }
             }
         };
 
@@ -211,6 +210,9 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
 
     private void registerListeners() {
         getData().addListener(seriesListener);
+        getData().forEach(series -> addSeries(series));
+        if (getXAxis() instanceof CategoryAxis) { ((CategoryAxis) getXAxis()).getCategories().addListener(categoryListener); }
+        if (getYAxis() instanceof CategoryAxis) { ((CategoryAxis) getYAxis()).getCategories().addListener(categoryListener); }
     }
 
 
@@ -219,7 +221,7 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
     public void setSmoothed(final boolean SMOOTHED) {
         if (null == smoothed) {
             _smoothed = SMOOTHED;
-            layoutPlotChildren();
+            invalidatePaths();
         } else {
             smoothed.set(SMOOTHED);
         }
@@ -227,7 +229,7 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
     public BooleanProperty smoothedProperty() {
         if (null == smoothed) {
             smoothed = new BooleanPropertyBase(_smoothed) {
-                @Override protected void invalidated() { layoutPlotChildren(); }
+                @Override protected void invalidated() { invalidatePaths(); }
                 @Override public Object getBean() { return SmoothedChart.this; }
                 @Override public String getName() { return "smoothed"; }
             };
@@ -256,11 +258,41 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
         return chartType;
     }
 
+    /**
+     * Returns the mode that is used to reduce the points of a series to at
+     * about one point per pixel of the plot width before it will be smoothed
+     * and rendered (default is LTTB). The symbols are not affected.
+     * @return the mode that is used to reduce the points of a series
+     */
+    public Downsampling getDownsampling() { return null == downsampling ? _downsampling : downsampling.get(); }
+    public void setDownsampling(final Downsampling DOWNSAMPLING) {
+        if (null == downsampling) {
+            _downsampling = null == DOWNSAMPLING ? Downsampling.NONE : DOWNSAMPLING;
+            invalidatePaths();
+        } else {
+            downsampling.set(DOWNSAMPLING);
+        }
+    }
+    public ObjectProperty<Downsampling> downsamplingProperty() {
+        if (null == downsampling) {
+            downsampling = new ObjectPropertyBase<Downsampling>(_downsampling) {
+                @Override protected void invalidated() {
+                    if (null == get()) { set(Downsampling.NONE); }
+                    invalidatePaths();
+                }
+                @Override public Object getBean() { return SmoothedChart.this; }
+                @Override public String getName() { return "downsampling"; }
+            };
+            _downsampling = null;
+        }
+        return downsampling;
+    }
+
     public int getSubDivisions() { return null == subDivisions ? _subDivisions : subDivisions.get(); }
     public void setSubDivisions(final int SUB_DIVISIONS) {
         if (null == subDivisions) {
             _subDivisions = Helper.clamp(1, MAX_SUBDIVISIONS, SUB_DIVISIONS);
-            layoutPlotChildren();
+            invalidatePaths();
         } else {
             subDivisions.set(SUB_DIVISIONS);
         }
@@ -270,7 +302,7 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
             subDivisions = new IntegerPropertyBase(_subDivisions) {
                 @Override protected void invalidated() {
                     set(Helper.clamp(1, MAX_SUBDIVISIONS, get()));
-                    layoutPlotChildren();
+                    invalidatePaths();
                 }
                 @Override public Object getBean() { return SmoothedChart.this; }
                 @Override public String getName() { return "subDivisions"; }
@@ -512,6 +544,7 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
             if (null == stackPane) { continue; }
             stackPane.setPrefSize(symbolSize, symbolSize);
         }
+        invalidatePaths();
     }
 
     public void setSymbolFill(final Series<X, Y> SERIES, final Background SYMBOL_BACKGROUND) {
@@ -675,20 +708,34 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
 
     public void dispose() {
         getData().removeListener(seriesListener);
+        if (getXAxis() instanceof CategoryAxis) { ((CategoryAxis) getXAxis()).getCategories().removeListener(categoryListener); }
+        if (getYAxis() instanceof CategoryAxis) { ((CategoryAxis) getYAxis()).getCategories().removeListener(categoryListener); }
+        caches.values().forEach(SeriesCache::dispose);
+        caches.clear();
     }
 
 
     // ******************** Internal Methods **********************************
+    /**
+     * Lays out the paths and symbols of all series from the series data.
+     * The points of a series will only be recomputed if the data of the
+     * series, the plot size, the axes or one of the smoothing settings
+     * changed since the last layout pass, otherwise the paths stay as they are.
+     */
     @Override protected void layoutPlotChildren() {
-        super.layoutPlotChildren();
-
-        double height = getLayoutBounds().getHeight();
+        final double[] layoutKey = getLayoutKey();
+        final boolean  isArea    = ChartType.AREA == getChartType();
         getData().forEach(series -> {
-            final Path[] paths = getPaths(series);
-            if (null == paths) { return; }
-            if (isSmoothed()) { smooth(paths[1].getElements(), paths[0].getElements(), height); }
-            paths[0].setVisible(ChartType.AREA == getChartType());
-            paths[0].setManaged(ChartType.AREA == getChartType());
+            final Path[]      paths = getPaths(series);
+            final SeriesCache cache = caches.get(series);
+            if (null == paths || null == cache) { return; }
+            if (cache.computedVersion != cache.version || !Arrays.equals(cache.layoutKey, layoutKey)) {
+                updatePaths(series, cache, paths[1].getElements(), paths[0].getElements());
+                cache.computedVersion = cache.version;
+                cache.layoutKey       = layoutKey;
+            }
+            paths[0].setVisible(isArea);
+            paths[0].setManaged(isArea);
         });
     }
 
@@ -711,6 +758,194 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
                             /* StrokePath */ (Path) (seriesGroup).getChildren().get(1) };
     }
 
+    private void addSeries(final Series<X, Y> SERIES) {
+        final Path strokePath = (Path) ((Group) SERIES.getNode()).getChildren().get(1);
+        final Path fillPath   = (Path) ((Group) SERIES.getNode()).getChildren().get(0);
+        fillPath.addEventHandler(MouseEvent.MOUSE_PRESSED, clickHandler);
+        strokePath.addEventHandler(MouseEvent.MOUSE_PRESSED, clickHandler);
+        strokePaths.add(strokePath);
+
+        final SeriesCache cache = caches.put(SERIES, new SeriesCache(SERIES));
+        if (null != cache) { cache.dispose(); }
+    }
+
+    private void removeSeries(final Series<X, Y> SERIES) {
+        final Path strokePath = (Path) ((Group) SERIES.getNode()).getChildren().get(1);
+        final Path fillPath   = (Path) ((Group) SERIES.getNode()).getChildren().get(0);
+        fillPath.removeEventHandler(MouseEvent.MOUSE_PRESSED, clickHandler);
+        strokePath.removeEventHandler(MouseEvent.MOUSE_PRESSED, clickHandler);
+        strokePaths.remove(strokePath);
+
+        final SeriesCache cache = caches.remove(SERIES);
+        if (null != cache) { cache.dispose(); }
+    }
+
+    // Forces the recomputation of all paths, used if a setting changed that is not part of the layout key
+    private void invalidatePaths() {
+        layoutVersion++;
+        layoutPlotChildren();
+    }
+
+    // Everything besides the series data that has an influence on the position of the points
+    private double[] getLayoutKey() {
+        final Axis<X> xAxis = getXAxis();
+        final Axis<Y> yAxis = getYAxis();
+        return new double[] { layoutVersion, getLayoutBounds().getHeight(),
+                              chartPlotBackground.getWidth(), chartPlotBackground.getHeight(),
+                              xAxis.getWidth(), xAxis instanceof ValueAxis ? ((ValueAxis<?>) xAxis).getScale() : 0, xAxis instanceof ValueAxis ? getOrigin((ValueAxis<?>) xAxis) : 0,
+                              yAxis.getHeight(), yAxis instanceof ValueAxis ? ((ValueAxis<?>) yAxis).getScale() : 0, yAxis instanceof ValueAxis ? getOrigin((ValueAxis<?>) yAxis) : 0 };
+    }
+
+    private static <T extends Number> double getOrigin(final ValueAxis<T> AXIS) { return AXIS.getDisplayPosition(AXIS.toRealValue(0)); }
+
+    /**
+     * Computes the display positions of the data of the given series, places
+     * the symbols, downsamples and smoothes the points in the primitive arrays
+     * of the cache and writes the result to the existing path elements.
+     * The fill path of a smoothed series is closed on the bottom of the chart,
+     * otherwise it is closed on the zero line of the y axis like in the AreaChart.
+     */
+    private void updatePaths(final Series<X, Y> SERIES, final SeriesCache CACHE, final ObservableList<PathElement> STROKE_ELEMENTS, final ObservableList<PathElement> FILL_ELEMENTS) {
+        final Axis<X> xAxis  = getXAxis();
+        final Axis<Y> yAxis  = getYAxis();
+        int           count  = 0;
+        boolean       sorted = true;
+        for (Iterator<Data<X, Y>> iterator = getDisplayedDataIterator(SERIES) ; iterator.hasNext() ; ) {
+            final Data<X, Y> data = iterator.next();
+            final double     x    = xAxis.getDisplayPosition(getCurrentDisplayedXValue(data));
+            final double     y    = yAxis.getDisplayPosition(getCurrentDisplayedYValue(data));
+            final boolean    skip = Double.isNaN(x) || Double.isNaN(y);
+            final Node       symbol = data.getNode();
+            if (null != symbol) {
+                final double w = symbol.prefWidth(-1);
+                final double h = symbol.prefHeight(-1);
+                if (skip) {
+                    symbol.resizeRelocate(-w * 2, -h * 2, w, h);
+                } else {
+                    symbol.resizeRelocate(x - w * 0.5, y - h * 0.5, w, h);
+                }
+            }
+            if (skip) { continue; }
+            if (count == CACHE.xs.length) {
+                CACHE.xs = Arrays.copyOf(CACHE.xs, Math.max(16, count * 2));
+                CACHE.ys = Arrays.copyOf(CACHE.ys, CACHE.xs.length);
+            }
+            if (count > 0 && x < CACHE.xs[count - 1]) { sorted = false; }
+            CACHE.xs[count] = x;
+            CACHE.ys[count] = y;
+            count++;
+        }
+
+        if (0 == count) {
+            STROKE_ELEMENTS.clear();
+            FILL_ELEMENTS.clear();
+            CACHE.pathSize = 0;
+            return;
+        }
+
+        final double[] xs = CACHE.xs;
+        final double[] ys = CACHE.ys;
+        if (!sorted) { sortByX(xs, ys, count); }
+
+        final Downsampling mode      = getDownsampling();
+        final int          threshold = Downsampler.getThreshold(mode, (int) chartPlotBackground.getWidth());
+        if (Downsampling.NONE != mode && threshold >= 4 && count > threshold) {
+            // The sampled indices are ascending, so the points can be moved to the front in place
+            final int[] sampled = Downsampler.downsample(mode, xs, ys, count, threshold);
+            for (int i = 0 ; i < sampled.length ; i++) {
+                xs[i] = xs[sampled[i]];
+                ys[i] = ys[sampled[i]];
+            }
+            count = sampled.length;
+        }
+
+        final double firstX   = xs[0];
+        final double lastX    = xs[count - 1];
+        final double baseline;
+        int          pathSize;
+        if (isSmoothed()) {
+            final int subDivisions = getSubDivisions();
+            CACHE.ensurePathCapacity((count - 1) * subDivisions + 1);
+            pathSize = Helper.subdividePoints(xs, ys, count, subDivisions, CACHE.pathXs, CACHE.pathYs);
+            // Skip the points of the spline that overshoot to the left of the first data point
+            int size = 0;
+            for (int i = 0 ; i < pathSize ; i++) {
+                if (Double.compare(CACHE.pathXs[i], firstX) < 0) { continue; }
+                CACHE.pathXs[size] = CACHE.pathXs[i];
+                CACHE.pathYs[size] = CACHE.pathYs[i];
+                size++;
+            }
+            pathSize = size;
+            baseline = getLayoutBounds().getHeight();
+        } else {
+            CACHE.ensurePathCapacity(count);
+            System.arraycopy(xs, 0, CACHE.pathXs, 0, count);
+            System.arraycopy(ys, 0, CACHE.pathYs, 0, count);
+            pathSize = count;
+            baseline = yAxis.getDisplayPosition(yAxis.toRealValue(0.0));
+        }
+        CACHE.pathSize = pathSize;
+
+        final double[] pathXs = CACHE.pathXs;
+        final double[] pathYs = CACHE.pathYs;
+
+        // Stroke: MoveTo(first point), LineTo(all points)
+        resizeElements(STROKE_ELEMENTS, pathSize, false);
+        ((MoveTo) STROKE_ELEMENTS.get(0)).setX(pathXs[0]);
+        ((MoveTo) STROKE_ELEMENTS.get(0)).setY(pathYs[0]);
+        for (int i = 0 ; i < pathSize ; i++) {
+            final LineTo lineTo = (LineTo) STROKE_ELEMENTS.get(i + 1);
+            lineTo.setX(pathXs[i]);
+            lineTo.setY(pathYs[i]);
+        }
+
+        // Fill: MoveTo(first x on baseline), LineTo(all points), LineTo(last x on baseline), ClosePath
+        resizeElements(FILL_ELEMENTS, pathSize + 1, true);
+        ((MoveTo) FILL_ELEMENTS.get(0)).setX(firstX);
+        ((MoveTo) FILL_ELEMENTS.get(0)).setY(baseline);
+        for (int i = 0 ; i < pathSize ; i++) {
+            final LineTo lineTo = (LineTo) FILL_ELEMENTS.get(i + 1);
+            lineTo.setX(pathXs[i]);
+            lineTo.setY(pathYs[i]);
+        }
+        ((LineTo) FILL_ELEMENTS.get(pathSize + 1)).setX(lastX);
+        ((LineTo) FILL_ELEMENTS.get(pathSize + 1)).setY(baseline);
+    }
+
+    // Brings the given elements to the form MoveTo, NO_OF_LINES x LineTo [, ClosePath] by only adding or removing LineTo elements
+    private static void resizeElements(final ObservableList<PathElement> ELEMENTS, final int NO_OF_LINES, final boolean CLOSED) {
+        final int     trailing = CLOSED ? 1 : 0;
+        final boolean valid    = ELEMENTS.size() > trailing && ELEMENTS.get(0) instanceof MoveTo && (!CLOSED || ELEMENTS.get(ELEMENTS.size() - 1) instanceof ClosePath);
+        if (!valid) {
+            final List<PathElement> elements = new ArrayList<>(NO_OF_LINES + 1 + trailing);
+            elements.add(new MoveTo());
+            for (int i = 0 ; i < NO_OF_LINES ; i++) { elements.add(new LineTo()); }
+            if (CLOSED) { elements.add(new ClosePath()); }
+            ELEMENTS.setAll(elements);
+            return;
+        }
+        final int noOfLines = ELEMENTS.size() - 1 - trailing;
+        if (noOfLines > NO_OF_LINES) {
+            ELEMENTS.remove(1 + NO_OF_LINES, 1 + noOfLines);
+        } else if (noOfLines < NO_OF_LINES) {
+            final List<PathElement> lines = new ArrayList<>(NO_OF_LINES - noOfLines);
+            for (int i = noOfLines ; i < NO_OF_LINES ; i++) { lines.add(new LineTo()); }
+            ELEMENTS.addAll(1 + noOfLines, lines);
+        }
+    }
+
+    private static void sortByX(final double[] XS, final double[] YS, final int COUNT) {
+        final Integer[] indices = new Integer[COUNT];
+        for (int i = 0 ; i < COUNT ; i++) { indices[i] = i; }
+        Arrays.sort(indices, (i1, i2) -> Double.compare(XS[i1], XS[i2]));
+        final double[] xs = Arrays.copyOf(XS, COUNT);
+        final double[] ys = Arrays.copyOf(YS, COUNT);
+        for (int i = 0 ; i < COUNT ; i++) {
+            XS[i] = xs[indices[i]];
+            YS[i] = ys[indices[i]];
+        }
+    }
+
     private void resizeSelector() {
         selectorTooltip.hide();
         selector.setVisible(false);
@@ -729,29 +964,23 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
 
         if (!(getYAxis() instanceof NumberAxis)) { return; }
 
-        double            upperBound   = ((NumberAxis) getYAxis()).getUpperBound();
-        double            lowerBound   = ((NumberAxis) getYAxis()).getLowerBound();
-        double            range        = upperBound - lowerBound;
-        double            factor       = range / getYAxis().getLayoutBounds().getHeight();
-        List<PathElement> elements     = null;
-        int               noOfElements = 0;
-        Bounds            pathBounds   = null;
-        double            pathMinX     = 0;
-        double            pathWidth    = 0;
-        PathElement       lastElement  = null;
+        double upperBound = ((NumberAxis) getYAxis()).getUpperBound();
+        double lowerBound = ((NumberAxis) getYAxis()).getLowerBound();
+        double range      = upperBound - lowerBound;
+        double factor     = range / getYAxis().getLayoutBounds().getHeight();
+        Bounds pathBounds = null;
+        double pathMinX   = 0;
+        double pathWidth  = 0;
 
         Series<X, Y> series = null;
         for (Series<X, Y> s : getData()) {
             Path[] paths = getPaths(s);
             int type = getChartType().ordinal(); // AREA == 0, LINE == 1 in ChartType enum
             if (paths[type].contains(EVENT_X, EVENT_Y)) {
-                series       = s;
-                elements     = paths[type].getElements();
-                noOfElements = elements.size();
-                lastElement  = elements.get(0);
-                pathBounds   = paths[1].getLayoutBounds();
-                pathMinX     = pathBounds.getMinX();
-                pathWidth    = pathBounds.getWidth();
+                series     = s;
+                pathBounds = paths[1].getLayoutBounds();
+                pathMinX   = pathBounds.getMinX();
+                pathWidth  = pathBounds.getWidth();
                 break;
             }
         }
@@ -783,85 +1012,104 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
 
             fireEvent(new SmoothedChartEvent(SmoothedChart.this, null, SmoothedChartEvent.DATA_SELECTED, selectedValue));
         } else {
-            for (int i = 1; i < noOfElements; i++) {
-                PathElement element = elements.get(i);
-
-                double[] xy  = getXYFromPathElement(lastElement);
-                double[] xy1 = getXYFromPathElement(element);
-                if (xy[0] < 0 || xy[1] < 0 || xy1[0] < 0 || xy1[1] < 0) { continue; }
-
-                if (EVENT_X > xy[0] && EVENT_X < xy1[0]) {
-                    double deltaX        = xy1[0] - xy[0];
-                    double deltaY        = xy1[1] - xy[1];
-                    double m             = deltaY / deltaX;
-                    double y             = m * (EVT.getX() - xy[0]) + xy[1];
-                    double selectedValue = ((getYAxis().getLayoutBounds().getHeight() - y) * factor + lowerBound);
-
-                    selector.setCenterX(CHART_X + EVT.getX());
-                    selector.setCenterY(CHART_MIN_Y + y);
-                    selector.setVisible(true);
-                    fadeInFadeOut.playFrom(Duration.millis(0));
-
-                    Point2D tooltipLocation = selector.localToScreen(selector.getCenterX(), selector.getCenterY());
-                    String  tooltipText     = new StringBuilder(String.format(Locale.US, formatString, selectedValue)).toString();
-                    selectorTooltip.setText(tooltipText);
-                    selectorTooltip.setX(tooltipLocation.getX());
-                    selectorTooltip.setY(tooltipLocation.getY());
-                    selectorTooltip.show(getScene().getWindow());
-
-                    fireEvent(new SmoothedChartEvent(SmoothedChart.this, null, SmoothedChartEvent.DATA_SELECTED, selectedValue));
-                    break;
-                }
-                lastElement = element;
+            final SeriesCache cache = caches.get(series);
+            if (null == cache || cache.pathSize < 2) { return; }
+
+            // Binary search for the last point of the path that is left of the event
+            final double[] xs = cache.pathXs;
+            final double[] ys = cache.pathYs;
+            int lo = 0;
+            int hi = cache.pathSize - 2;
+            while (lo < hi) {
+                final int mid = (lo + hi + 1) >>> 1;
+                if (xs[mid] < EVENT_X) { lo = mid; } else { hi = mid - 1; }
             }
+            if (!(EVENT_X > xs[lo] && EVENT_X < xs[lo + 1])) { return; }
+
+            double deltaX        = xs[lo + 1] - xs[lo];
+            double deltaY        = ys[lo + 1] - ys[lo];
+            double m             = deltaY / deltaX;
+            double y             = m * (EVENT_X - xs[lo]) + ys[lo];
+            double selectedValue = ((getYAxis().getLayoutBounds().getHeight() - y) * factor + lowerBound);
+
+            selector.setCenterX(CHART_X + EVENT_X);
+            selector.setCenterY(CHART_MIN_Y + y);
+            selector.setVisible(true);
+            fadeInFadeOut.playFrom(Duration.millis(0));
+
+            Point2D tooltipLocation = selector.localToScreen(selector.getCenterX(), selector.getCenterY());
+            String  tooltipText     = new StringBuilder(String.format(Locale.US, formatString, selectedValue)).toString();
+            selectorTooltip.setText(tooltipText);
+            selectorTooltip.setX(tooltipLocation.getX());
+            selectorTooltip.setY(tooltipLocation.getY());
+            selectorTooltip.show(getScene().getWindow());
+
+            fireEvent(new SmoothedChartEvent(SmoothedChart.this, null, SmoothedChartEvent.DATA_SELECTED, selectedValue));
         }
     }
 
-    private void smooth(ObservableList<PathElement> strokeElements, ObservableList<PathElement> fillElements, final double HEIGHT) {
-        if (fillElements.isEmpty()) return;
-        // as we do not have direct access to the data, first recreate the list of all the data points we have
-        final Point[] dataPoints = new Point[strokeElements.size()];
-        for (int i = 0; i < strokeElements.size(); i++) {
-            final PathElement element = strokeElements.get(i);
-            if (element instanceof MoveTo) {
-                final MoveTo move = (MoveTo) element;
-                dataPoints[i] = new Point(move.getX(), move.getY());
-            } else if (element instanceof LineTo) {
-                final LineTo line = (LineTo) element;
-                final double x = line.getX(), y = line.getY();
-                dataPoints[i] = new Point(x, y);
-            }
+    // ******************** Inner Classes *************************************
+    /**
+     * The points of one series in display coordinates. The version will be
+     * increased whenever the data list or the displayed x or y value of a
+     * data item changes (which includes the animations of the chart).
+     */
+    private class SeriesCache implements InvalidationListener {
+        private final Series<X, Y>                   series;
+        private final ListChangeListener<Data<X, Y>> dataListener;
+        private       long                           version;
+        private       long                           computedVersion;
+        private       double[]                       layoutKey;
+        private       double[]                       xs;
+        private       double[]                       ys;
+        private       double[]                       pathXs;
+        private       double[]                       pathYs;
+        private       int                            pathSize;
+
+
+        // ******************** Constructors **********************************
+        SeriesCache(final Series<X, Y> SERIES) {
+            series          = SERIES;
+            computedVersion = -1;
+            xs              = new double[0];
+            ys              = new double[0];
+            pathXs          = new double[0];
+            pathYs          = new double[0];
+            dataListener    = change -> {
+                while (change.next()) {
+                    if (change.wasAdded()) { change.getAddedSubList().forEach(this::addItem); }
+                }
+                invalidated(change.getList());
+            };
+            series.getData().addListener(dataListener);
+            series.getData().forEach(this::addItem);
         }
-        double firstX = dataPoints[0].getX();
-        double lastX  = dataPoints[dataPoints.length - 1].getX();
-
-        Point[] points = Helper.subdividePoints(dataPoints, getSubDivisions());
 
-        fillElements.clear();
-        fillElements.add(new MoveTo(firstX, HEIGHT));
 
-        strokeElements.clear();
-        strokeElements.add(new MoveTo(points[0].getX(), points[0].getY()));
+        // ******************** Methods ***************************************
+        @Override public void invalidated(final Observable OBSERVABLE) {
+            version++;
+            requestChartLayout();
+        }
 
-        for (Point p : points) {
-            if (Double.compare(p.getX(), firstX) >= 0) {
-                fillElements.add(new LineTo(p.getX(), p.getY()));
-                strokeElements.add(new LineTo(p.getX(), p.getY()));
-            }
+        // Removed items keep the listener, so that the remove animation of the chart still invalidates the cache
+        private void addItem(final Data<X, Y> DATA) {
+            currentDisplayedXValueProperty(DATA).addListener(this);
+            currentDisplayedYValueProperty(DATA).addListener(this);
         }
 
-        fillElements.add(new LineTo(lastX, HEIGHT));
-        fillElements.add(new LineTo(0, HEIGHT));
-        fillElements.add(new ClosePath());
-    }
+        private void ensurePathCapacity(final int SIZE) {
+            if (pathXs.length >= SIZE) { return; }
+            pathXs = new double[SIZE];
+            pathYs = new double[SIZE];
+        }
 
-    private double[] getXYFromPathElement(final PathElement ELEMENT) {
-        if (ELEMENT instanceof MoveTo) {
-            return new double[]{ ((MoveTo) ELEMENT).getX(), ((MoveTo) ELEMENT).getY() };
-        } else if (ELEMENT instanceof LineTo) {
-            return new double[] { ((LineTo) ELEMENT).getX(), ((LineTo) ELEMENT).getY() };
-        } else {
-            return new double[] { -1, -1 };
+        private void dispose() {
+            series.getData().removeListener(dataListener);
+            series.getData().forEach(data -> {
+                currentDisplayedXValueProperty(data).removeListener(this);
+                currentDisplayedYValueProperty(data).removeListener(this);
+            });
         }
     }
 }
@@ -38,6 +38,7 @@ import javafx.scene.Node;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.Tooltip;
+import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.Background;
 import javafx.scene.layout.BackgroundFill;
 import javafx.scene.layout.Border;
@@ -58,6 +59,7 @@ import javafx.scene.shape.StrokeLineCap;
 import javafx.scene.text.TextAlignment;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -124,6 +126,8 @@ public class SunburstChart extends Region {
     private              IntegerProperty                         decimals;
     private              boolean                                 _interactive;
     private              BooleanProperty                         interactive;
+    private              boolean                                 _indexedPicking;
+    private              BooleanProperty                         indexedPicking;
     private              boolean                                 _autoTextColor;
     private              BooleanProperty                         autoTextColor;
     private              Color                                   _brightTextColor;
@@ -138,6 +142,12 @@ public class SunburstChart extends Region {
     private              int                                     maxLevel;
     private              Map<Integer, List<TreeNode<ChartData>>> levelMap;
     private              InvalidationListener                    sizeListener;
+    private              Tooltip                                 pickTooltip;
+    private              TreeNode<ChartData>                     hoveredNode;
+    private              double[][]                              pickAngles;
+    private              List<List<TreeNode<ChartData>>>         pickNodes;
+    private              double                                  pickRingRadiusStep;
+    private              double                                  pickBarWidth;
 
 
 
@@ -157,6 +167,7 @@ public class SunburstChart extends Region {
         _useColorFromParent    = false;
         _decimals              = 0;
         _interactive           = false;
+        _indexedPicking        = false;
         _autoTextColor         = true;
         _brightTextColor       = BRIGHT_TEXT_COLOR;
         _darkTextColor         = DARK_TEXT_COLOR;
@@ -174,6 +185,8 @@ public class SunburstChart extends Region {
             @Override public String getName() { return "tree"; }
         };
         levelMap               = new HashMap<>(8);
+        pickAngles             = new double[0][];
+        pickNodes              = new ArrayList<>(8);
         sizeListener           = o -> resize();
         initGraphics();
         registerListeners();
@@ -211,6 +224,15 @@ public class SunburstChart extends Region {
         widthProperty().addListener(sizeListener);
         heightProperty().addListener(sizeListener);
         tree.get().setOnTreeNodeEvent(e -> redraw());
+        pane.addEventHandler(MouseEvent.MOUSE_MOVED, e -> {
+            if (isPickingIndexed()) { hover(pick(e.getX(), e.getY()), e.getScreenX(), e.getScreenY()); }
+        });
+        pane.addEventHandler(MouseEvent.MOUSE_EXITED, e -> hover(null, 0, 0));
+        pane.addEventHandler(MouseEvent.MOUSE_PRESSED, e -> {
+            if (!isPickingIndexed()) { return; }
+            TreeNode<ChartData> node = pick(e.getX(), e.getY());
+            if (null != node) { node.getTreeRoot().fireTreeNodeEvent(new TreeNodeEvent<>(node, EventType.NODE_SELECTED)); }
+        });
     }
 
 
@@ -232,6 +254,7 @@ public class SunburstChart extends Region {
         widthProperty().removeListener(sizeListener);
         heightProperty().removeListener(sizeListener);
         tree.get().removeAllTreeNodeEventListeners();
+        hover(null, 0, 0);
     }
 
     /**
@@ -442,6 +465,39 @@ public class SunburstChart extends Region {
         return interactive;
     }
 
+    /**
+     * Returns true if an interactive chart is drawn on the canvas and resolves hover and click
+     * by computing the ring and the angle of the mouse position instead of using one Path
+     * with its own tooltip and handler per segment.
+     * @return true if the segments of an interactive chart are picked from the drawn geometry
+     */
+    public boolean isIndexedPicking() { return null == indexedPicking ? _indexedPicking : indexedPicking.get(); }
+    /**
+     * Defines if an interactive chart should be drawn on the canvas and resolve hover and click
+     * with one shared tooltip and handler instead of one Path node per segment.
+     * @param INDEXED
+     */
+    public void setIndexedPicking(final boolean INDEXED) {
+        if (null == indexedPicking) {
+            _indexedPicking = INDEXED;
+            redraw();
+        } else {
+            indexedPicking.set(INDEXED);
+        }
+    }
+    public BooleanProperty indexedPickingProperty() {
+        if (null == indexedPicking) {
+            indexedPicking = new BooleanPropertyBase(_indexedPicking) {
+                @Override protected void invalidated() { redraw(); }
+                @Override public Object getBean() { return SunburstChart.this; }
+                @Override public String getName() { return "indexedPicking"; }
+            };
+        }
+        return indexedPicking;
+    }
+
+    private boolean isPickingIndexed() { return isInteractive() && isIndexedPicking(); }
+
     /**
      * Returns true if the text color of the chart data should be adjusted according to the chart data fill color.
      * e.g. if the fill color is dark the text will be set to the defined brightTextColor and vice versa.
@@ -629,7 +685,8 @@ public class SunburstChart extends Region {
         levelMap.clear();
         for (int i = 0 ; i <= maxLevel ; i++) { levelMap.put(i, new ArrayList<>()); }
         root.stream().forEach(node -> levelMap.get(node.getDepth()).add(node));
-        boolean         isInteractive      = isInteractive();
+        boolean         isIndexed          = isPickingIndexed();
+        boolean         isInteractive      = isInteractive() && !isIndexed;
         double          ringStepSize       = size * 0.8 / maxLevel;
         double          ringRadiusStep     = ringStepSize * 0.5;
         double          barWidth           = isInteractive ? ringStepSize * 0.5 : ringStepSize * 0.49;
@@ -650,6 +707,11 @@ public class SunburstChart extends Region {
         chartCtx.setLineCap(StrokeLineCap.BUTT);
 
         segments.clear();
+        if (pickAngles.length != maxLevel + 1) { pickAngles = new double[maxLevel + 1][]; }
+        pickNodes.clear();
+        pickNodes.add(Collections.emptyList());
+        pickRingRadiusStep = ringRadiusStep;
+        pickBarWidth       = barWidth;
 
         for (int level = 1 ; level <= maxLevel ; level++) {
             List<TreeNode<ChartData>> nodesAtLevel = levelMap.get(level);
@@ -658,15 +720,22 @@ public class SunburstChart extends Region {
             double         outerRadius  = ringRadiusStep * level + barWidth * 0.5;
             double         innerRadius  = outerRadius - barWidth;
 
+            // Clockwise end angle of each segment measured from 12 o'clock for the picking
+            double[] angles = null == pickAngles[level] || pickAngles[level].length < nodesAtLevel.size() ? new double[nodesAtLevel.size()] : pickAngles[level];
+            pickAngles[level] = angles;
+            pickNodes.add(nodesAtLevel);
+
             double segmentStartAngle;
             double segmentEndAngle = 0;
-            for (TreeNode<ChartData> node : nodesAtLevel) {
-                ChartData segmentData  = node.getItem();
-                double    segmentAngle = getParentAngle(node) * getPercentage(node);
-                Color     segmentColor = getUseColorFromParent() ? node.getMyRoot().getItem().getFillColor() : segmentData.getFillColor();
+            for (int i = 0 ; i < nodesAtLevel.size() ; i++) {
+                TreeNode<ChartData> node         = nodesAtLevel.get(i);
+                ChartData           segmentData  = node.getItem();
+                double              segmentAngle = getParentAngle(node) * getPercentage(node);
+                Color               segmentColor = getUseColorFromParent() ? node.getMyRoot().getItem().getFillColor() : segmentData.getFillColor();
 
                 segmentStartAngle = 90 + segmentEndAngle;
                 segmentEndAngle  -= segmentAngle;
+                angles[i]         = -segmentEndAngle;
 
                 // Only draw if segment fill color is not TRANSPARENT
                 if (!Color.TRANSPARENT.equals(segmentData.getFillColor())) {
@@ -730,6 +799,70 @@ public class SunburstChart extends Region {
         segmentPane.getChildren().setAll(segments);
     }
 
+    /**
+     * Returns the node of the segment at the given position in the coordinates of the chart pane
+     * or null. The ring follows from the distance to the center and the segment from a binary
+     * search of the angle in the end angles of the segments of that ring.
+     */
+    TreeNode<ChartData> pick(final double X, final double Y) {
+        if (pickRingRadiusStep <= 0) { return null; }
+        double dx    = X - centerX;
+        double dy    = centerY - Y;
+        int    level = pickRing(Math.sqrt(dx * dx + dy * dy), pickRingRadiusStep, pickBarWidth, pickNodes.size());
+        if (level < 0) { return null; }
+        List<TreeNode<ChartData>> nodes = pickNodes.get(level);
+        int index = pickSegment(pickAngles[level], nodes.size(), clockwiseAngle(dx, dy));
+        if (index < 0) { return null; }
+        TreeNode<ChartData> node = nodes.get(index);
+        return Color.TRANSPARENT.equals(node.getItem().getFillColor()) ? null : node;
+    }
+
+    /**
+     * Returns the ring (1 is the innermost) whose bar contains the given distance
+     * to the center or -1. Ring i is centered on i * RING_RADIUS_STEP.
+     */
+    static int pickRing(final double RADIUS, final double RING_RADIUS_STEP, final double BAR_WIDTH, final int NO_OF_LEVELS) {
+        int level = (int) Math.round(RADIUS / RING_RADIUS_STEP);
+        if (level < 1 || level >= NO_OF_LEVELS) { return -1; }
+        double outerRadius = RING_RADIUS_STEP * level + BAR_WIDTH * 0.5;
+        return RADIUS < outerRadius - BAR_WIDTH || RADIUS > outerRadius ? -1 : level;
+    }
+
+    /**
+     * Returns the angle of the given offset from the center in degrees,
+     * clockwise from 12 o'clock in the range [0, 360).
+     */
+    static double clockwiseAngle(final double DX, final double DY) {
+        double angle = (90 - Math.toDegrees(Math.atan2(DY, DX))) % 360;
+        return angle < 0 ? angle + 360 : angle;
+    }
+
+    /**
+     * Returns the index of the segment that contains the given clockwise angle
+     * or -1 if the angle is behind the last segment. END_ANGLES are the ascending
+     * clockwise end angles of the segments.
+     */
+    static int pickSegment(final double[] END_ANGLES, final int NO_OF_SEGMENTS, final double ANGLE) {
+        int index = Arrays.binarySearch(END_ANGLES, 0, NO_OF_SEGMENTS, ANGLE);
+        // Angles on the end of a segment belong to the next segment
+        index = index < 0 ? -index - 1 : index + 1;
+        return index >= NO_OF_SEGMENTS ? -1 : index;
+    }
+
+    private void hover(final TreeNode<ChartData> NODE, final double SCREEN_X, final double SCREEN_Y) {
+        if (null == NODE) {
+            if (null != pickTooltip) { pickTooltip.hide(); }
+            hoveredNode = null;
+            return;
+        }
+        if (null == pickTooltip) { pickTooltip = new Tooltip(); }
+        if (NODE != hoveredNode) {
+            hoveredNode = NODE;
+            pickTooltip.setText(new StringBuilder(NODE.getItem().getName()).append("\n").append(String.format(Locale.US, formatString, NODE.getItem().getValue())).toString());
+        }
+        pickTooltip.show(pane, SCREEN_X + 12, SCREEN_Y + 12);
+    }
+
     public double getParentAngle(final TreeNode<ChartData> NODE) {
         List<TreeNode<ChartData>> parentList = new ArrayList<>();
         TreeNode<ChartData> node = NODE;
@@ -836,8 +969,9 @@ public class SunburstChart extends Region {
         pane.setBorder(new Border(new BorderStroke(borderPaint, BorderStrokeStyle.SOLID, CornerRadii.EMPTY, new BorderWidths(borderWidth / PREFERRED_WIDTH * size))));
 
         segmentPane.setBackground(new Background(new BackgroundFill(getBackgroundColor(), CornerRadii.EMPTY, Insets.EMPTY)));
-        segmentPane.setManaged(isInteractive());
-        segmentPane.setVisible(isInteractive());
+        segmentPane.setManaged(isInteractive() && !isIndexedPicking());
+        segmentPane.setVisible(isInteractive() && !isIndexedPicking());
+        if (!isPickingIndexed()) { hover(null, 0, 0); }
 
         drawChart();
     }
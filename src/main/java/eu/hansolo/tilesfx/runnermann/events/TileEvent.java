@@ -30,7 +30,7 @@ public class TileEvent {
                             THRESHOLD_EXCEEDED, THRESHOLD_UNDERRUN,
                             LOWER_THRESHOLD_EXCEEDED, LOWER_THRESHOLD_UNDERRUN,
                             MAX_VALUE_EXCEEDED, MIN_VALUE_UNDERRUN, VALUE_IN_RANGE,
-                            FINISHED, SERIES, DATA, GRAPHIC, UPDATE, AVERAGING, TIME_PERIOD, LOCATION, TRACK, MAP_PROVIDER,
+                            FINISHED, SERIES, DATA, GRAPHIC, UPDATE, AVERAGING, TIME_PERIOD, LOCATION, TRACK, TRACK_APPEND, MAP_PROVIDER,
                             TOOLTIP_TEXT, VALUE_CHANGING, VALUE_CHANGED, FLIP_START, FLIP_FINISHED,
                             SELECTED_CHART_DATA, BACKGROUND_IMAGE, REGIONS_ON_TOP, INFO_REGION_HANDLER, SVG_PATH_PRESSED,
                             CLEAR_DATA, HIGHLIGHT_SECTIONS, ANIMATED_ON, ANIMATED_OFF }
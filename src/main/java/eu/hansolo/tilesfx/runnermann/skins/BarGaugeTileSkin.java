@@ -17,7 +17,6 @@
  */
 package eu.hansolo.tilesfx.runnermann.skins;
 
-import eu.hansolo.tilesfx.runnermann.Section;
 import eu.hansolo.tilesfx.runnermann.Tile;
 import eu.hansolo.tilesfx.runnermann.fonts.Fonts;
 import eu.hansolo.tilesfx.runnermann.tools.GradientLookup;
@@ -26,6 +25,7 @@ import javafx.geometry.Pos;
 import javafx.geometry.VPos;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
+import javafx.scene.paint.Stop;
 import javafx.scene.shape.Arc;
 import javafx.scene.shape.ArcType;
 import javafx.scene.shape.Line;
@@ -33,6 +33,11 @@ import javafx.scene.shape.StrokeLineCap;
 import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
 
 public class BarGaugeTileSkin extends TileSkin {
     private static final double         START_ANGLE  = 90;
@@ -56,6 +61,15 @@ public class BarGaugeTileSkin extends TileSkin {
     private              Text           thresholdText;
     private              Line           lowerThreshold;
     private              Text           lowerThresholdText;
+    private              double         layerWidth;
+    private              double         layerHeight;
+    private              double         layerSize;
+    private              double         layerMinValue;
+    private              double         layerAngleStep;
+    private              double         layerThreshold;
+    private              Locale         layerLocale;
+    private              String         layerTickLabelFormatString;
+    private              List<Stop>     layerGradientStops;
 
 
     // ******************** Constructors **************************************
@@ -209,13 +223,7 @@ public class BarGaugeTileSkin extends TileSkin {
         } else if (colorGradientEnabled && noOfGradientStops > 1) {
             bar.setStroke(gradientLookup.getColorAt((VALUE - minValue) / range));
         } else {
-            bar.setStroke(tile.getBarColor());
-            for (Section section : sections) {
-                if (section.contains(VALUE)) {
-                    bar.setStroke(section.getColor());
-                    break;
-                }
-            }
+            bar.setStroke(tile.getSectionIndex().getColor(VALUE, tile.getBarColor()));
         }
     }
 
@@ -322,44 +330,14 @@ public class BarGaugeTileSkin extends TileSkin {
         bar.setRadiusY(size * 0.325);
         bar.setStrokeWidth(size * 0.15);
 
-        lowerThreshold.setStrokeWidth(Helper.clamp(1.0, 2.0, 0.00675676 * size));
-        double lowerThresholdInnerRadius = 0.25 * size;
-        double lowerThresholdOuterRadius = 0.40 * size;
-        double lowerThresholdAngle       = Helper.clamp(90.0, 270.0, (tile.getThreshold() - minValue) * angleStep + 90.0);
-        lowerThreshold.setStartX(centerX + lowerThresholdInnerRadius * Math.sin(-Math.toRadians(lowerThresholdAngle)));
-        lowerThreshold.setStartY(centerY + lowerThresholdInnerRadius * Math.cos(-Math.toRadians(lowerThresholdAngle)));
-        lowerThreshold.setEndX(centerX + lowerThresholdOuterRadius * Math.sin(-Math.toRadians(lowerThresholdAngle)));
-        lowerThreshold.setEndY(centerY + lowerThresholdOuterRadius * Math.cos(-Math.toRadians(lowerThresholdAngle)));
-
-        double lowerThresholdTextRadius = 0.43 * size;
-        lowerThresholdText.setText(String.format(locale, tickLabelFormatString, tile.getThreshold()));
-        lowerThresholdText.setFont(Fonts.latoRegular(size * 0.047));
-        lowerThresholdText.setRotate(lowerThresholdAngle + 180);
-        lowerThresholdText.relocate(centerX - (lowerThresholdText.getLayoutBounds().getWidth() * 0.5) + lowerThresholdTextRadius * Math.sin(-Math.toRadians(lowerThresholdAngle)),
-                               centerY - (lowerThresholdText.getLayoutBounds().getWidth() * 0.5) + lowerThresholdTextRadius * Math.cos(-Math.toRadians(lowerThresholdAngle)));
-        
-        threshold.setStrokeWidth(Helper.clamp(1.0, 2.0, 0.00675676 * size));
-        double thresholdInnerRadius = 0.25 * size;
-        double thresholdOuterRadius = 0.40 * size;
-        double thresholdAngle       = Helper.clamp(90.0, 270.0, (tile.getThreshold() - minValue) * angleStep + 90.0);
-        threshold.setStartX(centerX + thresholdInnerRadius * Math.sin(-Math.toRadians(thresholdAngle)));
-        threshold.setStartY(centerY + thresholdInnerRadius * Math.cos(-Math.toRadians(thresholdAngle)));
-        threshold.setEndX(centerX + thresholdOuterRadius * Math.sin(-Math.toRadians(thresholdAngle)));
-        threshold.setEndY(centerY + thresholdOuterRadius * Math.cos(-Math.toRadians(thresholdAngle)));
-
-        double thresholdTextRadius = 0.43 * size;
-        thresholdText.setText(String.format(locale, tickLabelFormatString, tile.getThreshold()));
-        thresholdText.setFont(Fonts.latoRegular(size * 0.047));
-        thresholdText.setRotate(thresholdAngle + 180);
-        thresholdText.relocate(centerX - (thresholdText.getLayoutBounds().getWidth() * 0.5) + thresholdTextRadius * Math.sin(-Math.toRadians(thresholdAngle)),
-                               centerY - (thresholdText.getLayoutBounds().getWidth() * 0.5) + thresholdTextRadius * Math.cos(-Math.toRadians(thresholdAngle)));
+        updateStaticLayer();
     }
 
     @Override protected void redraw() {
         super.redraw();
 
-        gradientLookup.setStops(tile.getGradientStops());
         colorGradientEnabled = tile.isStrokeWithGradient();
+        updateStaticLayer();
 
         barBackground.setStroke(tile.getBarBackgroundColor());
         setBar(tile.getCurrentValue());
@@ -397,4 +375,62 @@ public class BarGaugeTileSkin extends TileSkin {
         lowerThresholdText.setFill(tile.getValueColor());
         thresholdText.setFill(tile.getValueColor());
     }
+
+    @Override protected boolean hasStaticLayerChanged() {
+        final double     threshold     = tile.getThreshold();
+        final List<Stop> gradientStops = tile.getGradientStops();
+        if (width == layerWidth && height == layerHeight && size == layerSize && minValue == layerMinValue && angleStep == layerAngleStep &&
+            threshold == layerThreshold && Objects.equals(locale, layerLocale) && Objects.equals(tickLabelFormatString, layerTickLabelFormatString) &&
+            gradientStops.equals(layerGradientStops)) { return false; }
+        layerWidth                 = width;
+        layerHeight                = height;
+        layerSize                  = size;
+        layerMinValue              = minValue;
+        layerAngleStep             = angleStep;
+        layerThreshold             = threshold;
+        layerLocale                = locale;
+        layerTickLabelFormatString = tickLabelFormatString;
+        // Copied, the list of the tile might be changed in place
+        layerGradientStops         = new ArrayList<>(gradientStops);
+        return true;
+    }
+
+    @Override protected void drawStaticLayer() {
+        double centerX = width * 0.5;
+        double centerY = height * 0.85;
+
+        gradientLookup.setStops(tile.getGradientStops());
+
+        lowerThreshold.setStrokeWidth(Helper.clamp(1.0, 2.0, 0.00675676 * size));
+        double lowerThresholdInnerRadius = 0.25 * size;
+        double lowerThresholdOuterRadius = 0.40 * size;
+        double lowerThresholdAngle       = Helper.clamp(90.0, 270.0, (tile.getThreshold() - minValue) * angleStep + 90.0);
+        lowerThreshold.setStartX(centerX + lowerThresholdInnerRadius * Math.sin(-Math.toRadians(lowerThresholdAngle)));
+        lowerThreshold.setStartY(centerY + lowerThresholdInnerRadius * Math.cos(-Math.toRadians(lowerThresholdAngle)));
+        lowerThreshold.setEndX(centerX + lowerThresholdOuterRadius * Math.sin(-Math.toRadians(lowerThresholdAngle)));
+        lowerThreshold.setEndY(centerY + lowerThresholdOuterRadius * Math.cos(-Math.toRadians(lowerThresholdAngle)));
+
+        double lowerThresholdTextRadius = 0.43 * size;
+        lowerThresholdText.setText(String.format(locale, tickLabelFormatString, tile.getThreshold()));
+        lowerThresholdText.setFont(Fonts.latoRegular(size * 0.047));
+        lowerThresholdText.setRotate(lowerThresholdAngle + 180);
+        lowerThresholdText.relocate(centerX - (lowerThresholdText.getLayoutBounds().getWidth() * 0.5) + lowerThresholdTextRadius * Math.sin(-Math.toRadians(lowerThresholdAngle)),
+                               centerY - (lowerThresholdText.getLayoutBounds().getWidth() * 0.5) + lowerThresholdTextRadius * Math.cos(-Math.toRadians(lowerThresholdAngle)));
+        
+        threshold.setStrokeWidth(Helper.clamp(1.0, 2.0, 0.00675676 * size));
+        double thresholdInnerRadius = 0.25 * size;
+        double thresholdOuterRadius = 0.40 * size;
+        double thresholdAngle       = Helper.clamp(90.0, 270.0, (tile.getThreshold() - minValue) * angleStep + 90.0);
+        threshold.setStartX(centerX + thresholdInnerRadius * Math.sin(-Math.toRadians(thresholdAngle)));
+        threshold.setStartY(centerY + thresholdInnerRadius * Math.cos(-Math.toRadians(thresholdAngle)));
+        threshold.setEndX(centerX + thresholdOuterRadius * Math.sin(-Math.toRadians(thresholdAngle)));
+        threshold.setEndY(centerY + thresholdOuterRadius * Math.cos(-Math.toRadians(thresholdAngle)));
+
+        double thresholdTextRadius = 0.43 * size;
+        thresholdText.setText(String.format(locale, tickLabelFormatString, tile.getThreshold()));
+        thresholdText.setFont(Fonts.latoRegular(size * 0.047));
+        thresholdText.setRotate(thresholdAngle + 180);
+        thresholdText.relocate(centerX - (thresholdText.getLayoutBounds().getWidth() * 0.5) + thresholdTextRadius * Math.sin(-Math.toRadians(thresholdAngle)),
+                               centerY - (thresholdText.getLayoutBounds().getWidth() * 0.5) + thresholdTextRadius * Math.cos(-Math.toRadians(thresholdAngle)));
+    }
 }
@@ -217,13 +217,7 @@ public class CircleProgressTileNumberSkin extends TileSkin {
         if (!sectionsVisible) {
             bar.setStroke(tile.getBarColor());
         } else {
-            bar.setStroke(tile.getBarColor());
-            for (Section section : sections) {
-                if (section.contains(VALUE)) {
-                    bar.setStroke(section.getColor());
-                    break;
-                }
-            }
+            bar.setStroke(tile.getSectionIndex().getColor(VALUE, tile.getBarColor()));
         }
     }
 
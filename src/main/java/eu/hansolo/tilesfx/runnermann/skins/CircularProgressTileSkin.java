@@ -72,6 +72,15 @@ public class CircularProgressTileSkin extends TileSkin {
     private StackPane            graphicContainer;
     private ChangeListener       graphicListener;
     private InvalidationListener currentValueListener;
+    private double               layerWidth;
+    private double               layerHeight;
+    private double               layerChartSize;
+    private double               layerCenterX;
+    private double               layerCenterY;
+    private boolean              layerTextVisible;
+    private Node                 layerGraphic;
+    private Color                layerBarBackgroundColor;
+    private Color                layerBackgroundColor;
 
 
     // ******************** Constructors **************************************
@@ -211,13 +220,7 @@ public class CircularProgressTileSkin extends TileSkin {
         if (!sectionsVisible) {
             bar.setStroke(tile.getBarColor());
         } else {
-            bar.setStroke(tile.getBarColor());
-            for (Section section : sections) {
-                if (section.contains(VALUE)) {
-                    bar.setStroke(section.getColor());
-                    break;
-                }
-            }
+            bar.setStroke(tile.getSectionIndex().getColor(VALUE, tile.getBarColor()));
         }
     }
 
@@ -290,58 +293,15 @@ public class CircularProgressTileSkin extends TileSkin {
             double chartHeight = contentBounds.getHeight();
             chartSize          = chartWidth < chartHeight ? chartWidth : chartHeight;
 
-            double maxContainerSize = chartSize * 0.5;
-            double containerWidth   = maxContainerSize - size * 0.1;
-            double containerHeight  = tile.isTextVisible() ? height - maxContainerSize * 0.28 : height - maxContainerSize * 0.205;
-
             double radius = chartSize * 0.495 - contentBounds.getX();
 
-            barBackground.setCenterX(contentCenterX);
-            barBackground.setCenterY(contentCenterY);
-            barBackground.setRadiusX(radius);
-            barBackground.setRadiusY(radius);
-            barBackground.setStrokeWidth(chartSize * 0.1);
-
             bar.setCenterX(contentCenterX);
             bar.setCenterY(contentCenterY);
             bar.setRadiusX(radius);
             bar.setRadiusY(radius);
             bar.setStrokeWidth(chartSize * 0.1);
 
-            separator.setStartX(contentCenterX);
-            separator.setStartY(contentCenterX - radius - chartSize * 0.05);
-            separator.setEndX(contentCenterX);
-            separator.setEndY(contentCenterX - radius + chartSize * 0.05);
-
-            if (graphicContainer.isVisible() && containerWidth > 0 && containerHeight > 0) {
-                graphicContainer.setMinSize(containerWidth, containerHeight);
-                graphicContainer.setMaxSize(containerWidth, containerHeight);
-                graphicContainer.setPrefSize(containerWidth, containerHeight);
-                graphicContainer.relocate((width - containerWidth) * 0.5, (height - containerHeight) * 0.35);
-
-                if (null != tile) {
-                    Node graphic = tile.getGraphic();
-                    if (tile.getGraphic() instanceof Shape) {
-                        double graphicWidth  = graphic.getBoundsInLocal().getWidth();
-                        double graphicHeight = graphic.getBoundsInLocal().getHeight();
-
-                        if (graphicWidth > containerWidth || graphicHeight > containerHeight) {
-                            double scale;
-                            if (graphicWidth - containerWidth > graphicHeight - containerHeight) {
-                                scale = containerWidth / graphicWidth;
-                            } else {
-                                scale = containerHeight / graphicHeight;
-                            }
-
-                            graphic.setScaleX(scale);
-                            graphic.setScaleY(scale);
-                        }
-                    } else if (tile.getGraphic() instanceof ImageView) {
-                        ((ImageView) graphic).setFitWidth(containerWidth);
-                        ((ImageView) graphic).setFitHeight(containerHeight);
-                    }
-                }
-            }
+            updateStaticLayer();
             resizeStaticText();
             percentageFlow.setPrefWidth(width * 0.9);
             percentageFlow.relocate(width * 0.05, graphicContainer.isVisible() ? bar.getCenterY() + chartSize * 0.12 : bar.getCenterY() - chartSize * 0.12);
@@ -357,7 +317,6 @@ public class CircularProgressTileSkin extends TileSkin {
         formatString     = new StringBuilder("%.").append(Integer.toString(tile.getDecimals())).append("f").toString();
         sectionsVisible  = tile.getSectionsVisible();
 
-        barBackground.setStroke(tile.getBarBackgroundColor());
         setBarColor(tile.getCurrentValue());
         percentageValueText.setFill(tile.getValueColor());
         percentageUnitText.setFill(tile.getUnitColor());
@@ -365,7 +324,6 @@ public class CircularProgressTileSkin extends TileSkin {
         unitText.setFill(tile.getUnitColor());
         titleText.setFill(tile.getTitleColor());
         text.setFill(tile.getTextColor());
-        separator.setStroke(tile.getBackgroundColor());
 
         titleText.setText(tile.getTitle());
         text.setText(tile.getText());
@@ -373,5 +331,79 @@ public class CircularProgressTileSkin extends TileSkin {
 
         resizeStaticText();
         resizeDynamicText();
+        updateStaticLayer();
+    }
+
+    @Override protected boolean hasStaticLayerChanged() {
+        final boolean textVisible        = tile.isTextVisible();
+        final Node    graphic            = tile.getGraphic();
+        final Color   barBackgroundColor = tile.getBarBackgroundColor();
+        final Color   backgroundColor    = tile.getBackgroundColor();
+        if (width == layerWidth && height == layerHeight && chartSize == layerChartSize && contentCenterX == layerCenterX && contentCenterY == layerCenterY &&
+            textVisible == layerTextVisible && graphic == layerGraphic && barBackgroundColor.equals(layerBarBackgroundColor) && backgroundColor.equals(layerBackgroundColor)) { return false; }
+        layerWidth              = width;
+        layerHeight             = height;
+        layerChartSize          = chartSize;
+        layerCenterX            = contentCenterX;
+        layerCenterY            = contentCenterY;
+        layerTextVisible        = textVisible;
+        layerGraphic            = graphic;
+        layerBarBackgroundColor = barBackgroundColor;
+        layerBackgroundColor    = backgroundColor;
+        return true;
+    }
+
+    // The ring, the separator and the graphic don't depend on the value
+    @Override protected void drawStaticLayer() {
+        barBackground.setStroke(tile.getBarBackgroundColor());
+        separator.setStroke(tile.getBackgroundColor());
+        if (chartSize <= 0) { return; }
+
+        double maxContainerSize = chartSize * 0.5;
+        double containerWidth   = maxContainerSize - size * 0.1;
+        double containerHeight  = tile.isTextVisible() ? height - maxContainerSize * 0.28 : height - maxContainerSize * 0.205;
+
+        double radius = chartSize * 0.495 - contentBounds.getX();
+
+        barBackground.setCenterX(contentCenterX);
+        barBackground.setCenterY(contentCenterY);
+        barBackground.setRadiusX(radius);
+        barBackground.setRadiusY(radius);
+        barBackground.setStrokeWidth(chartSize * 0.1);
+
+        separator.setStartX(contentCenterX);
+        separator.setStartY(contentCenterX - radius - chartSize * 0.05);
+        separator.setEndX(contentCenterX);
+        separator.setEndY(contentCenterX - radius + chartSize * 0.05);
+
+        if (graphicContainer.isVisible() && containerWidth > 0 && containerHeight > 0) {
+            graphicContainer.setMinSize(containerWidth, containerHeight);
+            graphicContainer.setMaxSize(containerWidth, containerHeight);
+            graphicContainer.setPrefSize(containerWidth, containerHeight);
+            graphicContainer.relocate((width - containerWidth) * 0.5, (height - containerHeight) * 0.35);
+
+            if (null != tile) {
+                Node graphic = tile.getGraphic();
+                if (tile.getGraphic() instanceof Shape) {
+                    double graphicWidth  = graphic.getBoundsInLocal().getWidth();
+                    double graphicHeight = graphic.getBoundsInLocal().getHeight();
+
+                    if (graphicWidth > containerWidth || graphicHeight > containerHeight) {
+                        double scale;
+                        if (graphicWidth - containerWidth > graphicHeight - containerHeight) {
+                            scale = containerWidth / graphicWidth;
+                        } else {
+                            scale = containerHeight / graphicHeight;
+                        }
+
+                        graphic.setScaleX(scale);
+                        graphic.setScaleY(scale);
+                    }
+                } else if (tile.getGraphic() instanceof ImageView) {
+                    ((ImageView) graphic).setFitWidth(containerWidth);
+                    ((ImageView) graphic).setFitHeight(containerHeight);
+                }
+            }
+        }
     }
 }
@@ -136,12 +136,8 @@ public class ColorTileSkin extends TileSkin {
         if (tile.isFillWithGradient()) {
             tile.setBackgroundColor(gradientLookup.getColorAt(percentage));
         } else {
-            for (Section section : tile.getSections()) {
-                if (section.contains(percentage)) {
-                    tile.setBackgroundColor(section.getColor());
-                    break;
-                }
-            }
+            Section section = tile.getSectionIndex().getSection(percentage);
+            if (null != section) { tile.setBackgroundColor(section.getColor()); }
         }
 
         resizeDynamicText();
@@ -18,7 +18,6 @@
 package eu.hansolo.tilesfx.runnermann.skins;
 
 import eu.hansolo.tilesfx.runnermann.Alarm;
-import eu.hansolo.tilesfx.runnermann.Section;
 import eu.hansolo.tilesfx.runnermann.Tile;
 import eu.hansolo.tilesfx.runnermann.events.AlarmEvent;
 import eu.hansolo.tilesfx.runnermann.events.TimeEvent.TimeEventType;
@@ -249,13 +248,7 @@ public class CountdownTimerTileSkin extends TileSkin {
         } else if (colorGradientEnabled && noOfGradientStops > 1) {
             bar.setStroke(gradientLookup.getColorAt(colorStep));
         } else {
-            bar.setStroke(tile.getBarColor());
-            for (Section section : sections) {
-                if (section.contains(colorStep)) {
-                    bar.setStroke(section.getColor());
-                    break;
-                }
-            }
+            bar.setStroke(tile.getSectionIndex().getColor(colorStep, tile.getBarColor()));
         }
     }
 
@@ -17,13 +17,13 @@
  */
 package eu.hansolo.tilesfx.runnermann.skins;
 
+import eu.hansolo.tilesfx.runnermann.PulseProfiler;
 import eu.hansolo.tilesfx.runnermann.Tile;
 import eu.hansolo.tilesfx.runnermann.chart.ChartData;
 import eu.hansolo.tilesfx.runnermann.events.ChartDataEvent;
 import eu.hansolo.tilesfx.runnermann.events.ChartDataEventListener;
 import eu.hansolo.tilesfx.runnermann.fonts.Fonts;
 import eu.hansolo.tilesfx.runnermann.tools.Helper;
-import javafx.application.Platform;
 import javafx.collections.WeakListChangeListener;
 import javafx.geometry.VPos;
 import javafx.scene.Node;
@@ -116,7 +116,7 @@ public class CycleStepTileSkin extends TileSkin {
 
     // ******************** Resizing ******************************************
     private void updateChart() {
-        Platform.runLater(() -> {
+        PulseProfiler.runLater(tile, "updateChart", () -> {
             double sum = tile.getChartData().stream().mapToDouble(chartData -> chartData.getValue()).sum();
             double lastFactor = 0;
             for (int i = 0 ; i < chartBox.getChildren().size() ; i++) {
@@ -130,6 +130,12 @@ public class FireSmokeTileSkin extends TileSkin {
         }
     }
 
+    @Override public void dispose() {
+        smoke.dispose();
+        fire.dispose();
+        super.dispose();
+    }
+
 
     // ******************** Resizing ******************************************
     @Override protected void resizeDynamicText() {
@@ -17,55 +17,50 @@
  */
 package eu.hansolo.tilesfx.runnermann.skins;
 
+import eu.hansolo.tilesfx.runnermann.EffectScheduler;
+import eu.hansolo.tilesfx.runnermann.EffectScheduler.Registration;
 import eu.hansolo.tilesfx.runnermann.Tile;
 import eu.hansolo.tilesfx.runnermann.events.TileEvent;
 import eu.hansolo.tilesfx.runnermann.events.TileEvent.EventType;
 import eu.hansolo.tilesfx.runnermann.fonts.Fonts;
-import eu.hansolo.tilesfx.runnermann.tools.CtxBounds;
-import eu.hansolo.tilesfx.runnermann.tools.CtxCornerRadii;
+import eu.hansolo.tilesfx.runnermann.tools.GlyphAtlas;
 import eu.hansolo.tilesfx.runnermann.tools.Helper;
 import javafx.animation.Interpolator;
-import javafx.animation.KeyFrame;
-import javafx.animation.KeyValue;
-import javafx.animation.Timeline;
-import javafx.geometry.VPos;
-import javafx.scene.CacheHint;
-import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.paint.Color;
+import javafx.scene.image.ImageView;
 import javafx.scene.text.Font;
-import javafx.scene.text.TextAlignment;
 import javafx.scene.transform.Rotate;
-import javafx.util.Duration;
+import javafx.scene.transform.Scale;
+import javafx.stage.Screen;
 
 import java.util.List;
 
 
+/**
+ * Split-flap display for one character of the tile's character list.
+ * The halves of the flaps are parts of a GlyphAtlas that is shared by
+ * all flip tiles with the same characters, colors and size, so a flip
+ * only changes the viewports of the image views and doesn't render text.
+ * The flips of all flip tiles are driven by the EffectScheduler.
+ */
 public class FlipTileSkin extends TileSkin {
-    private final TileEvent       FLIP_FINISHED = new TileEvent(EventType.FLIP_FINISHED);
-    private       List<String>    characters;
-    private       int             currentSelectionIndex;
-    private       int             nextSelectionIndex;
-    private       double          flapHeight;
-    private       Canvas          upperBackground;
-    private       GraphicsContext upperBackgroundCtx;
-    private       Canvas          upperBackgroundText;
-    private       GraphicsContext upperBackgroundTextCtx;
-    private       Canvas          lowerBackground;
-    private       GraphicsContext lowerBackgroundCtx;
-    private       Canvas          lowerBackgroundText;
-    private       GraphicsContext lowerBackgroundTextCtx;
-    private       Canvas          flap;
-    private       GraphicsContext flapCtx;
-    private       Canvas          flapTextFront;
-    private       GraphicsContext flapTextFrontCtx;
-    private       Canvas          flapTextBack;
-    private       GraphicsContext flapTextBackCtx;
-    private       Rotate          rotateFlap;
-    private       Font            font;
-    private       double          centerX;
-    private       double          centerY;
-    private       Timeline        timeline;
+    private static final Interpolator FLIP_INTERPOLATOR = Interpolator.SPLINE(0.5, 0.4, 0.4, 1.0);
+    private final TileEvent           FLIP_FINISHED     = new TileEvent(EventType.FLIP_FINISHED);
+    private       List<String>        characters;
+    private       int                 currentSelectionIndex;
+    private       int                 nextSelectionIndex;
+    private       double              flapHeight;
+    private       GlyphAtlas          atlas;
+    private       ImageView           upperBackground;
+    private       ImageView           lowerBackground;
+    private       ImageView           flapFront;
+    private       ImageView           flapBack;
+    private       Rotate              rotateFlap;
+    private       Scale               mirrorFlap;
+    private       Font                font;
+    private       double              centerY;
+    private       Registration        timer;
+    private       long                flipStart;
+    private       long                flipDuration;
 
 
     // ******************** Constructors **************************************
@@ -78,12 +73,11 @@ public class FlipTileSkin extends TileSkin {
     @Override protected void initGraphics() {
         super.initGraphics();
 
-        timeline              = new Timeline();
         characters            = tile.getCharacterList();
         currentSelectionIndex = 0;
         nextSelectionIndex    = 1;
+        timer                 = EffectScheduler.getDefault().register(tile, 60, now -> flip(now));
 
-        centerX    = PREFERRED_WIDTH * 0.5;
         centerY    = PREFERRED_HEIGHT * 0.5;
 
         pane.setBackground(null);
@@ -93,72 +87,30 @@ public class FlipTileSkin extends TileSkin {
         rotateFlap.setAxis(Rotate.X_AXIS);
         rotateFlap.setAngle(0);
 
-        flapHeight = PREFERRED_HEIGHT * 0.495;
-
-        upperBackground    = new Canvas(PREFERRED_WIDTH, PREFERRED_HEIGHT * 0.495);
-        upperBackgroundCtx = upperBackground.getGraphicsContext2D();
-
-        upperBackgroundText    = new Canvas(PREFERRED_WIDTH, PREFERRED_HEIGHT * 0.495);
-        upperBackgroundTextCtx = upperBackgroundText.getGraphicsContext2D();
-        upperBackgroundTextCtx.setTextBaseline(VPos.CENTER);
-        upperBackgroundTextCtx.setTextAlign(TextAlignment.CENTER);
+        // The back of the flap shows the lower half of the next character upside down
+        mirrorFlap = new Scale(1, -1);
 
-        lowerBackground    = new Canvas(PREFERRED_WIDTH, PREFERRED_HEIGHT * 0.495);
-        lowerBackgroundCtx = lowerBackground.getGraphicsContext2D();
+        flapHeight = PREFERRED_HEIGHT * 0.495;
 
-        lowerBackgroundText    = new Canvas(PREFERRED_WIDTH, PREFERRED_HEIGHT * 0.495);
-        lowerBackgroundTextCtx = lowerBackgroundText.getGraphicsContext2D();
-        lowerBackgroundTextCtx.setTextBaseline(VPos.CENTER);
-        lowerBackgroundTextCtx.setTextAlign(TextAlignment.CENTER);
+        // Upper half of the next character
+        upperBackground = createFlap();
 
-        flap = new Canvas(PREFERRED_WIDTH, PREFERRED_HEIGHT * 0.495);
-        flap.getTransforms().add(rotateFlap);
-        flapCtx = flap.getGraphicsContext2D();
+        // Lower half of the current character
+        lowerBackground = createFlap();
 
-        flapTextFront = new Canvas();
-        flapTextFront.getTransforms().add(rotateFlap);
-        flapTextFrontCtx = flapTextFront.getGraphicsContext2D();
-        flapTextFrontCtx.setTextBaseline(VPos.CENTER);
-        flapTextFrontCtx.setTextAlign(TextAlignment.CENTER);
+        // Upper half of the current character
+        flapFront = createFlap();
+        flapFront.getTransforms().add(rotateFlap);
 
-        flapTextBack  = new Canvas();
-        flapTextBack.getTransforms().add(rotateFlap);
-        flapTextBack.setOpacity(0);
-        flapTextBackCtx = flapTextBack.getGraphicsContext2D();
-        flapTextBackCtx.setTextBaseline(VPos.CENTER);
-        flapTextBackCtx.setTextAlign(TextAlignment.CENTER);
+        // Lower half of the next character
+        flapBack = createFlap();
+        flapBack.getTransforms().addAll(rotateFlap, mirrorFlap);
+        flapBack.setVisible(false);
 
         pane.getChildren().addAll(upperBackground,
                                   lowerBackground,
-                                  upperBackgroundText,
-                                  lowerBackgroundText,
-                                  flap,
-                                  flapTextFront,
-                                  flapTextBack);
-    }
-
-    @Override protected void registerListeners() {
-        super.registerListeners();
-
-        rotateFlap.angleProperty().addListener((o, ov, nv) -> {
-            if (nv.doubleValue() > 90) {
-                flapTextFront.setOpacity(0);
-                flapTextBack.setOpacity(1);
-            }
-        });
-
-        timeline.setOnFinished(EVENT -> {
-            tile.fireTileEvent(FLIP_FINISHED);
-            if (Double.compare(rotateFlap.getAngle(), 180) == 0) {
-                rotateFlap.setAngle(0);
-                flapTextBack.setOpacity(0);
-                flapTextFront.setOpacity(1);
-                drawText();
-                if (!tile.getFlipText().equals(characters.get(currentSelectionIndex))) { flipForward(); }
-            } else if(Double.compare(rotateFlap.getAngle(), 0) == 0) {
-                rotateFlap.setAngle(180);
-            }
-        });
+                                  flapFront,
+                                  flapBack);
     }
 
 
@@ -170,133 +122,100 @@ public class FlipTileSkin extends TileSkin {
         }
     }
 
-    private void flipForward() {
-        timeline.stop();
+    @Override public void dispose() {
+        timer.unregister();
+        super.dispose();
+    }
 
-        flap.setCache(true);
-        flap.setCacheHint(CacheHint.ROTATE);
-        //flap.setCacheHint(CacheHint.SPEED);
+    private ImageView createFlap() {
+        final ImageView flap = new ImageView();
+        flap.setPreserveRatio(false);
+        flap.setSmooth(true);
+        return flap;
+    }
 
-        currentSelectionIndex++;
-        if (currentSelectionIndex >= characters.size()) {
-            currentSelectionIndex = 0;
-        }
-        nextSelectionIndex = currentSelectionIndex + 1;
-        if (nextSelectionIndex >= characters.size()) {
-            nextSelectionIndex = 0;
+    private void flipForward() {
+        // A running flip continues with the next character when it is finished
+        if (timer.isRunning() || characters.isEmpty()) { return; }
+
+        // Tiles that are not visible show the flip text without flipping through the characters
+        if (isRenderSuspended()) {
+            final int index = characters.indexOf(tile.getFlipText());
+            if (index >= 0) {
+                currentSelectionIndex = index;
+                nextSelectionIndex    = (index + 1) % characters.size();
+                updateFlaps();
+            }
+            tile.fireTileEvent(FLIP_FINISHED);
+            return;
         }
-        KeyValue keyValueFlap = new KeyValue(rotateFlap.angleProperty(), 180, Interpolator.SPLINE(0.5, 0.4, 0.4, 1.0));
-        //KeyValue keyValueFlap = new KeyValue(rotateFlap.angleProperty(), 180, Interpolator.EASE_IN);
-        KeyFrame keyFrame     = new KeyFrame(Duration.millis(tile.getFlipTimeInMS()), keyValueFlap);
-        timeline.getKeyFrames().setAll(keyFrame);
-        timeline.play();
+
+        flipStart    = System.nanoTime();
+        flipDuration = tile.getFlipTimeInMS() * 1_000_000L;
+        timer.start();
     }
 
-    private void drawFlaps() {
-        double cornerRadius = tile.getRoundedCorners() ? size * 0.025 : 0;
-
-        // Upper Background
-        upperBackground.setCache(false);
-        upperBackgroundCtx.clearRect(0, 0, width, flapHeight);
-        Helper.drawRoundedRect(upperBackgroundCtx, new CtxBounds(0, 0, width, flapHeight), new CtxCornerRadii(cornerRadius, cornerRadius, 0, 0));
-        upperBackgroundCtx.setFill(tile.getBackgroundColor());
-        upperBackgroundCtx.fill();
-        upperBackground.setCache(true);
-        upperBackground.setCacheHint(CacheHint.SPEED);
-
-        // Lower Background
-        lowerBackground.setCache(false);
-        lowerBackgroundCtx.clearRect(0, 0, width, flapHeight);
-        Helper.drawRoundedRect(lowerBackgroundCtx, new CtxBounds(0, 0, width, flapHeight), new CtxCornerRadii(0, 0, cornerRadius, cornerRadius));
-        lowerBackgroundCtx.setFill(tile.getBackgroundColor());
-        lowerBackgroundCtx.fill();
-        lowerBackground.setCache(true);
-        lowerBackground.setCacheHint(CacheHint.SPEED);
-
-        // Flap
-        flap.setCache(false);
-        flapCtx.clearRect(0, 0, width, flapHeight);
-        Helper.drawRoundedRect(flapCtx, new CtxBounds(0, 0, width, flapHeight), new CtxCornerRadii(cornerRadius, cornerRadius, 0, 0));
-        flapCtx.setFill(tile.getBackgroundColor());
-        flapCtx.fill();
-        flap.setCache(true);
-        flap.setCacheHint(CacheHint.SPEED);
+    private void flip(final long NOW) {
+        final double fraction = flipDuration <= 0 ? 1 : Helper.clamp(0.0, 1.0, (NOW - flipStart) / (double) flipDuration);
+        rotateFlap.setAngle(FLIP_INTERPOLATOR.interpolate(0.0, 180.0, fraction));
+        if (rotateFlap.getAngle() > 90) {
+            flapFront.setVisible(false);
+            flapBack.setVisible(true);
+        }
+        if (fraction < 1) { return; }
+
+        timer.stop();
+        rotateFlap.setAngle(0);
+        flapFront.setVisible(true);
+        flapBack.setVisible(false);
+        currentSelectionIndex = nextSelectionIndex;
+        nextSelectionIndex    = (currentSelectionIndex + 1) % characters.size();
+        updateFlaps();
+        tile.fireTileEvent(FLIP_FINISHED);
+        if (!tile.getFlipText().equals(characters.get(currentSelectionIndex))) { flipForward(); }
     }
 
-    private void drawText() {
-        if (characters.isEmpty()) { return; }
-        final String CURRENT_TEXT = characters.get(currentSelectionIndex);
-        final String NEXT_TEXT    = characters.get(nextSelectionIndex);
-        final Color  TEXT_COLOR   = tile.getForegroundColor();
-
-        // set the text on the upper background
-        upperBackgroundTextCtx.clearRect(0, 0, width, flapHeight);
-        upperBackgroundTextCtx.setFill(TEXT_COLOR);
-        upperBackgroundTextCtx.fillText(NEXT_TEXT, centerX, centerY, width);
-
-        // set the text on the lower background
-        lowerBackgroundTextCtx.clearRect(0, 0, width, flapHeight);
-        lowerBackgroundTextCtx.setFill(TEXT_COLOR);
-        lowerBackgroundTextCtx.fillText(CURRENT_TEXT, centerX, 0, width);
-
-        // set the text on the flap front
-        flapTextFrontCtx.clearRect(0, 0, width, flapHeight);
-        flapTextFrontCtx.setFill(TEXT_COLOR);
-        flapTextFrontCtx.fillText(CURRENT_TEXT, centerX, centerY, width);
-
-        // set the text on the flap back
-        flapTextBackCtx.clearRect(0, 0, width, flapHeight);
-        flapTextBackCtx.save();
-        flapTextBackCtx.scale(1,-1);
-        flapTextBackCtx.setFill(TEXT_COLOR);
-        flapTextBackCtx.fillText(NEXT_TEXT, centerX, -centerY, width);
-        flapTextBackCtx.restore();
+    private void updateFlaps() {
+        if (null == atlas || 0 == atlas.getNoOfCharacters()) { return; }
+        final int noOfCharacters = atlas.getNoOfCharacters();
+        final int current        = currentSelectionIndex % noOfCharacters;
+        final int next           = nextSelectionIndex % noOfCharacters;
+        upperBackground.setViewport(atlas.getUpperViewport(next));
+        lowerBackground.setViewport(atlas.getLowerViewport(current));
+        flapFront.setViewport(atlas.getUpperViewport(current));
+        flapBack.setViewport(atlas.getLowerViewport(next));
     }
 
 
     // ******************** Resizing ******************************************
     @Override protected void resize() {
         super.resize();
-        centerX    = width * 0.5;
         centerY    = height * 0.5;
         flapHeight = height * 0.495;
 
-        upperBackground.setWidth(width);
-        upperBackground.setHeight(flapHeight);
-
-        lowerBackground.setWidth(width);
-        lowerBackground.setHeight(flapHeight);
+        for (ImageView flap : List.of(upperBackground, lowerBackground, flapFront, flapBack)) {
+            flap.setFitWidth(width);
+            flap.setFitHeight(flapHeight);
+        }
         lowerBackground.setTranslateY(height - flapHeight);
-
-        upperBackgroundText.setWidth(width);
-        upperBackgroundText.setHeight(flapHeight);
-
-        lowerBackgroundText.setWidth(width);
-        lowerBackgroundText.setHeight(flapHeight);
-        lowerBackgroundText.setTranslateY(height - flapHeight);
-
-        flap.setWidth(width);
-        flap.setHeight(flapHeight);
         rotateFlap.setPivotY(centerY);
-
-        flapTextFront.setWidth(width);
-        flapTextFront.setHeight(flapHeight);
-
-        flapTextBack.setWidth(width);
-        flapTextBack.setHeight(flapHeight);
+        mirrorFlap.setPivotY(flapHeight * 0.5);
 
         font = Fonts.latoBold(height * 0.75);
 
-        upperBackgroundTextCtx.setFont(font);
-        lowerBackgroundTextCtx.setFont(font);
-        flapTextFrontCtx.setFont(font);
-        flapTextBackCtx.setFont(font);
-
         redraw();
     }
 
     @Override protected void redraw() {
-        drawFlaps();
-        drawText();
+        if (null == font || width <= 0 || flapHeight <= 0) { return; }
+        final double cornerRadius = tile.getRoundedCorners() ? size * 0.025 : 0;
+        atlas = GlyphAtlas.get(characters, font, tile.getForegroundColor(), tile.getBackgroundColor(), width, height, flapHeight, cornerRadius, Screen.getPrimary().getOutputScaleX());
+        if (atlas.getImage() != flapFront.getImage()) {
+            upperBackground.setImage(atlas.getImage());
+            lowerBackground.setImage(atlas.getImage());
+            flapFront.setImage(atlas.getImage());
+            flapBack.setImage(atlas.getImage());
+        }
+        updateFlaps();
     }
 }
@@ -17,6 +17,8 @@
  */
 package eu.hansolo.tilesfx.runnermann.skins;
 
+import eu.hansolo.tilesfx.runnermann.EffectScheduler;
+import eu.hansolo.tilesfx.runnermann.EffectScheduler.Registration;
 import eu.hansolo.tilesfx.runnermann.Section;
 import eu.hansolo.tilesfx.runnermann.Tile;
 import eu.hansolo.tilesfx.runnermann.colors.ColorSkin;
@@ -24,7 +26,6 @@ import eu.hansolo.tilesfx.runnermann.events.TileEvent.EventType;
 import eu.hansolo.tilesfx.runnermann.fonts.Fonts;
 import eu.hansolo.tilesfx.runnermann.tools.GradientLookup;
 import eu.hansolo.tilesfx.runnermann.tools.Helper;
-import javafx.animation.AnimationTimer;
 import javafx.geometry.Pos;
 import javafx.geometry.VPos;
 import javafx.scene.canvas.Canvas;
@@ -60,9 +61,8 @@ public class FluidTileSkin extends TileSkin {
     private double          detail;
     private long            impulseInterval;
     private long            updateInterval;
-    private long            lastUpdateCall;
     private long            lastImpulseCall;
-    private AnimationTimer  timer;
+    private Registration    timer;
 
 
     // ******************** Constructors **************************************
@@ -82,20 +82,14 @@ public class FluidTileSkin extends TileSkin {
         particles       = new ArrayList<>();
         impulseInterval = 1_000_000_000l;  // Interval between random impulses being inserted into the wave to keep it moving
         updateInterval  = 50_000_000l;     // Wave update interval
-        lastUpdateCall  = System.nanoTime();
         lastImpulseCall = System.nanoTime();
-        timer           = new AnimationTimer() {
-            @Override public void handle(long now) {
-                if (now > lastUpdateCall + updateInterval) {
-                    update();
-                    lastUpdateCall = now;
-                }
-                if (now > lastImpulseCall + impulseInterval) {
-                    impulse();
-                    lastImpulseCall = now;
-                }
+        timer           = EffectScheduler.getDefault().register(tile, 1_000_000_000d / updateInterval, now -> {
+            update();
+            if (now > lastImpulseCall + impulseInterval) {
+                impulse();
+                lastImpulseCall = now;
             }
-        };
+        });
 
         // Create wave particles
         for( int i = 0 ; i < detail + 1 ; i++ ) {
@@ -177,12 +171,8 @@ public class FluidTileSkin extends TileSkin {
         if (tile.isFillWithGradient()) {
             ctx.setFill(gradientLookup.getColorAt(percentage));
         } else {
-            for (Section section : tile.getSections()) {
-                if (section.contains(Helper.clamp(minValue, maxValue, VALUE))) {
-                    ctx.setFill(section.getColor());
-                    break;
-                }
-            }
+            Section section = tile.getSectionIndex().getSection(Helper.clamp(minValue, maxValue, VALUE));
+            if (null != section) { ctx.setFill(section.getColor()); }
         }
 
         resizeDynamicText();
@@ -195,6 +185,11 @@ public class FluidTileSkin extends TileSkin {
         }
     }
 
+    @Override public void dispose() {
+        timer.unregister();
+        super.dispose();
+    }
+
 
     // ******************** Resizing ******************************************
     @Override protected void resizeDynamicText() {
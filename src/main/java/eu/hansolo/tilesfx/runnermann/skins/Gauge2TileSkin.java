@@ -26,6 +26,7 @@ import eu.hansolo.tilesfx.runnermann.tools.Helper;
 import javafx.geometry.VPos;
 import javafx.scene.CacheHint;
 import javafx.scene.paint.Color;
+import javafx.scene.paint.ImagePattern;
 import javafx.scene.paint.Stop;
 import javafx.scene.shape.Arc;
 import javafx.scene.shape.ArcType;
@@ -44,6 +45,7 @@ import javafx.scene.text.TextAlignment;
 import javafx.scene.text.TextFlow;
 import javafx.scene.transform.Rotate;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -70,6 +72,13 @@ public class Gauge2TileSkin extends TileSkin {
     private GradientLookup       gradientLookup;
     private AngleConicalGradient conicalGradient;
     private Rectangle            barBounds;
+    private ImagePattern         barPattern;
+    private double               layerWidth;
+    private double               layerHeight;
+    private double               layerSize;
+    private double               layerAngleRange;
+    private boolean              layerStrokeWithGradient;
+    private List<Stop>           layerGradientStops;
 
 
     // ******************** Constructors **************************************
@@ -178,7 +187,8 @@ public class Gauge2TileSkin extends TileSkin {
         bar.setLength(-angleStep * (VALUE - minValue));
         if (tile.isStrokeWithGradient()) {
             needle.setFill(gradientLookup.getColorAt((VALUE - minValue) / tile.getRange()));
-            bar.setStroke(conicalGradient.getImagePattern(barBounds));
+            if (null == barPattern) { updateStaticLayer(); }
+            bar.setStroke(barPattern);
         } else {
             needle.setFill(tile.getNeedleColor());
             bar.setStroke(tile.getBarColor());
@@ -290,8 +300,6 @@ public class Gauge2TileSkin extends TileSkin {
         double barRadius = size * 0.3;
         double barWidth  = size * 0.07;
 
-        createConicalGradient();
-
         knob.setCenterX(centerX);
         knob.setCenterY(centerY);
         knob.setRadius(barRadius * 0.1637931);
@@ -317,7 +325,7 @@ public class Gauge2TileSkin extends TileSkin {
         barBounds.setWidth(bar.getRadiusX() * 2 + barWidth);
         barBounds.setHeight(bar.getRadiusX() * 2 + barWidth);
 
-        drawNeedle();
+        updateStaticLayer();
 
         needle.relocate((width - needle.getLayoutBounds().getWidth()) * 0.5, centerY - size * 0.21112);
         needleRotate.setPivotX(needle.getLayoutBounds().getWidth() * 0.5);
@@ -342,12 +350,12 @@ public class Gauge2TileSkin extends TileSkin {
         resizeStaticText();
 
         barBackgroundColor = tile.getBarBackgroundColor();
+        updateStaticLayer();
         Color needleColor;
         if (tile.isStrokeWithGradient()) {
             gradientLookup.setStops(tile.getGradientStops());
             needleColor = gradientLookup.getColorAt(tile.getValue() / tile.getRange());
-            createConicalGradient();
-            bar.setStroke(conicalGradient.getImagePattern(barBounds));
+            bar.setStroke(barPattern);
         } else {
             needleColor = tile.getNeedleColor();
             bar.setStroke(tile.getBarColor());
@@ -363,4 +371,30 @@ public class Gauge2TileSkin extends TileSkin {
         valueText.setFill(tile.getValueColor());
         unitText.setFill(tile.getUnitColor());
     }
+
+    @Override protected boolean hasStaticLayerChanged() {
+        final boolean    strokeWithGradient = tile.isStrokeWithGradient();
+        final List<Stop> gradientStops      = tile.getGradientStops();
+        if (width == layerWidth && height == layerHeight && size == layerSize && angleRange == layerAngleRange &&
+            strokeWithGradient == layerStrokeWithGradient && gradientStops.equals(layerGradientStops)) { return false; }
+        layerWidth              = width;
+        layerHeight             = height;
+        layerSize               = size;
+        layerAngleRange         = angleRange;
+        layerStrokeWithGradient = strokeWithGradient;
+        // Copied, the list of the tile might be changed in place
+        layerGradientStops      = new ArrayList<>(gradientStops);
+        return true;
+    }
+
+    // The conical gradient of the bar is rendered into an image, so it is only created when the size or the gradient changed
+    @Override protected void drawStaticLayer() {
+        drawNeedle();
+        if (tile.isStrokeWithGradient()) {
+            createConicalGradient();
+            barPattern = conicalGradient.getImagePattern(barBounds);
+        } else {
+            barPattern = null;
+        }
+    }
 }
@@ -21,6 +21,7 @@ import eu.hansolo.tilesfx.runnermann.Section;
 import eu.hansolo.tilesfx.runnermann.Tile;
 import eu.hansolo.tilesfx.runnermann.events.TileEvent.EventType;
 import eu.hansolo.tilesfx.runnermann.fonts.Fonts;
+import eu.hansolo.tilesfx.runnermann.tools.Downsampler;
 import eu.hansolo.tilesfx.runnermann.tools.GradientLookup;
 import eu.hansolo.tilesfx.runnermann.tools.Helper;
 import eu.hansolo.tilesfx.runnermann.tools.MovingAverage;
@@ -97,6 +98,7 @@ public class GaugeSparkLineTileSkin extends TileSkin {
     private              double               stdDeviation;
     private              int                  noOfDatapoints;
     private              List<Double>         dataList;
+    private              Downsampler          downsampler;
     private              MovingAverage        movingAverage;
     private              InvalidationListener averagingListener;
     private              InvalidationListener highlightSectionListener;
@@ -163,6 +165,9 @@ public class GaugeSparkLineTileSkin extends TileSkin {
 
         graphBounds = new Rectangle(PREFERRED_WIDTH * 0.05, PREFERRED_HEIGHT * 0.5, PREFERRED_WIDTH * 0.9, PREFERRED_HEIGHT * 0.45);
 
+        // Renders about one point per pixel of the graph width
+        downsampler = new Downsampler(tile.getDownsampling(), Downsampler.getThreshold(tile.getDownsampling(), (int) graphBounds.getWidth()));
+
         titleText = new Text(tile.getTitle());
         titleText.setFill(tile.getTitleColor());
         Helper.enableNode(titleText, !tile.getTitle().isEmpty());
@@ -273,7 +278,12 @@ public class GaugeSparkLineTileSkin extends TileSkin {
 
             // To get smooth lines in the chart we need at least 4 values
             if (noOfDatapoints < 4) throw new IllegalArgumentException("Please increase the averaging period to a value larger than 3.");
-            for (int i = 0; i < noOfDatapoints; i++) { dataList.add(minValue); }
+            dataList.clear();
+            downsampler.clear();
+            for (int i = 0; i < noOfDatapoints; i++) {
+                dataList.add(minValue);
+                downsampler.add(minValue);
+            }
             pathElements.clear();
             pathElements.add(0, new MoveTo());
             for (int i = 1 ; i < noOfDatapoints ; i++) { pathElements.add(i, new LineTo()); }
@@ -287,6 +297,7 @@ public class GaugeSparkLineTileSkin extends TileSkin {
             highlightSectionCanvas.setManaged(isHighlightSections);
         } else if (EventType.CLEAR_DATA.name().equals(EVENT_TYPE)) {
             dataList.clear();
+            downsampler.clear();
             handleCurrentValue(minValue);
         } else if (EventType.FINISHED.name().equals(EVENT_TYPE)) {
             double value = clamp(minValue, maxValue, tile.getValue());
@@ -301,8 +312,21 @@ public class GaugeSparkLineTileSkin extends TileSkin {
         if (tile.isHighlightSections()) { drawHighLightSections(VALUE); }
     }
 
+    @Override protected void updateModel(final String EVENT_TYPE) {
+        if (EventType.FINISHED.name().equals(EVENT_TYPE)) { addData(clamp(minValue, maxValue, tile.getValue())); }
+    }
+
+    @Override protected void catchUp() {
+        super.catchUp();
+        drawSparkline(clamp(minValue, maxValue, tile.getValue()));
+    }
+
     private void updateSparkline(final double VALUE) {
         addData(VALUE);
+        drawSparkline(VALUE);
+    }
+
+    private void drawSparkline(final double VALUE) {
         double statisticsLow  = Statistics.getMin(dataList);
         double statisticsHigh = Statistics.getMax(dataList);
 
@@ -367,23 +391,7 @@ public class GaugeSparkLineTileSkin extends TileSkin {
         });
 
         if (!dataList.isEmpty()) {
-            if (tile.isSmoothing()) {
-                smooth(dataList);
-            } else {
-                MoveTo begin = (MoveTo) pathElements.get(0);
-                begin.setX(minX);
-                begin.setY(maxY - (dataList.get(0) - low) * stepY);
-                for (int i = 1; i < (noOfDatapoints - 1); i++) {
-                    LineTo lineTo = (LineTo) pathElements.get(i);
-                    lineTo.setX(minX + i * stepX);
-                    lineTo.setY(maxY - (dataList.get(i) - low) * stepY);
-                }
-                LineTo end = (LineTo) pathElements.get(noOfDatapoints - 1);
-                end.setX(maxX);
-                end.setY(maxY - (dataList.get(noOfDatapoints - 1) - low) * stepY);
-                dot.setCenterX(maxX);
-                dot.setCenterY(end.getY());
-            }
+            drawPath(minX, maxY, stepX, stepY, statisticsLow, statisticsHigh);
 
             if (tile.isStrokeWithGradient()) {
                 setupGradient();
@@ -450,13 +458,7 @@ public class GaugeSparkLineTileSkin extends TileSkin {
         bar.setLength(barLength);
 
         if ( tile.getSectionsVisible() && !sections.isEmpty() ) {
-            bar.setStroke(tile.getBarColor());
-            for ( Section section : sections ) {
-                if ( section.contains(VALUE) ) {
-                    bar.setStroke(section.getColor());
-                    break;
-                }
-            }
+            bar.setStroke(tile.getSectionIndex().getColor(VALUE, tile.getBarColor()));
         }
     }
 
@@ -473,6 +475,7 @@ public class GaugeSparkLineTileSkin extends TileSkin {
             double  angleStep = tile.getAngleStep();
             highlightSectionCtx.setLineWidth(size * 0.01);
             highlightSectionCtx.setLineCap(StrokeLineCap.BUTT);
+            List<Section> containing = tile.getSectionIndex().getSections(VALUE);
             for (int i = 0; i < sections.size(); i++) {
                 Section section = sections.get(i);
                 double sectionStartAngle;
@@ -491,7 +494,7 @@ public class GaugeSparkLineTileSkin extends TileSkin {
                         sectionAngleExtend = (section.getStop() - section.getStart()) * angleStep;
                     }
                     highlightSectionCtx.save();
-                    highlightSectionCtx.setStroke(section.contains(VALUE) ? section.getColor() : section.getColor().darker().darker());
+                    highlightSectionCtx.setStroke(containing.contains(section) ? section.getColor() : section.getColor().darker().darker());
                     highlightSectionCtx.strokeArc(x, y, wh, wh, -(120 + sectionStartAngle), -sectionAngleExtend, ArcType.OPEN);
                     highlightSectionCtx.restore();
                 }
@@ -500,13 +503,21 @@ public class GaugeSparkLineTileSkin extends TileSkin {
     }
     
     private void addData(final double VALUE) {
-        if (dataList.isEmpty()) { for (int i = 0 ; i < noOfDatapoints ;i ++) { dataList.add(VALUE); } }
+        if (dataList.isEmpty()) {
+            downsampler.clear();
+            for (int i = 0 ; i < noOfDatapoints ;i ++) {
+                dataList.add(VALUE);
+                downsampler.add(VALUE);
+            }
+        }
         if (dataList.size() <= noOfDatapoints) {
             Collections.rotate(dataList, -1);
             dataList.set((noOfDatapoints - 1), VALUE);
         } else {
             dataList.add(VALUE);
         }
+        if (downsampler.size() >= dataList.size()) { downsampler.removeFirst(downsampler.size() - dataList.size() + 1); }
+        downsampler.add(VALUE);
         stdDeviation = Statistics.getStdDev(dataList);
     }
 
@@ -570,10 +581,46 @@ public class GaugeSparkLineTileSkin extends TileSkin {
         super.dispose();
     }
 
-    private void smooth(final List<Double> DATA_LIST) {
+    private void drawPath(final double MIN_X, final double MAX_Y, final double STEP_X, final double STEP_Y, final double STATISTICS_LOW, final double STATISTICS_HIGH) {
+        downsampler.setMode(tile.getDownsampling());
+        downsampler.setThreshold(Downsampler.getThreshold(tile.getDownsampling(), (int) graphBounds.getWidth()));
+        final int count = downsampler.downsample();
+        if (count < 2) { return; }
+        if (tile.isSmoothing()) {
+            // Same scale as in Helper.smoothSparkLine()
+            final boolean flat        = Helper.equals(STATISTICS_LOW, STATISTICS_HIGH);
+            final double  smoothLow   = flat ? minValue : STATISTICS_LOW;
+            final double  smoothStepY = graphBounds.getHeight() / ((flat ? maxValue : STATISTICS_HIGH) - smoothLow);
+            final Point[] points      = new Point[count];
+            for (int i = 0 ; i < count ; i++) {
+                points[i] = new Point(MIN_X + downsampler.getSampledIndex(i) * STEP_X, MAX_Y - Math.abs(smoothLow - downsampler.getSampledY(i)) * smoothStepY);
+            }
+            smooth(points);
+        } else {
+            if (pathElements.size() != count || sparkLine.getElements().isEmpty() || sparkLine.getElements().get(0) != pathElements.get(0)) {
+                pathElements.clear();
+                pathElements.add(new MoveTo());
+                for (int i = 1 ; i < count ; i++) { pathElements.add(new LineTo()); }
+                sparkLine.getElements().setAll(pathElements);
+            }
+            MoveTo begin = (MoveTo) pathElements.get(0);
+            begin.setX(MIN_X + downsampler.getSampledIndex(0) * STEP_X);
+            begin.setY(MAX_Y - (downsampler.getSampledY(0) - low) * STEP_Y);
+            for (int i = 1 ; i < count ; i++) {
+                LineTo lineTo = (LineTo) pathElements.get(i);
+                lineTo.setX(MIN_X + downsampler.getSampledIndex(i) * STEP_X);
+                lineTo.setY(MAX_Y - (downsampler.getSampledY(i) - low) * STEP_Y);
+            }
+            LineTo end = (LineTo) pathElements.get(count - 1);
+            dot.setCenterX(end.getX());
+            dot.setCenterY(end.getY());
+        }
+    }
+
+    private void smooth(final Point[] POINTS) {
         Task<Point[]> smoothTask = new Task<Point[]>() {
             @Override protected Point[] call() {
-                return Helper.smoothSparkLine(DATA_LIST, minValue, maxValue, graphBounds, noOfDatapoints);
+                return Helper.subdividePoints(POINTS, 16);
             }
         };
         smoothTask.setOnSucceeded(t -> {
@@ -787,24 +834,7 @@ public class GaugeSparkLineTileSkin extends TileSkin {
             });
 
             if (!dataList.isEmpty()) {
-                if (tile.isSmoothing()) {
-                    smooth(dataList);
-                } else {
-                    MoveTo begin = (MoveTo) pathElements.get(0);
-                    begin.setX(minX);
-                    begin.setY(maxY - Math.abs(low - dataList.get(0)) * stepY);
-                    for (int i = 1; i < (noOfDatapoints - 1); i++) {
-                        LineTo lineTo = (LineTo) pathElements.get(i);
-                        lineTo.setX(minX + i * stepX);
-                        lineTo.setY(maxY - Math.abs(low - dataList.get(i)) * stepY);
-                    }
-                    LineTo end = (LineTo) pathElements.get(noOfDatapoints - 1);
-                    end.setX(maxX);
-                    end.setY(maxY - Math.abs(low - dataList.get(noOfDatapoints - 1)) * stepY);
-
-                    dot.setCenterX(maxX);
-                    dot.setCenterY(end.getY());
-                }
+                drawPath(minX, maxY, stepX, stepY, low, high);
 
                 if (tile.isStrokeWithGradient()) {
                     setupGradient();
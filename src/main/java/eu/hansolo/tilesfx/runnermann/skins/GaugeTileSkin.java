@@ -76,8 +76,19 @@ public class GaugeTileSkin extends TileSkin {
     private Path              alertIcon;
     private Tooltip           alertTooltip;
     private Map<Section, Arc> sectionMap;
+    private List<Section>     highlightedSections;
     private Color             barColor;
     private Color             thresholdColor;
+    private double            layerWidth;
+    private double            layerHeight;
+    private double            layerSize;
+    private double            layerMinValue;
+    private double            layerMaxValue;
+    private double            layerAngleStep;
+    private double            layerAngleRange;
+    private boolean           layerHighlightSections;
+    private boolean           layerSectionsVisible;
+    private Color             layerBackgroundColor;
 
 
     // ******************** Constructors **************************************
@@ -92,8 +103,9 @@ public class GaugeTileSkin extends TileSkin {
         super.initGraphics();
 
         if (tile.isAutoScale()) tile.calcAutoScale();
-        oldValue          = tile.getValue();
-        sectionMap        = new HashMap<>(sections.size());
+        oldValue            = tile.getValue();
+        sectionMap          = new HashMap<>(sections.size());
+        highlightedSections = new ArrayList<>();
         for(Section section : sections) { sectionMap.put(section, new Arc()); }
 
         barColor       = tile.getBarColor();
@@ -205,6 +217,7 @@ public class GaugeTileSkin extends TileSkin {
             sections = tile.getSections();
             sectionMap.clear();
             for(Section section : sections) { sectionMap.put(section, new Arc()); }
+            highlightedSections.clear();
         } else if ("ALERT".equals(EVENT_TYPE)) {
             Helper.enableNode(valueText, tile.isValueVisible() && !tile.isAlert());
             Helper.enableNode(unitText, tile.isValueVisible() && !tile.isAlert());
@@ -231,15 +244,32 @@ public class GaugeTileSkin extends TileSkin {
 
     private void highlightSections(final double VALUE) {
         if (!sectionsVisible || sections.isEmpty()) return;
-        if (highlightSections) {
-            sections.forEach(section -> sectionMap.get(section).setVisible(section.contains(VALUE)));
-        } else {
-            sections.forEach(section -> sectionMap.get(section).setOpacity(section.contains(VALUE) ? 1.0 : 0.25));
+        // Only touch the arcs of sections the value entered or left
+        List<Section> containing = tile.getSectionIndex().getSections(VALUE);
+        for (Section section : highlightedSections) {
+            Arc sectionArc = sectionMap.get(section);
+            if (null == sectionArc || containing.contains(section)) { continue; }
+            if (highlightSections) {
+                sectionArc.setVisible(false);
+            } else {
+                sectionArc.setOpacity(0.25);
+            }
+        }
+        for (Section section : containing) {
+            Arc sectionArc = sectionMap.get(section);
+            if (null == sectionArc) { continue; }
+            if (highlightSections) {
+                sectionArc.setVisible(true);
+            } else {
+                sectionArc.setOpacity(1.0);
+            }
         }
+        highlightedSections = containing;
     }
 
     private void drawSections() {
         sectionPane.getChildren().clear();
+        highlightedSections = new ArrayList<>();
         if (!sectionsVisible || sections.isEmpty()) return;
 
         double     centerX      = width * 0.5;
@@ -509,8 +539,6 @@ public class GaugeTileSkin extends TileSkin {
         thresholdBar.setStartAngle(90 - angleRange * 0.5);
         thresholdBar.setLength((tile.getMaxValue() - tile.getThreshold()) * angleStep);
 
-        if (sectionsVisible) { drawSections(); }
-
         drawAlertIcon();
         alertIcon.relocate((size - alertIcon.getLayoutBounds().getWidth()) * 0.5, size * 0.244);
 
@@ -520,7 +548,7 @@ public class GaugeTileSkin extends TileSkin {
         needleRectRotate.setPivotX(needleRect.getLayoutBounds().getWidth() * 0.5);
         needleRectRotate.setPivotY(size * 0.325);
 
-        drawNeedle();
+        updateStaticLayer();
 
         needle.relocate((width - needle.getLayoutBounds().getWidth()) * 0.5, centerY - size * 0.025);
         needleRotate.setPivotX(needle.getLayoutBounds().getWidth() * 0.5);
@@ -585,7 +613,31 @@ public class GaugeTileSkin extends TileSkin {
         fractionLine.setStroke(tile.getUnitColor());
         unitText.setFill(tile.getUnitColor());
 
-        drawSections();
+        updateStaticLayer();
         highlightSections(tile.getValue());
     }
+
+    @Override protected boolean hasStaticLayerChanged() {
+        final double maxValue        = tile.getMaxValue();
+        final Color  backgroundColor = tile.getBackgroundColor();
+        if (width == layerWidth && height == layerHeight && size == layerSize && minValue == layerMinValue && maxValue == layerMaxValue &&
+            angleStep == layerAngleStep && angleRange == layerAngleRange && highlightSections == layerHighlightSections &&
+            sectionsVisible == layerSectionsVisible && backgroundColor.equals(layerBackgroundColor)) { return false; }
+        layerWidth             = width;
+        layerHeight            = height;
+        layerSize              = size;
+        layerMinValue          = minValue;
+        layerMaxValue          = maxValue;
+        layerAngleStep         = angleStep;
+        layerAngleRange        = angleRange;
+        layerHighlightSections = highlightSections;
+        layerSectionsVisible   = sectionsVisible;
+        layerBackgroundColor   = backgroundColor;
+        return true;
+    }
+
+    @Override protected void drawStaticLayer() {
+        drawSections();
+        drawNeedle();
+    }
 }
@@ -17,13 +17,14 @@
  */
 package eu.hansolo.tilesfx.runnermann.skins;
 
+import eu.hansolo.tilesfx.runnermann.PulseProfiler;
 import eu.hansolo.tilesfx.runnermann.Tile;
 import eu.hansolo.tilesfx.runnermann.Tile.MapProvider;
 import eu.hansolo.tilesfx.runnermann.events.LocationEventListener;
 import eu.hansolo.tilesfx.runnermann.fonts.Fonts;
 import eu.hansolo.tilesfx.runnermann.tools.Helper;
 import eu.hansolo.tilesfx.runnermann.tools.Location;
-import javafx.application.Platform;
+import eu.hansolo.tilesfx.runnermann.tools.MapCommandQueue;
 import javafx.collections.ListChangeListener;
 import javafx.concurrent.Worker;
 import javafx.event.EventHandler;
@@ -34,7 +35,6 @@ import javafx.scene.web.WebView;
 import javafx.scene.web.WebEngine;
 
 import java.net.URL;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 
@@ -42,12 +42,12 @@ import java.util.List;
  * Created by hansolo on 12.02.17.
  */
 public class MapTileSkin extends TileSkin {
-    private static final DateTimeFormatter            DF = DateTimeFormatter.ISO_LOCAL_DATE;
-    private static final DateTimeFormatter            TF = DateTimeFormatter.ISO_LOCAL_TIME;
     private              Text                         titleText;
     private              Text                         text;
     private              WebView                      webView;
     private              WebEngine                    webEngine;
+    private              MapCommandQueue              commandQueue;
+    private              int                          noOfTrackLocations;
     private              boolean                      readyToGo;
     private              EventHandler<MouseEvent>     mouseHandler;
     private              LocationEventListener        locationListener;
@@ -96,7 +96,9 @@ public class MapTileSkin extends TileSkin {
         webView.setMinSize(size * 0.9, tile.isTextVisible() ? size * 0.72 : size * 0.795);
         webView.setMaxSize(size * 0.9, tile.isTextVisible() ? size * 0.72 : size * 0.795);
         webView.setPrefSize(size * 0.9, tile.isTextVisible() ? size * 0.72 : size * 0.795);
-        webEngine = webView.getEngine();
+        webEngine          = webView.getEngine();
+        commandQueue       = new MapCommandQueue(webEngine::executeScript, task -> PulseProfiler.runLater(tile, "map", task));
+        noOfTrackLocations = 0;
         webEngine.getLoadWorker().stateProperty().addListener((ov, o, n) -> {
             if (Worker.State.SUCCEEDED == n) {
                 readyToGo = true;
@@ -135,6 +137,8 @@ public class MapTileSkin extends TileSkin {
             updateLocation();
         } else if ("TRACK".equals(EVENT_TYPE)) {
             addTrack(tile.getTrack());
+        } else if ("TRACK_APPEND".equals(EVENT_TYPE)) {
+            appendToTrack(tile.getTrack());
         } else if ("MAP_PROVIDER".equals(EVENT_TYPE)) {
             changeMapProvider(tile.getMapProvider());
         }
@@ -148,185 +152,57 @@ public class MapTileSkin extends TileSkin {
     }
 
     private void updateLocation() {
-        if (readyToGo) {
-            Platform.runLater(() -> {
-                Location      location      = tile.getCurrentLocation();
-                double        lat           = location.getLatitude();
-                double        lon           = location.getLongitude();
-                String        name          = location.getName();
-                String        info          = location.getInfo();
-                int           zoomLevel     = location.getZoomLevel();
-                StringBuilder scriptCommand = new StringBuilder();
-                scriptCommand.append("window.lat = ").append(lat).append(";")
-                             .append("window.lon = ").append(lon).append(";")
-                             .append("window.locationName = \"").append(name).append("\";")
-                             .append("window.locationInfo = \"").append(info.toString()).append("\";")
-                             .append("window.zoomLevel = ").append(zoomLevel).append(";")
-                             .append("document.moveMarker(window.locationName, window.locationInfo, window.lat, window.lon, window.zoomLevel);");
-                webEngine.executeScript(scriptCommand.toString());
-            });
-        }
+        if (readyToGo) { commandQueue.moveLocation(tile.getCurrentLocation()); }
     }
 
     private void updatePoi(final Location POI) {
-        removePoi(POI);
-        addPoi(POI);
+        if (readyToGo) { commandQueue.updatePoi(POI); }
     }
     private void addPoi(final Location POI) {
-        if (readyToGo) {
-            Platform.runLater(() -> {
-                double lat   = POI.getLatitude();
-                double lon   = POI.getLongitude();
-                String name  = POI.getName();
-                String info  = POI.getInfo();
-                String color = POI.getColor().toString().replace("0x", "#");
-                StringBuilder scriptCommand = new StringBuilder();
-                scriptCommand.append("window.lat = ").append(lat).append(";")
-                             .append("window.lon = ").append(lon).append(";")
-                             .append("window.locationName = \"").append(name).append("\";")
-                             .append("window.locationInfo = \"").append(info.toString()).append("\";")
-                             .append("window.poiColor = \"").append(color).append("\";")
-                             .append("document.addPoi(window.locationName, window.locationInfo, window.lat, window.lon, window.poiColor);");
-                webEngine.executeScript(scriptCommand.toString());
-            });
-        }
+        if (readyToGo) { commandQueue.addPoi(POI); }
     }
     private void removePoi(final Location POI) {
-        if (readyToGo) {
-            Platform.runLater(() -> {
-                String        name          = POI.getName();
-                StringBuilder scriptCommand = new StringBuilder();
-                scriptCommand.append("window.locationName = \"").append(name).append("\";")
-                             .append("document.removePoi(window.locationName);");
-                webEngine.executeScript(scriptCommand.toString());
-            });
-        }
+        if (readyToGo) { commandQueue.removePoi(POI); }
     }
 
     private void updateLocationColor() {
-        if (readyToGo) {
-            Platform.runLater(() -> {
-                String locationColor = tile.getCurrentLocation().getColor().toString().replace("0x", "#");
-                StringBuilder scriptCommand = new StringBuilder();
-                scriptCommand.append("window.locationColor = '").append(locationColor).append("';")
-                             .append("document.setLocationColor(window.locationColor);");
-                webEngine.executeScript(scriptCommand.toString());
-            });
-        }
+        if (readyToGo) { commandQueue.setLocationColor(tile.getCurrentLocation().getColor().toString().replace("0x", "#")); }
     }
 
     private void updateTrackColor() {
-        if (readyToGo) {
-            Platform.runLater(() -> {
-                String trackColor = tile.getTrackColor().styleName;
-                StringBuilder scriptCommand = new StringBuilder();
-                scriptCommand.append("window.trackColor = '").append(trackColor).append("';")
-                             .append("document.setTrackColor(window.trackColor);");
-                webEngine.executeScript(scriptCommand.toString());
-            });
-        }
+        if (readyToGo) { commandQueue.setTrackColor(tile.getTrackColor().styleName); }
     }
 
     private void centerLocation() {
-        if (readyToGo) {
-            Platform.runLater(() -> {
-                StringBuilder scriptCommand = new StringBuilder();
-                scriptCommand.append("window.zoomLevel = ").append(tile.getCurrentLocation().getZoomLevel()).append(";");
-                scriptCommand.append("document.zoomToLocation(window.zoomLevel);");
-                webEngine.executeScript(scriptCommand.toString());
-            });
-        }
+        if (readyToGo) { commandQueue.zoomToLocation(tile.getCurrentLocation().getZoomLevel()); }
     }
 
     private void addTrack(final List<Location> LOCATIONS) {
+        if (!readyToGo) { return; }
         if (LOCATIONS.isEmpty()) {
-            if (readyToGo) {
-                Platform.runLater(() -> {
-                    StringBuilder scriptCommand = new StringBuilder();
-                    scriptCommand.append("document.clearTrack();");
-                    webEngine.executeScript(scriptCommand.toString());
-                });
-                return;
-            }
+            commandQueue.clearTrack();
+            noOfTrackLocations = 0;
+            return;
         }
-        int length = LOCATIONS.size();
-        if (length <= 4) return;
-        if (readyToGo) {
-            Platform.runLater(() -> {
-                StringBuilder scriptCommand = new StringBuilder();
-                double lat1;
-                double lon1;
-                double lat2;
-                double lon2;
-                String name;
-                String date;
-                String time;
-                String trackColor = tile.getTrackColor().styleName;
-                for (int i = 0 ; i < length - 1 ; i++) {
-                    scriptCommand.setLength(0);
-
-                    lat1 = LOCATIONS.get(i).getLatitude();
-                    lon1 = LOCATIONS.get(i).getLongitude();
-                    lat2 = LOCATIONS.get(i + 1).getLatitude();
-                    lon2 = LOCATIONS.get(i + 1).getLongitude();
-                    name = LOCATIONS.get(i).getName();
-                    date = DF.format(LOCATIONS.get(i).getZonedDateTime());
-                    time = TF.format(LOCATIONS.get(i).getZonedDateTime());
-
-                    scriptCommand.append("window.lat1 = ").append(lat1).append(";")
-                                     .append("window.lon1 = ").append(lon1).append(";")
-                                     .append("window.lat2 = ").append(lat2).append(";")
-                                     .append("window.lon2 = ").append(lon2).append(";")
-                                     .append("window.locationName = \"").append(name).append("\";")
-                                     .append("window.locationDate = \"").append(date).append("\";")
-                                     .append("window.locationTime = \"").append(time).append("\";")
-                                     .append("window.trackColor = \"").append(trackColor).append("\";")
-                                     .append("document.addToTrack(window.lat1, window.lon1, window.lat2, window.lon2,window.locationName, window.locationDate, window.locationTime, window.trackColor);");
-                    webEngine.executeScript(scriptCommand.toString());
-                }
+        // Tracks with less than 5 locations are not drawn and leave the map as it is
+        if (LOCATIONS.size() <= 4) { return; }
+        commandQueue.setTrack(LOCATIONS, tile.getTrackColor().styleName);
+        noOfTrackLocations = LOCATIONS.size();
+    }
 
-                // Start Marker
-                scriptCommand.setLength(0);
-                lat1 = LOCATIONS.get(0).getLatitude();
-                lon1 = LOCATIONS.get(0).getLongitude();
-                name = LOCATIONS.get(0).getName();
-                date = DF.format(LOCATIONS.get(0).getZonedDateTime());
-                time = TF.format(LOCATIONS.get(0).getZonedDateTime());
-                scriptCommand.append("window.lat1 = ").append(lat1).append(";")
-                             .append("window.lon1 = ").append(lon1).append(";")
-                             .append("window.locationName = \"").append(name).append("\";")
-                             .append("window.locationDate = \"").append(date).append("\";")
-                             .append("window.locationTime = \"").append(time).append("\";")
-                             .append("document.addStartPoiMarker(window.lat1, window.lon1, window.locationName, window.locationDate, window.locationTime);");
-                webEngine.executeScript(scriptCommand.toString());
-
-                // Stop Marker
-                scriptCommand.setLength(0);
-                lat1 = LOCATIONS.get(length - 1).getLatitude();
-                lon1 = LOCATIONS.get(length - 1).getLongitude();
-                name = LOCATIONS.get(length - 1).getName();
-                date = DF.format(LOCATIONS.get(length - 1).getZonedDateTime());
-                time = TF.format(LOCATIONS.get(length - 1).getZonedDateTime());
-                scriptCommand.append("window.lat1 = ").append(lat1).append(";")
-                             .append("window.lon1 = ").append(lon1).append(";")
-                             .append("window.locationName = \"").append(name).append("\";")
-                             .append("window.locationDate = \"").append(date).append("\";")
-                             .append("window.locationTime = \"").append(time).append("\";")
-                             .append("document.addStopPoiMarker(window.lat1, window.lon1, window.locationName, window.locationDate, window.locationTime);");
-                webEngine.executeScript(scriptCommand.toString());
-            });
+    private void appendToTrack(final List<Location> LOCATIONS) {
+        if (!readyToGo) { return; }
+        // Nothing drawn yet or the track was replaced by a shorter one
+        if (0 == noOfTrackLocations || LOCATIONS.size() < noOfTrackLocations) {
+            addTrack(LOCATIONS);
+        } else {
+            commandQueue.appendToTrack(LOCATIONS, noOfTrackLocations, tile.getTrackColor().styleName);
+            noOfTrackLocations = LOCATIONS.size();
         }
     }
 
     private void changeMapProvider(final MapProvider PROVIDER) {
-        if (readyToGo) {
-            Platform.runLater(() -> {
-                StringBuilder scriptCommand = new StringBuilder();
-                scriptCommand.append("window.provider = '").append(PROVIDER.name).append("';")
-                             .append("document.changeMapProvider(window.provider);");
-                webEngine.executeScript(scriptCommand.toString());
-            });
-        }
+        if (readyToGo) { commandQueue.changeMapProvider(PROVIDER.name); }
     }
 
 
@@ -17,6 +17,8 @@
  */
 package eu.hansolo.tilesfx.runnermann.skins;
 
+import eu.hansolo.tilesfx.runnermann.EffectScheduler;
+import eu.hansolo.tilesfx.runnermann.EffectScheduler.Registration;
 import eu.hansolo.tilesfx.runnermann.Tile;
 import eu.hansolo.tilesfx.runnermann.chart.PixelMatrix;
 import eu.hansolo.tilesfx.runnermann.chart.PixelMatrix.PixelShape;
@@ -25,7 +27,6 @@ import eu.hansolo.tilesfx.runnermann.events.TileEvent.EventType;
 import eu.hansolo.tilesfx.runnermann.fonts.Fonts;
 import eu.hansolo.tilesfx.runnermann.tools.Helper;
 import eu.hansolo.tilesfx.runnermann.tools.MatrixIcon;
-import javafx.animation.AnimationTimer;
 import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 
@@ -37,9 +38,8 @@ public class MatrixIconTileSkin extends TileSkin {
     private int            iconCounter;
     private long           updateInterval;
     private long           pauseInterval;
-    private AnimationTimer timer;
-    private AnimationTimer pauseTimer;
-    private long           lastTimerCall;
+    private Registration   timer;
+    private Registration   pauseTimer;
 
 
     // ******************** Constructors **************************************
@@ -74,24 +74,14 @@ public class MatrixIconTileSkin extends TileSkin {
         Helper.enableNode(text, tile.isTextVisible());
 
         updateInterval = tile.getAnimationDuration() * 1_000_000l;
-        lastTimerCall       = System.nanoTime();
-        timer = new AnimationTimer() {
-            @Override public void handle(final long now) {
-                if (now > lastTimerCall + updateInterval) {
-                    updateMatrix();
-                    lastTimerCall = now;
-                }
-            }
-        };
-        pauseInterval = tile.getPauseDuration() * 1_000_000l;
-        pauseTimer = new AnimationTimer() {
-            @Override public void handle(final long now) {
-                if (now > lastTimerCall + pauseInterval) {
-                    pauseTimer.stop();
-                    if (tile.isAnimated()) { timer.start(); }
-                }
-            }
-        };
+        timer          = EffectScheduler.getDefault().register(tile, 0, now -> updateMatrix());
+        timer.setInterval(updateInterval);
+        pauseInterval  = tile.getPauseDuration() * 1_000_000l;
+        pauseTimer     = EffectScheduler.getDefault().register(tile, 0, now -> {
+            pauseTimer.stop();
+            if (tile.isAnimated()) { timer.start(); }
+        });
+        pauseTimer.setInterval(pauseInterval);
 
         getPane().getChildren().addAll(titleText, matrix, text);
 
@@ -116,6 +106,8 @@ public class MatrixIconTileSkin extends TileSkin {
         } else if (EventType.ANIMATED_ON.name().equals(EVENT_TYPE)) {
             updateInterval = tile.getAnimationDuration() * 1_000_000l;
             pauseInterval  = tile.getPauseDuration() * 1_000_000l;
+            timer.setInterval(updateInterval);
+            pauseTimer.setInterval(pauseInterval);
             if (tile.getMatrixIcons().size() > 1) {
                 timer.start();
             }
@@ -126,6 +118,8 @@ public class MatrixIconTileSkin extends TileSkin {
     }
 
     @Override public void dispose() {
+        timer.unregister();
+        pauseTimer.unregister();
         matrix.dispose();
         super.dispose();
     }
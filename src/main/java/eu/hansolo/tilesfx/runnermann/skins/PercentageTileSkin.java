@@ -17,7 +17,6 @@
  */
 package eu.hansolo.tilesfx.runnermann.skins;
 
-import eu.hansolo.tilesfx.runnermann.Section;
 import eu.hansolo.tilesfx.runnermann.Tile;
 import eu.hansolo.tilesfx.runnermann.events.TileEvent.EventType;
 import eu.hansolo.tilesfx.runnermann.fonts.Fonts;
@@ -56,6 +55,9 @@ public class PercentageTileSkin extends TileSkin {
     private Text      maxValueText;
     private Text      maxValueUnitText;
     private Color     barColor;
+    private double    layerSize;
+    private Color     layerBarBackgroundColor;
+    private boolean   layerRoundedCorners;
 
 
     // ******************** Constructors **************************************
@@ -157,13 +159,7 @@ public class PercentageTileSkin extends TileSkin {
     }
 
     private void setBarColor(final double VALUE) {
-        Color color = barColor;
-        for(Section section : sections) {
-            if (section.contains(VALUE)) {
-                color = section.getColor();
-                break;
-            }
-        }
+        Color color = tile.getSectionIndex().getColor(VALUE, barColor);
         bar.setFill(color);
         percentageText.setFill(color);
         percentageUnitText.setFill(color);
@@ -279,7 +275,7 @@ public class PercentageTileSkin extends TileSkin {
 
         resizeStaticText();
 
-        barBackground.setBackground(new Background(new BackgroundFill(tile.getBarBackgroundColor().brighter().brighter(), new CornerRadii(0.0, 0.0, tile.getRoundedCorners() ? size * 0.025 : 0.0, tile.getRoundedCorners() ? size * 0.025 : 0.0, false), Insets.EMPTY)));
+        updateStaticLayer();
         barColor = tile.getBarColor();
 
         if (sectionsVisible && !sections.isEmpty()) {
@@ -298,4 +294,18 @@ public class PercentageTileSkin extends TileSkin {
         unitText.setFill(tile.getUnitColor());
 
     }
+
+    @Override protected boolean hasStaticLayerChanged() {
+        final Color   barBackgroundColor = tile.getBarBackgroundColor();
+        final boolean roundedCorners     = tile.getRoundedCorners();
+        if (size == layerSize && barBackgroundColor.equals(layerBarBackgroundColor) && roundedCorners == layerRoundedCorners) { return false; }
+        layerSize               = size;
+        layerBarBackgroundColor = barBackgroundColor;
+        layerRoundedCorners     = roundedCorners;
+        return true;
+    }
+
+    @Override protected void drawStaticLayer() {
+        barBackground.setBackground(new Background(new BackgroundFill(tile.getBarBackgroundColor().brighter().brighter(), new CornerRadii(0.0, 0.0, tile.getRoundedCorners() ? size * 0.025 : 0.0, tile.getRoundedCorners() ? size * 0.025 : 0.0, false), Insets.EMPTY)));
+    }
 }
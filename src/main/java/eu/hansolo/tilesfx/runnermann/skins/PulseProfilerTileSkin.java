@@ -0,0 +1,189 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.skins;
+
+import eu.hansolo.tilesfx.runnermann.EffectScheduler;
+import eu.hansolo.tilesfx.runnermann.EffectScheduler.Registration;
+import eu.hansolo.tilesfx.runnermann.PulseProfiler;
+import eu.hansolo.tilesfx.runnermann.PulseProfiler.Frame;
+import eu.hansolo.tilesfx.runnermann.PulseProfiler.Sample;
+import eu.hansolo.tilesfx.runnermann.Tile;
+import eu.hansolo.tilesfx.runnermann.fonts.Fonts;
+import eu.hansolo.tilesfx.runnermann.tools.Helper;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.text.Text;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+
+/**
+ * Diagnostic skin that shows the measured work per frame of the
+ * PulseProfiler with the budget as line and the top offenders of the
+ * last slow frame. The profiler has to be enabled to collect data.
+ */
+public class PulseProfilerTileSkin extends TileSkin {
+    private static final double          REFRESH_RATE = 2;
+    private              Text            titleText;
+    private              Text            text;
+    private              Text            offendersText;
+    private              Canvas          canvas;
+    private              GraphicsContext ctx;
+    private              Registration    refreshTimer;
+
+
+    // ******************** Constructors **************************************
+    public PulseProfilerTileSkin(final Tile TILE) {
+        super(TILE);
+    }
+
+
+    // ******************** Initialization ************************************
+    @Override protected void initGraphics() {
+        super.initGraphics();
+
+        titleText = new Text();
+        titleText.setFill(tile.getTitleColor());
+        Helper.enableNode(titleText, !tile.getTitle().isEmpty());
+
+        text = new Text(tile.getText());
+        text.setFill(tile.getTextColor());
+        Helper.enableNode(text, tile.isTextVisible());
+
+        canvas = new Canvas(PREFERRED_WIDTH * 0.9, PREFERRED_HEIGHT * 0.35);
+        ctx    = canvas.getGraphicsContext2D();
+
+        offendersText = new Text();
+        offendersText.setFill(tile.getTextColor());
+
+        getPane().getChildren().addAll(titleText, canvas, offendersText, text);
+
+        refreshTimer = EffectScheduler.getDefault().register(canvas, REFRESH_RATE, now -> refresh());
+        refreshTimer.start();
+    }
+
+    @Override protected void registerListeners() {
+        super.registerListeners();
+    }
+
+
+    // ******************** Methods *******************************************
+    @Override protected void handleEvents(final String EVENT_TYPE) {
+        super.handleEvents(EVENT_TYPE);
+
+        if ("VISIBILITY".equals(EVENT_TYPE)) {
+            Helper.enableNode(titleText, !tile.getTitle().isEmpty());
+            Helper.enableNode(text, tile.isTextVisible());
+        }
+    }
+
+    @Override public void dispose() {
+        refreshTimer.unregister();
+        super.dispose();
+    }
+
+    private void refresh() {
+        final double      canvasWidth  = canvas.getWidth();
+        final double      canvasHeight = canvas.getHeight();
+        final long        budget       = Math.max(1, PulseProfiler.getBudget());
+        final List<Frame> frames       = PulseProfiler.getFrames();
+        long maxTotal = budget * 2;
+        for (Frame frame : frames) { maxTotal = Math.max(maxTotal, frame.getTotal()); }
+
+        ctx.clearRect(0, 0, canvasWidth, canvasHeight);
+        final double barWidth = canvasWidth / PulseProfiler.HISTORY_SIZE;
+        final double offset   = (PulseProfiler.HISTORY_SIZE - frames.size()) * barWidth;
+        for (int i = 0 ; i < frames.size() ; i++) {
+            final long   total     = frames.get(i).getTotal();
+            final double barHeight = total / (double) maxTotal * canvasHeight;
+            ctx.setFill(total > budget ? Tile.RED : tile.getBarColor());
+            ctx.fillRect(offset + i * barWidth, canvasHeight - barHeight, Math.max(1, barWidth - 1), barHeight);
+        }
+        final double budgetY = canvasHeight - budget / (double) maxTotal * canvasHeight;
+        ctx.setStroke(tile.getThresholdColor());
+        ctx.setLineWidth(1);
+        ctx.strokeLine(0, budgetY, canvasWidth, budgetY);
+
+        final StringBuilder info       = new StringBuilder();
+        final List<Frame>   slowFrames = PulseProfiler.getSlowFrames();
+        info.append(String.format(Locale.US, "Slow frames: %d (budget %.1f ms)%n", slowFrames.size(), budget / 1e6));
+        if (!slowFrames.isEmpty()) {
+            final Frame lastSlowFrame = slowFrames.get(slowFrames.size() - 1);
+            info.append(String.format(Locale.US, "Last: %.1f ms%n", lastSlowFrame.getTotal() / 1e6));
+            for (Sample sample : lastSlowFrame.getTopOffenders()) {
+                info.append(String.format(Locale.US, "%.1f ms %s %s %s%n", sample.getNanos() / 1e6, sample.getSkinType(), sample.getTileId(), sample.getTag()));
+            }
+        } else {
+            for (Map.Entry<String, Long> entry : PulseProfiler.getBreakdownBySkinType().entrySet()) {
+                info.append(String.format(Locale.US, "%.2f ms/frame %s%n", entry.getValue() / 1e6, entry.getKey().isEmpty() ? "-" : entry.getKey()));
+            }
+        }
+        offendersText.setText(info.toString());
+    }
+
+
+    // ******************** Resizing ******************************************
+    @Override protected void resizeStaticText() {
+        double maxWidth = width - size * 0.1;
+        double fontSize = size * textSize.factor;
+
+        titleText.setFont(Fonts.latoRegular(fontSize));
+        if (titleText.getLayoutBounds().getWidth() > maxWidth) { Helper.adjustTextSize(titleText, maxWidth, fontSize); }
+        switch(tile.getTitleAlignment()) {
+            default    :
+            case LEFT  : titleText.relocate(size * 0.05, size * 0.05); break;
+            case CENTER: titleText.relocate((width - titleText.getLayoutBounds().getWidth()) * 0.5, size * 0.05); break;
+            case RIGHT : titleText.relocate(width - (size * 0.05) - titleText.getLayoutBounds().getWidth(), size * 0.05); break;
+        }
+
+        text.setText(tile.getText());
+        text.setFont(Fonts.latoRegular(fontSize));
+        if (text.getLayoutBounds().getWidth() > maxWidth) { Helper.adjustTextSize(text, maxWidth, fontSize); }
+        text.setX(size * 0.05);
+        text.setY(height - size * 0.05);
+
+        offendersText.setFont(Fonts.latoRegular(size * 0.04));
+    }
+
+    @Override protected void resize() {
+        super.resize();
+
+        canvas.setWidth(contentBounds.getWidth());
+        canvas.setHeight(contentBounds.getHeight() * 0.45);
+        canvas.relocate(contentBounds.getX(), contentBounds.getY());
+
+        offendersText.setWrappingWidth(contentBounds.getWidth());
+        offendersText.relocate(contentBounds.getX(), contentBounds.getY() + canvas.getHeight() + size * 0.02);
+        refresh();
+    }
+
+    @Override protected void redraw() {
+        super.redraw();
+        titleText.setText(tile.getTitle());
+        text.setText(tile.getText());
+
+        resizeStaticText();
+
+        titleText.setFill(tile.getTitleColor());
+        text.setFill(tile.getTextColor());
+        offendersText.setFill(tile.getTextColor());
+        refresh();
+    }
+}
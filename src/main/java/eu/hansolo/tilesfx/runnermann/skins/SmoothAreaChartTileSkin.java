@@ -17,6 +17,7 @@
  */
 package eu.hansolo.tilesfx.runnermann.skins;
 
+import eu.hansolo.tilesfx.runnermann.PulseProfiler;
 import eu.hansolo.tilesfx.runnermann.Tile;
 import eu.hansolo.tilesfx.runnermann.Tile.ChartType;
 import eu.hansolo.tilesfx.runnermann.chart.ChartData;
@@ -24,12 +25,12 @@ import eu.hansolo.tilesfx.runnermann.events.ChartDataEventListener;
 import eu.hansolo.tilesfx.runnermann.events.TileEvent;
 import eu.hansolo.tilesfx.runnermann.events.TileEvent.EventType;
 import eu.hansolo.tilesfx.runnermann.fonts.Fonts;
+import eu.hansolo.tilesfx.runnermann.tools.Downsampler;
 import eu.hansolo.tilesfx.runnermann.tools.Helper;
 import eu.hansolo.tilesfx.runnermann.tools.Point;
 import javafx.animation.FadeTransition;
 import javafx.animation.PauseTransition;
 import javafx.animation.SequentialTransition;
-import javafx.application.Platform;
 import javafx.collections.ListChangeListener;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
@@ -220,7 +221,7 @@ public class SmoothAreaChartTileSkin extends TileSkin {
         } else if (EventType.SERIES.name().equals(EVENT_TYPE)) {
             Helper.enableNode(fillPath, ChartType.AREA == tile.getChartType());
         } else if (EventType.CLEAR_DATA.name().equals(EVENT_TYPE)) {
-            Platform.runLater(() -> {
+            PulseProfiler.runLater(tile, "clearData", () -> {
                 tile.clearChartData();
                 fillPath.setVisible(false);
                 strokePath.setVisible(false);
@@ -271,7 +272,7 @@ public class SmoothAreaChartTileSkin extends TileSkin {
 
     private void drawChart(final List<Point> POINTS) {
         if (POINTS.isEmpty()) return;
-        Point[] points = smoothing ? Helper.subdividePoints(POINTS.toArray(new Point[0]), 8) : POINTS.toArray(new Point[0]);
+        Point[] points = smoothing ? Helper.subdividePoints(downsample(POINTS), 8) : downsample(POINTS);
 
         if (0 == points.length || null == points[0]) { return; }
 
@@ -293,6 +294,21 @@ public class SmoothAreaChartTileSkin extends TileSkin {
         if (dataPointsVisible) { drawDataPoints(POINTS, tile.isFillWithGradient() ? tile.getGradientStops().get(0).getColor() : tile.getBarColor()); }
     }
 
+    // Reduces the points to about one point per pixel of the width
+    private Point[] downsample(final List<Point> POINTS) {
+        final int      count = POINTS.size();
+        final double[] xs    = new double[count];
+        final double[] ys    = new double[count];
+        for (int i = 0 ; i < count ; i++) {
+            xs[i] = POINTS.get(i).getX();
+            ys[i] = POINTS.get(i).getY();
+        }
+        final int[]   sampled = Downsampler.downsample(tile.getDownsampling(), xs, ys, count, Downsampler.getThreshold(tile.getDownsampling(), (int) width));
+        final Point[] points  = new Point[sampled.length];
+        for (int i = 0 ; i < sampled.length ; i++) { points[i] = POINTS.get(sampled[i]); }
+        return points;
+    }
+
     private void drawDataPoints(final List<Point> DATA, final Color COLOR) {
         if (DATA.isEmpty()) { return; }
         final double LOWER_BOUND_X = 0;
@@ -67,6 +67,7 @@ public class SmoothedChartTileSkin extends TileSkin {
 
         chart = new SmoothedChart<>(xAxis, yAxis);
         chart.setSmoothed(tile.isSmoothing());
+        chart.setDownsampling(tile.getDownsampling());
         chart.setAnimated(tile.isAnimated());
         chart.setLegendSide(Side.TOP);
         chart.setVerticalZeroLineVisible(false);
@@ -174,6 +175,7 @@ public class SmoothedChartTileSkin extends TileSkin {
         chart.setSelectorStrokeColor(tile.getForegroundColor());
         chart.setSelectorFillColor(tile.getBackgroundColor());
         chart.setSmoothed(tile.isSmoothing());
+        chart.setDownsampling(tile.getDownsampling());
         chart.setAnimated(tile.isAnimated());
         chart.setTooltipTimeout(tile.getTooltipTimeout());
         chart.setSymbolsVisible(tile.getDataPointsVisible());
@@ -17,15 +17,18 @@
  */
 package eu.hansolo.tilesfx.runnermann.skins;
 
+import eu.hansolo.tilesfx.runnermann.PulseProfiler;
 import eu.hansolo.tilesfx.runnermann.Tile;
 import eu.hansolo.tilesfx.runnermann.events.TileEvent.EventType;
 import eu.hansolo.tilesfx.runnermann.fonts.Fonts;
+import eu.hansolo.tilesfx.runnermann.tools.Downsampler;
 import eu.hansolo.tilesfx.runnermann.tools.GradientLookup;
 import eu.hansolo.tilesfx.runnermann.tools.Helper;
 import eu.hansolo.tilesfx.runnermann.tools.MovingAverage;
 import eu.hansolo.tilesfx.runnermann.tools.NiceScale;
 import eu.hansolo.tilesfx.runnermann.tools.Point;
 import eu.hansolo.tilesfx.runnermann.tools.Statistics;
+import eu.hansolo.tilesfx.runnermann.tools.TimeSeriesStore;
 import javafx.beans.InvalidationListener;
 import javafx.concurrent.Task;
 import javafx.geometry.Pos;
@@ -95,6 +98,7 @@ public class SparkLineTileSkin extends TileSkin {
     private double               stdDeviation;
     private int                  noOfDatapoints;
     private List<Double>         dataList;
+    private Downsampler          downsampler;
     private MovingAverage        movingAverage;
     private InvalidationListener averagingListener;
     private NiceScale            niceScaleY;
@@ -153,6 +157,9 @@ public class SparkLineTileSkin extends TileSkin {
 
         graphBounds = new Rectangle(PREFERRED_WIDTH * 0.05, PREFERRED_HEIGHT * 0.5, PREFERRED_WIDTH * 0.9, PREFERRED_HEIGHT * 0.45);
 
+        // Renders about one point per pixel of the graph width
+        downsampler = new Downsampler(tile.getDownsampling(), Downsampler.getThreshold(tile.getDownsampling(), (int) graphBounds.getWidth()));
+
         titleText = new Text(tile.getTitle());
         titleText.setFill(tile.getTitleColor());
         Helper.enableNode(titleText, !tile.getTitle().isEmpty());
@@ -230,6 +237,9 @@ public class SparkLineTileSkin extends TileSkin {
     @Override protected void registerListeners() {
         super.registerListeners();
         tile.averagingPeriodProperty().addListener(averagingListener);
+
+        // Brings back the history of the tile (e.g. after a restart)
+        if (null != tile.getTimeSeriesStore()) { readWindow(tile.getTimeSeriesStore()); }
     }
 
 
@@ -256,17 +266,31 @@ public class SparkLineTileSkin extends TileSkin {
             noOfDatapoints = tile.getAveragingPeriod();
 
             dataList.clear();
+            downsampler.clear();
 
             // To get smooth lines in the chart we need at least 4 values
             if (noOfDatapoints < 4) throw new IllegalArgumentException("Please increase the averaging period to a value larger than 3.");
-            for (int i = 0; i < noOfDatapoints; i++) { dataList.add(minValue); }
+            if (null == tile.getTimeSeriesStore()) {
+                for (int i = 0; i < noOfDatapoints; i++) {
+                    dataList.add(minValue);
+                    downsampler.add(minValue);
+                }
+            } else {
+                readWindow(tile.getTimeSeriesStore());
+            }
             pathElements.clear();
             pathElements.add(0, new MoveTo());
             for (int i = 1 ; i < noOfDatapoints ; i++) { pathElements.add(i, new LineTo()); }
             sparkLine.getElements().setAll(pathElements);
             redraw();
+        } else if (EventType.DATA.name().equals(EVENT_TYPE)) {
+            if (null != tile.getTimeSeriesStore()) {
+                readWindow(tile.getTimeSeriesStore());
+                drawSparkLine(clamp(minValue, maxValue, tile.getValue()));
+            }
         } else if (EventType.CLEAR_DATA.name().equals(EVENT_TYPE)) {
             dataList.clear();
+            downsampler.clear();
             handleCurrentValue(minValue);
         } else if (EventType.FINISHED.name().equals(EVENT_TYPE)) {
             if(tile.isAnimated()) { tile.setAnimated(false); }
@@ -278,6 +302,14 @@ public class SparkLineTileSkin extends TileSkin {
 
     @Override protected void handleCurrentValue(final double VALUE) {
         addData(VALUE);
+        drawSparkLine(VALUE);
+    }
+
+    @Override protected void updateModel(final double VALUE) { addData(VALUE); }
+
+    @Override protected void catchUp() { drawSparkLine(tile.getCurrentValue()); }
+
+    private void drawSparkLine(final double VALUE) {
         double statisticsLow  = Statistics.getMin(dataList);
         double statisticsHigh = Statistics.getMax(dataList);
 
@@ -350,23 +382,7 @@ public class SparkLineTileSkin extends TileSkin {
         }
 
         if (!dataList.isEmpty()) {
-            if (tile.isSmoothing()) {
-                smooth(dataList);
-            } else {
-                MoveTo begin = (MoveTo) pathElements.get(0);
-                begin.setX(minX);
-                begin.setY(maxY - (dataList.get(0) - low) * stepY);
-                for (int i = 1; i < (noOfDatapoints - 1); i++) {
-                    LineTo lineTo = (LineTo) pathElements.get(i);
-                    lineTo.setX(minX + i * stepX);
-                    lineTo.setY(maxY - (dataList.get(i) - low) * stepY);
-                }
-                LineTo end = (LineTo) pathElements.get(noOfDatapoints - 1);
-                end.setX(maxX);
-                end.setY(maxY - (dataList.get(noOfDatapoints - 1) - low) * stepY);
-                dot.setCenterX(maxX);
-                dot.setCenterY(end.getY());
-            }
+            drawPath(minX, maxY, stepX, stepY, statisticsLow, statisticsHigh);
 
             if (tile.isStrokeWithGradient()) {
                 setupGradient();
@@ -404,13 +420,41 @@ public class SparkLineTileSkin extends TileSkin {
     }
 
     private void addData(final double VALUE) {
-        if (dataList.isEmpty()) { for (int i = 0 ; i < noOfDatapoints ;i ++) { dataList.add(VALUE); } }
+        if (dataList.isEmpty()) {
+            downsampler.clear();
+            for (int i = 0 ; i < noOfDatapoints ;i ++) {
+                dataList.add(VALUE);
+                downsampler.add(VALUE);
+            }
+        }
         if (dataList.size() >= noOfDatapoints) {
             Collections.rotate(dataList, -1);  // Shift all values 1 entry to the left
             dataList.set((noOfDatapoints - 1), VALUE); // Add new value on the right
         } else {
             dataList.add(VALUE);
         }
+        if (downsampler.size() >= noOfDatapoints) { downsampler.removeFirst(downsampler.size() - noOfDatapoints + 1); }
+        downsampler.add(VALUE);
+        stdDeviation = Statistics.getStdDev(dataList);
+    }
+
+    /**
+     * Reads the last values of the given store into the data list, if the
+     * store contains less values than the averaging period the data list
+     * starts with the first value of the store.
+     * @param STORE
+     */
+    private void readWindow(final TimeSeriesStore STORE) {
+        dataList.clear();
+        downsampler.clear();
+        if (STORE.isEmpty()) { return; }
+        final long size = STORE.size();
+        final long from = Math.max(0, size - noOfDatapoints);
+        for (long i = size - from ; i < noOfDatapoints ; i++) {
+            dataList.add(clamp(minValue, maxValue, STORE.getValue(from)));
+        }
+        STORE.scanIndices(from, size, (epochMillis, value) -> dataList.add(clamp(minValue, maxValue, value)));
+        dataList.forEach(value -> downsampler.add(value));
         stdDeviation = Statistics.getStdDev(dataList);
     }
 
@@ -473,13 +517,49 @@ public class SparkLineTileSkin extends TileSkin {
         super.dispose();
     }
 
-    private void smooth(final List<Double> DATA_LIST) {
+    private void drawPath(final double MIN_X, final double MAX_Y, final double STEP_X, final double STEP_Y, final double STATISTICS_LOW, final double STATISTICS_HIGH) {
+        downsampler.setMode(tile.getDownsampling());
+        downsampler.setThreshold(Downsampler.getThreshold(tile.getDownsampling(), (int) graphBounds.getWidth()));
+        final int count = downsampler.downsample();
+        if (count < 2) { return; }
+        if (tile.isSmoothing()) {
+            // Same scale as in Helper.smoothSparkLine()
+            final boolean flat        = Helper.equals(STATISTICS_LOW, STATISTICS_HIGH);
+            final double  smoothLow   = flat ? minValue : STATISTICS_LOW;
+            final double  smoothStepY = graphBounds.getHeight() / ((flat ? maxValue : STATISTICS_HIGH) - smoothLow);
+            final Point[] points      = new Point[count];
+            for (int i = 0 ; i < count ; i++) {
+                points[i] = new Point(MIN_X + downsampler.getSampledIndex(i) * STEP_X, MAX_Y - Math.abs(smoothLow - downsampler.getSampledY(i)) * smoothStepY);
+            }
+            smooth(points);
+        } else {
+            if (pathElements.size() != count || sparkLine.getElements().isEmpty() || sparkLine.getElements().get(0) != pathElements.get(0)) {
+                pathElements.clear();
+                pathElements.add(new MoveTo());
+                for (int i = 1 ; i < count ; i++) { pathElements.add(new LineTo()); }
+                sparkLine.getElements().setAll(pathElements);
+            }
+            MoveTo begin = (MoveTo) pathElements.get(0);
+            begin.setX(MIN_X + downsampler.getSampledIndex(0) * STEP_X);
+            begin.setY(MAX_Y - (downsampler.getSampledY(0) - low) * STEP_Y);
+            for (int i = 1 ; i < count ; i++) {
+                LineTo lineTo = (LineTo) pathElements.get(i);
+                lineTo.setX(MIN_X + downsampler.getSampledIndex(i) * STEP_X);
+                lineTo.setY(MAX_Y - (downsampler.getSampledY(i) - low) * STEP_Y);
+            }
+            LineTo end = (LineTo) pathElements.get(count - 1);
+            dot.setCenterX(end.getX());
+            dot.setCenterY(end.getY());
+        }
+    }
+
+    private void smooth(final Point[] POINTS) {
         Task<Point[]> smoothTask = new Task<Point[]>() {
             @Override protected Point[] call() {
-                return Helper.smoothSparkLine(DATA_LIST, minValue, maxValue, graphBounds, noOfDatapoints);
+                return Helper.subdividePoints(POINTS, 16);
             }
         };
-        smoothTask.setOnSucceeded(t -> {
+        smoothTask.setOnSucceeded(t -> PulseProfiler.measure(tile, "smooth", () -> {
             Point[] smoothedPoints = smoothTask.getValue();
             int lengthMinusOne = smoothedPoints.length - 1;
             sparkLine.getElements().clear();
@@ -489,7 +569,7 @@ public class SparkLineTileSkin extends TileSkin {
             }
             dot.setCenterX(smoothedPoints[lengthMinusOne].getX());
             dot.setCenterY(smoothedPoints[lengthMinusOne].getY());
-        });
+        }));
         Thread smoothThread = new Thread(smoothTask);
         smoothThread.setDaemon(true);
         smoothThread.start();
@@ -657,23 +737,7 @@ public class SparkLineTileSkin extends TileSkin {
             }
 
             if (!dataList.isEmpty()) {
-                if (tile.isSmoothing()) {
-                    smooth(dataList);
-                } else {
-                    MoveTo begin = (MoveTo) pathElements.get(0);
-                    begin.setX(minX);
-                    begin.setY(maxY - (dataList.get(0) - low) * stepY);
-                    for (int i = 1; i < (noOfDatapoints - 1); i++) {
-                        LineTo lineTo = (LineTo) pathElements.get(i);
-                        lineTo.setX(minX + i * stepX);
-                        lineTo.setY(maxY - (dataList.get(i) - low) * stepY);
-                    }
-                    LineTo end = (LineTo) pathElements.get(noOfDatapoints - 1);
-                    end.setX(maxX);
-                    end.setY(maxY - (dataList.get(noOfDatapoints - 1) - low) * stepY);
-                    dot.setCenterX(maxX);
-                    dot.setCenterY(end.getY());
-                }
+                drawPath(minX, maxY, stepX, stepY, statisticsLow, statisticsHigh);
 
                 if (tile.isStrokeWithGradient()) {
                     setupGradient();
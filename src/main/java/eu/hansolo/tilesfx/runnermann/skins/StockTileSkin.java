@@ -237,6 +237,10 @@ public class StockTileSkin extends TileSkin {
         }
     }
 
+    @Override protected void updateModel(final String EVENT_TYPE) {
+        if ("VALUE".equals(EVENT_TYPE)) { addData(clamp(minValue, maxValue, tile.getValue())); }
+    }
+
     @Override protected void handleCurrentValue(final double VALUE) {
         low  = Statistics.getMin(dataList);
         high = Statistics.getMax(dataList);
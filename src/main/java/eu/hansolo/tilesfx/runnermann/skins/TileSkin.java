@@ -17,9 +17,12 @@
  */
 package eu.hansolo.tilesfx.runnermann.skins;
 
+import eu.hansolo.tilesfx.runnermann.PulseProfiler;
 import eu.hansolo.tilesfx.runnermann.Section;
 import eu.hansolo.tilesfx.runnermann.Tile;
 import eu.hansolo.tilesfx.runnermann.Tile.TextSize;
+import eu.hansolo.tilesfx.runnermann.TileMetrics;
+import eu.hansolo.tilesfx.runnermann.TileMetrics.Operation;
 import eu.hansolo.tilesfx.runnermann.events.BoundsEvent;
 import eu.hansolo.tilesfx.runnermann.events.BoundsEventListener;
 import eu.hansolo.tilesfx.runnermann.events.TileEvent.EventType;
@@ -50,8 +53,10 @@ import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 
 import java.text.DecimalFormat;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 import static eu.hansolo.tilesfx.runnermann.tools.Helper.clamp;
 import static eu.hansolo.tilesfx.runnermann.tools.Helper.enableNode;
@@ -67,6 +72,10 @@ public class TileSkin extends SkinBase<Tile> implements Skin<Tile> {
     protected static final double                    MINIMUM_HEIGHT   = 50;
     protected static final double                    MAXIMUM_WIDTH    = 1024;
     protected static final double                    MAXIMUM_HEIGHT   = 1024;
+    private   static final Set<String>               RENDER_EVENTS    = Set.of(EventType.RESIZE.name(), EventType.REDRAW.name(), EventType.VALUE.name(), EventType.FINISHED.name(),
+                                                                               EventType.THRESHOLD_EXCEEDED.name(), EventType.THRESHOLD_UNDERRUN.name(),
+                                                                               EventType.LOWER_THRESHOLD_EXCEEDED.name(), EventType.LOWER_THRESHOLD_UNDERRUN.name(),
+                                                                               EventType.MAX_VALUE_EXCEEDED.name(), EventType.MIN_VALUE_UNDERRUN.name(), EventType.VALUE_IN_RANGE.name());
     protected              double                    width;
     protected              double                    height;
     protected              double                    size;
@@ -97,11 +106,15 @@ public class TileSkin extends SkinBase<Tile> implements Skin<Tile> {
     protected              InvalidationListener      currentValueListener;
     protected              InvalidationListener      timeListener;
     protected              Tile                      tile;
+    private                InvalidationListener      suspendedListener;
+    private                boolean                   renderSuspended;
     private                ImageView                 backgroundImageView;
     private                NotifyRegion              notifyRegion;
     private                InfoRegion                infoRegion;
     private                LowerRightRegion          lowerRightRegion;
     private                EventHandler<MouseEvent>  infoRegionHandler;
+    private                Object[]                  frameKey;
+    private                boolean                   staticLayerValid;
 
 
     // ******************** Constructors **************************************
@@ -123,9 +136,15 @@ public class TileSkin extends SkinBase<Tile> implements Skin<Tile> {
         highlightSections     = tile.isHighlightSections();
         textSize              = tile.getTextSize();
         infoRegionHandler     = tile.getInfoRegionHandler();
-        sizeListener          = o -> handleEvents("RESIZE");
-        tileEventListener     = e -> handleEvents(e.getEventType().name());
-        currentValueListener  = o -> handleCurrentValue(tile.getCurrentValue());
+        sizeListener          = o -> measuredHandleEvents("RESIZE");
+        tileEventListener     = e -> measuredHandleEvents(e.getEventType().name());
+        currentValueListener  = o -> measuredHandleCurrentValue(tile.getCurrentValue());
+        renderSuspended       = tile.isRenderSuspended();
+        suspendedListener     = o -> {
+            if (tile.isRenderSuspended() == renderSuspended) { return; }
+            renderSuspended = tile.isRenderSuspended();
+            if (!renderSuspended) { measuredCatchUp(); }
+        };
         contentBounds         = new CtxBounds();
         decimalFormat         = tile.getCustomDecimalFormat();
 
@@ -181,6 +200,7 @@ public class TileSkin extends SkinBase<Tile> implements Skin<Tile> {
         tile.heightProperty().addListener(sizeListener);
         tile.setOnTileEvent(tileEventListener);
         tile.currentValueProperty().addListener(currentValueListener);
+        tile.renderSuspendedProperty().addListener(suspendedListener);
         if (null != infoRegionHandler) { infoRegion.addEventHandler(MouseEvent.ANY, infoRegionHandler); }
     }
 
@@ -197,10 +217,10 @@ public class TileSkin extends SkinBase<Tile> implements Skin<Tile> {
 
     protected void handleEvents(final String EVENT_TYPE) {
         if (EventType.RESIZE.name().equals(EVENT_TYPE)) {
-            resize();
-            redraw();
+            measuredResize();
+            measuredRedraw();
         } else if (EventType.REDRAW.name().equals(EVENT_TYPE)) {
-            redraw();
+            measuredRedraw();
         } else if (EventType.RECALC.name().equals(EVENT_TYPE)) {
             minValue          = tile.getMinValue();
             maxValue          = tile.getMaxValue();
@@ -210,10 +230,12 @@ public class TileSkin extends SkinBase<Tile> implements Skin<Tile> {
             angleRange        = clamp(90.0, 180.0, tile.getAngleRange());
             angleStep         = angleRange / range;
             highlightSections = tile.isHighlightSections();
-            redraw();
+            invalidateStaticLayer();
+            measuredRedraw();
             handleCurrentValue(tile.getCurrentValue());
         } else if (EventType.SECTION.name().equals(EVENT_TYPE)) {
             sections = tile.getSections();
+            invalidateStaticLayer();
         } else if (EventType.SHOW_NOTIFY_REGION.name().equals(EVENT_TYPE)) {
             enableNode(notifyRegion, true);
         } else if (EventType.HIDE_NOTIFY_REGION.equals(EVENT_TYPE)) {
@@ -249,6 +271,122 @@ public class TileSkin extends SkinBase<Tile> implements Skin<Tile> {
 
     protected void handleCurrentValue(final double VALUE) {}
 
+    /**
+     * Returns true if the tile is not visible and the skin should not render
+     * (see Tile.isRenderSuspended()).
+     * @return true if the rendering of the skin is suspended
+     */
+    protected boolean isRenderSuspended() { return renderSuspended; }
+
+    /**
+     * Called instead of handleCurrentValue() while the rendering is suspended.
+     * Skins that keep data of their own (e.g. the values of a sparkline) have
+     * to update it here, everything else will be rendered from the tile when
+     * it becomes visible again.
+     * @param VALUE
+     */
+    protected void updateModel(final double VALUE) {}
+
+    /**
+     * Called instead of handleEvents() for the events that only trigger a
+     * redraw (resize, redraw, value and threshold events) while the rendering
+     * is suspended. All other events are handled as usual.
+     * @param EVENT_TYPE
+     */
+    protected void updateModel(final String EVENT_TYPE) {}
+
+    /**
+     * Renders the latest value of the tile after the rendering was suspended,
+     * this will be called after resize() and redraw().
+     */
+    protected void catchUp() { handleCurrentValue(tile.getCurrentValue()); }
+
+    /**
+     * Returns true if one of the values the static layer of the skin depends
+     * on (e.g. the size, the range and the colors) changed since the last
+     * call. Implementations compare the current values with the ones they
+     * remember and remember the current ones. The static layer will only be
+     * drawn again by updateStaticLayer() if this returns true or if the
+     * layer was invalidated (RECALC and SECTION events invalidate it).
+     * @return true if one of the values the static layer depends on changed
+     */
+    protected boolean hasStaticLayerChanged() { return false; }
+
+    /**
+     * Draws the parts of the skin that don't depend on the value (e.g. the
+     * sections, the scale or the shape of the needle). Will only be called
+     * by updateStaticLayer() and never for a new value.
+     */
+    protected void drawStaticLayer() {}
+
+    protected void invalidateStaticLayer() { staticLayerValid = false; }
+
+    /**
+     * Draws the static layer of the skin if it was invalidated or if one of
+     * the values it depends on changed (see hasStaticLayerChanged()).
+     */
+    protected void updateStaticLayer() {
+        // Always asked, so the skin remembers the values the layer was drawn with
+        final boolean changed = hasStaticLayerChanged();
+        if (staticLayerValid && !changed) { return; }
+        staticLayerValid = true;
+        final TileMetrics metrics = tile.getMetrics();
+        if (null == metrics && !PulseProfiler.isEnabled()) { drawStaticLayer(); return; }
+        final long start = beginMeasurement(metrics);
+        try { drawStaticLayer(); } finally { endMeasurement(metrics, Operation.STATIC_LAYER, start); }
+    }
+
+    // Record the rendering metrics of the tile and feed the pulse profiler if enabled (see TileMetrics and PulseProfiler)
+    private void measuredHandleEvents(final String EVENT_TYPE) {
+        if (renderSuspended && RENDER_EVENTS.contains(EVENT_TYPE)) { updateModel(EVENT_TYPE); return; }
+        final TileMetrics metrics = tile.getMetrics();
+        if (null == metrics && !PulseProfiler.isEnabled()) { handleEvents(EVENT_TYPE); return; }
+        final long start = beginMeasurement(metrics);
+        try { handleEvents(EVENT_TYPE); } finally { endMeasurement(metrics, Operation.EVENT, start); }
+    }
+
+    private void measuredHandleCurrentValue(final double VALUE) {
+        if (renderSuspended) { updateModel(VALUE); return; }
+        final TileMetrics metrics = tile.getMetrics();
+        if (null == metrics && !PulseProfiler.isEnabled()) { handleCurrentValue(VALUE); return; }
+        final long start = beginMeasurement(metrics);
+        try { handleCurrentValue(VALUE); } finally { endMeasurement(metrics, Operation.CURRENT_VALUE, start); }
+    }
+
+    private void measuredResize() {
+        final TileMetrics metrics = tile.getMetrics();
+        if (null == metrics && !PulseProfiler.isEnabled()) { resize(); return; }
+        final long start = beginMeasurement(metrics);
+        try { resize(); } finally { endMeasurement(metrics, Operation.RESIZE, start); }
+    }
+
+    private void measuredRedraw() {
+        final TileMetrics metrics = tile.getMetrics();
+        if (null == metrics && !PulseProfiler.isEnabled()) { redraw(); return; }
+        final long start = beginMeasurement(metrics);
+        try { redraw(); } finally { endMeasurement(metrics, Operation.REDRAW, start); }
+    }
+
+    private void measuredCatchUp() {
+        measuredResize();
+        measuredRedraw();
+        final TileMetrics metrics = tile.getMetrics();
+        if (null == metrics && !PulseProfiler.isEnabled()) { catchUp(); return; }
+        final long start = beginMeasurement(metrics);
+        try { catchUp(); } finally { endMeasurement(metrics, Operation.CURRENT_VALUE, start); }
+    }
+
+    private long beginMeasurement(final TileMetrics METRICS) {
+        final long start = PulseProfiler.begin();
+        if (null != METRICS) { METRICS.begin(); }
+        return start;
+    }
+
+    private void endMeasurement(final TileMetrics METRICS, final Operation OPERATION, final long START) {
+        if (null != METRICS) { METRICS.end(OPERATION, START); }
+        PulseProfiler.end(tile, OPERATION.name(), START);
+    }
+
     /**
      * Returns the bounds of the content area. Keep in mind that
      * the skin property of the Tile has to be set before you can
@@ -278,6 +416,7 @@ public class TileSkin extends SkinBase<Tile> implements Skin<Tile> {
         tile.heightProperty().removeListener(sizeListener);
         tile.removeTileEventListener(tileEventListener);
         tile.currentValueProperty().removeListener(currentValueListener);
+        tile.renderSuspendedProperty().removeListener(suspendedListener);
         tile = null;
     }
     
@@ -344,8 +483,13 @@ public class TileSkin extends SkinBase<Tile> implements Skin<Tile> {
 
     protected void redraw() {
         boolean hasRoundedCorners = tile.getRoundedCorners();
-        pane.setBorder(new Border(new BorderStroke(tile.getBorderColor(), BorderStrokeStyle.SOLID, hasRoundedCorners ? new CornerRadii(clamp(0, Double.MAX_VALUE, size * 0.025)) : CornerRadii.EMPTY, new BorderWidths(clamp(0, Double.MAX_VALUE, tile.getBorderWidth() / PREFERRED_WIDTH * size)))));
-        pane.setBackground(new Background(new BackgroundFill(tile.getBackgroundColor(), hasRoundedCorners ? new CornerRadii(clamp(0, Double.MAX_VALUE, size * 0.025)) : CornerRadii.EMPTY, Insets.EMPTY)));
+        // Border and background only depend on the size and the style of the tile
+        final Object[] key = { tile.getBorderColor(), tile.getBackgroundColor(), tile.getBorderWidth(), hasRoundedCorners, size };
+        if (!Arrays.equals(key, frameKey)) {
+            frameKey = key;
+            pane.setBorder(new Border(new BorderStroke(tile.getBorderColor(), BorderStrokeStyle.SOLID, hasRoundedCorners ? new CornerRadii(clamp(0, Double.MAX_VALUE, size * 0.025)) : CornerRadii.EMPTY, new BorderWidths(clamp(0, Double.MAX_VALUE, tile.getBorderWidth() / PREFERRED_WIDTH * size)))));
+            pane.setBackground(new Background(new BackgroundFill(tile.getBackgroundColor(), hasRoundedCorners ? new CornerRadii(clamp(0, Double.MAX_VALUE, size * 0.025)) : CornerRadii.EMPTY, Insets.EMPTY)));
+        }
 
         backgroundImageView.setOpacity(tile.getBackgroundImageOpacity());
 
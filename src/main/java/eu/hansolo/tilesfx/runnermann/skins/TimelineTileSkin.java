@@ -17,19 +17,21 @@
  */
 package eu.hansolo.tilesfx.runnermann.skins;
 
+import eu.hansolo.tilesfx.runnermann.PulseProfiler;
 import eu.hansolo.tilesfx.runnermann.Section;
 import eu.hansolo.tilesfx.runnermann.Tile;
 import eu.hansolo.tilesfx.runnermann.chart.ChartData;
 import eu.hansolo.tilesfx.runnermann.events.TileEvent;
 import eu.hansolo.tilesfx.runnermann.fonts.Fonts;
 import eu.hansolo.tilesfx.runnermann.tools.DoubleExponentialSmoothingForLinearSeries;
+import eu.hansolo.tilesfx.runnermann.tools.Downsampler;
 import eu.hansolo.tilesfx.runnermann.tools.DoubleExponentialSmoothingForLinearSeries.Model;
 import eu.hansolo.tilesfx.runnermann.tools.Helper;
 import eu.hansolo.tilesfx.runnermann.tools.MovingAverage;
 import eu.hansolo.tilesfx.runnermann.tools.NiceScale;
 import eu.hansolo.tilesfx.runnermann.tools.Statistics;
 import eu.hansolo.tilesfx.runnermann.tools.TimeData;
-import javafx.application.Platform;
+import eu.hansolo.tilesfx.runnermann.tools.TimeSeriesStore;
 import javafx.beans.InvalidationListener;
 import javafx.collections.ListChangeListener;
 import javafx.event.EventHandler;
@@ -62,9 +64,11 @@ import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -134,6 +138,9 @@ public class TimelineTileSkin extends TileSkin {
     private              int                      maxNoOfDatapoints;
     private              List<ChartData>          dataList;
     private              List<ChartData>          reducedDataList;
+    private              Deque<ChartData>         storeWindow;
+    private              TimeSeriesStore          windowStore;
+    private              long                     windowCursor;
     private              Duration                 timePeriod;
     private              MovingAverage            movingAverage;
     private              InvalidationListener     periodListener;
@@ -217,6 +224,8 @@ public class TimelineTileSkin extends TileSkin {
         movingAverage     = tile.getMovingAverage();
         dataList          = new ArrayList<>();
         reducedDataList   = new ArrayList<>();
+        storeWindow       = new ArrayDeque<>();
+        windowCursor      = -1;
         dotRadius         = 3;
         noOfDatapoints    = calcNumberOfDatapointsForPeriod(timePeriod);
         maxNoOfDatapoints = calcNumberOfDatapointsForPeriod(tile.getMaxTimePeriod());
@@ -350,7 +359,7 @@ public class TimelineTileSkin extends TileSkin {
 
         TimerTask timerTask = new TimerTask() {
             @Override public void run() {
-                Platform.runLater(() -> checkForOutdated());
+                PulseProfiler.runLater(tile, "checkForOutdated", () -> checkForOutdated());
             }
         };
         Timer timer = new Timer("Timer");
@@ -367,7 +376,7 @@ public class TimelineTileSkin extends TileSkin {
                 }
             }
             Set<ChartData> dataSet = tile.getChartData().stream().filter(data -> !dataList.contains(data)).collect(Collectors.toSet());
-            Platform.runLater(() -> tile.removeChartData(new ArrayList<>(dataSet)));
+            PulseProfiler.runLater(tile, "removeChartData", () -> tile.removeChartData(new ArrayList<>(dataSet)));
         });
         tile.getSections().addListener((ListChangeListener<Section>) c -> {
             while(c.next()) {
@@ -384,6 +393,12 @@ public class TimelineTileSkin extends TileSkin {
             sectionGroup.getChildren().setAll(sections.values());
             resize();
         });
+
+        // Brings back the history of the tile (e.g. after a restart)
+        if (null != tile.getTimeSeriesStore()) {
+            readWindow(tile.getTimeSeriesStore());
+            updateWindow(clamp(minValue, maxValue, tile.getValue()));
+        }
     }
 
 
@@ -409,7 +424,20 @@ public class TimelineTileSkin extends TileSkin {
             redraw();
         } else if (TileEvent.EventType.VALUE.name().equals(EVENT_TYPE)) {
             double value = clamp(minValue, maxValue, tile.getValue());
-            tile.getChartData().add(new ChartData("", value, Instant.now()));
+            if (null == tile.getTimeSeriesStore()) {
+                tile.getChartData().add(new ChartData("", value, Instant.now()));
+            } else {
+                // The tile already appended the value to the store
+                readWindow(tile.getTimeSeriesStore());
+                updateWindow(value);
+            }
+        } else if (TileEvent.EventType.DATA.name().equals(EVENT_TYPE)) {
+            if (null != tile.getTimeSeriesStore()) {
+                dataList.clear();
+                windowCursor = -1;
+                readWindow(tile.getTimeSeriesStore());
+                updateWindow(clamp(minValue, maxValue, tile.getValue()));
+            }
         } else if (TileEvent.EventType.SECTION.name().equals(EVENT_TYPE)) {
             percentageInSections.clear();
             tile.getSections().forEach(section -> {
@@ -425,6 +453,10 @@ public class TimelineTileSkin extends TileSkin {
             maxNoOfDatapoints = calcNumberOfDatapointsForPeriod(tile.getMaxTimePeriod());
             timeSpanText.setText(createTimeSpanText());
             tile.setAveragingPeriod(noOfDatapoints);
+            if (null != tile.getTimeSeriesStore()) {
+                windowCursor = -1;
+                readWindow(tile.getTimeSeriesStore());
+            }
 
             // Add initial values
             dots.values().forEach(dot -> {
@@ -460,8 +492,10 @@ public class TimelineTileSkin extends TileSkin {
             tile.clearChartData();
             dataList.clear();
             reducedDataList.clear();
+            storeWindow.clear();
+            windowCursor = -1;
             handleCurrentValue(minValue);
-            Platform.runLater(() -> {
+            PulseProfiler.runLater(tile, "clearData", () -> {
                 path.getElements().clear();
                 dots.clear();
                 dotGroup.getChildren().clear();
@@ -494,6 +528,22 @@ public class TimelineTileSkin extends TileSkin {
         }
     }
 
+    // The values are kept in the chart data of the tile, so they have to be added while the rendering is suspended
+    @Override protected void updateModel(final String EVENT_TYPE) {
+        if (TileEvent.EventType.VALUE.name().equals(EVENT_TYPE) && null == tile.getTimeSeriesStore()) {
+            tile.getChartData().add(new ChartData("", clamp(minValue, maxValue, tile.getValue()), Instant.now()));
+        }
+    }
+
+    @Override protected void catchUp() {
+        if (null == tile.getTimeSeriesStore()) {
+            super.catchUp();
+        } else {
+            readWindow(tile.getTimeSeriesStore());
+            updateWindow(clamp(minValue, maxValue, tile.getValue()));
+        }
+    }
+
     @Override protected void handleCurrentValue(final double VALUE) {
         low  = reducedDataList.stream().min(Comparator.comparingDouble(ChartData::getValue)).map(data -> data.getValue()).orElse(tile.getLowerThreshold());
         high = reducedDataList.stream().max(Comparator.comparingDouble(ChartData::getValue)).map(data -> data.getValue()).orElse(tile.getThreshold());
@@ -636,14 +686,16 @@ public class TimelineTileSkin extends TileSkin {
             Map.Entry<ChartData, Circle> entry = (Map.Entry) entries.next();
             ChartData data = entry.getKey();
             Circle    dot  = entry.getValue();
-            path.getElements().clear();
-            path.getElements().add(new MoveTo(maxX - (maxTime - data.getTimestamp().getEpochSecond()) * stepX, maxY - Math.abs(minValue - Helper.clamp(minValue, maxValue, data.getValue())) * stepY));
+
+            // Collect the dots from the latest to the oldest entry
+            Circle[] drawnDots = new Circle[dots.size()];
+            int      noOfDots  = 0;
             for (long timeSlot = maxTime ; timeSlot >= minTime ; timeSlot -= resolutionStep) {
                 if (data.getTimestamp().getEpochSecond() > timeSlot - resolutionStep) {
                     dot.setCenterX(maxX - (maxTime - data.getTimestamp().getEpochSecond()) * stepX);
                     dot.setCenterY(maxY - Math.abs(minValue - Helper.clamp(minValue, maxValue, data.getValue())) * stepY);
                     dot.setFill(tile.isStrokeWithGradient() ? gradient : tile.getBarColor());
-                    path.getElements().add(new LineTo(dot.getCenterX(), dot.getCenterY()));
+                    if (0 == noOfDots || drawnDots[noOfDots - 1] != dot) { drawnDots[noOfDots++] = dot; }
                     if (entries.hasNext()) {
                         entry = (Map.Entry) entries.next();
                         data = entry.getKey();
@@ -651,6 +703,26 @@ public class TimelineTileSkin extends TileSkin {
                     }
                 }
             }
+
+            // Only the downsampled points (in time order) are part of the path and show a dot
+            double[] xs = new double[noOfDots];
+            double[] ys = new double[noOfDots];
+            for (int i = 0 ; i < noOfDots ; i++) {
+                xs[i] = drawnDots[noOfDots - 1 - i].getCenterX();
+                ys[i] = drawnDots[noOfDots - 1 - i].getCenterY();
+            }
+            int[] sampled = Downsampler.downsample(tile.getDownsampling(), xs, ys, noOfDots, Downsampler.getThreshold(tile.getDownsampling(), (int) graphBounds.getWidth()));
+            dots.values().forEach(circle -> circle.setVisible(false));
+            path.getElements().clear();
+            for (int i = sampled.length - 1 ; i >= 0 ; i--) {
+                Circle sampledDot = drawnDots[noOfDots - 1 - sampled[i]];
+                sampledDot.setVisible(true);
+                if (path.getElements().isEmpty()) {
+                    path.getElements().add(new MoveTo(sampledDot.getCenterX(), sampledDot.getCenterY()));
+                } else {
+                    path.getElements().add(new LineTo(sampledDot.getCenterX(), sampledDot.getCenterY()));
+                }
+            }
             path.setStroke(tile.isStrokeWithGradient() ? gradient : tile.getBarColor());
             if (tile.isSmoothing()) {
                 Helper.smoothPath(path, false);
@@ -712,25 +784,76 @@ public class TimelineTileSkin extends TileSkin {
     }
 
     private void addData(final ChartData DATA) {
-        if (dataList.size() >= maxNoOfDatapoints) {
-            Collections.rotate(dataList, -1);
-            if (!dataList.isEmpty()) { dataList.set((noOfDatapoints - 1), DATA); }
+        final TimeSeriesStore store = tile.getTimeSeriesStore();
+        if (null == store) {
+            if (dataList.size() >= maxNoOfDatapoints) {
+                Collections.rotate(dataList, -1);
+                if (!dataList.isEmpty()) { dataList.set((noOfDatapoints - 1), DATA); }
+            } else {
+                dataList.add(DATA);
+                if (tile.isAveragingEnabled()) { movingAverage.addData(new TimeData(DATA.getValue(), DATA.getTimestamp())); }
+            }
+
+            Predicate<ChartData> isNotInTimePeriod = chartData -> !chartData.isWithinTimePeriod(Instant.now(), timePeriod);
+            reducedDataList.clear();
+            reducedDataList.addAll(dataList);
+            reducedDataList.removeIf(isNotInTimePeriod);
+
+            if (reducedDataList.size() == Integer.MAX_VALUE - 1 || reducedDataList.size() >= noOfDatapoints) {
+                Collections.rotate(reducedDataList, -1);
+                if (!reducedDataList.isEmpty()) { reducedDataList.set((noOfDatapoints - 1), DATA); }
+            }
+            Collections.sort(reducedDataList, Comparator.comparing(ChartData::getTimestamp).reversed());
         } else {
-            dataList.add(DATA);
-            if (tile.isAveragingEnabled()) { movingAverage.addData(new TimeData(DATA.getValue(), DATA.getTimestamp())); }
+            // Chart data that was added to the tile goes to the store, older data than the history is ignored
+            if (DATA.getTimestamp().toEpochMilli() >= store.getLastEpochMillis()) { store.append(DATA); }
+            readWindow(store);
         }
+        updateWindow(DATA.getValue());
+    }
 
-        Predicate<ChartData> isNotInTimePeriod = chartData -> !chartData.isWithinTimePeriod(Instant.now(), timePeriod);
-        reducedDataList.clear();
-        reducedDataList.addAll(dataList);
-        reducedDataList.removeIf(isNotInTimePeriod);
+    /**
+     * Reads the records of the time period from the given store into the
+     * reduced data list (latest entry first). Only the latest record of
+     * each time slot of the resolution will be kept because the chart
+     * shows one entry per time slot.
+     * The records that were read before are kept, so only the records
+     * that were appended since the last call will be read from the store.
+     * @param STORE
+     */
+    private void readWindow(final TimeSeriesStore STORE) {
+        final long now  = System.currentTimeMillis();
+        final long slot = tile.getTimePeriodResolution().toMillis(1);
+        final long from = now - timePeriod.toMillis();
+        final long size = STORE.size();
+        if (STORE != windowStore || windowCursor < 0 || windowCursor > size) {
+            // Another store, a new time period or a cleared store
+            storeWindow.clear();
+            windowStore  = STORE;
+            windowCursor = STORE.indexOf(from);
+        }
+        final long[] lastSlot = { storeWindow.isEmpty() ? Long.MIN_VALUE : Math.floorDiv(storeWindow.peekLast().getTimestamp().toEpochMilli(), slot) };
+        STORE.scanIndices(windowCursor, size, (epochMillis, value) -> {
+            final long timeSlot = Math.floorDiv(epochMillis, slot);
+            if (timeSlot == lastSlot[0]) {
+                storeWindow.pollLast();
+            } else {
+                lastSlot[0] = timeSlot;
+            }
+            storeWindow.addLast(new ChartData("", value, Instant.ofEpochMilli(epochMillis)));
+        });
+        windowCursor = size;
 
-        if (reducedDataList.size() == Integer.MAX_VALUE - 1 || reducedDataList.size() >= noOfDatapoints) {
-            Collections.rotate(reducedDataList, -1);
-            if (!reducedDataList.isEmpty()) { reducedDataList.set((noOfDatapoints - 1), DATA); }
+        // Drop the records that left the time period
+        while (!storeWindow.isEmpty() && (storeWindow.size() > noOfDatapoints || storeWindow.peekFirst().getTimestamp().toEpochMilli() < from)) {
+            storeWindow.pollFirst();
         }
-        Collections.sort(reducedDataList, Comparator.comparing(ChartData::getTimestamp).reversed());
+        reducedDataList.clear();
+        final Iterator<ChartData> iterator = storeWindow.descendingIterator();
+        while (iterator.hasNext()) { reducedDataList.add(iterator.next()); }
+    }
 
+    private void updateWindow(final double VALUE) {
         dots.values().forEach(dot -> {
             dot.removeEventHandler(MouseEvent.MOUSE_ENTERED, mouseListener);
             dot.removeEventHandler(MouseEvent.MOUSE_EXITED, mouseListener);
@@ -755,7 +878,7 @@ public class TimelineTileSkin extends TileSkin {
             Model        model        = DoubleExponentialSmoothingForLinearSeries.fit(firstNValues.stream().mapToDouble(Double::doubleValue).toArray(), 0.8, 0.2);
             String       forecast     = String.format(tile.getLocale(), "%.0f", model.forecast(1)[0]);
             double       stepX        = graphBounds.getWidth() / (noOfDatapoints - 1);
-            double       trendAngle   = (Helper.getAngleFromXY(0, DATA.getValue(), stepX, model.forecast(1)[0]) - 90);
+            double       trendAngle   = (Helper.getAngleFromXY(0, VALUE, stepX, model.forecast(1)[0]) - 90);
             if (90 <= trendAngle && trendAngle < 112.5) {
                 trendText.setText("\u2191");
             } else if (112.5 <= trendAngle && trendAngle < 147.5) {
@@ -775,7 +898,7 @@ public class TimelineTileSkin extends TileSkin {
 
         analyse(reducedDataList);
 
-        handleCurrentValue(DATA.getValue());
+        handleCurrentValue(VALUE);
     }
 
     private void setupGradient() {
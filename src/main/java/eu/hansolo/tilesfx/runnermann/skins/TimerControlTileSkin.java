@@ -50,6 +50,7 @@ import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoField;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 
@@ -78,6 +79,9 @@ public class TimerControlTileSkin extends TileSkin {
     private              Group                 shadowGroupSecond;
     private              DropShadow            dropShadow;
     private              Map<TimeSection, Arc> sectionMap;
+    private              List<TimeSection>     highlightedSections;
+    private              DayOfWeek             sectionsDay;
+    private              int                   sectionsAmPm;
 
 
     // ******************** Constructors **************************************
@@ -245,12 +249,13 @@ public class TimerControlTileSkin extends TileSkin {
 
     private void drawTimeSections() {
         if (sectionMap.isEmpty()) return;
-        ZonedDateTime time              = tile.getTime();
-        DayOfWeek     day               = time.getDayOfWeek();
-        boolean       isAM              = time.get(ChronoField.AMPM_OF_DAY) == 0;
-        double        offset            = 90;
-        double        angleStep         = 360.0 / 60.0;
-        boolean       highlightSections = tile.isHighlightSections();
+        ZonedDateTime     time              = tile.getTime();
+        DayOfWeek         day               = time.getDayOfWeek();
+        boolean           isAM              = time.get(ChronoField.AMPM_OF_DAY) == 0;
+        double            offset            = 90;
+        double            angleStep         = 360.0 / 60.0;
+        boolean           highlightSections = tile.isHighlightSections();
+        List<TimeSection> containing        = tile.getTimeSectionIndex().getSections(time);
         for (TimeSection section : sectionMap.keySet()) {
             LocalTime   start     = section.getStart();
             LocalTime   stop      = section.getStop();
@@ -277,7 +282,7 @@ public class TimerControlTileSkin extends TileSkin {
                 arc.setFill(null);
 
                 if (highlightSections) {
-                    arc.setStroke(section.contains(time.toLocalTime()) ? section.getHighlightColor() : section.getColor());
+                    arc.setStroke(containing.contains(section) ? section.getHighlightColor() : section.getColor());
                 } else {
                     arc.setStroke(section.getColor());
                 }
@@ -307,14 +312,22 @@ public class TimerControlTileSkin extends TileSkin {
         }
 
         if (sectionsVisible) {
-            for (TimeSection section : sectionMap.keySet()) {
-                if (highlightSections) {
-                    sectionMap.get(section).setStroke(section.contains(TIME.toLocalTime()) ? section.getHighlightColor() : section.getColor());
-                } else {
-                    sectionMap.get(section).setStroke(section.getColor());
+            // Only restyle the sections if the time entered or left one of them or the dial changed
+            List<TimeSection> containing = tile.getTimeSectionIndex().getSections(TIME);
+            int               amPm       = TIME.get(ChronoField.AMPM_OF_DAY);
+            if (!containing.equals(highlightedSections) || TIME.getDayOfWeek() != sectionsDay || amPm != sectionsAmPm) {
+                highlightedSections = containing;
+                sectionsDay         = TIME.getDayOfWeek();
+                sectionsAmPm        = amPm;
+                for (TimeSection section : sectionMap.keySet()) {
+                    if (highlightSections) {
+                        sectionMap.get(section).setStroke(containing.contains(section) ? section.getHighlightColor() : section.getColor());
+                    } else {
+                        sectionMap.get(section).setStroke(section.getColor());
+                    }
                 }
+                drawTimeSections();
             }
-            drawTimeSections();
         }
 
         amPmText.setText(TIME.get(ChronoField.AMPM_OF_DAY) == 0 ? "AM" : "PM");
@@ -457,6 +470,7 @@ public class TimerControlTileSkin extends TileSkin {
         minuteTickMarks.setStroke(tile.getMinuteColor());
         hourTickMarks.setStroke(tile.getHourColor());
 
+        highlightedSections = null;
         updateTime(tile.getTime());
 
         resizeDynamicText();
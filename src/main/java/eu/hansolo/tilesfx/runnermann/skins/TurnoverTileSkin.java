@@ -175,6 +175,7 @@ public class TurnoverTileSkin extends TileSkin {
 
     @Override public void dispose() {
         tile.graphicProperty().removeListener(imageListener);
+        rotationEffect.dispose();
         super.dispose();
     }
 
@@ -23,16 +23,21 @@ import eu.hansolo.tilesfx.runnermann.Tile;
 import eu.hansolo.tilesfx.runnermann.Tile.TextSize;
 import eu.hansolo.tilesfx.runnermann.chart.ChartData;
 import eu.hansolo.tilesfx.runnermann.events.LocationEvent;
+import eu.hansolo.tilesfx.runnermann.events.LocationEventListener;
 import eu.hansolo.tilesfx.runnermann.events.TileEvent;
 import eu.hansolo.tilesfx.runnermann.events.TileEvent.EventType;
 import eu.hansolo.tilesfx.runnermann.fonts.Fonts;
 import eu.hansolo.tilesfx.runnermann.tools.Helper;
+import eu.hansolo.tilesfx.runnermann.tools.HitTestIndex;
 import eu.hansolo.tilesfx.runnermann.tools.Location;
+import eu.hansolo.tilesfx.runnermann.tools.MarkerLayer;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableMap;
 import javafx.collections.WeakListChangeListener;
 import javafx.event.EventHandler;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
 import javafx.scene.CacheHint;
 import javafx.scene.Group;
 import javafx.scene.control.Tooltip;
@@ -43,7 +48,9 @@ import javafx.scene.shape.Circle;
 import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -69,6 +76,18 @@ public class WorldMapTileSkin extends TileSkin {
     private                ListChangeListener<Location>               poiListener;
     private                ListChangeListener<ChartData>              chartDataListener;
     private                Map<Circle, EventHandler<MouseEvent>>      circleHandlerMap;
+    private                Map<Circle, Integer>                       circleReferences;
+    private                boolean                                    indexedPicking;
+    private                HitTestIndex<CountryPath>                  countryIndex;
+    private                HitTestIndex<Circle>                       markerIndex;
+    private                Tooltip                                    pickTooltip;
+    private                Object                                     hoveredItem;
+    private                EventHandler<MouseEvent>                   mouseHandler;
+    private                boolean                                    markerLayerEnabled;
+    private                MarkerLayer                                markerLayer;
+    private                Map<Location, List<Marker>>                layerMarkers;
+    private                LocationEventListener                      locationListener;
+    private                String                                     formatString;
 
 
     // ******************** Constructors **************************************
@@ -81,92 +100,46 @@ public class WorldMapTileSkin extends TileSkin {
     @Override protected void initGraphics() {
         super.initGraphics();
 
-        poiLocations       = FXCollections.observableHashMap();
-        chartDataLocations = FXCollections.observableHashMap();
+        // Locations are mutable and their hashCode depends on the position, so they are mapped by identity
+        poiLocations       = FXCollections.observableMap(new IdentityHashMap<>());
+        chartDataLocations = FXCollections.observableMap(new IdentityHashMap<>());
+        layerMarkers       = new IdentityHashMap<>();
 
         handlerMap       = new HashMap<>();
         circleHandlerMap = new HashMap<>();
+        circleReferences = new HashMap<>();
 
         countryPaths = tile.getCountryPaths();
 
-        String formatString = new StringBuilder("%.").append(tile.getDecimals()).append("f").toString();
+        indexedPicking     = tile.isIndexedPicking();
+        markerLayerEnabled = tile.isMarkerLayerEnabled();
+        countryIndex       = new HitTestIndex<>();
+        markerIndex        = new HitTestIndex<>();
+
+        formatString = new StringBuilder("%.").append(tile.getDecimals()).append("f").toString();
 
         poiListener = new WeakListChangeListener<>(change -> {
             while (change.next()) {
-                if (change.wasAdded()) {
-                    change.getAddedSubList().forEach(addedPoi -> {
-                        String tooltipText = new StringBuilder(addedPoi.getName()).append("\n")
-                                                                                  .append(addedPoi.getInfo())
-                                                                                  .toString();
-                        EventHandler<MouseEvent> handler = e -> addedPoi.fireLocationEvent(new LocationEvent(addedPoi));
-                        Circle circle = new Circle(3, addedPoi.getColor());
-                        Tooltip.install(circle, new Tooltip(tooltipText));
-                        circleHandlerMap.put(circle, handler);
-                        poiLocations.put(addedPoi, circle);
-                        circle.setOnMousePressed(handler);
-                        getPane().getChildren().add(circle);
-                    });
-                } else if (change.wasRemoved()) {
-                    change.getRemoved().forEach(removedPoi -> {
-                        if (circleHandlerMap.get(removedPoi) != null) {
-                            poiLocations.get(removedPoi).removeEventHandler(MouseEvent.MOUSE_PRESSED, circleHandlerMap.get(removedPoi));
-                        }
-                        getPane().getChildren().remove(removedPoi);
-                    });
-                }
+                if (change.wasRemoved()) { change.getRemoved().forEach(removedPoi -> removeLocation(removedPoi, poiLocations)); }
+                if (change.wasAdded()) { change.getAddedSubList().forEach(addedPoi -> addPoi(addedPoi)); }
             }
-            resize();
+            if (!markerLayerEnabled) { resize(); }
         });
         chartDataListener = new WeakListChangeListener<>(change -> {
             while (change.next()) {
-                if (change.wasAdded()) {
-                    change.getAddedSubList().forEach(addedData -> {
-                        String tooltipText = new StringBuilder(addedData.getName()).append("\n")
-                                                                                   .append(String.format(Locale.US, formatString, addedData.getValue()))
-                                                                                   .toString();
-                        EventHandler<MouseEvent> handler = e -> tile.fireTileEvent(new TileEvent(EventType.SELECTED_CHART_DATA, addedData));
-                        Circle circle = new Circle(3, addedData.getLocation().getColor());
-                        Tooltip.install(circle, new Tooltip(tooltipText));
-                        circleHandlerMap.put(circle, handler);
-                        chartDataLocations.put(addedData.getLocation(), circle);
-                        circle.setOnMousePressed(handler);
-                        getPane().getChildren().add(circle);
-                    });
-                } else if (change.wasRemoved()) {
-                    change.getRemoved().forEach(removedData -> {
-                        if (circleHandlerMap.get(removedData) != null) {
-                            chartDataLocations.get(removedData).removeEventHandler(MouseEvent.MOUSE_PRESSED, circleHandlerMap.get(removedData));
-                        }
-                        getPane().getChildren().remove(removedData);
-                    });
+                if (change.wasRemoved()) {
+                    change.getRemoved().stream().filter(removedData -> null != removedData.getLocation()).forEach(removedData -> removeLocation(removedData.getLocation(), chartDataLocations));
                 }
+                if (change.wasAdded()) { change.getAddedSubList().forEach(addedData -> addChartData(addedData)); }
             }
-            resize();
+            if (!markerLayerEnabled) { resize(); }
         });
-
-        tile.getPoiList()
-            .forEach(poi -> {
-                String tooltipText = new StringBuilder(poi.getName()).append("\n")
-                                                                     .append(poi.getInfo())
-                                                                     .toString();
-                Circle circle = new Circle(3, poi.getColor());
-                circle.setOnMousePressed(e -> poi.fireLocationEvent(new LocationEvent(poi)));
-                Tooltip.install(circle, new Tooltip(tooltipText));
-                poiLocations.put(poi, circle);
-            });
-
-        tile.getChartData()
-            .stream()
-            .filter(chartData -> chartData.getLocation() != null)
-            .forEach(chartData -> {
-                String tooltipText = new StringBuilder(chartData.getName()).append("\n")
-                                                                           .append(String.format(Locale.US, formatString, chartData.getValue()))
-                                                                           .toString();
-                Circle circle = new Circle(3, chartData.getLocation().getColor());
-                circle.setOnMousePressed(e -> tile.fireTileEvent(new TileEvent(EventType.SELECTED_CHART_DATA, chartData)));
-                Tooltip.install(circle, new Tooltip(tooltipText));
-                chartDataLocations.put(chartData.getLocation(), circle);
-            });
+        locationListener = e -> {
+            Location     location = e.getLocation();
+            List<Marker> markers  = layerMarkers.get(location);
+            if (null == markers) { return; }
+            for (Marker marker : markers) { markerLayer.update(marker, location.getLatitude(), location.getLongitude(), location.getColor()); }
+        };
 
         titleText = new Text();
         titleText.setFill(tile.getTitleColor());
@@ -191,9 +164,29 @@ public class WorldMapTileSkin extends TileSkin {
         });
         group = new Group(worldPane);
 
+        if (indexedPicking) {
+            // The paths are not transformed, so their layout bounds are in the coordinates of the worldPane
+            countryIndex.reset(0, 0, Helper.MAP_WIDTH, Helper.MAP_HEIGHT, Helper.MAP_WIDTH / 128);
+            countryPaths.values().forEach(pathList -> pathList.forEach(path -> {
+                Tooltip.uninstall(path, path.getTooltip());
+                Bounds bounds = path.getLayoutBounds();
+                countryIndex.add(path, bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY());
+            }));
+            group.setMouseTransparent(true);
+        }
+        if (indexedPicking || markerLayerEnabled) { pickTooltip = new Tooltip(); }
+
         getPane().getChildren().addAll(group, titleText, text);
-        getPane().getChildren().addAll(chartDataLocations.values());
-        getPane().getChildren().addAll(poiLocations.values());
+
+        if (markerLayerEnabled) {
+            markerLayer = new MarkerLayer();
+            markerLayer.setMouseTransparent(true);
+            markerLayer.setClusteringEnabled(tile.isMarkerClusteringEnabled());
+            getPane().getChildren().add(markerLayer);
+        }
+
+        tile.getChartData().forEach(chartData -> addChartData(chartData));
+        tile.getPoiList().forEach(poi -> addPoi(poi));
     }
 
     @Override protected void registerListeners() {
@@ -203,9 +196,39 @@ public class WorldMapTileSkin extends TileSkin {
             EventHandler<MouseEvent> clickHandler = e -> tile.fireTileEvent(new TileEvent(EventType.SELECTED_CHART_DATA, new ChartData(country.getName(), country.getValue(), country.getColor())));
             pathList.forEach(path -> {
                 handlerMap.put(path, clickHandler);
-                path.addEventHandler(MouseEvent.MOUSE_PRESSED, clickHandler);
+                if (!indexedPicking) { path.addEventHandler(MouseEvent.MOUSE_PRESSED, clickHandler); }
             });
         });
+        if (indexedPicking || markerLayerEnabled) {
+            mouseHandler = e -> {
+                if (MouseEvent.MOUSE_EXITED == e.getEventType()) {
+                    hover(null, null, e);
+                    return;
+                }
+                Marker      marker = pickMarker(e);
+                CountryPath path   = null == marker && indexedPicking ? pickCountry(e) : null;
+                if (MouseEvent.MOUSE_MOVED == e.getEventType()) {
+                    if (null != marker) {
+                        hover(marker, getTooltipText(marker), e);
+                    } else if (null != path) {
+                        hover(path, path.getTooltip().getText(), e);
+                    } else {
+                        hover(null, null, e);
+                    }
+                } else if (MouseEvent.MOUSE_PRESSED == e.getEventType()) {
+                    if (null != marker) {
+                        marker.handler.handle(e);
+                        // Markers are on top of the countries
+                        e.consume();
+                    } else if (null != path) {
+                        handlerMap.get(path).handle(e);
+                    }
+                }
+            };
+            getPane().addEventFilter(MouseEvent.MOUSE_MOVED, mouseHandler);
+            getPane().addEventFilter(MouseEvent.MOUSE_PRESSED, mouseHandler);
+            getPane().addEventFilter(MouseEvent.MOUSE_EXITED, mouseHandler);
+        }
         tile.getPoiList().addListener(poiListener);
         tile.getChartData().addListener(chartDataListener);
     }
@@ -225,13 +248,143 @@ public class WorldMapTileSkin extends TileSkin {
 
     @Override public void dispose() {
         countryPaths.forEach((name, pathList) -> pathList.forEach(path -> path.removeEventHandler(MouseEvent.MOUSE_PRESSED, handlerMap.get(path))));
+        if (null != mouseHandler) {
+            getPane().removeEventFilter(MouseEvent.MOUSE_MOVED, mouseHandler);
+            getPane().removeEventFilter(MouseEvent.MOUSE_PRESSED, mouseHandler);
+            getPane().removeEventFilter(MouseEvent.MOUSE_EXITED, mouseHandler);
+            pickTooltip.hide();
+        }
+        if (null != markerLayer) {
+            layerMarkers.keySet().forEach(location -> location.removeLocationEventListener(locationListener));
+            layerMarkers.clear();
+            markerLayer.dispose();
+        }
         tile.getPoiList().removeListener(poiListener);
         tile.getChartData().removeListener(chartDataListener);
         handlerMap.clear();
         circleHandlerMap.clear();
+        circleReferences.clear();
         super.dispose();
     }
 
+    private void addPoi(final Location POI) {
+        String tooltipText = new StringBuilder(POI.getName()).append("\n")
+                                                             .append(POI.getInfo())
+                                                             .toString();
+        addLocation(POI, tooltipText, e -> POI.fireLocationEvent(new LocationEvent(POI)), poiLocations);
+    }
+
+    private void addChartData(final ChartData DATA) {
+        if (null == DATA.getLocation()) { return; }
+        String tooltipText = new StringBuilder(DATA.getName()).append("\n")
+                                                              .append(String.format(Locale.US, formatString, DATA.getValue()))
+                                                              .toString();
+        addLocation(DATA.getLocation(), tooltipText, e -> tile.fireTileEvent(new TileEvent(EventType.SELECTED_CHART_DATA, DATA)), chartDataLocations);
+    }
+
+    /**
+     * Adds a marker for the given location. A location can be added more than once
+     * (e.g. as poi and as location of chart data or twice to the same list). On the
+     * marker layer each one gets its own marker, without the marker layer the circle
+     * of a location in the given map is shared and reference counted.
+     */
+    private void addLocation(final Location LOCATION, final String TOOLTIP_TEXT, final EventHandler<MouseEvent> HANDLER, final Map<Location, Circle> CIRCLES) {
+        if (markerLayerEnabled) {
+            Marker marker = new Marker(TOOLTIP_TEXT, HANDLER, CIRCLES);
+            layerMarkers.computeIfAbsent(LOCATION, location -> new ArrayList<>(1)).add(marker);
+            LOCATION.addLocationEventListener(locationListener);
+            markerLayer.add(marker, LOCATION.getLatitude(), LOCATION.getLongitude(), LOCATION.getColor());
+        } else {
+            Circle existing = CIRCLES.get(LOCATION);
+            if (null != existing) {
+                circleReferences.merge(existing, 1, Integer::sum);
+                return;
+            }
+            Circle circle = createMarker(LOCATION.getColor(), TOOLTIP_TEXT, HANDLER);
+            circleHandlerMap.put(circle, HANDLER);
+            CIRCLES.put(LOCATION, circle);
+            getPane().getChildren().add(circle);
+        }
+    }
+
+    private void removeLocation(final Location LOCATION, final Map<Location, Circle> CIRCLES) {
+        if (markerLayerEnabled) {
+            List<Marker> markers = layerMarkers.get(LOCATION);
+            if (null == markers) { return; }
+            // Remove the last marker that was added for the location from the same list
+            for (int i = markers.size() - 1 ; i >= 0 ; i--) {
+                if (markers.get(i).source != CIRCLES) { continue; }
+                markerLayer.remove(markers.remove(i));
+                break;
+            }
+            if (markers.isEmpty()) {
+                layerMarkers.remove(LOCATION);
+                LOCATION.removeLocationEventListener(locationListener);
+            }
+        } else {
+            Circle circle = CIRCLES.get(LOCATION);
+            if (null == circle) { return; }
+            Integer references = circleReferences.remove(circle);
+            if (null != references && references > 1) {
+                circleReferences.put(circle, references - 1);
+                return;
+            }
+            CIRCLES.remove(LOCATION);
+            EventHandler<MouseEvent> handler = circleHandlerMap.remove(circle);
+            if (null != handler) { circle.removeEventHandler(MouseEvent.MOUSE_PRESSED, handler); }
+            getPane().getChildren().remove(circle);
+        }
+    }
+
+    /**
+     * Creates the circle of a poi or chart data location. Without indexed picking
+     * each circle gets its own tooltip and mouse handler, with indexed picking both
+     * are kept in the user data of the circle and are used by the shared mouse handler.
+     */
+    private Circle createMarker(final Color COLOR, final String TOOLTIP_TEXT, final EventHandler<MouseEvent> HANDLER) {
+        Circle circle = new Circle(3, COLOR);
+        if (indexedPicking) {
+            circle.setMouseTransparent(true);
+            circle.setUserData(new Marker(TOOLTIP_TEXT, HANDLER));
+        } else {
+            Tooltip.install(circle, new Tooltip(TOOLTIP_TEXT));
+            circle.addEventHandler(MouseEvent.MOUSE_PRESSED, HANDLER);
+        }
+        return circle;
+    }
+
+    private Marker pickMarker(final MouseEvent EVENT) {
+        Point2D p = getPane().sceneToLocal(EVENT.getSceneX(), EVENT.getSceneY());
+        if (markerLayerEnabled) { return (Marker) markerLayer.pick(p.getX(), p.getY()); }
+        Circle circle = markerIndex.pick(p.getX(), p.getY(), (c, x, y) -> {
+            double dx = x - c.getCenterX();
+            double dy = y - c.getCenterY();
+            double r  = Math.max(c.getRadius(), 3);
+            return dx * dx + dy * dy <= r * r;
+        });
+        return null == circle ? null : (Marker) circle.getUserData();
+    }
+
+    private String getTooltipText(final Marker MARKER) {
+        int clusterSize = markerLayerEnabled ? markerLayer.getClusterSize(MARKER) : 1;
+        return clusterSize > 1 ? new StringBuilder(MARKER.tooltipText).append("\n+ ").append(clusterSize - 1).append(" more").toString() : MARKER.tooltipText;
+    }
+
+    private CountryPath pickCountry(final MouseEvent EVENT) {
+        Point2D p = worldPane.sceneToLocal(EVENT.getSceneX(), EVENT.getSceneY());
+        return countryIndex.pick(p.getX(), p.getY(), (path, x, y) -> path.contains(x, y));
+    }
+
+    private void hover(final Object ITEM, final String TOOLTIP_TEXT, final MouseEvent EVENT) {
+        if (null == ITEM) {
+            pickTooltip.hide();
+        } else {
+            if (ITEM != hoveredItem) { pickTooltip.setText(TOOLTIP_TEXT); }
+            pickTooltip.show(getPane(), EVENT.getScreenX() + 12, EVENT.getScreenY() + 12);
+        }
+        hoveredItem = ITEM;
+    }
+
     private void setFillAndStroke() {
         countryPaths.keySet().forEach(name -> {
             Country country = Country.valueOf(name);
@@ -307,6 +460,14 @@ public class WorldMapTileSkin extends TileSkin {
 
             worldPane.setCache(false);
 
+            if (markerLayerEnabled) {
+                Bounds mapBounds = group.getBoundsInParent();
+                markerLayer.setWidth(width);
+                markerLayer.setHeight(height);
+                markerLayer.setTransform(worldPane.getScaleX(), worldPane.getScaleY(), mapBounds.getMinX(), mapBounds.getMinY(), size * 0.0075);
+            }
+            if (indexedPicking) { markerIndex.reset(0, 0, width, height, size * 0.05); }
+
             poiLocations.forEach((location, circle) -> {
                 double[] xy = Helper.latLonToXY(location.getLatitude(), location.getLongitude());
                 double   x  = xy[0] * worldPane.getScaleX() + group.getBoundsInParent().getMinX();
@@ -314,6 +475,7 @@ public class WorldMapTileSkin extends TileSkin {
                 circle.setCenterX(x);
                 circle.setCenterY(y);
                 circle.setRadius(size * 0.0075);
+                if (indexedPicking) { addToMarkerIndex(circle); }
             });
 
             chartDataLocations.forEach((location, circle) -> {
@@ -323,10 +485,16 @@ public class WorldMapTileSkin extends TileSkin {
                 circle.setCenterX(x);
                 circle.setCenterY(y);
                 circle.setRadius(size * 0.0075);
+                if (indexedPicking) { addToMarkerIndex(circle); }
             });
         }
     }
 
+    private void addToMarkerIndex(final Circle CIRCLE) {
+        double r = Math.max(CIRCLE.getRadius(), 3);
+        markerIndex.add(CIRCLE, CIRCLE.getCenterX() - r, CIRCLE.getCenterY() - r, CIRCLE.getCenterX() + r, CIRCLE.getCenterY() + r);
+    }
+
     @Override protected void redraw() {
         super.redraw();
         titleText.setText(tile.getTitle());
@@ -336,6 +504,8 @@ public class WorldMapTileSkin extends TileSkin {
 
         titleText.setFill(tile.getTitleColor());
         text.setFill(tile.getTextColor());
+
+        if (null != markerLayer) { markerLayer.setClusteringEnabled(tile.isMarkerClusteringEnabled()); }
     }
 
     private void refresh() {
@@ -350,4 +520,23 @@ public class WorldMapTileSkin extends TileSkin {
             });
         });
     }
+
+
+    // ******************** Inner Classes *************************************
+    private static class Marker {
+        private final String                   tooltipText;
+        private final EventHandler<MouseEvent> handler;
+        private final Object                   source;
+
+
+        // ******************** Constructors **********************************
+        private Marker(final String TOOLTIP_TEXT, final EventHandler<MouseEvent> HANDLER) {
+            this(TOOLTIP_TEXT, HANDLER, null);
+        }
+        private Marker(final String TOOLTIP_TEXT, final EventHandler<MouseEvent> HANDLER, final Object SOURCE) {
+            tooltipText = TOOLTIP_TEXT;
+            handler     = HANDLER;
+            source      = SOURCE;
+        }
+    }
 }
@@ -0,0 +1,215 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import eu.hansolo.tilesfx.runnermann.chart.ChartData;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * Immutable result of Statistics.analyze(). The day is split into
+ * buckets of a fixed size (the last bucket might be shorter if the
+ * bucket size does not divide the day) and for each bucket the
+ * number of values, their min, max and sum is stored in primitive
+ * arrays. The buckets are addressed by their index or by a local
+ * time of day in the zone that was used for the analysis.
+ */
+public final class BucketStatistics {
+    private static final long     MILLIS_PER_DAY = 86_400_000L;
+    private        final Duration bucketSize;
+    private        final long     bucketMillis;
+    private        final ZoneId   zoneId;
+    private        final long[]   counts;
+    private        final double[] min;
+    private        final double[] max;
+    private        final double[] sum;
+
+
+    // ******************** Constructors **************************************
+    private BucketStatistics(final Accumulator ACCUMULATOR) {
+        bucketSize   = ACCUMULATOR.bucketSize;
+        bucketMillis = ACCUMULATOR.bucketMillis;
+        zoneId       = ACCUMULATOR.zoneId;
+        counts       = ACCUMULATOR.counts.clone();
+        min          = ACCUMULATOR.min.clone();
+        max          = ACCUMULATOR.max.clone();
+        sum          = ACCUMULATOR.sum.clone();
+    }
+
+
+    // ******************** Methods *******************************************
+    public Duration getBucketSize() { return bucketSize; }
+
+    public ZoneId getZoneId() { return zoneId; }
+
+    public int getNoOfBuckets() { return counts.length; }
+
+    public LocalTime getBucketStart(final int INDEX) { return LocalTime.ofNanoOfDay(INDEX * bucketMillis * 1_000_000L); }
+
+    /**
+     * Returns the index of the bucket that contains the given time of day.
+     * @param TIME
+     * @return the index of the bucket that contains the given time of day
+     */
+    public int indexOf(final LocalTime TIME) { return (int) (TIME.toNanoOfDay() / 1_000_000L / bucketMillis); }
+
+    public long getTotalCount() {
+        long total = 0;
+        for (long count : counts) { total += count; }
+        return total;
+    }
+
+    public long getCount(final int INDEX) { return counts[INDEX]; }
+
+    public boolean isEmpty(final int INDEX) { return 0 == counts[INDEX]; }
+
+    public double getMin(final int INDEX) { return isEmpty(INDEX) ? Double.NaN : min[INDEX]; }
+
+    public double getMax(final int INDEX) { return isEmpty(INDEX) ? Double.NaN : max[INDEX]; }
+
+    public double getSum(final int INDEX) { return sum[INDEX]; }
+
+    public double getAverage(final int INDEX) { return isEmpty(INDEX) ? Double.NaN : sum[INDEX] / counts[INDEX]; }
+
+    /**
+     * Returns min, max and average of the given bucket or null if
+     * the bucket is empty.
+     * @param INDEX
+     * @return min, max and average of the given bucket or null
+     */
+    public DataPoint getDataPoint(final int INDEX) { return isEmpty(INDEX) ? null : new DataPoint(min[INDEX], max[INDEX], getAverage(INDEX)); }
+    public DataPoint getDataPoint(final LocalTime TIME) { return getDataPoint(indexOf(TIME)); }
+
+    /**
+     * Returns an unmodifiable map of the start time of each non empty
+     * bucket to its DataPoint, ordered by time.
+     * @return an unmodifiable map of the non empty buckets
+     */
+    public Map<LocalTime, DataPoint> toMap() {
+        final Map<LocalTime, DataPoint> map = new LinkedHashMap<>();
+        for (int i = 0 ; i < counts.length ; i++) {
+            if (!isEmpty(i)) { map.put(getBucketStart(i), getDataPoint(i)); }
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Mutable single pass accumulator. The zone offset of the last
+     * converted timestamp is cached together with the range (between
+     * two offset transitions) it is valid for, so the zone rules are
+     * only consulted again when a timestamp leaves that range.
+     */
+    static final class Accumulator {
+        private final Duration  bucketSize;
+        private final long      bucketMillis;
+        private final ZoneId    zoneId;
+        private final ZoneRules rules;
+        private final long[]    counts;
+        private final double[]  min;
+        private final double[]  max;
+        private final double[]  sum;
+        private       long      validFrom;
+        private       long      validTo;
+        private       long      offsetMillis;
+
+
+        // ******************** Constructors **************************************
+        Accumulator(final Duration BUCKET_SIZE, final ZoneId ZONE_ID) {
+            if (null == BUCKET_SIZE || BUCKET_SIZE.toMillis() <= 0 || BUCKET_SIZE.toMillis() > MILLIS_PER_DAY) {
+                throw new IllegalArgumentException("Bucket size must be between 1 ms and 1 day");
+            }
+            bucketSize   = BUCKET_SIZE;
+            bucketMillis = BUCKET_SIZE.toMillis();
+            zoneId       = null == ZONE_ID ? ZoneId.systemDefault() : ZONE_ID;
+            rules        = zoneId.getRules();
+            final int noOfBuckets = (int) ((MILLIS_PER_DAY + bucketMillis - 1) / bucketMillis);
+            counts       = new long[noOfBuckets];
+            min          = new double[noOfBuckets];
+            max          = new double[noOfBuckets];
+            sum          = new double[noOfBuckets];
+            validFrom    = Long.MAX_VALUE;
+            validTo      = Long.MIN_VALUE;
+        }
+
+
+        // ******************** Methods *******************************************
+        void add(final ChartData DATA) {
+            final Instant timestamp = DATA.getTimestamp();
+            if (null == timestamp) { return; }
+            add(timestamp.toEpochMilli(), DATA.getValue());
+        }
+        void add(final long EPOCH_MILLI, final double VALUE) {
+            if (Double.isNaN(VALUE)) { return; }
+            if (EPOCH_MILLI < validFrom || EPOCH_MILLI >= validTo) { updateOffset(EPOCH_MILLI); }
+            final int index = (int) (Math.floorMod(EPOCH_MILLI + offsetMillis, MILLIS_PER_DAY) / bucketMillis);
+            if (0 == counts[index]) {
+                min[index] = VALUE;
+                max[index] = VALUE;
+            } else {
+                if (VALUE < min[index]) { min[index] = VALUE; }
+                if (VALUE > max[index]) { max[index] = VALUE; }
+            }
+            sum[index] += VALUE;
+            counts[index]++;
+        }
+
+        Accumulator merge(final Accumulator OTHER) {
+            for (int i = 0 ; i < counts.length ; i++) {
+                if (0 == OTHER.counts[i]) { continue; }
+                if (0 == counts[i]) {
+                    min[i] = OTHER.min[i];
+                    max[i] = OTHER.max[i];
+                } else {
+                    min[i] = Math.min(min[i], OTHER.min[i]);
+                    max[i] = Math.max(max[i], OTHER.max[i]);
+                }
+                sum[i]    += OTHER.sum[i];
+                counts[i] += OTHER.counts[i];
+            }
+            return this;
+        }
+
+        BucketStatistics build() { return new BucketStatistics(this); }
+
+        private void updateOffset(final long EPOCH_MILLI) {
+            final Instant instant = Instant.ofEpochMilli(EPOCH_MILLI);
+            offsetMillis = rules.getOffset(instant).getTotalSeconds() * 1000L;
+            if (rules.isFixedOffset()) {
+                validFrom = Long.MIN_VALUE;
+                validTo   = Long.MAX_VALUE;
+                return;
+            }
+            final ZoneOffsetTransition previous = rules.previousTransition(instant);
+            final ZoneOffsetTransition next     = rules.nextTransition(instant);
+            // previousTransition() does not include a transition exactly at the given instant
+            validFrom = null != previous && previous.getOffsetAfter().getTotalSeconds() * 1000L == offsetMillis ? previous.toEpochSecond() * 1000L : EPOCH_MILLI;
+            validTo   = null == next ? Long.MAX_VALUE : next.toEpochSecond() * 1000L;
+        }
+    }
+}
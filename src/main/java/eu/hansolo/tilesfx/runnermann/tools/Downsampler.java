@@ -0,0 +1,489 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import eu.hansolo.tilesfx.runnermann.Tile.Downsampling;
+
+import java.util.Arrays;
+
+
+/**
+ * Reduces a series of points to at most threshold points before it will
+ * be rendered, e.g. to one point per pixel of the width of a chart.
+ * LTTB (Largest-Triangle-Three-Buckets) splits the points in buckets and
+ * keeps the point of each bucket that forms the largest triangle with the
+ * point kept in the previous bucket and the average of the next bucket,
+ * which preserves the shape of the series. MIN_MAX keeps the smallest and
+ * the largest value of each bucket, which preserves all peaks of noisy
+ * data. The first and the last point are always kept.
+ * The static methods downsample a complete series. An instance downsamples
+ * a series incrementally while points are appended and (for sliding
+ * windows) removed from the start. The buckets of an instance have a fixed
+ * number of points, so a new point only changes the last buckets and
+ * removing a point only changes the first buckets, the buckets in between
+ * are only evaluated again if the point kept in the previous bucket changed.
+ */
+public class Downsampler {
+    private static final int[]        EMPTY = new int[0];
+    private              Downsampling mode;
+    private              int          threshold;
+    private              double[]     xs;
+    private              double[]     ys;
+    private              int          head;
+    private              int          size;
+    private              long         firstSeq;
+    private              boolean      active;
+    private              int          bucketWidth;
+    private              double[]     bucketSumX;
+    private              double[]     bucketSumY;
+    private              int[]        bucketCount;
+    private              long[]       bucketMin;
+    private              long[]       bucketMax;
+    private              long[]       bucketSelected;
+    private              long         dirtyHeadTo;
+    private              long         dirtyTailFrom;
+    private              boolean      rescanFirstBucket;
+    private              int[]        sampled;
+    private              int          sampledSize;
+    private              boolean      sampledValid;
+
+
+    // ******************** Constructors **************************************
+    public Downsampler(final Downsampling MODE, final int THRESHOLD) {
+        mode      = null == MODE ? Downsampling.NONE : MODE;
+        threshold = THRESHOLD;
+        xs        = new double[16];
+        ys        = new double[16];
+        sampled   = EMPTY;
+        clear();
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Returns the indices of the points that LTTB keeps to render the given
+     * series with at most THRESHOLD points. The x values have to be sorted.
+     * @param X
+     * @param Y
+     * @param COUNT the number of points in X and Y
+     * @param THRESHOLD the max number of points to keep
+     * @return the sorted indices of the points to render
+     */
+    public static int[] lttb(final double[] X, final double[] Y, final int COUNT, final int THRESHOLD) {
+        if (THRESHOLD >= COUNT || THRESHOLD < 3) { return all(COUNT); }
+        final int[]  result = new int[THRESHOLD];
+        final double every  = (double) (COUNT - 2) / (THRESHOLD - 2);
+        int a = 0;
+        int n = 0;
+        result[n++] = 0;
+        for (int i = 0 ; i < THRESHOLD - 2 ; i++) {
+            final int avgStart = Math.min((int) ((i + 1) * every) + 1, COUNT - 1);
+            final int avgEnd   = Math.max(Math.min((int) ((i + 2) * every) + 1, COUNT), avgStart + 1);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = avgStart ; j < avgEnd ; j++) {
+                avgX += X[j];
+                avgY += Y[j];
+            }
+            avgX /= (avgEnd - avgStart);
+            avgY /= (avgEnd - avgStart);
+
+            final int rangeStart = (int) (i * every) + 1;
+            final int rangeEnd   = Math.min((int) ((i + 1) * every) + 1, COUNT - 1);
+            double maxArea  = -1;
+            int    maxIndex = rangeStart;
+            for (int j = rangeStart ; j < rangeEnd ; j++) {
+                final double area = triangleArea(X[a], Y[a], X[j], Y[j], avgX, avgY);
+                if (area > maxArea) {
+                    maxArea  = area;
+                    maxIndex = j;
+                }
+            }
+            result[n++] = maxIndex;
+            a = maxIndex;
+        }
+        result[n++] = COUNT - 1;
+        return result;
+    }
+
+    /**
+     * Returns the indices of the points with the smallest and the largest
+     * y value in each of (THRESHOLD - 2) / 2 buckets of the same width on
+     * the x axis (e.g. one pixel column per bucket). The x values have to
+     * be sorted.
+     * @param X
+     * @param Y
+     * @param COUNT the number of points in X and Y
+     * @param THRESHOLD the max number of points to keep
+     * @return the sorted indices of the points to render
+     */
+    public static int[] minMax(final double[] X, final double[] Y, final int COUNT, final int THRESHOLD) {
+        if (THRESHOLD >= COUNT || THRESHOLD < 4) { return all(COUNT); }
+        final int    buckets = (THRESHOLD - 2) / 2;
+        final double firstX  = X[0];
+        final double spanX   = X[COUNT - 1] - firstX;
+        int[] result = new int[THRESHOLD];
+        int   n      = 0;
+        int   bucket = -1;
+        int   min    = -1;
+        int   max    = -1;
+        result[n++] = 0;
+        for (int i = 1 ; i < COUNT - 1 ; i++) {
+            final int b = 0 == spanX ? (int) ((long) (i - 1) * buckets / (COUNT - 2)) : Helper.clamp(0, buckets - 1, (int) ((X[i] - firstX) / spanX * buckets));
+            if (b != bucket) {
+                // Unsorted x values lead to more buckets than expected
+                if (n + 3 > result.length) { result = Arrays.copyOf(result, result.length * 2); }
+                n      = addMinMax(result, n, min, max);
+                bucket = b;
+                min    = i;
+                max    = i;
+            } else {
+                if (Y[i] < Y[min]) { min = i; }
+                if (Y[i] > Y[max]) { max = i; }
+            }
+        }
+        if (n + 3 > result.length) { result = Arrays.copyOf(result, result.length * 2); }
+        n = addMinMax(result, n, min, max);
+        result[n++] = COUNT - 1;
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    /**
+     * Returns the threshold that renders a series in a chart of the given
+     * width in pixels, LTTB keeps one point and MIN_MAX keeps the smallest
+     * and the largest value per pixel column.
+     * @param MODE
+     * @param WIDTH the width of the chart in pixels
+     * @return the threshold that renders a series in a chart of the given width
+     */
+    public static int getThreshold(final Downsampling MODE, final int WIDTH) {
+        return Downsampling.MIN_MAX == MODE ? 2 * WIDTH + 2 : WIDTH;
+    }
+
+    /**
+     * Returns the indices of the points to render the given series with at
+     * most THRESHOLD points using the given mode.
+     * @param MODE
+     * @param X
+     * @param Y
+     * @param COUNT the number of points in X and Y
+     * @param THRESHOLD the max number of points to keep
+     * @return the sorted indices of the points to render
+     */
+    public static int[] downsample(final Downsampling MODE, final double[] X, final double[] Y, final int COUNT, final int THRESHOLD) {
+        if (null == MODE) { return all(COUNT); }
+        switch(MODE) {
+            case LTTB   : return lttb(X, Y, COUNT, THRESHOLD);
+            case MIN_MAX: return minMax(X, Y, COUNT, THRESHOLD);
+            case NONE   :
+            default     : return all(COUNT);
+        }
+    }
+
+    public Downsampling getMode() { return mode; }
+    public void setMode(final Downsampling MODE) {
+        final Downsampling newMode = null == MODE ? Downsampling.NONE : MODE;
+        if (newMode == mode) { return; }
+        mode = newMode;
+        rebuild();
+    }
+
+    /**
+     * Returns the max number of points that will be rendered, e.g. the width
+     * of the chart in pixels.
+     * @return the max number of points that will be rendered
+     */
+    public int getThreshold() { return threshold; }
+    public void setThreshold(final int THRESHOLD) {
+        if (THRESHOLD == threshold) { return; }
+        threshold = THRESHOLD;
+        rebuild();
+    }
+
+    public int size() { return size; }
+
+    public double getX(final int INDEX) { return xs[ringIndex(INDEX)]; }
+
+    public double getY(final int INDEX) { return ys[ringIndex(INDEX)]; }
+
+    /**
+     * Adds a point with the number of the point as x value.
+     * @param Y
+     */
+    public void add(final double Y) { add(firstSeq + size, Y); }
+    public void add(final double X, final double Y) {
+        if (size == xs.length) { grow(); }
+        final int index = (head + size) % xs.length;
+        xs[index] = X;
+        ys[index] = Y;
+        size++;
+        sampledValid = false;
+        if (!active) {
+            if (isDownsampling()) { rebuild(); }
+            return;
+        }
+        final long seq    = firstSeq + size - 1;
+        final long bucket = seq / bucketWidth;
+        if (bucket - firstSeq / bucketWidth + 1 > getTargetBuckets()) { rebuild(); return; }
+        if (seq % bucketWidth == 0) { resetBucket(bucket); }
+        addToBucket(bucket, seq, X, Y);
+        // The average of the next bucket changed for the bucket before
+        dirtyTailFrom = Math.min(dirtyTailFrom, bucket - 1);
+    }
+
+    /**
+     * Removes the given number of points from the start of the series.
+     * @param COUNT
+     */
+    public void removeFirst(final int COUNT) {
+        final int count = Math.min(COUNT, size);
+        if (count <= 0) { return; }
+        sampledValid = false;
+        for (int i = 0 ; i < count ; i++) {
+            if (active) {
+                final long seq    = firstSeq;
+                final int  bucket = bucketIndex(seq / bucketWidth);
+                bucketSumX[bucket] -= xs[head];
+                bucketSumY[bucket] -= ys[head];
+                bucketCount[bucket]--;
+                if (bucketMin[bucket] == seq || bucketMax[bucket] == seq) { rescanFirstBucket = true; }
+            }
+            head = (head + 1) % xs.length;
+            size--;
+            firstSeq++;
+        }
+        if (!active) { return; }
+        if (!isDownsampling() || (bucketWidth > 1 && getSpannedBuckets() < getTargetBuckets() / 4)) {
+            rebuild();
+        } else {
+            // The first point changed, which is the previous point of the second bucket
+            dirtyHeadTo = Math.max(dirtyHeadTo, firstSeq / bucketWidth + 1);
+        }
+    }
+
+    public void clear() {
+        head         = 0;
+        size         = 0;
+        firstSeq     = 0;
+        active       = false;
+        sampledValid = false;
+        sampledSize  = 0;
+    }
+
+    /**
+     * Downsamples the series and returns the number of points to render,
+     * use getSampledIndex(), getSampledX() and getSampledY() to get them.
+     * @return the number of points to render
+     */
+    public int downsample() {
+        if (sampledValid) { return sampledSize; }
+        final int capacity = active ? threshold : size;
+        if (sampled.length < capacity) { sampled = new int[capacity]; }
+        sampledSize = 0;
+        if (!active) {
+            for (int i = 0 ; i < size ; i++) { sampled[sampledSize++] = i; }
+        } else if (Downsampling.LTTB == mode) {
+            evaluateLttb();
+        } else {
+            evaluateMinMax();
+        }
+        sampledValid = true;
+        return sampledSize;
+    }
+
+    public int getSampledIndex(final int I) { return sampled[I]; }
+
+    public double getSampledX(final int I) { return getX(sampled[I]); }
+
+    public double getSampledY(final int I) { return getY(sampled[I]); }
+
+    private boolean isDownsampling() {
+        return Downsampling.NONE != mode && size > threshold && threshold >= (Downsampling.LTTB == mode ? 3 : 4);
+    }
+
+    private int getTargetBuckets() { return Downsampling.LTTB == mode ? threshold - 2 : (threshold - 2) / 2; }
+
+    private long getSpannedBuckets() { return 0 == size ? 0 : (firstSeq + size - 1) / bucketWidth - firstSeq / bucketWidth + 1; }
+
+    private void rebuild() {
+        sampledValid = false;
+        active       = isDownsampling();
+        if (!active) { return; }
+        final int targetBuckets = getTargetBuckets();
+        // One bucket less than possible because the buckets are aligned to the number of the points
+        bucketWidth = (int) Math.max(1, Math.ceil(size / (double) Math.max(1, targetBuckets - 1)));
+        final int capacity = targetBuckets + 2;
+        if (null == bucketCount || bucketCount.length != capacity) {
+            bucketSumX     = new double[capacity];
+            bucketSumY     = new double[capacity];
+            bucketCount    = new int[capacity];
+            bucketMin      = new long[capacity];
+            bucketMax      = new long[capacity];
+            bucketSelected = new long[capacity];
+        }
+        final long firstBucket = firstSeq / bucketWidth;
+        final long lastBucket  = (firstSeq + size - 1) / bucketWidth;
+        for (long bucket = firstBucket ; bucket <= lastBucket ; bucket++) { resetBucket(bucket); }
+        for (int i = 0 ; i < size ; i++) {
+            final long seq = firstSeq + i;
+            addToBucket(seq / bucketWidth, seq, getX(i), getY(i));
+        }
+        rescanFirstBucket = false;
+        dirtyHeadTo       = lastBucket;
+        dirtyTailFrom     = Long.MAX_VALUE;
+    }
+
+    private void resetBucket(final long BUCKET) {
+        final int bucket = bucketIndex(BUCKET);
+        bucketSumX[bucket]     = 0;
+        bucketSumY[bucket]     = 0;
+        bucketCount[bucket]    = 0;
+        bucketMin[bucket]      = -1;
+        bucketMax[bucket]      = -1;
+        bucketSelected[bucket] = -1;
+    }
+
+    private void addToBucket(final long BUCKET, final long SEQ, final double X, final double Y) {
+        final int bucket = bucketIndex(BUCKET);
+        bucketSumX[bucket] += X;
+        bucketSumY[bucket] += Y;
+        bucketCount[bucket]++;
+        // A min or max that was removed from the start of the series is not valid anymore
+        if (bucketMin[bucket] < firstSeq || Y < getY((int) (bucketMin[bucket] - firstSeq))) { bucketMin[bucket] = SEQ; }
+        if (bucketMax[bucket] < firstSeq || Y > getY((int) (bucketMax[bucket] - firstSeq))) { bucketMax[bucket] = SEQ; }
+    }
+
+    private void evaluateLttb() {
+        final long lastSeq     = firstSeq + size - 1;
+        final long firstBucket = firstSeq / bucketWidth;
+        final long lastBucket  = lastSeq / bucketWidth;
+        long    previous = firstSeq;
+        boolean changed  = false;
+        sampled[sampledSize++] = 0;
+        for (long b = firstBucket ; b <= lastBucket ; b++) {
+            final int bucket = bucketIndex(b);
+            // A bucket has to be evaluated again if its points, the average of the next bucket or the point kept in the previous bucket changed
+            if (changed || b <= dirtyHeadTo || b >= dirtyTailFrom) {
+                // The average of the next bucket or the last point for the last bucket
+                final double nextX;
+                final double nextY;
+                final int    next = bucketIndex(b + 1);
+                if (b < lastBucket && bucketCount[next] > 0) {
+                    nextX = bucketSumX[next] / bucketCount[next];
+                    nextY = bucketSumY[next] / bucketCount[next];
+                } else {
+                    nextX = getX(size - 1);
+                    nextY = getY(size - 1);
+                }
+                final long   from     = Math.max(b * bucketWidth, firstSeq + 1);
+                final long   to       = Math.min((b + 1) * bucketWidth, lastSeq);
+                final double prevX    = getX((int) (previous - firstSeq));
+                final double prevY    = getY((int) (previous - firstSeq));
+                double       maxArea  = -1;
+                long         selected = -1;
+                for (long seq = from ; seq < to ; seq++) {
+                    final int    index = (int) (seq - firstSeq);
+                    final double area  = triangleArea(prevX, prevY, getX(index), getY(index), nextX, nextY);
+                    if (area > maxArea) {
+                        maxArea  = area;
+                        selected = seq;
+                    }
+                }
+                changed = selected != bucketSelected[bucket];
+                bucketSelected[bucket] = selected;
+            }
+            final long selected = bucketSelected[bucket];
+            if (selected > firstSeq && selected < lastSeq) {
+                sampled[sampledSize++] = (int) (selected - firstSeq);
+                previous = selected;
+            }
+        }
+        sampled[sampledSize++] = size - 1;
+        dirtyHeadTo   = Long.MIN_VALUE;
+        dirtyTailFrom = Long.MAX_VALUE;
+    }
+
+    private void evaluateMinMax() {
+        final long lastSeq     = firstSeq + size - 1;
+        final long firstBucket = firstSeq / bucketWidth;
+        final long lastBucket  = lastSeq / bucketWidth;
+        if (rescanFirstBucket) {
+            final int bucket = bucketIndex(firstBucket);
+            bucketMin[bucket] = -1;
+            bucketMax[bucket] = -1;
+            final long to = Math.min((firstBucket + 1) * bucketWidth, lastSeq + 1);
+            for (long seq = firstSeq ; seq < to ; seq++) {
+                final double y = getY((int) (seq - firstSeq));
+                if (bucketMin[bucket] < 0 || y < getY((int) (bucketMin[bucket] - firstSeq))) { bucketMin[bucket] = seq; }
+                if (bucketMax[bucket] < 0 || y > getY((int) (bucketMax[bucket] - firstSeq))) { bucketMax[bucket] = seq; }
+            }
+            rescanFirstBucket = false;
+        }
+        sampled[sampledSize++] = 0;
+        for (long b = firstBucket ; b <= lastBucket ; b++) {
+            final int  bucket = bucketIndex(b);
+            final long min    = bucketMin[bucket];
+            final long max    = bucketMax[bucket];
+            final long lower  = Math.min(min, max);
+            final long upper  = Math.max(min, max);
+            if (lower > firstSeq && lower < lastSeq) { sampled[sampledSize++] = (int) (lower - firstSeq); }
+            if (upper != lower && upper > firstSeq && upper < lastSeq) { sampled[sampledSize++] = (int) (upper - firstSeq); }
+        }
+        sampled[sampledSize++] = size - 1;
+        dirtyHeadTo   = Long.MIN_VALUE;
+        dirtyTailFrom = Long.MAX_VALUE;
+    }
+
+    private int bucketIndex(final long BUCKET) { return (int) (BUCKET % bucketCount.length); }
+
+    private int ringIndex(final int INDEX) { return (head + INDEX) % xs.length; }
+
+    private void grow() {
+        final double[] newXs = new double[xs.length * 2];
+        final double[] newYs = new double[ys.length * 2];
+        for (int i = 0 ; i < size ; i++) {
+            newXs[i] = getX(i);
+            newYs[i] = getY(i);
+        }
+        xs   = newXs;
+        ys   = newYs;
+        head = 0;
+    }
+
+    private static double triangleArea(final double AX, final double AY, final double BX, final double BY, final double CX, final double CY) {
+        return Math.abs((AX - CX) * (BY - AY) - (AX - BX) * (CY - AY));
+    }
+
+    private static int addMinMax(final int[] RESULT, final int N, final int MIN, final int MAX) {
+        if (MIN < 0) { return N; }
+        int n = N;
+        if (MIN == MAX) {
+            RESULT[n++] = MIN;
+        } else {
+            RESULT[n++] = Math.min(MIN, MAX);
+            RESULT[n++] = Math.max(MIN, MAX);
+        }
+        return n;
+    }
+
+    private static int[] all(final int COUNT) {
+        final int[] result = new int[Math.max(0, COUNT)];
+        for (int i = 0 ; i < result.length ; i++) { result[i] = i; }
+        return result;
+    }
+}
@@ -161,9 +161,26 @@ public class FlowGridPane extends GridPane {
         setNoOfRows(ROWS);
     }
 
+    /**
+     * Returns the column of the cell at the given offset in a grid that
+     * is filled row by row with the given number of columns.
+     * @param OFFSET
+     * @param NO_OF_COLS
+     * @return the column of the cell at the given offset
+     */
+    public static int offsetToCol(final int OFFSET, final int NO_OF_COLS) { return OFFSET % NO_OF_COLS; }
+    /**
+     * Returns the row of the cell at the given offset in a grid that
+     * is filled row by row with the given number of columns.
+     * @param OFFSET
+     * @param NO_OF_COLS
+     * @return the row of the cell at the given offset
+     */
+    public static int offsetToRow(final int OFFSET, final int NO_OF_COLS) { return OFFSET / NO_OF_COLS; }
+
     private int coordsToOffset(final int COL, final int ROW) { return ROW * noOfCols.get() + COL; }
-    private int offsetToCol(final int OFFSET) { return OFFSET % noOfCols.get(); }
-    private int offsetToRow(final int OFFSET) { return OFFSET / noOfCols.get(); }
+    private int offsetToCol(final int OFFSET) { return offsetToCol(OFFSET, noOfCols.get()); }
+    private int offsetToRow(final int OFFSET) { return offsetToRow(OFFSET, noOfCols.get()); }
 
     private void checkAspectRatio() {
         internalCall = true;
@@ -0,0 +1,231 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import javafx.geometry.Rectangle2D;
+import javafx.geometry.VPos;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+import javafx.scene.transform.Transform;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+
+/**
+ * Image that contains the upper and the lower half of the flaps of a
+ * split-flap display for every character of a list of characters, so
+ * that a flip only has to show other parts of the same image instead
+ * of rendering the text again.
+ * The upper half of a character is rendered like the upper flap (background
+ * with rounded upper corners and the upper part of the text), the lower half
+ * like the lower flap (background with rounded lower corners and the lower
+ * part of the text).
+ * Atlases are shared by all flaps with the same characters, font, colors
+ * and size (see get()), the last MAX_CACHED_ATLASES atlases are cached.
+ * The size is rounded up to the next multiple of SIZE_STEP pixels and the
+ * image is scaled down to the flaps, so resizing a flap only creates a new
+ * atlas every few pixels instead of on every resize.
+ * Atlases must only be created on the JavaFX application thread.
+ */
+public class GlyphAtlas {
+    public  static final int                      MAX_CACHED_ATLASES = 16;
+    public  static final double                   SIZE_STEP          = 4;
+    private static final Map<Key, GlyphAtlas>     CACHE              = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override protected boolean removeEldestEntry(final Map.Entry<Key, GlyphAtlas> ELDEST) { return size() > MAX_CACHED_ATLASES; }
+    };
+    private        final Image                    image;
+    private        final Rectangle2D[]            upperViewports;
+    private        final Rectangle2D[]            lowerViewports;
+    private        final double                   flapWidth;
+    private        final double                   flapHeight;
+
+
+    // ******************** Constructors **************************************
+    private GlyphAtlas(final Key KEY) {
+        final int    noOfCharacters = KEY.characters.size();
+        final int    cols           = Math.max(1, (int) Math.ceil(Math.sqrt(noOfCharacters)));
+        final int    rows           = Math.max(1, (int) Math.ceil(noOfCharacters / (double) cols));
+        final double cellWidth      = Math.ceil(KEY.width);
+        final double cellHeight     = Math.ceil(KEY.flapHeight);
+        final double centerX        = KEY.width * 0.5;
+        final double centerY        = KEY.height * 0.5;
+        flapWidth      = KEY.width;
+        flapHeight     = KEY.flapHeight;
+        upperViewports = new Rectangle2D[noOfCharacters];
+        lowerViewports = new Rectangle2D[noOfCharacters];
+
+        final Canvas          canvas = new Canvas(cols * cellWidth, rows * 2 * cellHeight);
+        final GraphicsContext ctx    = canvas.getGraphicsContext2D();
+        ctx.setFont(KEY.font);
+        ctx.setTextBaseline(VPos.CENTER);
+        ctx.setTextAlign(TextAlignment.CENTER);
+        for (int i = 0 ; i < noOfCharacters ; i++) {
+            final String character = KEY.characters.get(i);
+            final double x         = (i % cols) * cellWidth;
+            final double upperY    = (i / cols) * 2 * cellHeight;
+            final double lowerY    = upperY + cellHeight;
+
+            // Upper half, the text is centered on the center of the tile
+            drawCell(ctx, x, upperY, KEY, new CtxCornerRadii(KEY.cornerRadius, KEY.cornerRadius, 0, 0));
+            drawText(ctx, character, x + centerX, upperY + centerY, x, upperY, KEY);
+
+            // Lower half, the text is centered on the upper edge of the lower flap
+            drawCell(ctx, x, lowerY, KEY, new CtxCornerRadii(0, 0, KEY.cornerRadius, KEY.cornerRadius));
+            drawText(ctx, character, x + centerX, lowerY, x, lowerY, KEY);
+
+            upperViewports[i] = new Rectangle2D(x * KEY.scale, upperY * KEY.scale, KEY.width * KEY.scale, KEY.flapHeight * KEY.scale);
+            lowerViewports[i] = new Rectangle2D(x * KEY.scale, lowerY * KEY.scale, KEY.width * KEY.scale, KEY.flapHeight * KEY.scale);
+        }
+
+        final SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        parameters.setTransform(Transform.scale(KEY.scale, KEY.scale));
+        image = canvas.snapshot(parameters, null);
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Returns the atlas for the given characters, font, colors and size of
+     * the flaps. The atlas will be created if it is not in the cache.
+     * The atlas is rendered at the width and height rounded up to the next
+     * multiple of SIZE_STEP, use getFlapWidth() and getFlapHeight() for the
+     * size of the viewports.
+     * @param CHARACTERS
+     * @param FONT
+     * @param TEXT_COLOR
+     * @param BACKGROUND_COLOR
+     * @param WIDTH the width of the flap
+     * @param HEIGHT the height of both flaps, the text is centered on HEIGHT / 2
+     * @param FLAP_HEIGHT the height of one flap
+     * @param CORNER_RADIUS
+     * @param SCALE the output scale of the screen the atlas will be shown on
+     * @return the atlas for the given characters, font, colors and size
+     */
+    public static GlyphAtlas get(final List<String> CHARACTERS, final Font FONT, final Color TEXT_COLOR, final Color BACKGROUND_COLOR,
+                                 final double WIDTH, final double HEIGHT, final double FLAP_HEIGHT, final double CORNER_RADIUS, final double SCALE) {
+        final double width  = quantize(WIDTH);
+        final double height = quantize(HEIGHT);
+        final double factor = height / HEIGHT;
+        final Font   font   = new Font(FONT.getName(), round(FONT.getSize() * factor));
+        final Key    key    = new Key(CHARACTERS, font, TEXT_COLOR, BACKGROUND_COLOR, width, height, round(FLAP_HEIGHT * factor), round(CORNER_RADIUS * factor), SCALE);
+        return CACHE.computeIfAbsent(key, GlyphAtlas::new);
+    }
+
+    public static int getNoOfCachedAtlases() { return CACHE.size(); }
+
+    public static void clearCache() { CACHE.clear(); }
+
+    public Image getImage() { return image; }
+
+    /**
+     * Returns the part of the image (in pixels) that contains the upper half
+     * of the character with the given index.
+     * @param INDEX
+     * @return the part of the image that contains the upper half of the character
+     */
+    public Rectangle2D getUpperViewport(final int INDEX) { return upperViewports[INDEX]; }
+
+    /**
+     * Returns the part of the image (in pixels) that contains the lower half
+     * of the character with the given index.
+     * @param INDEX
+     * @return the part of the image that contains the lower half of the character
+     */
+    public Rectangle2D getLowerViewport(final int INDEX) { return lowerViewports[INDEX]; }
+
+    public int getNoOfCharacters() { return upperViewports.length; }
+
+    public double getFlapWidth() { return flapWidth; }
+
+    public double getFlapHeight() { return flapHeight; }
+
+    private static double quantize(final double SIZE) { return Math.max(SIZE_STEP, Math.ceil(SIZE / SIZE_STEP) * SIZE_STEP); }
+
+    // Sizes derived from a rounded size differ in the last bits
+    private static double round(final double VALUE) { return Math.round(VALUE * 100) / 100.0; }
+
+    private static void drawCell(final GraphicsContext CTX, final double X, final double Y, final Key KEY, final CtxCornerRadii RADII) {
+        Helper.drawRoundedRect(CTX, new CtxBounds(X, Y, KEY.width, KEY.flapHeight), RADII);
+        CTX.setFill(KEY.backgroundColor);
+        CTX.fill();
+    }
+
+    private static void drawText(final GraphicsContext CTX, final String TEXT, final double X, final double Y, final double CELL_X, final double CELL_Y, final Key KEY) {
+        CTX.save();
+        CTX.beginPath();
+        CTX.rect(CELL_X, CELL_Y, KEY.width, KEY.flapHeight);
+        CTX.closePath();
+        CTX.clip();
+        CTX.setFill(KEY.textColor);
+        CTX.fillText(TEXT, X, Y, KEY.width);
+        CTX.restore();
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static final class Key {
+        private final List<String> characters;
+        private final Font         font;
+        private final Color        textColor;
+        private final Color        backgroundColor;
+        private final double       width;
+        private final double       height;
+        private final double       flapHeight;
+        private final double       cornerRadius;
+        private final double       scale;
+        private final int          hash;
+
+
+        // ******************** Constructors **********************************
+        private Key(final List<String> CHARACTERS, final Font FONT, final Color TEXT_COLOR, final Color BACKGROUND_COLOR,
+                    final double WIDTH, final double HEIGHT, final double FLAP_HEIGHT, final double CORNER_RADIUS, final double SCALE) {
+            characters      = List.copyOf(CHARACTERS);
+            font            = FONT;
+            textColor       = TEXT_COLOR;
+            backgroundColor = BACKGROUND_COLOR;
+            width           = WIDTH;
+            height          = HEIGHT;
+            flapHeight      = FLAP_HEIGHT;
+            cornerRadius    = CORNER_RADIUS;
+            scale           = SCALE;
+            hash            = Objects.hash(characters, font, textColor, backgroundColor, width, height, flapHeight, cornerRadius, scale);
+        }
+
+
+        // ******************** Methods ***************************************
+        @Override public boolean equals(final Object OBJECT) {
+            if (this == OBJECT) { return true; }
+            if (!(OBJECT instanceof Key)) { return false; }
+            final Key key = (Key) OBJECT;
+            return Double.compare(width, key.width) == 0 && Double.compare(height, key.height) == 0 && Double.compare(flapHeight, key.flapHeight) == 0 &&
+                   Double.compare(cornerRadius, key.cornerRadius) == 0 && Double.compare(scale, key.scale) == 0 &&
+                   font.equals(key.font) && textColor.equals(key.textColor) && backgroundColor.equals(key.backgroundColor) && characters.equals(key.characters);
+        }
+
+        @Override public int hashCode() { return hash; }
+    }
+}
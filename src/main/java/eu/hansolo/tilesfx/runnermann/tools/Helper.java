@@ -574,6 +574,48 @@ public class Helper {
 
         return subdividedPoints;
     }
+    /**
+     * Subdivides the given points with Catmull-Rom splines in the same way as
+     * subdividePoints(Point[], int) but reads and writes the coordinates from
+     * and to the given arrays, so no objects will be created.
+     * The result arrays need a length of at least (COUNT - 1) * SUB_DEVISIONS + 1.
+     * @param XS
+     * @param YS
+     * @param COUNT the number of points in XS and YS
+     * @param SUB_DEVISIONS
+     * @param RESULT_XS
+     * @param RESULT_YS
+     * @return the number of subdivided points
+     */
+    public static final int subdividePoints(final double[] XS, final double[] YS, final int COUNT, final int SUB_DEVISIONS, final double[] RESULT_XS, final double[] RESULT_YS) {
+        if (COUNT < 2) {
+            if (1 == COUNT) {
+                RESULT_XS[0] = XS[0];
+                RESULT_YS[0] = YS[0];
+            }
+            return COUNT;
+        }
+        final double increments = 1.0 / (double) SUB_DEVISIONS;
+        for (int i = 0 ; i < COUNT - 1 ; i++) {
+            final int p0 = i == 0 ? i : i - 1;
+            final int p3 = (i + 2 == COUNT) ? i + 1 : i + 2;
+            // Coefficients of q(T) = 0.5 * (a + b * T + c * T^2 + d * T^3), see CatmullRom
+            final double ax = 2 * XS[i];
+            final double bx = XS[i + 1] - XS[p0];
+            final double cx = 2 * XS[p0] - 5 * XS[i] + 4 * XS[i + 1] - XS[p3];
+            final double dx = 3 * XS[i] - XS[p0] - 3 * XS[i + 1] + XS[p3];
+            final double ay = 2 * YS[i];
+            final double by = YS[i + 1] - YS[p0];
+            final double cy = 2 * YS[p0] - 5 * YS[i] + 4 * YS[i + 1] - YS[p3];
+            final double dy = 3 * YS[i] - YS[p0] - 3 * YS[i + 1] + YS[p3];
+            for (int j = 0 ; j <= SUB_DEVISIONS ; j++) {
+                final double t = j * increments;
+                RESULT_XS[(i * SUB_DEVISIONS) + j] = 0.5 * (ax + bx * t + cx * t * t + dx * t * t * t);
+                RESULT_YS[(i * SUB_DEVISIONS) + j] = 0.5 * (ay + by * t + cy * t * t + dy * t * t * t);
+            }
+        }
+        return (COUNT - 1) * SUB_DEVISIONS + 1;
+    }
 
     public static final Point[] smoothSparkLine(final List<Double> DATA_LIST, final double MIN_VALUE, final double MAX_VALUE, final Rectangle GRAPH_BOUNDS, final int NO_OF_DATAPOINTS) {
         int     size   = DATA_LIST.size();
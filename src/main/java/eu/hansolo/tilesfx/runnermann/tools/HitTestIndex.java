@@ -0,0 +1,175 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Uniform grid over the bounding boxes of items in pixel space that
+ * resolves a mouse position to the item under it with one lookup instead
+ * of letting the scene graph pick through all nodes.
+ * Each item is registered in all cells that its bounding box overlaps.
+ * A pick only checks the items of the cell that contains the position,
+ * first against their bounding boxes and then with an optional precise
+ * test (e.g. Shape.contains()). Items that were added later are on top,
+ * so pick() returns the last added item that was hit.
+ * The index is a snapshot of the given bounds, it has to be reset and
+ * filled again if the items move (e.g. after a resize).
+ */
+public class HitTestIndex<T> {
+    private static final int      INITIAL_CAPACITY      = 64;
+    private static final int      INITIAL_CELL_CAPACITY = 4;
+    private static final int      MAX_CELLS_PER_AXIS    = 256;
+    private        final List<T>  items;
+    private              double[] bounds;
+    private              int[][]  cells;
+    private              int[]    cellCounts;
+    private              double   originX;
+    private              double   originY;
+    private              double   cellSize;
+    private              int      cols;
+    private              int      rows;
+
+
+    // ******************** Constructors **************************************
+    public HitTestIndex() {
+        items  = new ArrayList<>(INITIAL_CAPACITY);
+        bounds = new double[INITIAL_CAPACITY * 4];
+        reset(0, 0, 1, 1, 1);
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Removes all items and defines the area and the size of the cells of
+     * the grid. The number of cells per axis is limited to 256, the cell
+     * size will be increased if needed.
+     * @param MIN_X
+     * @param MIN_Y
+     * @param MAX_X
+     * @param MAX_Y
+     * @param CELL_SIZE
+     */
+    public void reset(final double MIN_X, final double MIN_Y, final double MAX_X, final double MAX_Y, final double CELL_SIZE) {
+        final double width  = Math.max(1, MAX_X - MIN_X);
+        final double height = Math.max(1, MAX_Y - MIN_Y);
+        originX  = MIN_X;
+        originY  = MIN_Y;
+        cellSize = Math.max(Math.max(1, CELL_SIZE), Math.max(width, height) / MAX_CELLS_PER_AXIS);
+        cols     = (int) Math.ceil(width / cellSize);
+        rows     = (int) Math.ceil(height / cellSize);
+        if (null == cells || cells.length < cols * rows) {
+            cells      = new int[cols * rows][];
+            cellCounts = new int[cols * rows];
+        } else {
+            Arrays.fill(cellCounts, 0);
+        }
+        items.clear();
+    }
+
+    /**
+     * Adds the given item with the given bounding box. Parts of the box
+     * outside of the area of the grid are registered in the border cells,
+     * boxes completely outside of the area are never hit.
+     * @param ITEM
+     * @param MIN_X
+     * @param MIN_Y
+     * @param MAX_X
+     * @param MAX_Y
+     */
+    public void add(final T ITEM, final double MIN_X, final double MIN_Y, final double MAX_X, final double MAX_Y) {
+        final int id = items.size();
+        items.add(ITEM);
+        if (bounds.length < (id + 1) * 4) { bounds = Arrays.copyOf(bounds, bounds.length * 2); }
+        bounds[id * 4]     = MIN_X;
+        bounds[id * 4 + 1] = MIN_Y;
+        bounds[id * 4 + 2] = MAX_X;
+        bounds[id * 4 + 3] = MAX_Y;
+
+        final int minCol = Math.max(0, col(MIN_X));
+        final int maxCol = Math.min(cols - 1, col(MAX_X));
+        final int minRow = Math.max(0, row(MIN_Y));
+        final int maxRow = Math.min(rows - 1, row(MAX_Y));
+        for (int row = minRow ; row <= maxRow ; row++) {
+            for (int col = minCol ; col <= maxCol ; col++) {
+                final int cell  = row * cols + col;
+                final int count = cellCounts[cell];
+                int[] ids = cells[cell];
+                if (null == ids) {
+                    ids         = new int[INITIAL_CELL_CAPACITY];
+                    cells[cell] = ids;
+                } else if (ids.length == count) {
+                    ids         = Arrays.copyOf(ids, count * 2);
+                    cells[cell] = ids;
+                }
+                ids[count]       = id;
+                cellCounts[cell] = count + 1;
+            }
+        }
+    }
+
+    /**
+     * Returns the topmost item whose bounding box contains the given
+     * position or null.
+     * @param X
+     * @param Y
+     * @return the topmost item whose bounding box contains the given position or null
+     */
+    public T pick(final double X, final double Y) { return pick(X, Y, null); }
+    /**
+     * Returns the topmost item whose bounding box contains the given
+     * position and that passes the given precise test or null.
+     * Positions outside of the area of the grid are looked up in the
+     * nearest border cell.
+     * @param X
+     * @param Y
+     * @param TEST the precise test or null to only check the bounding boxes
+     * @return the topmost item that contains the given position or null
+     */
+    public T pick(final double X, final double Y, final HitTest<T> TEST) {
+        final int   col  = Helper.clamp(0, cols - 1, col(X));
+        final int   row  = Helper.clamp(0, rows - 1, row(Y));
+        final int   cell = row * cols + col;
+        final int[] ids  = cells[cell];
+        for (int i = cellCounts[cell] - 1 ; i >= 0 ; i--) {
+            final int id = ids[i];
+            if (X < bounds[id * 4] || Y < bounds[id * 4 + 1] || X > bounds[id * 4 + 2] || Y > bounds[id * 4 + 3]) { continue; }
+            final T item = items.get(id);
+            if (null == TEST || TEST.contains(item, X, Y)) { return item; }
+        }
+        return null;
+    }
+
+    public int size() { return items.size(); }
+
+    public boolean isEmpty() { return items.isEmpty(); }
+
+    private int col(final double X) { return (int) Math.floor((X - originX) / cellSize); }
+
+    private int row(final double Y) { return (int) Math.floor((Y - originY) / cellSize); }
+
+
+    // ******************** Inner Classes *************************************
+    @FunctionalInterface
+    public interface HitTest<T> {
+        boolean contains(T ITEM, double X, double Y);
+    }
+}
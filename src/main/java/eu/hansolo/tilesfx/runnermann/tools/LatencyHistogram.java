@@ -0,0 +1,139 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import java.util.Arrays;
+
+
+/**
+ * Histogram of latencies in nanoseconds with a fixed, log-linear
+ * bucket layout (similar to HdrHistogram). Values below 32 ns are
+ * counted exactly, above that every power of two is split into 16
+ * buckets which gives a relative error of at most ~6%. Values above
+ * MAX_VALUE (~68 s) are counted in the last bucket.
+ * Recording only updates a few fields and never allocates. The
+ * histogram is not thread safe, it is meant to be recorded on the
+ * JavaFX application thread and copied for reading.
+ */
+public class LatencyHistogram {
+    public  static final long   MAX_VALUE        = (1L << 36) - 1;
+    private static final int    SUB_BUCKET_BITS  = 5;
+    private static final int    SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int    HALF_COUNT       = SUB_BUCKET_COUNT >> 1;
+    private static final int    NO_OF_BUCKETS    = indexOf(MAX_VALUE) + 1;
+    private        final long[] counts;
+    private              long   totalCount;
+    private              long   min;
+    private              long   max;
+    private              double sum;
+
+
+    // ******************** Constructors **************************************
+    public LatencyHistogram() {
+        counts = new long[NO_OF_BUCKETS];
+        reset();
+    }
+    public LatencyHistogram(final LatencyHistogram HISTOGRAM) {
+        counts     = HISTOGRAM.counts.clone();
+        totalCount = HISTOGRAM.totalCount;
+        min        = HISTOGRAM.min;
+        max        = HISTOGRAM.max;
+        sum        = HISTOGRAM.sum;
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Records the given latency in nanoseconds, negative values are
+     * recorded as 0.
+     * @param NANOS
+     */
+    public void record(final long NANOS) {
+        final long value = NANOS < 0 ? 0 : Math.min(NANOS, MAX_VALUE);
+        counts[indexOf(value)]++;
+        totalCount++;
+        sum += value;
+        if (value < min) { min = value; }
+        if (value > max) { max = value; }
+    }
+
+    /**
+     * Adds all values of the given histogram to this histogram.
+     * @param HISTOGRAM
+     */
+    public void add(final LatencyHistogram HISTOGRAM) {
+        if (0 == HISTOGRAM.totalCount) { return; }
+        for (int i = 0 ; i < NO_OF_BUCKETS ; i++) { counts[i] += HISTOGRAM.counts[i]; }
+        totalCount += HISTOGRAM.totalCount;
+        sum        += HISTOGRAM.sum;
+        min         = Math.min(min, HISTOGRAM.min);
+        max         = Math.max(max, HISTOGRAM.max);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        min        = Long.MAX_VALUE;
+        max        = 0;
+        sum        = 0;
+    }
+
+    public long getCount() { return totalCount; }
+
+    public boolean isEmpty() { return 0 == totalCount; }
+
+    public long getMin() { return 0 == totalCount ? 0 : min; }
+
+    public long getMax() { return max; }
+
+    public double getMean() { return 0 == totalCount ? 0 : sum / totalCount; }
+
+    public double getTotal() { return sum; }
+
+    /**
+     * Returns the value at the given percentile (0 - 100). The result is
+     * the upper bound of the bucket that contains the percentile but never
+     * more than the largest recorded value.
+     * @param PERCENTILE
+     * @return the value at the given percentile in nanoseconds
+     */
+    public long getValueAtPercentile(final double PERCENTILE) {
+        if (0 == totalCount) { return 0; }
+        final double percentile = Helper.clamp(0, 100, PERCENTILE);
+        final long   rank       = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long count = 0;
+        for (int i = 0 ; i < NO_OF_BUCKETS ; i++) {
+            count += counts[i];
+            if (count >= rank) { return Math.max(getMin(), Math.min(max, highestValueOf(i))); }
+        }
+        return max;
+    }
+
+    private static int indexOf(final long VALUE) {
+        if (VALUE < SUB_BUCKET_COUNT) { return (int) VALUE; }
+        final int shift = 64 - Long.numberOfLeadingZeros(VALUE) - SUB_BUCKET_BITS;
+        return SUB_BUCKET_COUNT + (shift - 1) * HALF_COUNT + (int) (VALUE >>> shift) - HALF_COUNT;
+    }
+
+    private static long highestValueOf(final int INDEX) {
+        if (INDEX < SUB_BUCKET_COUNT) { return INDEX; }
+        final int  shift    = (INDEX - SUB_BUCKET_COUNT) / HALF_COUNT + 1;
+        final long subValue = (INDEX - SUB_BUCKET_COUNT) % HALF_COUNT + HALF_COUNT;
+        return ((subValue + 1) << shift) - 1;
+    }
+}
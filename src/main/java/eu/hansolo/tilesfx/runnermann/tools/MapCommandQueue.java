@@ -0,0 +1,260 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import javafx.application.Platform;
+
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+
+/**
+ * Collects the mutations of a map (e.g. the Leaflet map in osm.html)
+ * and sends them as one JSON array to document.applyCommands() in a
+ * single executeScript() call per pulse instead of one script per
+ * mutation.
+ * Commands that only depend on their latest value (location, colors,
+ * zoom, provider) replace a pending command of the same kind, a new
+ * track replaces all pending track commands.
+ * All methods can be called from any thread.
+ */
+public class MapCommandQueue {
+    private static final DateTimeFormatter   DF = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final DateTimeFormatter   TF = DateTimeFormatter.ISO_LOCAL_TIME;
+    private        final ScriptExecutor      executor;
+    private        final Consumer<Runnable>  pulseScheduler;
+    private        final Map<String, String> commands;
+    private              long                commandCounter;
+    private              boolean             flushScheduled;
+    private              long                noOfRoundTrips;
+
+
+    // ******************** Constructors **************************************
+    public MapCommandQueue(final ScriptExecutor EXECUTOR) {
+        this(EXECUTOR, Platform::runLater);
+    }
+    /**
+     * @param EXECUTOR executes the script, e.g. webEngine::executeScript
+     * @param PULSE_SCHEDULER runs the flush, Platform::runLater by default
+     */
+    public MapCommandQueue(final ScriptExecutor EXECUTOR, final Consumer<Runnable> PULSE_SCHEDULER) {
+        executor       = EXECUTOR;
+        pulseScheduler = PULSE_SCHEDULER;
+        commands       = new LinkedHashMap<>();
+        commandCounter = 0;
+        flushScheduled = false;
+        noOfRoundTrips = 0;
+    }
+
+
+    // ******************** Methods *******************************************
+    public void moveLocation(final Location LOCATION) {
+        put("location", new StringBuilder("{\"op\":\"location\"")
+            .append(",\"name\":").append(quote(LOCATION.getName()))
+            .append(",\"info\":").append(quote(LOCATION.getInfo()))
+            .append(",\"lat\":").append(LOCATION.getLatitude())
+            .append(",\"lon\":").append(LOCATION.getLongitude())
+            .append(",\"zoom\":").append(LOCATION.getZoomLevel())
+            .append("}"));
+    }
+
+    public void setLocationColor(final String COLOR) {
+        put("locationColor", new StringBuilder("{\"op\":\"locationColor\",\"color\":").append(quote(COLOR)).append("}"));
+    }
+
+    public void setTrackColor(final String COLOR) {
+        put("trackColor", new StringBuilder("{\"op\":\"trackColor\",\"color\":").append(quote(COLOR)).append("}"));
+    }
+
+    public void zoomToLocation(final int ZOOM_LEVEL) {
+        put("zoom", new StringBuilder("{\"op\":\"zoom\",\"zoom\":").append(ZOOM_LEVEL).append("}"));
+    }
+
+    public void changeMapProvider(final String PROVIDER) {
+        put("provider", new StringBuilder("{\"op\":\"provider\",\"provider\":").append(quote(PROVIDER)).append("}"));
+    }
+
+    public void addPoi(final Location POI) {
+        add(new StringBuilder("{\"op\":\"addPoi\"")
+            .append(",\"name\":").append(quote(POI.getName()))
+            .append(",\"info\":").append(quote(POI.getInfo()))
+            .append(",\"lat\":").append(POI.getLatitude())
+            .append(",\"lon\":").append(POI.getLongitude())
+            .append(",\"color\":").append(quote(POI.getColor().toString().replace("0x", "#")))
+            .append("}"));
+    }
+
+    public void removePoi(final Location POI) {
+        add(new StringBuilder("{\"op\":\"removePoi\",\"name\":").append(quote(POI.getName())).append("}"));
+    }
+
+    public void updatePoi(final Location POI) {
+        removePoi(POI);
+        addPoi(POI);
+    }
+
+    /**
+     * Replaces the track on the map with the given locations. Start and
+     * stop markers will be set at the first and last location.
+     * @param LOCATIONS
+     * @param COLOR
+     */
+    public void setTrack(final List<Location> LOCATIONS, final String COLOR) {
+        final String json = trackCommand("track", LOCATIONS, 0, COLOR);
+        synchronized (this) {
+            // Pending track changes are obsolete
+            for (Iterator<String> i = commands.values().iterator() ; i.hasNext() ;) {
+                final String command = i.next();
+                if (command.startsWith("{\"op\":\"track\"") || command.startsWith("{\"op\":\"appendTrack\"")) { i.remove(); }
+            }
+        }
+        add(json);
+    }
+
+    /**
+     * Appends the locations from index FROM on to the track on the map
+     * and moves the stop marker to the last location.
+     * @param LOCATIONS
+     * @param FROM
+     * @param COLOR
+     */
+    public void appendToTrack(final List<Location> LOCATIONS, final int FROM, final String COLOR) {
+        if (FROM >= LOCATIONS.size()) { return; }
+        add(trackCommand("appendTrack", LOCATIONS, FROM, COLOR));
+    }
+
+    public void clearTrack() { setTrack(List.of(), ""); }
+
+    /**
+     * Returns the number of executeScript() calls so far.
+     * @return the number of executeScript() calls so far
+     */
+    public synchronized long getNoOfRoundTrips() { return noOfRoundTrips; }
+
+    public synchronized int getNoOfPendingCommands() { return commands.size(); }
+
+    /**
+     * Sends all pending commands in one script.
+     */
+    public void flush() {
+        final StringBuilder script;
+        synchronized (this) {
+            flushScheduled = false;
+            if (commands.isEmpty()) { return; }
+            script = new StringBuilder("document.applyCommands([");
+            boolean first = true;
+            for (String command : commands.values()) {
+                if (!first) { script.append(","); }
+                script.append(command);
+                first = false;
+            }
+            script.append("]);");
+            commands.clear();
+            noOfRoundTrips++;
+        }
+        executor.executeScript(script.toString());
+    }
+
+    private void put(final String KEY, final CharSequence COMMAND) {
+        synchronized (this) {
+            // Remove first so that the command moves to the end of the queue
+            commands.remove(KEY);
+            commands.put(KEY, COMMAND.toString());
+        }
+        scheduleFlush();
+    }
+
+    private void add(final CharSequence COMMAND) {
+        synchronized (this) { commands.put("#" + (commandCounter++), COMMAND.toString()); }
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        synchronized (this) {
+            if (flushScheduled) { return; }
+            flushScheduled = true;
+        }
+        pulseScheduler.accept(this::flush);
+    }
+
+    private static String trackCommand(final String OP, final List<Location> LOCATIONS, final int FROM, final String COLOR) {
+        final int           size   = LOCATIONS.size();
+        final StringBuilder points = new StringBuilder();
+        final StringBuilder names  = new StringBuilder();
+        final StringBuilder dates  = new StringBuilder();
+        final StringBuilder times  = new StringBuilder();
+        for (int i = FROM ; i < size ; i++) {
+            final Location location = LOCATIONS.get(i);
+            if (i > FROM) {
+                points.append(",");
+                names.append(",");
+                dates.append(",");
+                times.append(",");
+            }
+            points.append(location.getLatitude()).append(",").append(location.getLongitude());
+            names.append(quote(location.getName()));
+            dates.append(quote(DF.format(location.getZonedDateTime())));
+            times.append(quote(TF.format(location.getZonedDateTime())));
+        }
+        return new StringBuilder("{\"op\":\"").append(OP).append("\"")
+            .append(",\"color\":").append(quote(COLOR))
+            .append(",\"points\":[").append(points).append("]")
+            .append(",\"names\":[").append(names).append("]")
+            .append(",\"dates\":[").append(dates).append("]")
+            .append(",\"times\":[").append(times).append("]")
+            .append("}").toString();
+    }
+
+    private static String quote(final String TEXT) {
+        if (null == TEXT) { return "\"\""; }
+        final StringBuilder builder = new StringBuilder(TEXT.length() + 2).append('"');
+        for (int i = 0 ; i < TEXT.length() ; i++) {
+            final char c = TEXT.charAt(i);
+            switch (c) {
+                case '"'   : builder.append("\\\""); break;
+                case '\\'  : builder.append("\\\\"); break;
+                case '\n'  : builder.append("\\n"); break;
+                case '\r'  : builder.append("\\r"); break;
+                case '\t'  : builder.append("\\t"); break;
+                // Line and paragraph separators are valid in JSON but not in JavaScript string literals
+                case 0x2028: builder.append("\\u2028"); break;
+                case 0x2029: builder.append("\\u2029"); break;
+                default    :
+                    if (c < 0x20 || c == '<') {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * The boundary to the browser, e.g. webEngine::executeScript.
+     */
+    @FunctionalInterface public interface ScriptExecutor {
+        Object executeScript(String SCRIPT);
+    }
+}
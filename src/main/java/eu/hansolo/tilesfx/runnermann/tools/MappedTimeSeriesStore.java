@@ -0,0 +1,231 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * TimeSeriesStore that keeps the records off heap in a memory mapped,
+ * append-only file, so the history survives a restart of the application
+ * (just open the same file again).
+ * The file starts with a header of HEADER_SIZE bytes that contains the
+ * number of records, followed by records of RECORD_SIZE bytes with the
+ * epochMillis (long) and the value (double) in little endian order.
+ * The file is mapped in segments of a fixed number of records, a new
+ * segment will be mapped (and the file extended) when the last segment
+ * is full. The timestamp of every INDEX_INTERVAL-th record is kept in a
+ * sparse index on the heap (8 bytes per INDEX_INTERVAL records), so a
+ * time lookup is a binary search in the sparse index followed by a
+ * binary search in one block of the file.
+ * The number of records in the header is written after the record, so
+ * a crash of the application never exposes a partially written record.
+ * The operating system writes the mapped pages back in any order though,
+ * only the records up to the last flush() are guaranteed to survive a
+ * crash of the operating system. flush() forces the records before the
+ * header.
+ */
+public class MappedTimeSeriesStore implements TimeSeriesStore {
+    public  static final int                     HEADER_SIZE             = 64;
+    public  static final int                     RECORD_SIZE             = 16;
+    public  static final int                     INDEX_INTERVAL          = 1_024;
+    public  static final int                     DEFAULT_SEGMENT_RECORDS = 1 << 20; // 16 MB per segment
+    private static final long                    MAGIC                   = 0x5453_5354_4F52_4531L; // "TSSTORE1"
+    private static final int                     VERSION                 = 1;
+    private static final int                     COUNT_OFFSET            = 16;
+    private final        Path                    file;
+    private final        int                     segmentRecords;
+    private final        int                     segmentShift;
+    private final        FileChannel             channel;
+    private final        MappedByteBuffer        header;
+    private final        List<MappedByteBuffer>  segments;
+    private              long[]                  sparseIndex;
+    private volatile     long                    size;
+    private              boolean                 closed;
+
+
+    // ******************** Constructors **************************************
+    public MappedTimeSeriesStore(final Path FILE) throws IOException {
+        this(FILE, DEFAULT_SEGMENT_RECORDS);
+    }
+    /**
+     * Opens the store in the given file, the file will be created if it
+     * does not exist.
+     * @param FILE
+     * @param SEGMENT_RECORDS the number of records per mapped segment, will be rounded up to a power of 2
+     * @throws IOException if the file could not be opened or is not a time series store
+     */
+    public MappedTimeSeriesStore(final Path FILE, final int SEGMENT_RECORDS) throws IOException {
+        file           = FILE;
+        segmentShift   = 32 - Integer.numberOfLeadingZeros(Helper.clamp(INDEX_INTERVAL, 1 << 26, SEGMENT_RECORDS) - 1);
+        segmentRecords = 1 << segmentShift;
+        channel        = FileChannel.open(FILE, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segments       = new ArrayList<>();
+        try {
+            final long fileSize = channel.size();
+            header = channel.map(MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (0 == fileSize) {
+                header.putLong(0, MAGIC);
+                header.putInt(8, VERSION);
+                header.putInt(12, RECORD_SIZE);
+                header.putLong(COUNT_OFFSET, 0);
+                size = 0;
+            } else {
+                if (fileSize < HEADER_SIZE || MAGIC != header.getLong(0) || RECORD_SIZE != header.getInt(12)) {
+                    throw new IOException(FILE + " is not a time series store");
+                }
+                if (VERSION != header.getInt(8)) {
+                    throw new IOException(FILE + " has the unsupported version " + header.getInt(8));
+                }
+                // Records behind the end of the file (e.g. after a crash) are dropped
+                size = Helper.clamp(0, (fileSize - HEADER_SIZE) / RECORD_SIZE, header.getLong(COUNT_OFFSET));
+            }
+            for (long i = 0 ; i < size ; i += segmentRecords) { mapSegment(); }
+            sparseIndex = new long[(int) Math.max(16, size / INDEX_INTERVAL + 1)];
+            for (long i = 0 ; i < size ; i += INDEX_INTERVAL) { sparseIndex[(int) (i / INDEX_INTERVAL)] = getEpochMillis(i); }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+
+    // ******************** Methods *******************************************
+    public Path getFile() { return file; }
+
+    @Override public void append(final long EPOCH_MILLIS, final double VALUE) {
+        checkOpen();
+        final long index = size;
+        if (index > 0 && EPOCH_MILLIS < getEpochMillis(index - 1)) { throw new IllegalArgumentException("Timestamp must not be before the timestamp of the last record"); }
+        if (index >> segmentShift == segments.size()) { mapSegment(); }
+        final MappedByteBuffer segment = segments.get((int) (index >> segmentShift));
+        final int              offset  = (int) (index & (segmentRecords - 1)) * RECORD_SIZE;
+        segment.putLong(offset, EPOCH_MILLIS);
+        segment.putDouble(offset + 8, VALUE);
+        if (0 == index % INDEX_INTERVAL) {
+            final int block = (int) (index / INDEX_INTERVAL);
+            if (block == sparseIndex.length) { sparseIndex = Arrays.copyOf(sparseIndex, sparseIndex.length * 2); }
+            sparseIndex[block] = EPOCH_MILLIS;
+        }
+        header.putLong(COUNT_OFFSET, index + 1);
+        size = index + 1;
+    }
+
+    @Override public long size() { return size; }
+
+    @Override public long getEpochMillis(final long INDEX) {
+        checkIndex(INDEX);
+        return segments.get((int) (INDEX >> segmentShift)).getLong((int) (INDEX & (segmentRecords - 1)) * RECORD_SIZE);
+    }
+
+    @Override public double getValue(final long INDEX) {
+        checkIndex(INDEX);
+        return segments.get((int) (INDEX >> segmentShift)).getDouble((int) (INDEX & (segmentRecords - 1)) * RECORD_SIZE + 8);
+    }
+
+    @Override public long indexOf(final long EPOCH_MILLIS) {
+        final long count = size;
+        if (0 == count) { return 0; }
+        // Number of blocks that start before the given timestamp
+        int lo = 0;
+        int hi = (int) ((count - 1) / INDEX_INTERVAL) + 1;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (sparseIndex[mid] < EPOCH_MILLIS) { lo = mid + 1; } else { hi = mid; }
+        }
+        if (0 == lo) { return 0; }
+        long from = (long) (lo - 1) * INDEX_INTERVAL;
+        long to   = Math.min(count, (long) lo * INDEX_INTERVAL);
+        while (from < to) {
+            final long mid = (from + to) >>> 1;
+            if (getEpochMillis(mid) < EPOCH_MILLIS) { from = mid + 1; } else { to = mid; }
+        }
+        return from;
+    }
+
+    @Override public long scanIndices(final long FROM_INDEX, final long TO_INDEX, final RecordConsumer CONSUMER) {
+        final long from = Math.max(0, FROM_INDEX);
+        final long to   = Math.min(size, TO_INDEX);
+        for (long i = from ; i < to ; ) {
+            final MappedByteBuffer segment = segments.get((int) (i >> segmentShift));
+            final long             end     = Math.min(to, ((i >> segmentShift) + 1) << segmentShift);
+            for (int offset = (int) (i & (segmentRecords - 1)) * RECORD_SIZE ; i < end ; i++, offset += RECORD_SIZE) {
+                CONSUMER.accept(segment.getLong(offset), segment.getDouble(offset + 8));
+            }
+        }
+        return Math.max(0, to - from);
+    }
+
+    /**
+     * Removes all records, the size of the file stays the same and the
+     * space will be reused for the next records.
+     */
+    @Override public void clear() {
+        checkOpen();
+        header.putLong(COUNT_OFFSET, 0);
+        size = 0;
+    }
+
+    @Override public void flush() {
+        if (closed) { return; }
+        // The records have to be on the device before the header that counts them
+        segments.forEach(MappedByteBuffer::force);
+        header.force();
+    }
+
+    @Override public void close() {
+        if (closed) { return; }
+        flush();
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void mapSegment() {
+        try {
+            final long             position = HEADER_SIZE + ((long) segments.size() << segmentShift) * RECORD_SIZE;
+            final MappedByteBuffer segment  = channel.map(MapMode.READ_WRITE, position, (long) segmentRecords * RECORD_SIZE);
+            segment.order(ByteOrder.LITTLE_ENDIAN);
+            segments.add(segment);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void checkIndex(final long INDEX) {
+        if (INDEX < 0 || INDEX >= size) { throw new IndexOutOfBoundsException("Index: " + INDEX + ", Size: " + size); }
+    }
+
+    private void checkOpen() {
+        if (closed) { throw new IllegalStateException("Store is closed"); }
+    }
+}
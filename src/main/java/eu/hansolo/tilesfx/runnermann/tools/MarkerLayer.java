@@ -0,0 +1,453 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import eu.hansolo.tilesfx.runnermann.fonts.Fonts;
+import javafx.animation.AnimationTimer;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.TextAlignment;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+
+/**
+ * Canvas that draws large numbers of markers (e.g. live positions) on the
+ * world map. The markers are projected once with Helper.latLonToXY() when
+ * they are added or moved and are kept in primitive arrays, the transform
+ * from map to canvas coordinates is applied while drawing.
+ * All markers are linked into a grid of cells in canvas coordinates. A
+ * change marks the cells of the marker as dirty and only the dirty cells
+ * are redrawn in the next pulse, so the cost per frame depends on the
+ * number of changed markers and not on the number of all markers. The
+ * whole canvas is only redrawn after a resize or when many cells changed.
+ * With clustering enabled all markers of a cell are drawn as one bubble
+ * with the number of markers, the smaller the map the more markers share
+ * a cell. The grid is also used to pick the marker at a mouse position.
+ * The layer has to be used on the JavaFX application thread.
+ */
+public class MarkerLayer extends Canvas {
+    private static final int                  INITIAL_CAPACITY = 256;
+    private static final double               MIN_CELL_SIZE    = 8;
+    private static final double               MIN_HIT_RADIUS   = 3;
+    private static final int                  NONE             = -1;
+    private        final GraphicsContext      ctx;
+    private        final Map<Object, Integer> indices;
+    private              Object[]             items;
+    private              double[]             mapX;
+    private              double[]             mapY;
+    private              Color[]              colors;
+    private              int[]                cellOf;
+    private              int[]                next;
+    private              int[]                prev;
+    private              int                  noOfMarkers;
+    private              int[]                cellHead;
+    private              int[]                cellCount;
+    private              double[]             cellSumX;
+    private              double[]             cellSumY;
+    private              boolean[]            dirty;
+    private              int[]                dirtyCells;
+    private              int                  noOfDirtyCells;
+    private              boolean              redrawAll;
+    private              double               scaleX;
+    private              double               scaleY;
+    private              double               offsetX;
+    private              double               offsetY;
+    private              double               radius;
+    private              double               cellSize;
+    private              int                  cols;
+    private              int                  rows;
+    private              boolean              clusteringEnabled;
+    private              AnimationTimer       timer;
+    private              boolean              timerRunning;
+
+
+    // ******************** Constructors **************************************
+    public MarkerLayer() {
+        ctx         = getGraphicsContext2D();
+        indices     = new IdentityHashMap<>(INITIAL_CAPACITY);
+        items       = new Object[INITIAL_CAPACITY];
+        mapX        = new double[INITIAL_CAPACITY];
+        mapY        = new double[INITIAL_CAPACITY];
+        colors      = new Color[INITIAL_CAPACITY];
+        cellOf      = new int[INITIAL_CAPACITY];
+        next        = new int[INITIAL_CAPACITY];
+        prev        = new int[INITIAL_CAPACITY];
+        scaleX      = 1;
+        scaleY      = 1;
+        radius      = 3;
+        widthProperty().addListener(o -> rebuild());
+        heightProperty().addListener(o -> rebuild());
+        rebuild();
+    }
+
+
+    // ******************** Methods *******************************************
+    @Override public boolean isResizable() { return false; }
+
+    /**
+     * Adds a marker for the given item at the given position or moves the
+     * marker of the item if it was already added. The items are compared
+     * by identity.
+     * @param ITEM
+     * @param LATITUDE
+     * @param LONGITUDE
+     * @param COLOR
+     */
+    public void add(final Object ITEM, final double LATITUDE, final double LONGITUDE, final Color COLOR) {
+        if (indices.containsKey(ITEM)) {
+            update(ITEM, LATITUDE, LONGITUDE, COLOR);
+            return;
+        }
+        ensureCapacity(noOfMarkers + 1);
+        final int      id = noOfMarkers++;
+        final double[] xy = Helper.latLonToXY(LATITUDE, LONGITUDE);
+        items[id]  = ITEM;
+        mapX[id]   = xy[0];
+        mapY[id]   = xy[1];
+        colors[id] = COLOR;
+        indices.put(ITEM, id);
+        link(id);
+        markDirty(cellOf[id]);
+    }
+
+    /**
+     * Moves the marker of the given item to the given position, only the
+     * cells the marker left and entered will be redrawn.
+     * @param ITEM
+     * @param LATITUDE
+     * @param LONGITUDE
+     * @param COLOR
+     */
+    public void update(final Object ITEM, final double LATITUDE, final double LONGITUDE, final Color COLOR) {
+        final Integer index = indices.get(ITEM);
+        if (null == index) { return; }
+        final int      id = index;
+        final double[] xy = Helper.latLonToXY(LATITUDE, LONGITUDE);
+        markDirty(cellOf[id]);
+        unlink(id);
+        mapX[id]   = xy[0];
+        mapY[id]   = xy[1];
+        colors[id] = COLOR;
+        link(id);
+        markDirty(cellOf[id]);
+    }
+
+    public void remove(final Object ITEM) {
+        final Integer index = indices.remove(ITEM);
+        if (null == index) { return; }
+        final int id = index;
+        markDirty(cellOf[id]);
+        unlink(id);
+        final int last = --noOfMarkers;
+        if (id != last) {
+            // Move the last marker into the free slot, its position and cell don't change
+            unlink(last);
+            items[id]  = items[last];
+            mapX[id]   = mapX[last];
+            mapY[id]   = mapY[last];
+            colors[id] = colors[last];
+            indices.put(items[id], id);
+            link(id);
+        }
+        items[last]  = null;
+        colors[last] = null;
+    }
+
+    public void clear() {
+        indices.clear();
+        Arrays.fill(items, 0, noOfMarkers, null);
+        Arrays.fill(colors, 0, noOfMarkers, null);
+        noOfMarkers = 0;
+        Arrays.fill(cellHead, NONE);
+        Arrays.fill(cellCount, 0);
+        Arrays.fill(cellSumX, 0);
+        Arrays.fill(cellSumY, 0);
+        requestRedrawAll();
+    }
+
+    public int getNoOfMarkers() { return noOfMarkers; }
+
+    /**
+     * Removes all markers and stops the pending redraw.
+     */
+    public void dispose() {
+        clear();
+        redrawAll = false;
+        updateTimer();
+    }
+
+    /**
+     * Defines the transform from map coordinates (see Helper.latLonToXY())
+     * to canvas coordinates and the radius of the markers. Changing it
+     * relinks all markers and redraws the whole canvas.
+     * @param SCALE_X
+     * @param SCALE_Y
+     * @param OFFSET_X
+     * @param OFFSET_Y
+     * @param RADIUS
+     */
+    public void setTransform(final double SCALE_X, final double SCALE_Y, final double OFFSET_X, final double OFFSET_Y, final double RADIUS) {
+        if (Double.compare(scaleX, SCALE_X) == 0 && Double.compare(scaleY, SCALE_Y) == 0 && Double.compare(offsetX, OFFSET_X) == 0 &&
+            Double.compare(offsetY, OFFSET_Y) == 0 && Double.compare(radius, RADIUS) == 0) { return; }
+        scaleX  = SCALE_X;
+        scaleY  = SCALE_Y;
+        offsetX = OFFSET_X;
+        offsetY = OFFSET_Y;
+        radius  = RADIUS;
+        rebuild();
+    }
+
+    /**
+     * Returns true if all markers of a cell of the grid are drawn as one
+     * bubble with the number of markers (default is false).
+     * @return true if the markers of a cell are drawn as one bubble
+     */
+    public boolean isClusteringEnabled() { return clusteringEnabled; }
+    public void setClusteringEnabled(final boolean ENABLED) {
+        if (clusteringEnabled == ENABLED) { return; }
+        clusteringEnabled = ENABLED;
+        requestRedrawAll();
+    }
+
+    /**
+     * Returns the item of the marker at the given canvas position or null.
+     * If the position is on a cluster the item of the marker of the
+     * cluster that is closest to the position will be returned.
+     * @param X
+     * @param Y
+     * @return the item of the marker at the given position or null
+     */
+    public Object pick(final double X, final double Y) {
+        final double hitRadius = Math.max(radius, MIN_HIT_RADIUS);
+        final int    col       = Helper.clamp(0, cols - 1, (int) Math.floor(X / cellSize));
+        final int    row       = Helper.clamp(0, rows - 1, (int) Math.floor(Y / cellSize));
+        int    closest         = NONE;
+        double closestDistance = Double.MAX_VALUE;
+        for (int r = Math.max(0, row - 1) ; r <= Math.min(rows - 1, row + 1) ; r++) {
+            for (int c = Math.max(0, col - 1) ; c <= Math.min(cols - 1, col + 1) ; c++) {
+                final int cell = r * cols + c;
+                final int count = cellCount[cell];
+                if (0 == count) { continue; }
+                final boolean cluster = clusteringEnabled && count > 1;
+                if (cluster) {
+                    final double dx = X - cellSumX[cell] / count;
+                    final double dy = Y - cellSumY[cell] / count;
+                    final double br = Math.max(clusterRadius(count), MIN_HIT_RADIUS);
+                    if (dx * dx + dy * dy > br * br) { continue; }
+                }
+                for (int id = cellHead[cell] ; id != NONE ; id = next[id]) {
+                    final double dx       = X - x(id);
+                    final double dy       = Y - y(id);
+                    final double distance = dx * dx + dy * dy;
+                    if ((cluster || distance <= hitRadius * hitRadius) && distance < closestDistance) {
+                        closest         = id;
+                        closestDistance = distance;
+                    }
+                }
+            }
+        }
+        return NONE == closest ? null : items[closest];
+    }
+
+    /**
+     * Returns the number of markers in the cluster of the given item or 1
+     * if the marker of the item is not part of a cluster.
+     * @param ITEM
+     * @return the number of markers in the cluster of the given item
+     */
+    public int getClusterSize(final Object ITEM) {
+        final Integer index = indices.get(ITEM);
+        if (null == index || !clusteringEnabled) { return 1; }
+        return Math.max(1, cellCount[cellOf[index]]);
+    }
+
+    private double x(final int ID) { return mapX[ID] * scaleX + offsetX; }
+
+    private double y(final int ID) { return mapY[ID] * scaleY + offsetY; }
+
+    private double clusterRadius(final int COUNT) { return Math.min(cellSize * 0.5, radius * (2 + 2 * Math.log10(COUNT))); }
+
+    private void link(final int ID) {
+        final double x    = x(ID);
+        final double y    = y(ID);
+        final int    cell = Helper.clamp(0, rows - 1, (int) Math.floor(y / cellSize)) * cols + Helper.clamp(0, cols - 1, (int) Math.floor(x / cellSize));
+        final int    head = cellHead[cell];
+        next[ID]        = head;
+        prev[ID]        = NONE;
+        if (NONE != head) { prev[head] = ID; }
+        cellHead[cell]  = ID;
+        cellOf[ID]      = cell;
+        cellCount[cell]++;
+        cellSumX[cell] += x;
+        cellSumY[cell] += y;
+    }
+
+    private void unlink(final int ID) {
+        final int cell = cellOf[ID];
+        if (NONE == prev[ID]) {
+            cellHead[cell] = next[ID];
+        } else {
+            next[prev[ID]] = next[ID];
+        }
+        if (NONE != next[ID]) { prev[next[ID]] = prev[ID]; }
+        if (--cellCount[cell] == 0) {
+            // Avoids the accumulation of rounding errors in empty cells
+            cellSumX[cell] = 0;
+            cellSumY[cell] = 0;
+        } else {
+            cellSumX[cell] -= x(ID);
+            cellSumY[cell] -= y(ID);
+        }
+    }
+
+    private void rebuild() {
+        cellSize = Math.max(MIN_CELL_SIZE, radius * 6);
+        cols     = Math.max(1, (int) Math.ceil(getWidth() / cellSize));
+        rows     = Math.max(1, (int) Math.ceil(getHeight() / cellSize));
+        final int noOfCells = cols * rows;
+        if (null == cellHead || cellHead.length < noOfCells) {
+            cellHead   = new int[noOfCells];
+            cellCount  = new int[noOfCells];
+            cellSumX   = new double[noOfCells];
+            cellSumY   = new double[noOfCells];
+            dirty      = new boolean[noOfCells];
+            dirtyCells = new int[noOfCells];
+        }
+        Arrays.fill(cellHead, NONE);
+        Arrays.fill(cellCount, 0);
+        Arrays.fill(cellSumX, 0);
+        Arrays.fill(cellSumY, 0);
+        for (int id = 0 ; id < noOfMarkers ; id++) { link(id); }
+        requestRedrawAll();
+    }
+
+    private void ensureCapacity(final int CAPACITY) {
+        if (CAPACITY <= items.length) { return; }
+        final int capacity = Math.max(CAPACITY, items.length * 2);
+        items  = Arrays.copyOf(items, capacity);
+        mapX   = Arrays.copyOf(mapX, capacity);
+        mapY   = Arrays.copyOf(mapY, capacity);
+        colors = Arrays.copyOf(colors, capacity);
+        cellOf = Arrays.copyOf(cellOf, capacity);
+        next   = Arrays.copyOf(next, capacity);
+        prev   = Arrays.copyOf(prev, capacity);
+    }
+
+    private void markDirty(final int CELL) {
+        if (redrawAll || dirty[CELL]) { return; }
+        // Redrawing the whole canvas is cheaper than redrawing most of the cells one by one
+        if (noOfDirtyCells > cols * rows / 4) {
+            requestRedrawAll();
+            return;
+        }
+        dirty[CELL]                  = true;
+        dirtyCells[noOfDirtyCells++] = CELL;
+        updateTimer();
+    }
+
+    private void requestRedrawAll() {
+        redrawAll = true;
+        updateTimer();
+    }
+
+    /**
+     * Redraws the pending dirty cells right away instead of waiting for the next pulse.
+     */
+    void drawPendingChanges() {
+        draw();
+        updateTimer();
+    }
+
+    private void draw() {
+        if (redrawAll) {
+            ctx.clearRect(0, 0, getWidth(), getHeight());
+            for (int cell = 0 ; cell < cols * rows ; cell++) { drawCell(cell); }
+        } else {
+            // Markers and clusters reach into the neighbour cells, so the cell is cleared with a margin of their max. overhang
+            // (plus one pixel for antialiasing) and all cells that can draw into this area are drawn again
+            final double margin = (clusteringEnabled ? cellSize * 0.5 : radius) + 1;
+            final double extent = cellSize + 2 * margin;
+            final int    reach  = (int) Math.ceil(2 * margin / cellSize);
+            for (int i = 0 ; i < noOfDirtyCells ; i++) {
+                final int    cell = dirtyCells[i];
+                final int    col  = cell % cols;
+                final int    row  = cell / cols;
+                final double x    = col * cellSize - margin;
+                final double y    = row * cellSize - margin;
+                ctx.save();
+                ctx.beginPath();
+                ctx.rect(x, y, extent, extent);
+                ctx.clip();
+                ctx.clearRect(x, y, extent, extent);
+                for (int r = Math.max(0, row - reach) ; r <= Math.min(rows - 1, row + reach) ; r++) {
+                    for (int c = Math.max(0, col - reach) ; c <= Math.min(cols - 1, col + reach) ; c++) { drawCell(r * cols + c); }
+                }
+                ctx.restore();
+            }
+        }
+        for (int i = 0 ; i < noOfDirtyCells ; i++) { dirty[dirtyCells[i]] = false; }
+        noOfDirtyCells = 0;
+        redrawAll      = false;
+    }
+
+    private void drawCell(final int CELL) {
+        final int count = cellCount[CELL];
+        if (0 == count) { return; }
+        if (clusteringEnabled && count > 1) {
+            final double x = cellSumX[CELL] / count;
+            final double y = cellSumY[CELL] / count;
+            final double r = clusterRadius(count);
+            ctx.setFill(colors[cellHead[CELL]]);
+            ctx.fillOval(x - r, y - r, 2 * r, 2 * r);
+            if (r >= 6) {
+                ctx.setFill(Helper.isDark(colors[cellHead[CELL]]) ? Color.WHITE : Color.BLACK);
+                ctx.setFont(Fonts.latoRegular(r));
+                ctx.setTextAlign(TextAlignment.CENTER);
+                ctx.setTextBaseline(VPos.CENTER);
+                ctx.fillText(Integer.toString(count), x, y, 2 * r);
+            }
+        } else {
+            final double d = 2 * radius;
+            for (int id = cellHead[CELL] ; id != NONE ; id = next[id]) {
+                ctx.setFill(colors[id]);
+                ctx.fillOval(x(id) - radius, y(id) - radius, d, d);
+            }
+        }
+    }
+
+    private void updateTimer() {
+        final boolean hasChanges = redrawAll || noOfDirtyCells > 0;
+        if (hasChanges && !timerRunning) {
+            if (null == timer) {
+                timer = new AnimationTimer() {
+                    @Override public void handle(final long NOW) { drawPendingChanges(); }
+                };
+            }
+            timer.start();
+            timerRunning = true;
+        } else if (!hasChanges && timerRunning) {
+            timer.stop();
+            timerRunning = false;
+        }
+    }
+}
@@ -101,5 +101,8 @@ public class MovingAverage {
 
     public boolean isFilling() { return window.size() < period; }
 
-    public void reset() { window.clear(); }
+    public void reset() {
+        window.clear();
+        sum = 0;
+    }
 }
@@ -0,0 +1,241 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+import java.util.Random;
+
+
+/**
+ * Particle engine for sprite based effects like Fire and Smoke.
+ * The particle data is stored in primitive arrays (one array per
+ * attribute) and dead particles are put on a free list so that
+ * emitting and updating particles doesn't allocate anything.
+ * Updating and rendering are separate steps. For rendering, each
+ * particle is drawn with drawImage(x, y, w, h) from a pre-scaled
+ * version of the sprite (mipmap) that matches its size, no
+ * transformations are pushed to the GraphicsContext.
+ */
+public class ParticleSystem {
+    public enum Decay { LINEAR, EXPONENTIAL }
+
+    private static final Random    RND         = new Random();
+    private static final double[]  MIP_SCALES  = { 1.0, 0.75, 0.5 };
+    private static final double    MIN_OPACITY = 0.01;
+    private        final int       capacity;
+    private        final Image[]   mipmaps;
+    private        final double    spriteWidth;
+    private        final double    spriteHeight;
+    private        final double    vxRange;
+    private        final double    vyRange;
+    private        final Decay     decay;
+    private        final double    decayFactor;
+    private        final double[]  x;
+    private        final double[]  y;
+    private        final double[]  vx;
+    private        final double[]  vy;
+    private        final double[]  size;
+    private        final double[]  life;
+    private        final double[]  remainingLife;
+    private        final double[]  opacity;
+    private        final int[]     mip;
+    private        final boolean[] alive;
+    private        final int[]     freeList;
+    private              int       freeCount;
+    private              int       highWater;
+    private              int       aliveCount;
+
+
+    // ******************** Constructors **************************************
+    /**
+     * @param CAPACITY max. number of particles
+     * @param SPRITE the image that will be drawn for each particle
+     * @param VX_RANGE horizontal velocity will be between -VX_RANGE / 2 and VX_RANGE / 2
+     * @param VY_RANGE vertical velocity will be between -VY_RANGE and 0
+     * @param DECAY LINEAR subtracts DECAY_FACTOR from the remaining life per update, EXPONENTIAL multiplies it with DECAY_FACTOR
+     * @param DECAY_FACTOR
+     */
+    public ParticleSystem(final int CAPACITY, final Image SPRITE, final double VX_RANGE, final double VY_RANGE, final Decay DECAY, final double DECAY_FACTOR) {
+        capacity      = CAPACITY;
+        mipmaps       = createMipmaps(SPRITE);
+        spriteWidth   = SPRITE.getWidth();
+        spriteHeight  = SPRITE.getHeight();
+        vxRange       = VX_RANGE;
+        vyRange       = VY_RANGE;
+        decay         = DECAY;
+        decayFactor   = DECAY_FACTOR;
+        x             = new double[CAPACITY];
+        y             = new double[CAPACITY];
+        vx            = new double[CAPACITY];
+        vy            = new double[CAPACITY];
+        size          = new double[CAPACITY];
+        life          = new double[CAPACITY];
+        remainingLife = new double[CAPACITY];
+        opacity       = new double[CAPACITY];
+        mip           = new int[CAPACITY];
+        alive         = new boolean[CAPACITY];
+        freeList      = new int[CAPACITY];
+        clear();
+    }
+
+
+    // ******************** Methods *******************************************
+    public int getCapacity() { return capacity; }
+
+    public int getAliveCount() { return aliveCount; }
+
+    public boolean isEmpty() { return 0 == aliveCount; }
+
+    public boolean isFull() { return aliveCount == capacity; }
+
+    /**
+     * Emits a new particle at a random position below the bottom
+     * of the given area.
+     * @param WIDTH
+     * @param HEIGHT
+     * @return false if all particles are alive
+     */
+    public boolean emit(final double WIDTH, final double HEIGHT) {
+        final int index;
+        if (freeCount > 0) {
+            index = freeList[--freeCount];
+        } else if (highWater < capacity) {
+            index = highWater++;
+        } else {
+            return false;
+        }
+        alive[index] = true;
+        aliveCount++;
+        spawn(index, WIDTH, HEIGHT);
+        return true;
+    }
+
+    /**
+     * Moves all particles and lets them age. Particles that faded out
+     * will be respawned if RESPAWN is true and put on the free list
+     * otherwise.
+     * @param RESPAWN
+     * @param WIDTH
+     * @param HEIGHT
+     */
+    public void update(final boolean RESPAWN, final double WIDTH, final double HEIGHT) {
+        final boolean linear = Decay.LINEAR == decay;
+        for (int i = 0 ; i < highWater ; i++) {
+            if (!alive[i]) { continue; }
+            opacity[i]        = remainingLife[i] / life[i] * 0.5;
+            x[i]             += vx[i];
+            y[i]             += vy[i];
+            remainingLife[i]  = linear ? remainingLife[i] - decayFactor : remainingLife[i] * decayFactor;
+            if (remainingLife[i] < 0 || opacity[i] < MIN_OPACITY) {
+                if (RESPAWN) {
+                    spawn(i, WIDTH, HEIGHT);
+                } else {
+                    alive[i]              = false;
+                    freeList[freeCount++] = i;
+                    aliveCount--;
+                }
+            }
+        }
+    }
+
+    public void render(final GraphicsContext CTX) {
+        for (int i = 0 ; i < highWater ; i++) {
+            if (!alive[i] || opacity[i] < MIN_OPACITY) { continue; }
+            final double w = spriteWidth * size[i];
+            final double h = spriteHeight * size[i];
+            CTX.setGlobalAlpha(opacity[i]);
+            CTX.drawImage(mipmaps[mip[i]], x[i] - w * 0.5, y[i] - h * 0.5, w, h);
+        }
+        CTX.setGlobalAlpha(1.0);
+    }
+
+    public void clear() {
+        for (int i = 0 ; i < capacity ; i++) { alive[i] = false; }
+        freeCount  = 0;
+        highWater  = 0;
+        aliveCount = 0;
+    }
+
+    private void spawn(final int INDEX, final double WIDTH, final double HEIGHT) {
+        x[INDEX]             = RND.nextDouble() * WIDTH;
+        y[INDEX]             = HEIGHT + spriteHeight * 0.5;
+        vx[INDEX]            = (RND.nextDouble() - 0.5) * vxRange;
+        vy[INDEX]            = -(RND.nextDouble() * vyRange);
+        size[INDEX]          = RND.nextDouble() + 0.5;
+        life[INDEX]          = (RND.nextDouble() * 20) + 40;
+        remainingLife[INDEX] = life[INDEX];
+        opacity[INDEX]       = 0.5;
+        mip[INDEX]           = mipLevel(size[INDEX]);
+    }
+
+    // The smallest pre-scaled sprite that is still at least as large as the particle
+    private int mipLevel(final double SCALE) {
+        for (int level = mipmaps.length - 1 ; level > 0 ; level--) {
+            if (MIP_SCALES[level] >= SCALE) { return level; }
+        }
+        return 0;
+    }
+
+    private static Image[] createMipmaps(final Image SPRITE) {
+        final PixelReader reader = SPRITE.getPixelReader();
+        if (null == reader) { return new Image[] { SPRITE }; }
+        final Image[] mipmaps = new Image[MIP_SCALES.length];
+        mipmaps[0] = SPRITE;
+        for (int level = 1 ; level < MIP_SCALES.length ; level++) {
+            mipmaps[level] = scale(reader, (int) SPRITE.getWidth(), (int) SPRITE.getHeight(), MIP_SCALES[level]);
+        }
+        return mipmaps;
+    }
+
+    // Box filter: each target pixel is the average of the source pixels it covers
+    private static Image scale(final PixelReader READER, final int WIDTH, final int HEIGHT, final double SCALE) {
+        final int           targetWidth  = Math.max(1, (int) Math.round(WIDTH * SCALE));
+        final int           targetHeight = Math.max(1, (int) Math.round(HEIGHT * SCALE));
+        final WritableImage image        = new WritableImage(targetWidth, targetHeight);
+        final PixelWriter   writer       = image.getPixelWriter();
+        for (int ty = 0 ; ty < targetHeight ; ty++) {
+            final int y0 = ty * HEIGHT / targetHeight;
+            final int y1 = Math.max(y0 + 1, (ty + 1) * HEIGHT / targetHeight);
+            for (int tx = 0 ; tx < targetWidth ; tx++) {
+                final int x0 = tx * WIDTH / targetWidth;
+                final int x1 = Math.max(x0 + 1, (tx + 1) * WIDTH / targetWidth);
+                long a = 0, r = 0, g = 0, b = 0;
+                for (int sy = y0 ; sy < y1 ; sy++) {
+                    for (int sx = x0 ; sx < x1 ; sx++) {
+                        final int argb  = READER.getArgb(sx, sy);
+                        final int alpha = (argb >>> 24) & 0xff;
+                        // Premultiply to avoid dark fringes at transparent edges
+                        a += alpha;
+                        r += ((argb >> 16) & 0xff) * alpha;
+                        g += ((argb >> 8) & 0xff) * alpha;
+                        b += (argb & 0xff) * alpha;
+                    }
+                }
+                final int count = (y1 - y0) * (x1 - x0);
+                final int argb  = 0 == a ? 0 : (int) (a / count) << 24 | (int) (r / a) << 16 | (int) (g / a) << 8 | (int) (b / a);
+                writer.setArgb(tx, ty, argb);
+            }
+        }
+        return image;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+
+/**
+ * Writes JavaFX images as PNG files (8 bit RGBA) without the need of
+ * javafx.swing and ImageIO. The rows are compressed without a filter and
+ * with the fastest compression level, which is a good tradeoff for
+ * rendered tiles with large areas of the same color.
+ * The images can be encoded on any thread.
+ */
+public final class PngEncoder {
+    private static final byte[] SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+
+
+    // ******************** Constructors **************************************
+    private PngEncoder() {}
+
+
+    // ******************** Methods *******************************************
+    public static byte[] encode(final Image IMAGE) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            write(IMAGE, bytes);
+        } catch (IOException e) {
+            // Can't happen when writing to a byte array
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static void write(final Image IMAGE, final Path FILE) throws IOException {
+        try (OutputStream out = Files.newOutputStream(FILE)) { write(IMAGE, out); }
+    }
+
+    public static void write(final Image IMAGE, final OutputStream OUT) throws IOException {
+        final int         width  = (int) IMAGE.getWidth();
+        final int         height = (int) IMAGE.getHeight();
+        final PixelReader reader = IMAGE.getPixelReader();
+        final int[]       argb   = new int[width];
+        final byte[]      row    = new byte[1 + width * 4]; // filter type 0 followed by the pixels
+
+        final ByteArrayOutputStream data     = new ByteArrayOutputStream(width * height);
+        final Deflater              deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(data, deflater, 8192)) {
+            for (int y = 0 ; y < height ; y++) {
+                reader.getPixels(0, y, width, 1, PixelFormat.getIntArgbInstance(), argb, 0, width);
+                for (int x = 0, i = 1 ; x < width ; x++) {
+                    final int pixel = argb[x];
+                    row[i++] = (byte) (pixel >> 16);
+                    row[i++] = (byte) (pixel >> 8);
+                    row[i++] = (byte) pixel;
+                    row[i++] = (byte) (pixel >>> 24);
+                }
+                out.write(row);
+            }
+        } finally {
+            deflater.end();
+        }
+
+        final ByteArrayOutputStream header = new ByteArrayOutputStream(13);
+        final DataOutputStream      ihdr   = new DataOutputStream(header);
+        ihdr.writeInt(width);
+        ihdr.writeInt(height);
+        ihdr.writeByte(8); // bit depth
+        ihdr.writeByte(6); // color type RGBA
+        ihdr.writeByte(0); // compression
+        ihdr.writeByte(0); // filter
+        ihdr.writeByte(0); // no interlace
+
+        final DataOutputStream out = new DataOutputStream(OUT);
+        out.write(SIGNATURE);
+        writeChunk(out, "IHDR", header.toByteArray());
+        writeChunk(out, "IDAT", data.toByteArray());
+        writeChunk(out, "IEND", new byte[0]);
+        out.flush();
+    }
+
+    private static void writeChunk(final DataOutputStream OUT, final String TYPE, final byte[] DATA) throws IOException {
+        final byte[] type = { (byte) TYPE.charAt(0), (byte) TYPE.charAt(1), (byte) TYPE.charAt(2), (byte) TYPE.charAt(3) };
+        final CRC32  crc  = new CRC32();
+        crc.update(type);
+        crc.update(DATA);
+        OUT.writeInt(DATA.length);
+        OUT.write(type);
+        OUT.write(DATA);
+        OUT.writeInt((int) crc.getValue());
+    }
+}
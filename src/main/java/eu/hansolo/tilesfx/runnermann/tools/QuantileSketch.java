@@ -0,0 +1,233 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import eu.hansolo.tilesfx.runnermann.chart.ChartData;
+
+import java.util.Arrays;
+
+
+/**
+ * Streaming quantile estimator with a guaranteed relative accuracy
+ * (logarithmic buckets as described for DDSketch by Masson et al.).
+ * Every value is counted in a bucket [gamma^(i-1), gamma^i) with
+ * gamma = (1 + accuracy) / (1 - accuracy), so each estimated quantile
+ * is within the given relative accuracy of the exact quantile
+ * (e.g. 0.01 means +/- 1%). Memory only depends on the range of the
+ * values, not on their number.
+ * Because values are only counted, they can also be removed again
+ * (e.g. when they drop out of a sliding window) and sketches with
+ * the same accuracy can be merged.
+ */
+public class QuantileSketch {
+    public  static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+    private        final double relativeAccuracy;
+    private        final double gamma;
+    private        final double multiplier;
+    private        final double minIndexableValue;
+    private        final Store  positiveStore;
+    private        final Store  negativeStore;
+    private              long   zeroCount;
+
+
+    // ******************** Constructors **************************************
+    public QuantileSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY);
+    }
+    public QuantileSketch(final double RELATIVE_ACCURACY) {
+        if (RELATIVE_ACCURACY <= 0 || RELATIVE_ACCURACY >= 1) { throw new IllegalArgumentException("Relative accuracy must be between 0 and 1 (exclusive)"); }
+        relativeAccuracy  = RELATIVE_ACCURACY;
+        gamma             = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+        multiplier        = 1.0 / Math.log(gamma);
+        minIndexableValue = Double.MIN_NORMAL * gamma;
+        positiveStore     = new Store();
+        negativeStore     = new Store();
+        zeroCount         = 0;
+    }
+    public QuantileSketch(final QuantileSketch SKETCH) {
+        this(SKETCH.relativeAccuracy);
+        merge(SKETCH);
+    }
+
+
+    // ******************** Methods *******************************************
+    public double getRelativeAccuracy() { return relativeAccuracy; }
+
+    public void add(final double VALUE) {
+        if (Double.isNaN(VALUE) || Double.isInfinite(VALUE)) { return; }
+        if (VALUE > minIndexableValue) {
+            positiveStore.add(index(VALUE), 1);
+        } else if (VALUE < -minIndexableValue) {
+            negativeStore.add(index(-VALUE), 1);
+        } else {
+            zeroCount++;
+        }
+    }
+    public void add(final ChartData DATA) { add(DATA.getValue()); }
+    public void addAll(final double... VALUES) {
+        for (double value : VALUES) { add(value); }
+    }
+
+    /**
+     * Removes a value that was added before.
+     * @param VALUE
+     * @return true if a matching value was found and removed
+     */
+    public boolean remove(final double VALUE) {
+        if (Double.isNaN(VALUE) || Double.isInfinite(VALUE)) { return false; }
+        if (VALUE > minIndexableValue) {
+            return positiveStore.remove(index(VALUE));
+        } else if (VALUE < -minIndexableValue) {
+            return negativeStore.remove(index(-VALUE));
+        } else if (zeroCount > 0) {
+            zeroCount--;
+            return true;
+        }
+        return false;
+    }
+    public boolean remove(final ChartData DATA) { return remove(DATA.getValue()); }
+
+    /**
+     * Adds all values that were counted by the given sketch. Both sketches
+     * must have the same relative accuracy.
+     * @param SKETCH
+     */
+    public void merge(final QuantileSketch SKETCH) {
+        if (null == SKETCH) { return; }
+        if (Double.compare(relativeAccuracy, SKETCH.relativeAccuracy) != 0) { throw new IllegalArgumentException("Sketches with different relative accuracy cannot be merged"); }
+        positiveStore.merge(SKETCH.positiveStore);
+        negativeStore.merge(SKETCH.negativeStore);
+        zeroCount += SKETCH.zeroCount;
+    }
+
+    public void clear() {
+        positiveStore.clear();
+        negativeStore.clear();
+        zeroCount = 0;
+    }
+
+    public long getCount() { return negativeStore.total + zeroCount + positiveStore.total; }
+
+    public boolean isEmpty() { return 0 == getCount(); }
+
+    /**
+     * Returns the estimated value at the given quantile (0.0 - 1.0)
+     * or Double.NaN if the sketch is empty.
+     * @param QUANTILE
+     * @return the estimated value at the given quantile
+     */
+    public double getQuantile(final double QUANTILE) {
+        final long count = getCount();
+        if (0 == count || QUANTILE < 0 || QUANTILE > 1) { return Double.NaN; }
+        final long rank = (long) (QUANTILE * (count - 1));
+
+        // Negative values: the highest index holds the smallest values
+        long seen = 0;
+        if (rank < negativeStore.total) {
+            for (int i = negativeStore.counts.length - 1 ; i >= 0 ; i--) {
+                seen += negativeStore.counts[i];
+                if (seen > rank) { return -value(i + negativeStore.offset); }
+            }
+        }
+        seen = negativeStore.total + zeroCount;
+        if (rank < seen) { return 0; }
+        for (int i = 0 ; i < positiveStore.counts.length ; i++) {
+            seen += positiveStore.counts[i];
+            if (seen > rank) { return value(i + positiveStore.offset); }
+        }
+        return Double.NaN;
+    }
+
+    public double getMedian() { return getQuantile(0.5); }
+
+    /**
+     * Returns the estimated value below which the given percentage
+     * (0 - 100) of the values fall.
+     * @param PERCENTILE
+     * @return the estimated value at the given percentile
+     */
+    public double getPercentile(final double PERCENTILE) { return getQuantile(PERCENTILE / 100.0); }
+
+    public double getMin() { return getQuantile(0); }
+
+    public double getMax() { return getQuantile(1); }
+
+    private int index(final double VALUE) { return (int) Math.ceil(Math.log(VALUE) * multiplier); }
+
+    // The value in the middle of the bucket in terms of relative error
+    private double value(final int INDEX) { return 2.0 * Math.pow(gamma, INDEX) / (gamma + 1); }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Dense counters for a contiguous range of bucket indices that
+     * grows on demand.
+     */
+    private static class Store {
+        private long[] counts = new long[0];
+        private int    offset;
+        private long   total;
+
+
+        // ******************** Methods *******************************************
+        void add(final int INDEX, final long COUNT) {
+            ensureCapacity(INDEX);
+            counts[INDEX - offset] += COUNT;
+            total                  += COUNT;
+        }
+
+        boolean remove(final int INDEX) {
+            final int i = INDEX - offset;
+            if (i < 0 || i >= counts.length || 0 == counts[i]) { return false; }
+            counts[i]--;
+            total--;
+            return true;
+        }
+
+        void merge(final Store STORE) {
+            if (0 == STORE.total) { return; }
+            for (int i = 0 ; i < STORE.counts.length ; i++) {
+                if (STORE.counts[i] > 0) { add(i + STORE.offset, STORE.counts[i]); }
+            }
+        }
+
+        void clear() {
+            counts = new long[0];
+            offset = 0;
+            total  = 0;
+        }
+
+        private void ensureCapacity(final int INDEX) {
+            if (0 == counts.length) {
+                counts = new long[16];
+                offset = INDEX - 8;
+                return;
+            }
+            if (INDEX < offset) {
+                final int    grow      = Math.max(offset - INDEX, counts.length / 2);
+                final long[] newCounts = new long[counts.length + grow];
+                System.arraycopy(counts, 0, newCounts, grow, counts.length);
+                counts  = newCounts;
+                offset -= grow;
+            } else if (INDEX >= offset + counts.length) {
+                final int grow = Math.max(INDEX - offset - counts.length + 1, counts.length / 2);
+                counts = Arrays.copyOf(counts, counts.length + grow);
+            }
+        }
+    }
+}
@@ -17,7 +17,8 @@
  */
 package eu.hansolo.tilesfx.runnermann.tools;
 
-import javafx.animation.AnimationTimer;
+import eu.hansolo.tilesfx.runnermann.EffectScheduler;
+import eu.hansolo.tilesfx.runnermann.EffectScheduler.Registration;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.DoublePropertyBase;
 import javafx.beans.property.ObjectProperty;
@@ -46,8 +47,7 @@ public class RotationEffect extends Region {
     private              Canvas                canvas;
     private              GraphicsContext       ctx;
     private              double                angle;
-    private              long                  lastTimerCall;
-    private              AnimationTimer        timer;
+    private              Registration          timer;
     private              boolean               isRunning;
     private              Color                 _color;
     private              ObjectProperty<Color> color;
@@ -64,16 +64,7 @@ public class RotationEffect extends Region {
     }
     public RotationEffect(final Color color, final double alpha, final double centerX, final double centerY) {
         angle         = 0;
-        lastTimerCall = System.nanoTime();
-        timer         = new AnimationTimer() {
-            @Override
-            public void handle(final long now) {
-                if (now > lastTimerCall + 20_000_000l) {
-                    redraw();
-                    lastTimerCall = now;
-                }
-            }
-        };
+        timer         = EffectScheduler.getDefault().register(this, 50, now -> redraw());
         isRunning     = false;
         _color        = color;
         _alpha        = alpha;
@@ -127,6 +118,15 @@ public class RotationEffect extends Region {
         isRunning = false;
     }
 
+    /**
+     * Removes the effect from the EffectScheduler, the effect can't
+     * be started again afterwards.
+     */
+    public void dispose() {
+        stop();
+        timer.unregister();
+    }
+
     public Color getColor() { return null == color ? _color : color.get(); }
     public void setColor(final Color color) {
         if (null == this.color) {
@@ -0,0 +1,139 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import eu.hansolo.tilesfx.runnermann.chart.ChartData;
+
+
+/**
+ * Incremental count, mean and variance (Welford's algorithm) that
+ * can be updated value by value without keeping the values around.
+ * Values can also be removed again (e.g. when they drop out of a
+ * sliding window) and two instances can be merged (Chan et al.),
+ * e.g. to combine statistics that were collected in parallel.
+ */
+public class RunningStatistics {
+    private long   count;
+    private double mean;
+    private double m2;
+
+
+    // ******************** Constructors **************************************
+    public RunningStatistics() {
+        reset();
+    }
+    public RunningStatistics(final double... VALUES) {
+        reset();
+        addAll(VALUES);
+    }
+    public RunningStatistics(final RunningStatistics STATISTICS) {
+        count = STATISTICS.count;
+        mean  = STATISTICS.mean;
+        m2    = STATISTICS.m2;
+    }
+
+
+    // ******************** Methods *******************************************
+    public void add(final double VALUE) {
+        if (Double.isNaN(VALUE)) { return; }
+        count++;
+        final double delta = VALUE - mean;
+        mean += delta / count;
+        m2   += delta * (VALUE - mean);
+    }
+    public void add(final ChartData DATA) { add(DATA.getValue()); }
+    public void addAll(final double... VALUES) {
+        for (double value : VALUES) { add(value); }
+    }
+
+    /**
+     * Removes a value that was added before. Removing a value that was
+     * never added leads to wrong results.
+     * @param VALUE
+     */
+    public void remove(final double VALUE) {
+        if (Double.isNaN(VALUE) || 0 == count) { return; }
+        if (1 == count) {
+            reset();
+            return;
+        }
+        final double delta = VALUE - mean;
+        count--;
+        mean -= delta / count;
+        m2   -= delta * (VALUE - mean);
+        // Rounding errors must not lead to a negative variance
+        if (m2 < 0) { m2 = 0; }
+    }
+    public void remove(final ChartData DATA) { remove(DATA.getValue()); }
+
+    /**
+     * Adds all values that were collected by the given statistics.
+     * @param STATISTICS
+     */
+    public void merge(final RunningStatistics STATISTICS) {
+        if (null == STATISTICS || 0 == STATISTICS.count) { return; }
+        if (0 == count) {
+            count = STATISTICS.count;
+            mean  = STATISTICS.mean;
+            m2    = STATISTICS.m2;
+            return;
+        }
+        final long   total = count + STATISTICS.count;
+        final double delta = STATISTICS.mean - mean;
+        m2   += STATISTICS.m2 + delta * delta * ((double) count * STATISTICS.count / total);
+        mean += delta * STATISTICS.count / total;
+        count = total;
+    }
+
+    public void reset() {
+        count = 0;
+        mean  = 0;
+        m2    = 0;
+    }
+
+    public long getCount() { return count; }
+
+    public boolean isEmpty() { return 0 == count; }
+
+    public double getMean() { return 0 == count ? Double.NaN : mean; }
+
+    public double getSum() { return mean * count; }
+
+    /**
+     * Returns the population variance (same as Statistics.getVariance()).
+     * @return the population variance of the added values
+     */
+    public double getVariance() { return 0 == count ? Double.NaN : m2 / count; }
+
+    /**
+     * Returns the sample variance (divided by n - 1).
+     * @return the sample variance of the added values
+     */
+    public double getSampleVariance() { return count < 2 ? Double.NaN : m2 / (count - 1); }
+
+    public double getStdDev() { return Math.sqrt(getVariance()); }
+
+    @Override public String toString() {
+        return new StringBuilder().append("{\n")
+                                  .append("  \"count\":").append(count).append(",\n")
+                                  .append("  \"mean\":").append(getMean()).append(",\n")
+                                  .append("  \"stddev\":").append(getStdDev()).append("\n")
+                                  .append("}")
+                                  .toString();
+    }
+}
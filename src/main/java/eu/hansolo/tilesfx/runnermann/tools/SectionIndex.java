@@ -0,0 +1,183 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import eu.hansolo.tilesfx.runnermann.Section;
+import javafx.scene.paint.Color;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Compiled lookup structure for a list of Section objects.
+ * All start and stop values are collected in a sorted boundary
+ * array which splits the value range into slots (the boundary
+ * points themselves and the open gaps between them). For each slot
+ * the covering sections are precomputed so that a lookup is a
+ * binary search over the boundaries.
+ * The index is a snapshot of the given sections, it has to be
+ * rebuilt if sections are added, removed or changed.
+ */
+public class SectionIndex {
+    private static final Section[] NO_SECTIONS = new Section[0];
+    private        final List<Section> sections;
+    private        final double[]      boundaries;
+    private        final Section[][]   slots;
+    private              double        checkedValue;
+    private              int           checkedSlot;
+
+
+    // ******************** Constructors **************************************
+    public SectionIndex(final List<Section> SECTIONS) {
+        this(SECTIONS, Double.NaN);
+    }
+    /**
+     * Creates an index that continues checking values from the given
+     * last checked value, e.g. when replacing an outdated index. Sections
+     * that already contained the checked value won't fire an ENTERED event
+     * again.
+     * @param SECTIONS
+     * @param CHECKED_VALUE
+     */
+    public SectionIndex(final List<Section> SECTIONS, final double CHECKED_VALUE) {
+        sections = null == SECTIONS ? Collections.emptyList() : new ArrayList<>(SECTIONS);
+
+        double[] values = new double[sections.size() * 2];
+        int      count  = 0;
+        for (Section section : sections) {
+            values[count++] = section.getStart();
+            values[count++] = section.getStop();
+        }
+        Arrays.sort(values, 0, count);
+        int unique = 0;
+        for (int i = 0 ; i < count ; i++) {
+            if (0 == unique || Double.compare(values[unique - 1], values[i]) != 0) { values[unique++] = values[i]; }
+        }
+        boundaries = Arrays.copyOf(values, unique);
+
+        // Slot 2 * i is the boundary point i, slot 2 * i + 1 the open gap between boundary i and i + 1
+        int noOfSlots = unique > 0 ? 2 * unique - 1 : 0;
+        List<List<Section>> coverage = new ArrayList<>(noOfSlots);
+        for (int i = 0 ; i < noOfSlots ; i++) { coverage.add(null); }
+        for (Section section : sections) {
+            if (Double.compare(section.getStart(), section.getStop()) > 0) { continue; }
+            int from = 2 * Arrays.binarySearch(boundaries, section.getStart());
+            int to   = 2 * Arrays.binarySearch(boundaries, section.getStop());
+            for (int slot = from ; slot <= to ; slot++) {
+                if (null == coverage.get(slot)) { coverage.set(slot, new ArrayList<>(2)); }
+                coverage.get(slot).add(section);
+            }
+        }
+        slots = new Section[noOfSlots][];
+        for (int i = 0 ; i < noOfSlots ; i++) {
+            slots[i] = null == coverage.get(i) ? NO_SECTIONS : coverage.get(i).toArray(NO_SECTIONS);
+        }
+        checkedValue = CHECKED_VALUE;
+        checkedSlot  = slotOf(CHECKED_VALUE);
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Returns the sections this index was built from.
+     * @return the sections this index was built from
+     */
+    public List<Section> getSections() { return Collections.unmodifiableList(sections); }
+
+    public boolean isEmpty() { return sections.isEmpty(); }
+
+    /**
+     * Returns the value that was last checked by checkForValue()
+     * or Double.NaN if no value was checked so far.
+     * @return the value that was last checked
+     */
+    public double getCheckedValue() { return checkedValue; }
+
+    /**
+     * Returns the first section (in list order) that contains the given value
+     * or null if no section contains the value.
+     * @param VALUE
+     * @return the first section that contains the given value or null
+     */
+    public Section getSection(final double VALUE) {
+        final Section[] covering = slotSections(slotOf(VALUE));
+        return covering.length == 0 ? null : covering[0];
+    }
+
+    /**
+     * Returns all sections (in list order) that contain the given value.
+     * @param VALUE
+     * @return all sections that contain the given value
+     */
+    public List<Section> getSections(final double VALUE) { return Arrays.asList(slotSections(slotOf(VALUE)).clone()); }
+
+    /**
+     * Returns the color of the first section that contains the given value
+     * or the given default color if no section contains the value.
+     * @param VALUE
+     * @param DEFAULT_COLOR
+     * @return the color of the section that contains the given value
+     */
+    public Color getColor(final double VALUE, final Color DEFAULT_COLOR) {
+        final Section section = getSection(VALUE);
+        return null == section ? DEFAULT_COLOR : section.getColor();
+    }
+
+    /**
+     * Checks the given value against all sections and fires the
+     * ENTERED/LEFT events of the sections the value entered or left
+     * since the last check. If the value stays within the same slot
+     * no event will be fired and no section will be touched.
+     * @param VALUE
+     */
+    public void checkForValue(final double VALUE) {
+        final int slot = slotOf(VALUE);
+        checkedValue = VALUE;
+        if (slot == checkedSlot) { return; }
+        final Section[] before = slotSections(checkedSlot);
+        final Section[] after  = slotSections(slot);
+        checkedSlot = slot;
+        for (Section section : before) {
+            if (!contains(after, section)) { section.fireSectionEvent(section.LEFT_EVENT); }
+        }
+        for (Section section : after) {
+            if (!contains(before, section)) { section.fireSectionEvent(section.ENTERED_EVENT); }
+        }
+    }
+
+    private int slotOf(final double VALUE) {
+        if (0 == boundaries.length || Double.isNaN(VALUE)) { return -1; }
+        final int index = Arrays.binarySearch(boundaries, VALUE);
+        if (index >= 0) { return 2 * index; }
+        final int insertionPoint = -index - 1;
+        if (0 == insertionPoint || boundaries.length == insertionPoint) { return -1; }
+        return 2 * insertionPoint - 1;
+    }
+
+    private Section[] slotSections(final int SLOT) { return SLOT < 0 ? NO_SECTIONS : slots[SLOT]; }
+
+    private static boolean contains(final Section[] SECTIONS, final Section SECTION) {
+        for (Section section : SECTIONS) {
+            if (section == SECTION) { return true; }
+        }
+        return false;
+    }
+}
@@ -17,31 +17,26 @@
  */
 package eu.hansolo.tilesfx.runnermann.tools;
 
+import eu.hansolo.tilesfx.runnermann.EffectScheduler;
+import eu.hansolo.tilesfx.runnermann.EffectScheduler.Registration;
 import eu.hansolo.tilesfx.runnermann.Tile;
-import javafx.animation.AnimationTimer;
+import eu.hansolo.tilesfx.runnermann.tools.ParticleSystem.Decay;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
 
-import java.util.List;
-import java.util.Random;
-import java.util.concurrent.CopyOnWriteArrayList;
-
 
 public class Smoke extends Canvas {
-    private static final Random              RND             = new Random();
-    private static final Image               IMAGE           = new Image(Tile.class.getResourceAsStream("smoke.png"));
-    private static final double              HALF_WIDTH      = IMAGE.getWidth() * 0.5;
-    private static final double              HALF_HEIGHT     = IMAGE.getHeight() * 0.5;
-    private static final long                GENERATION_RATE = 1_000_000_000l / 50;
-    private static final int                 NO_OF_PARTICLES = 150;
-    private              double              width;
-    private              double              height;
-    private              boolean             running;
-    private              GraphicsContext     ctx;
-    private              List<ImageParticle> particles;
-    private              long                lastTimerCall;
-    private              AnimationTimer      timer;
+    private static final Image           IMAGE           = new Image(Tile.class.getResourceAsStream("smoke.png"));
+    private static final long            GENERATION_RATE = 1_000_000_000l / 50;
+    private static final int             NO_OF_PARTICLES = 150;
+    private              double          width;
+    private              double          height;
+    private              boolean         running;
+    private              GraphicsContext ctx;
+    private              ParticleSystem  particles;
+    private              long            lastTimerCall;
+    private              Registration    timer;
 
 
     // ******************** Constructor ***************************************
@@ -50,18 +45,16 @@ public class Smoke extends Canvas {
         ctx           = getGraphicsContext2D();
         width         = getWidth();
         height        = getHeight();
-        particles     = new CopyOnWriteArrayList<>();
+        particles     = new ParticleSystem(NO_OF_PARTICLES, IMAGE, 0.5, 3, Decay.EXPONENTIAL, 0.98);
         lastTimerCall = System.nanoTime();
-        timer         = new AnimationTimer() {
-            @Override public void handle(final long NOW) {
-                if (NOW > lastTimerCall + GENERATION_RATE) {
-                    if (running && particles.size() < NO_OF_PARTICLES) { particles.add(new ImageParticle(IMAGE, width, height)); }
-                    if (particles.isEmpty()) timer.stop();
-                    lastTimerCall = NOW;
-                }
-                draw();
+        timer         = EffectScheduler.getDefault().register(this, 60, now -> {
+            if (now > lastTimerCall + GENERATION_RATE) {
+                if (running) { particles.emit(width, height); }
+                if (particles.isEmpty()) timer.stop();
+                lastTimerCall = now;
             }
-        };
+            draw();
+        });
         setMouseTransparent(true);
         registerListeners();
     }
@@ -86,36 +79,15 @@ public class Smoke extends Canvas {
 
     public boolean isRunning() { return running; }
 
+    /**
+     * Removes the effect from the EffectScheduler, the effect can't
+     * be started again afterwards.
+     */
+    public void dispose() { timer.unregister(); }
+
     private void draw() {
+        particles.update(running, width, height);
         ctx.clearRect(0, 0, width, height);
-
-        for (ImageParticle p : particles) {
-            p.opacity = p.remainingLife / p.life * 0.5;
-
-            // Draw particle from image
-            ctx.save();
-            ctx.translate(p.x, p.y);
-            ctx.scale(p.size, p.size);
-            //ctx.translate(p.image.getWidth() * (-0.5), p.image.getHeight() * (-0.5));
-            ctx.translate(-HALF_WIDTH, -HALF_HEIGHT);
-            ctx.setGlobalAlpha(p.opacity);
-            ctx.drawImage(p.image, 0, 0);
-            ctx.restore();
-
-            //p.remainingLife--;
-            p.remainingLife *= 0.98;
-            //p.size *= 0.99;
-            p.x += p.vX;
-            p.y += p.vY;
-
-            //regenerate particles
-            if (p.remainingLife < 0 || p.size < 0 || p.opacity < 0.01) {
-                if (running) {
-                    p.reInit(width, height);
-                } else {
-                    particles.remove(p);
-                }
-            }
-        }
+        particles.render(ctx);
     }
 }
@@ -19,98 +19,224 @@ package eu.hansolo.tilesfx.runnermann.tools;
 
 import eu.hansolo.tilesfx.runnermann.chart.ChartData;
 
-import java.time.Instant;
-import java.time.LocalTime;
-import java.time.ZoneOffset;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.time.Duration;
+import java.time.ZoneId;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 
 /**
  * Created by hansolo on 06.12.16.
  */
 public class Statistics {
+    public  static final Duration DEFAULT_BUCKET_SIZE = Duration.ofMinutes(10);
+    private static final int      PARALLEL_THRESHOLD  = 16_384;
 
 
     // ******************** Methods *******************************************
-    public static final double getChartDataMean(final List<ChartData> DATA) {
-        return getMean(DATA.stream().map(ChartData::getValue).collect(Collectors.toList()));
+    public static final double getChartDataMean(final List<ChartData> DATA) { return getMean(toArray(DATA)); }
+    public static final double getMean(final List<Double> DATA) { return getMean(toPrimitiveArray(DATA)); }
+    public static final double getMean(final double[] DATA) {
+        double sum = 0;
+        for (double value : DATA) { sum += value; }
+        return sum / DATA.length;
     }
-    public static final double getMean(final List<Double> DATA) { return DATA.stream().mapToDouble(v -> v).sum() / DATA.size(); }
 
-    public static final double getChartDataVariance(final List<ChartData> DATA) {
-        return getVariance(DATA.stream().map(ChartData::getValue).collect(Collectors.toList()));
-    }
-    public static final double getVariance(final List<Double> DATA) {
+    public static final double getChartDataVariance(final List<ChartData> DATA) { return getVariance(toArray(DATA)); }
+    public static final double getVariance(final List<Double> DATA) { return getVariance(toPrimitiveArray(DATA)); }
+    public static final double getVariance(final double[] DATA) {
         double mean = getMean(DATA);
         double temp = 0;
         for (double a : DATA) { temp += ((a - mean) * (a - mean)); }
-        return temp / DATA.size();
+        return temp / DATA.length;
     }
 
-    public static final double getChartDataStdDev(final List<ChartData> DATA) {
-        return getStdDev(DATA.stream().map(ChartData::getValue).collect(Collectors.toList()));
+    public static final double getChartDataStdDev(final List<ChartData> DATA) { return getStdDev(toArray(DATA)); }
+    public static final double getStdDev(final List<Double> DATA) { return getStdDev(toPrimitiveArray(DATA)); }
+    public static final double getStdDev(final double[] DATA) { return Math.sqrt(getVariance(DATA)); }
+
+    /**
+     * Returns the median of the given data or Double.NaN if the data is empty.
+     * The given data won't be modified.
+     * @param DATA
+     * @return the median of the given data
+     */
+    public static final double getChartDataMedian(final List<ChartData> DATA) { return median(toArray(DATA)); }
+    public static final double getMedian(final List<Double> DATA) { return median(toPrimitiveArray(DATA)); }
+    public static final double getMedian(final double[] DATA) { return median(DATA.clone()); }
+
+    public static final double getChartDataMin(final List<ChartData> DATA) { return getMin(toArray(DATA)); }
+    public static final double getMin(final List<Double> DATA) { return getMin(toPrimitiveArray(DATA)); }
+    public static final double getMin(final double[] DATA) {
+        if (DATA.length == 0) { return 0; }
+        double min = DATA[0];
+        for (double value : DATA) { min = Math.min(min, value); }
+        return min;
     }
-    public static final double getStdDev(final List<Double> DATA) { return Math.sqrt(getVariance(DATA)); }
 
-    public static final double getChartDataMedian(final List<ChartData> DATA) {
-        return getMedian(DATA.stream().map(ChartData::getValue).collect(Collectors.toList()));
+    public static final double getChartDataMax(final List<ChartData> DATA) { return getMax(toArray(DATA)); }
+    public static final double getMax(final List<Double> DATA) { return getMax(toPrimitiveArray(DATA)); }
+    public static final double getMax(final double[] DATA) {
+        if (DATA.length == 0) { return 0; }
+        double max = DATA[0];
+        for (double value : DATA) { max = Math.max(max, value); }
+        return max;
     }
-    public static final double getMedian(final List<Double> DATA) {
-        int size = DATA.size();
-        Collections.sort(DATA);
-        return size % 2 == 0 ? (DATA.get((size / 2) - 1) + DATA.get(size / 2)) / 2.0 : DATA.get(size / 2);
+
+    public static final double getChartDataAverage(final List<ChartData> DATA) { return getAverage(toArray(DATA)); }
+    public static final double getAverage(final List<Double> DATA) { return getAverage(toPrimitiveArray(DATA)); }
+    public static final double getAverage(final double[] DATA) { return DATA.length == 0 ? -1 : getMean(DATA); }
+
+    /**
+     * Returns the value below which the given percentage (0 - 100) of the
+     * given entries fall (nearest rank method) or Double.NaN if there are
+     * no entries. The given entries won't be modified.
+     * @param entries
+     * @param percentile
+     * @return the given percentile of the given entries
+     */
+    public static final double percentile(final List<Double> entries, final double percentile) { return nearestRank(toPrimitiveArray(entries), percentile); }
+    public static final double percentile(final double[] entries, final double percentile) { return nearestRank(entries.clone(), percentile); }
+
+    private static double median(final double[] DATA) {
+        final int size = DATA.length;
+        if (size == 0) { return Double.NaN; }
+        final double upper = select(DATA, size / 2);
+        if (size % 2 != 0) { return upper; }
+        // After select() all values left of size / 2 are smaller or equal, so the lower middle is their maximum
+        double lower = DATA[0];
+        for (int i = 1 ; i < size / 2 ; i++) { lower = Math.max(lower, DATA[i]); }
+        return (lower + upper) / 2.0;
     }
 
-    public static final double getChartDataMin(final List<ChartData> DATA) {
-        return getMin(DATA.stream().map(ChartData::getValue).collect(Collectors.toList()));
+    private static double nearestRank(final double[] DATA, final double PERCENTILE) {
+        if (DATA.length == 0) { return Double.NaN; }
+        final int index = (int) Math.ceil(PERCENTILE / 100.0 * DATA.length);
+        return select(DATA, Helper.clamp(1, DATA.length, index) - 1);
     }
-    public static final double getMin(final List<Double> DATA) { return DATA.stream().mapToDouble(v -> v).min().orElse(0); }
 
-    public static final double getChartDataMax(final List<ChartData> DATA) {
-        return getMax(DATA.stream().map(ChartData::getValue).collect(Collectors.toList()));
+    /**
+     * Partially sorts the given array (quickselect) so that the element at
+     * index K is the one that would be there if the array was sorted.
+     */
+    private static double select(final double[] DATA, final int K) {
+        int left  = 0;
+        int right = DATA.length - 1;
+        while (left < right) {
+            final double pivot = DATA[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (Double.compare(DATA[i], pivot) < 0) { i++; }
+                while (Double.compare(DATA[j], pivot) > 0) { j--; }
+                if (i <= j) {
+                    final double tmp = DATA[i];
+                    DATA[i++] = DATA[j];
+                    DATA[j--] = tmp;
+                }
+            }
+            if (K <= j) {
+                right = j;
+            } else if (K >= i) {
+                left = i;
+            } else {
+                break;
+            }
+        }
+        return DATA[K];
     }
-    public static final double getMax(final List<Double> DATA) { return DATA.stream().mapToDouble(v -> v).max().orElse(0); }
 
-    public static final double getChartDataAverage(final List<ChartData> DATA) {
-        return getAverage(DATA.stream().map(ChartData::getValue).collect(Collectors.toList()));
+    private static double[] toArray(final List<ChartData> DATA) {
+        final double[] values = new double[DATA.size()];
+        int i = 0;
+        for (ChartData data : DATA) { values[i++] = data.getValue(); }
+        return values;
     }
-    public static final double getAverage(final List<Double> DATA) {
-        return DATA.stream().mapToDouble(data -> data.doubleValue()).average().orElse(-1);
+
+    private static double[] toPrimitiveArray(final List<Double> DATA) {
+        final double[] values = new double[DATA.size()];
+        int i = 0;
+        for (Double value : DATA) { values[i++] = value; }
+        return values;
     }
 
-    public static final double percentile(List<Double> entries, double percentile) {
-        Collections.sort(entries);
-        int index = (int) Math.ceil(percentile / 100.0 * entries.size());
-        return entries.get(index-1);
+    /**
+     * Splits the day into buckets of 10 minutes and returns min, max and
+     * average of the values of each bucket (time of day in the system
+     * default zone), regardless of the date of the values.
+     * @param entries
+     * @return min, max and average of the values per 10 minutes of the day
+     */
+    public static final BucketStatistics analyze(final List<ChartData> entries) { return analyze(entries, DEFAULT_BUCKET_SIZE, ZoneId.systemDefault()); }
+    /**
+     * Splits the day into buckets of the given size and returns min, max
+     * and average of the values of each bucket (time of day in the given
+     * zone), regardless of the date of the values. The entries are
+     * processed in one pass.
+     * @param ENTRIES
+     * @param BUCKET_SIZE between 1 ms and 1 day
+     * @param ZONE_ID
+     * @return min, max and average of the values per bucket of the day
+     */
+    public static final BucketStatistics analyze(final List<ChartData> ENTRIES, final Duration BUCKET_SIZE, final ZoneId ZONE_ID) {
+        final BucketStatistics.Accumulator accumulator = new BucketStatistics.Accumulator(BUCKET_SIZE, ZONE_ID);
+        for (ChartData entry : ENTRIES) { accumulator.add(entry); }
+        return accumulator.build();
     }
 
-    public static final Map<LocalTime, DataPoint> analyze(final List<ChartData> entries) {
-        if (entries.isEmpty()) { return new HashMap(); }
-        final Map<LocalTime, DataPoint> dataMap = new HashMap<>();
-        final Instant                 now     = Instant.now();
-
-        for (int hour = 0 ; hour < 24 ; hour++) {
-            for (int bucket = 0 ; bucket < 60 ; bucket += 10) {
-                final int h = hour;
-                final int m = bucket;
-                List<ChartData> bucketEntries = entries.stream().filter(entry -> entry.getTimestamp().atZone(ZoneOffset.systemDefault()).getHour() == h &&
-                    entry.getTimestamp().atZone(ZoneOffset.systemDefault()).getMinute() <= m).collect(Collectors.toList());
-                final double minBucketValue = bucketEntries.stream().min(Comparator.comparingDouble(ChartData::getValue)).get().getValue();
-                final double maxBucketValue = bucketEntries.stream().max(Comparator.comparingDouble(ChartData::getValue)).get().getValue();
-                final double avgBucketValue = minBucketValue + (maxBucketValue - minBucketValue) / 2.0;
-
-                final LocalTime key   = LocalTime.of(h, m, 0);
-                final DataPoint value = new DataPoint(minBucketValue, maxBucketValue, avgBucketValue);
-
-                dataMap.put(key, value);
-            }
+    /**
+     * Same as analyze() but splits the entries into chunks that are
+     * bucketed in parallel in the common fork/join pool and merged
+     * afterwards. Only pays off for large inputs (e.g. several days
+     * of data in seconds resolution).
+     * @param ENTRIES
+     * @param BUCKET_SIZE between 1 ms and 1 day
+     * @param ZONE_ID
+     * @return min, max and average of the values per bucket of the day
+     */
+    public static final BucketStatistics analyzeParallel(final List<ChartData> ENTRIES, final Duration BUCKET_SIZE, final ZoneId ZONE_ID) {
+        if (ENTRIES.size() <= PARALLEL_THRESHOLD) { return analyze(ENTRIES, BUCKET_SIZE, ZONE_ID); }
+        // Validate the arguments in the calling thread
+        new BucketStatistics.Accumulator(BUCKET_SIZE, ZONE_ID);
+        final ChartData[] entries = ENTRIES.toArray(new ChartData[0]);
+        return ForkJoinPool.commonPool().invoke(new AnalyzeTask(entries, 0, entries.length, BUCKET_SIZE, ZONE_ID)).build();
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static class AnalyzeTask extends RecursiveTask<BucketStatistics.Accumulator> {
+        private static final long        serialVersionUID = 1L;
+        private        final ChartData[] entries;
+        private        final int         from;
+        private        final int         to;
+        private        final Duration    bucketSize;
+        private        final ZoneId      zoneId;
+
+
+        // ******************** Constructors **************************************
+        AnalyzeTask(final ChartData[] ENTRIES, final int FROM, final int TO, final Duration BUCKET_SIZE, final ZoneId ZONE_ID) {
+            entries    = ENTRIES;
+            from       = FROM;
+            to         = TO;
+            bucketSize = BUCKET_SIZE;
+            zoneId     = ZONE_ID;
         }
 
-        return dataMap;
+
+        // ******************** Methods *******************************************
+        @Override protected BucketStatistics.Accumulator compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                final BucketStatistics.Accumulator accumulator = new BucketStatistics.Accumulator(bucketSize, zoneId);
+                for (int i = from ; i < to ; i++) { accumulator.add(entries[i]); }
+                return accumulator;
+            }
+            final int         middle = (from + to) >>> 1;
+            final AnalyzeTask left   = new AnalyzeTask(entries, from, middle, bucketSize, zoneId);
+            final AnalyzeTask right  = new AnalyzeTask(entries, middle, to, bucketSize, zoneId);
+            left.fork();
+            final BucketStatistics.Accumulator rightResult = right.compute();
+            return left.join().merge(rightResult);
+        }
     }
 }
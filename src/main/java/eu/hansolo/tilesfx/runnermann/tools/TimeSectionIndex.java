@@ -0,0 +1,197 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import eu.hansolo.tilesfx.runnermann.TimeSection;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Compiled lookup structure for a list of TimeSection objects.
+ * For every day of the week the start and stop times of the sections
+ * that are valid on that day are collected in a sorted array of
+ * nano-of-day boundaries. For each slot (boundary point or open gap
+ * between two boundaries) the covering sections are precomputed so
+ * that a lookup is a binary search over the boundaries of one day.
+ * The index is a snapshot of the given sections, it has to be
+ * rebuilt if sections are added, removed or changed.
+ */
+public class TimeSectionIndex {
+    private static final TimeSection[] NO_SECTIONS = new TimeSection[0];
+    private        final List<TimeSection> sections;
+    private        final long[][]          boundaries;
+    private        final TimeSection[][][] slots;
+    private              ZonedDateTime     checkedDateTime;
+    private              DayOfWeek         checkedDay;
+    private              int               checkedSlot;
+
+
+    // ******************** Constructors **************************************
+    public TimeSectionIndex(final List<TimeSection> SECTIONS) {
+        this(SECTIONS, null);
+    }
+    /**
+     * Creates an index that continues checking from the given last
+     * checked date and time, e.g. when replacing an outdated index.
+     * Sections that already contained the checked time won't fire an
+     * ENTERED event again.
+     * @param SECTIONS
+     * @param CHECKED_DATE_TIME
+     */
+    public TimeSectionIndex(final List<TimeSection> SECTIONS, final ZonedDateTime CHECKED_DATE_TIME) {
+        sections   = null == SECTIONS ? Collections.emptyList() : new ArrayList<>(SECTIONS);
+        boundaries = new long[DayOfWeek.values().length][];
+        slots      = new TimeSection[DayOfWeek.values().length][][];
+        for (DayOfWeek day : DayOfWeek.values()) {
+            List<TimeSection> daySections = new ArrayList<>();
+            for (TimeSection section : sections) {
+                if (section.getDays().contains(day)) { daySections.add(section); }
+            }
+            compileDay(day.ordinal(), daySections);
+        }
+        checkedDateTime = CHECKED_DATE_TIME;
+        checkedDay      = null == CHECKED_DATE_TIME ? null : CHECKED_DATE_TIME.getDayOfWeek();
+        checkedSlot     = null == CHECKED_DATE_TIME ? -1 : slotOf(CHECKED_DATE_TIME.toLocalTime(), checkedDay);
+    }
+
+
+    // ******************** Initialization ************************************
+    private void compileDay(final int DAY, final List<TimeSection> DAY_SECTIONS) {
+        long[] values = new long[DAY_SECTIONS.size() * 2];
+        int    count  = 0;
+        for (TimeSection section : DAY_SECTIONS) {
+            values[count++] = section.getStart().toNanoOfDay();
+            values[count++] = section.getStop().toNanoOfDay();
+        }
+        Arrays.sort(values, 0, count);
+        int unique = 0;
+        for (int i = 0 ; i < count ; i++) {
+            if (0 == unique || values[unique - 1] != values[i]) { values[unique++] = values[i]; }
+        }
+        boundaries[DAY] = Arrays.copyOf(values, unique);
+
+        // Slot 2 * i is the boundary point i, slot 2 * i + 1 the open gap between boundary i and i + 1.
+        // TimeSection.contains() excludes start and stop, so a section covers the slots between them.
+        int noOfSlots = unique > 0 ? 2 * unique - 1 : 0;
+        List<List<TimeSection>> coverage = new ArrayList<>(noOfSlots);
+        for (int i = 0 ; i < noOfSlots ; i++) { coverage.add(null); }
+        for (TimeSection section : DAY_SECTIONS) {
+            int from = 2 * Arrays.binarySearch(boundaries[DAY], section.getStart().toNanoOfDay()) + 1;
+            int to   = 2 * Arrays.binarySearch(boundaries[DAY], section.getStop().toNanoOfDay()) - 1;
+            for (int slot = from ; slot <= to ; slot++) {
+                if (null == coverage.get(slot)) { coverage.set(slot, new ArrayList<>(2)); }
+                coverage.get(slot).add(section);
+            }
+        }
+        slots[DAY] = new TimeSection[noOfSlots][];
+        for (int i = 0 ; i < noOfSlots ; i++) {
+            slots[DAY][i] = null == coverage.get(i) ? NO_SECTIONS : coverage.get(i).toArray(NO_SECTIONS);
+        }
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Returns the sections this index was built from.
+     * @return the sections this index was built from
+     */
+    public List<TimeSection> getSections() { return Collections.unmodifiableList(sections); }
+
+    public boolean isEmpty() { return sections.isEmpty(); }
+
+    /**
+     * Returns the date and time that was last checked by checkForTimeAndDate()
+     * or null if nothing was checked so far.
+     * @return the date and time that was last checked
+     */
+    public ZonedDateTime getCheckedDateTime() { return checkedDateTime; }
+
+    /**
+     * Returns the first section (in list order) that contains the given
+     * time on the given day or null if no section contains it.
+     * @param TIME
+     * @param DAY
+     * @return the first section that contains the given time on the given day or null
+     */
+    public TimeSection getSection(final LocalTime TIME, final DayOfWeek DAY) {
+        final TimeSection[] covering = slotSections(DAY, slotOf(TIME, DAY));
+        return covering.length == 0 ? null : covering[0];
+    }
+
+    /**
+     * Returns all sections (in list order) that contain the given time
+     * on the given day.
+     * @param TIME
+     * @param DAY
+     * @return all sections that contain the given time on the given day
+     */
+    public List<TimeSection> getSections(final LocalTime TIME, final DayOfWeek DAY) {
+        return Arrays.asList(slotSections(DAY, slotOf(TIME, DAY)).clone());
+    }
+    public List<TimeSection> getSections(final ZonedDateTime DATE_TIME) { return getSections(DATE_TIME.toLocalTime(), DATE_TIME.getDayOfWeek()); }
+
+    /**
+     * Checks the given date and time against all sections and fires the
+     * ENTERED/LEFT events of the active sections that were entered or left
+     * since the last check. As long as the time stays within the same slot
+     * of the same day no event will be fired and no section will be touched.
+     * @param DATE_TIME
+     */
+    public void checkForTimeAndDate(final ZonedDateTime DATE_TIME) {
+        final DayOfWeek day  = DATE_TIME.getDayOfWeek();
+        final int       slot = slotOf(DATE_TIME.toLocalTime(), day);
+        checkedDateTime = DATE_TIME;
+        if (day == checkedDay && slot == checkedSlot) { return; }
+        final TimeSection[] before = slotSections(checkedDay, checkedSlot);
+        final TimeSection[] after  = slotSections(day, slot);
+        checkedDay  = day;
+        checkedSlot = slot;
+        for (TimeSection section : before) {
+            if (section.isActive() && !contains(after, section)) { section.fireTimeSectionEvent(section.LEFT_EVENT); }
+        }
+        for (TimeSection section : after) {
+            if (section.isActive() && !contains(before, section)) { section.fireTimeSectionEvent(section.ENTERED_EVENT); }
+        }
+    }
+
+    private int slotOf(final LocalTime TIME, final DayOfWeek DAY) {
+        final long[] dayBoundaries = boundaries[DAY.ordinal()];
+        if (0 == dayBoundaries.length) { return -1; }
+        final int index = Arrays.binarySearch(dayBoundaries, TIME.toNanoOfDay());
+        if (index >= 0) { return 2 * index; }
+        final int insertionPoint = -index - 1;
+        if (0 == insertionPoint || dayBoundaries.length == insertionPoint) { return -1; }
+        return 2 * insertionPoint - 1;
+    }
+
+    private TimeSection[] slotSections(final DayOfWeek DAY, final int SLOT) { return null == DAY || SLOT < 0 ? NO_SECTIONS : slots[DAY.ordinal()][SLOT]; }
+
+    private static boolean contains(final TimeSection[] SECTIONS, final TimeSection SECTION) {
+        for (TimeSection section : SECTIONS) {
+            if (section == SECTION) { return true; }
+        }
+        return false;
+    }
+}
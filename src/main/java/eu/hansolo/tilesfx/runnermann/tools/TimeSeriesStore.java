@@ -0,0 +1,108 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import eu.hansolo.tilesfx.runnermann.chart.ChartData;
+
+import java.io.Closeable;
+
+
+/**
+ * History of a time series as (epochMillis, value) records in the order
+ * of their timestamps. Records can only be appended, the timestamp of a
+ * record must not be before the timestamp of the last record.
+ * The scan methods hand the records to a RecordConsumer as primitives so
+ * that a window of the history can be rendered without creating objects
+ * for the records.
+ * A store has one writer, e.g. the JavaFX application thread.
+ */
+public interface TimeSeriesStore extends Closeable {
+
+    @FunctionalInterface
+    interface RecordConsumer {
+        void accept(long EPOCH_MILLIS, double VALUE);
+    }
+
+
+    /**
+     * Appends a record with the given timestamp and value.
+     * @param EPOCH_MILLIS the timestamp, must not be before the timestamp of the last record
+     * @param VALUE
+     */
+    void append(long EPOCH_MILLIS, double VALUE);
+    default void append(final ChartData DATA) { append(DATA.getTimestamp().toEpochMilli(), DATA.getValue()); }
+
+    long size();
+
+    default boolean isEmpty() { return 0 == size(); }
+
+    long getEpochMillis(long INDEX);
+
+    double getValue(long INDEX);
+
+    /**
+     * Returns the timestamp of the last record or Long.MIN_VALUE if the
+     * store is empty.
+     * @return the timestamp of the last record or Long.MIN_VALUE
+     */
+    default long getLastEpochMillis() { return isEmpty() ? Long.MIN_VALUE : getEpochMillis(size() - 1); }
+
+    /**
+     * Returns the index of the first record with a timestamp that is not
+     * before the given timestamp or size() if there is no such record.
+     * @param EPOCH_MILLIS
+     * @return the index of the first record at or after the given timestamp
+     */
+    long indexOf(long EPOCH_MILLIS);
+
+    /**
+     * Hands all records from FROM_MILLIS (inclusive) to TO_MILLIS (exclusive)
+     * to the given consumer and returns the number of records.
+     * @param FROM_MILLIS
+     * @param TO_MILLIS
+     * @param CONSUMER
+     * @return the number of records in the given time range
+     */
+    default long scan(final long FROM_MILLIS, final long TO_MILLIS, final RecordConsumer CONSUMER) {
+        final long from = indexOf(FROM_MILLIS);
+        final long to   = indexOf(TO_MILLIS);
+        return scanIndices(from, to, CONSUMER);
+    }
+
+    /**
+     * Hands the records from FROM_INDEX (inclusive) to TO_INDEX (exclusive)
+     * to the given consumer and returns the number of records.
+     * @param FROM_INDEX
+     * @param TO_INDEX
+     * @param CONSUMER
+     * @return the number of records in the given range
+     */
+    long scanIndices(long FROM_INDEX, long TO_INDEX, RecordConsumer CONSUMER);
+
+    /**
+     * Removes all records.
+     */
+    void clear();
+
+    /**
+     * Writes all records to the storage device.
+     */
+    void flush();
+
+    @Override void close();
+}
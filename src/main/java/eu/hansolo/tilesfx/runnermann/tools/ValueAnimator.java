@@ -0,0 +1,254 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import javafx.animation.AnimationTimer;
+import javafx.animation.Interpolator;
+import javafx.application.Platform;
+
+import java.util.Arrays;
+
+
+/**
+ * Animates numbered channels of many items (e.g. the current value of all
+ * tiles or of all ChartData objects) from one AnimationTimer instead of
+ * one Timeline per item.
+ * The running animations are stored in primitive arrays (one slot per
+ * animated channel of an item) and are updated in one pass per pulse
+ * without creating any objects. The items only store the slot of each
+ * channel and are updated through the given Callback, a new target for
+ * a channel that is already animating continues from the current
+ * position instead of starting a new animation.
+ * Under load the number of animations that are updated per pulse can be
+ * limited (see setMaxAnimationsPerFrame()), the other animations keep
+ * their position for this pulse and catch up in one of the next pulses
+ * because the animations are based on System.nanoTime().
+ * Animations that are started from another thread will be started on
+ * the JavaFX application thread.
+ */
+public class ValueAnimator<T> {
+    private static final int            INITIAL_CAPACITY = 16;
+    private        final Callback<T>    callback;
+    private        final int            noOfChannels;
+    private              Object[]       items;
+    private              int[]          channels;
+    private              double[]       starts;
+    private              double[]       ends;
+    private              long[]         startTimes;
+    private              long[]         durations;
+    private              Interpolator[] easings;
+    private              int            size;
+    private              int            cursor;
+    private              int            maxAnimationsPerFrame;
+    private              AnimationTimer timer;
+    private              boolean        timerRunning;
+
+
+    // ******************** Constructors **************************************
+    /**
+     * @param CALLBACK stores the slots of the channels and receives the animated values
+     * @param NO_OF_CHANNELS the channels of an item are numbered from 0 to NO_OF_CHANNELS - 1
+     */
+    public ValueAnimator(final Callback<T> CALLBACK, final int NO_OF_CHANNELS) {
+        callback              = CALLBACK;
+        noOfChannels          = NO_OF_CHANNELS;
+        items                 = new Object[INITIAL_CAPACITY];
+        channels              = new int[INITIAL_CAPACITY];
+        starts                = new double[INITIAL_CAPACITY];
+        ends                  = new double[INITIAL_CAPACITY];
+        startTimes            = new long[INITIAL_CAPACITY];
+        durations             = new long[INITIAL_CAPACITY];
+        easings               = new Interpolator[INITIAL_CAPACITY];
+        size                  = 0;
+        cursor                = 0;
+        maxAnimationsPerFrame = 0;
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Animates the given channel of the given item from START to END. If the
+     * channel is already animating, the running animation is retargeted.
+     * @param ITEM
+     * @param CHANNEL
+     * @param START
+     * @param END
+     * @param DURATION_IN_MS
+     * @param EASING
+     */
+    public void animate(final T ITEM, final int CHANNEL, final double START, final double END, final long DURATION_IN_MS, final Interpolator EASING) {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> animate(ITEM, CHANNEL, START, END, DURATION_IN_MS, EASING));
+            return;
+        }
+        int slot = callback.getSlot(ITEM, CHANNEL);
+        if (slot < 0) {
+            ensureCapacity(size + 1);
+            slot = size++;
+            items[slot]    = ITEM;
+            channels[slot] = CHANNEL;
+            callback.setSlot(ITEM, CHANNEL, slot);
+        }
+        starts[slot]     = START;
+        ends[slot]       = END;
+        startTimes[slot] = System.nanoTime();
+        durations[slot]  = Math.max(1, DURATION_IN_MS) * 1_000_000L;
+        easings[slot]    = EASING;
+        updateTimer();
+    }
+
+    /**
+     * Stops the animation of the given channel of the given item, the value
+     * stays where it is.
+     * @param ITEM
+     * @param CHANNEL
+     */
+    public void stop(final T ITEM, final int CHANNEL) {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> stop(ITEM, CHANNEL));
+            return;
+        }
+        final int slot = callback.getSlot(ITEM, CHANNEL);
+        if (slot < 0) { return; }
+        remove(slot);
+        updateTimer();
+    }
+
+    /**
+     * Sets all animating channels of the given item to their end values and
+     * finishes the animations.
+     * @param ITEM
+     */
+    public void finish(final T ITEM) {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> finish(ITEM));
+            return;
+        }
+        for (int channel = 0 ; channel < noOfChannels ; channel++) {
+            final int slot = callback.getSlot(ITEM, channel);
+            if (slot < 0) { continue; }
+            final double end = ends[slot];
+            remove(slot);
+            callback.update(ITEM, channel, end);
+            callback.finish(ITEM, channel);
+        }
+        updateTimer();
+    }
+
+    public boolean isAnimating(final T ITEM) {
+        for (int channel = 0 ; channel < noOfChannels ; channel++) {
+            if (callback.getSlot(ITEM, channel) >= 0) { return true; }
+        }
+        return false;
+    }
+    public boolean isAnimating(final T ITEM, final int CHANNEL) { return callback.getSlot(ITEM, CHANNEL) >= 0; }
+
+    public int getNoOfAnimations() { return size; }
+
+    /**
+     * Returns the max. number of animations that will be updated per pulse,
+     * 0 means that all animations will be updated in every pulse (default).
+     * @return the max. number of animations that will be updated per pulse
+     */
+    public int getMaxAnimationsPerFrame() { return maxAnimationsPerFrame; }
+    public void setMaxAnimationsPerFrame(final int MAX) { maxAnimationsPerFrame = Math.max(0, MAX); }
+
+    @SuppressWarnings("unchecked")
+    private void pulse(final long NOW) {
+        final int noOfUpdates = 0 == maxAnimationsPerFrame ? size : Math.min(size, maxAnimationsPerFrame);
+        if (cursor >= size) { cursor = 0; }
+        for (int i = 0 ; i < noOfUpdates && size > 0 ; i++) {
+            if (cursor >= size) { cursor = 0; }
+            final T      item     = (T) items[cursor];
+            final int    channel  = channels[cursor];
+            final double fraction = Math.max(0, Math.min(1, (NOW - startTimes[cursor]) / (double) durations[cursor]));
+            if (fraction < 1) {
+                callback.update(item, channel, easings[cursor].interpolate(starts[cursor], ends[cursor], fraction));
+                cursor++;
+            } else {
+                // The last animation moves into this slot, so the cursor stays where it is
+                final double end = ends[cursor];
+                remove(cursor);
+                callback.update(item, channel, end);
+                callback.finish(item, channel);
+            }
+        }
+        updateTimer();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void remove(final int SLOT) {
+        callback.setSlot((T) items[SLOT], channels[SLOT], -1);
+        final int last = --size;
+        if (SLOT != last) {
+            items[SLOT]      = items[last];
+            channels[SLOT]   = channels[last];
+            starts[SLOT]     = starts[last];
+            ends[SLOT]       = ends[last];
+            startTimes[SLOT] = startTimes[last];
+            durations[SLOT]  = durations[last];
+            easings[SLOT]    = easings[last];
+            callback.setSlot((T) items[SLOT], channels[SLOT], SLOT);
+        }
+        items[last]   = null;
+        easings[last] = null;
+    }
+
+    private void ensureCapacity(final int CAPACITY) {
+        if (CAPACITY <= items.length) { return; }
+        final int capacity = Math.max(CAPACITY, items.length * 2);
+        items      = Arrays.copyOf(items, capacity);
+        channels   = Arrays.copyOf(channels, capacity);
+        starts     = Arrays.copyOf(starts, capacity);
+        ends       = Arrays.copyOf(ends, capacity);
+        startTimes = Arrays.copyOf(startTimes, capacity);
+        durations  = Arrays.copyOf(durations, capacity);
+        easings    = Arrays.copyOf(easings, capacity);
+    }
+
+    private void updateTimer() {
+        if (size > 0 && !timerRunning) {
+            if (null == timer) {
+                timer = new AnimationTimer() {
+                    @Override public void handle(final long NOW) { pulse(NOW); }
+                };
+            }
+            timer.start();
+            timerRunning = true;
+        } else if (0 == size && timerRunning) {
+            timer.stop();
+            timerRunning = false;
+        }
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Connects the animator to the items, an item stores the slot of each of
+     * its channels (-1 if the channel is not animating).
+     */
+    public interface Callback<T> {
+        int getSlot(T ITEM, int CHANNEL);
+
+        void setSlot(T ITEM, int CHANNEL, int SLOT);
+
+        void update(T ITEM, int CHANNEL, double VALUE);
+
+        void finish(T ITEM, int CHANNEL);
+    }
+}
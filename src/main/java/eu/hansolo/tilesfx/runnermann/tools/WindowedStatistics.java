@@ -0,0 +1,136 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import eu.hansolo.tilesfx.runnermann.chart.ChartData;
+
+
+/**
+ * Mean, standard deviation and quantiles of the last n values.
+ * The values are kept in a ring buffer, when the window is full the
+ * oldest value will be removed from the RunningStatistics and the
+ * QuantileSketch before the new value is added, so each update is
+ * O(1) and no sorting is needed to get the median or e.g. the 95th
+ * percentile of the window.
+ * To keep rounding errors of the incremental updates from adding up
+ * the running statistics are recalculated from the buffer once per
+ * window length.
+ */
+public class WindowedStatistics {
+    private final double[]          buffer;
+    private final RunningStatistics statistics;
+    private final QuantileSketch    sketch;
+    private       int               head;
+    private       int               size;
+    private       int               removals;
+
+
+    // ******************** Constructors **************************************
+    public WindowedStatistics(final int WINDOW_SIZE) {
+        this(WINDOW_SIZE, QuantileSketch.DEFAULT_RELATIVE_ACCURACY);
+    }
+    public WindowedStatistics(final int WINDOW_SIZE, final double RELATIVE_ACCURACY) {
+        if (WINDOW_SIZE < 1) { throw new IllegalArgumentException("Window size must be at least 1"); }
+        buffer     = new double[WINDOW_SIZE];
+        statistics = new RunningStatistics();
+        sketch     = new QuantileSketch(RELATIVE_ACCURACY);
+        head       = 0;
+        size       = 0;
+        removals   = 0;
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Adds the given value to the window and returns the value that
+     * dropped out of the window or Double.NaN if the window was not full.
+     * @param VALUE
+     * @return the value that dropped out of the window or Double.NaN
+     */
+    public double add(final double VALUE) {
+        if (Double.isNaN(VALUE)) { return Double.NaN; }
+        double removed = Double.NaN;
+        if (size == buffer.length) {
+            removed = buffer[head];
+            sketch.remove(removed);
+            if (++removals >= buffer.length) {
+                buffer[head] = VALUE;
+                head         = (head + 1) % buffer.length;
+                sketch.add(VALUE);
+                recalculate();
+                return removed;
+            }
+            statistics.remove(removed);
+        } else {
+            size++;
+        }
+        buffer[head] = VALUE;
+        head         = (head + 1) % buffer.length;
+        statistics.add(VALUE);
+        sketch.add(VALUE);
+        return removed;
+    }
+    public double add(final ChartData DATA) { return add(DATA.getValue()); }
+
+    public void clear() {
+        statistics.reset();
+        sketch.clear();
+        head     = 0;
+        size     = 0;
+        removals = 0;
+    }
+
+    public int getWindowSize() { return buffer.length; }
+
+    public int getSize() { return size; }
+
+    public boolean isFull() { return size == buffer.length; }
+
+    public double getMean() { return statistics.getMean(); }
+
+    public double getVariance() { return statistics.getVariance(); }
+
+    public double getStdDev() { return statistics.getStdDev(); }
+
+    public double getMedian() { return sketch.getMedian(); }
+
+    /**
+     * Returns the estimated value at the given quantile (0.0 - 1.0) of
+     * the values in the window.
+     * @param QUANTILE
+     * @return the estimated value at the given quantile
+     */
+    public double getQuantile(final double QUANTILE) { return sketch.getQuantile(QUANTILE); }
+
+    /**
+     * Returns the values of the window from the oldest to the newest.
+     * @return the values of the window from the oldest to the newest
+     */
+    public double[] getValues() {
+        final double[] values = new double[size];
+        final int      start  = size == buffer.length ? head : 0;
+        for (int i = 0 ; i < size ; i++) { values[i] = buffer[(start + i) % buffer.length]; }
+        return values;
+    }
+
+    private void recalculate() {
+        statistics.reset();
+        for (int i = 0 ; i < size ; i++) { statistics.add(buffer[i]); }
+        removals = 0;
+    }
+}
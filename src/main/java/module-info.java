@@ -2,6 +2,7 @@ module eu.hansolo.tilesfxrunnermann {
     requires javafx.controls;
     requires javafx.fxml;
     requires javafx.web;
+    requires java.management;
 
 
     opens eu.hansolo.tilesfx.runnermann to javafx.fxml;
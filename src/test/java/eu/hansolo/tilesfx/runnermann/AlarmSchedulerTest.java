@@ -0,0 +1,198 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann;
+
+import eu.hansolo.tilesfx.runnermann.Alarm.Repetition;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class AlarmSchedulerTest {
+    private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+
+
+    @BeforeAll public static void startFx() { HeadlessFx.start(); }
+
+    @Test public void dailyAlarmKeepsLocalTimeWhenDstStarts() {
+        final Alarm         alarm = new Alarm(Repetition.DAILY, ZonedDateTime.of(2021, 3, 1, 8, 0, 0, 0, BERLIN));
+        final ZonedDateTime next  = AlarmScheduler.nextFireTime(alarm, ZonedDateTime.of(2021, 3, 27, 9, 0, 0, 0, BERLIN));
+        assertEquals(ZonedDateTime.of(2021, 3, 28, 8, 0, 0, 0, BERLIN), next);
+        assertEquals(ZoneOffset.ofHours(2), next.getOffset());
+    }
+
+    @Test public void dailyAlarmInSkippedHourIsShiftedForward() {
+        final Alarm         alarm = new Alarm(Repetition.DAILY, ZonedDateTime.of(2021, 3, 1, 2, 30, 0, 0, BERLIN));
+        final ZonedDateTime next  = AlarmScheduler.nextFireTime(alarm, ZonedDateTime.of(2021, 3, 27, 12, 0, 0, 0, BERLIN));
+        assertEquals(3, next.getHour());
+        assertEquals(30, next.getMinute());
+        assertEquals(28, next.getDayOfMonth());
+    }
+
+    @Test public void hourlyAlarmFiresTwiceInRepeatedHourWhenDstEnds() {
+        final AlarmScheduler scheduler = new AlarmScheduler();
+        final List<ZonedDateTime> fired = new ArrayList<>();
+        final ZonedDateTime[]     now   = new ZonedDateTime[1];
+        final Alarm alarm = new Alarm(Repetition.HOURLY, ZonedDateTime.of(2021, 10, 1, 0, 15, 0, 0, BERLIN), true, "", () -> fired.add(now[0]));
+
+        final ZonedDateTime start = ZonedDateTime.of(2021, 10, 31, 1, 30, 0, 0, BERLIN);
+        scheduler.schedule(alarm, null, start);
+        // One check per minute over three hours on the instant timeline
+        for (int minute = 0 ; minute <= 180 ; minute++) {
+            now[0] = start.plusMinutes(minute);
+            scheduler.checkAlarms(now[0]);
+        }
+        // 02:15 CEST, 02:15 CET, 03:15 CET
+        assertEquals(3, fired.size());
+        assertEquals(2, fired.get(0).getHour());
+        assertEquals(ZoneOffset.ofHours(2), fired.get(0).getOffset());
+        assertEquals(2, fired.get(1).getHour());
+        assertEquals(ZoneOffset.ofHours(1), fired.get(1).getOffset());
+        assertEquals(3, fired.get(2).getHour());
+    }
+
+    @Test public void missedTicksFireOnlyOnce() {
+        final AlarmScheduler scheduler = new AlarmScheduler();
+        final int[]          fired     = new int[1];
+        final Alarm alarm = new Alarm(Repetition.HOURLY, ZonedDateTime.of(2021, 6, 1, 0, 0, 0, 0, BERLIN), true, "", () -> fired[0]++);
+
+        scheduler.schedule(alarm, null, ZonedDateTime.of(2021, 6, 1, 9, 30, 0, 0, BERLIN));
+        assertEquals(ZonedDateTime.of(2021, 6, 1, 10, 0, 0, 0, BERLIN), scheduler.getNextFireTime(alarm));
+
+        // No check for more than four hours
+        scheduler.checkAlarms(ZonedDateTime.of(2021, 6, 1, 14, 5, 0, 0, BERLIN));
+        assertEquals(1, fired[0]);
+        assertEquals(ZonedDateTime.of(2021, 6, 1, 15, 0, 0, 0, BERLIN), scheduler.getNextFireTime(alarm));
+
+        scheduler.checkAlarms(ZonedDateTime.of(2021, 6, 1, 14, 6, 0, 0, BERLIN));
+        assertEquals(1, fired[0]);
+    }
+
+    @Test public void onceAlarmIsRemovedAfterFiring() {
+        final AlarmScheduler scheduler = new AlarmScheduler();
+        final int[]          fired     = new int[1];
+        final Alarm alarm = new Alarm(Repetition.ONCE, ZonedDateTime.of(2021, 6, 1, 10, 0, 0, 0, BERLIN), true, "", () -> fired[0]++);
+
+        scheduler.schedule(alarm, null, ZonedDateTime.of(2021, 6, 1, 9, 0, 0, 0, BERLIN));
+        scheduler.checkAlarms(ZonedDateTime.of(2021, 6, 1, 10, 0, 1, 0, BERLIN));
+        scheduler.checkAlarms(ZonedDateTime.of(2021, 6, 1, 11, 0, 1, 0, BERLIN));
+        assertEquals(1, fired[0]);
+        assertFalse(scheduler.isScheduled(alarm));
+    }
+
+    @Test public void cancelledAlarmsAreRemovedFromTheHeap() {
+        final AlarmScheduler scheduler = new AlarmScheduler();
+        final ZonedDateTime  now       = ZonedDateTime.of(2021, 6, 1, 9, 0, 0, 0, BERLIN);
+        final List<Alarm>    alarms    = new ArrayList<>();
+        for (int i = 0 ; i < 100 ; i++) {
+            final Alarm alarm = new Alarm(Repetition.DAILY, now.plusMinutes(i + 1));
+            alarms.add(alarm);
+            scheduler.schedule(alarm, null, now);
+        }
+        alarms.forEach(scheduler::cancel);
+        assertEquals(0, scheduler.size());
+        assertTrue(scheduler.getQueueSize() <= 1);
+
+        // Rescheduling the same alarm must not grow the heap
+        final Alarm alarm = new Alarm(Repetition.DAILY, now.plusMinutes(5));
+        for (int i = 0 ; i < 1_000 ; i++) { scheduler.schedule(alarm, null, now); }
+        assertEquals(1, scheduler.size());
+        assertTrue(scheduler.getQueueSize() <= 3);
+    }
+
+    @Test public void alarmsOfDisabledTileAreDeferred() {
+        final AlarmScheduler scheduler = new AlarmScheduler();
+        final Tile           tile      = new Tile();
+        final int[]          fired     = new int[1];
+        tile.setAlarmScheduler(scheduler);
+        tile.setOnAlarm(e -> fired[0]++);
+        tile.setAlarmsEnabled(false);
+
+        final Alarm alarm = new Alarm(Repetition.HOURLY, ZonedDateTime.of(2021, 6, 1, 0, 0, 0, 0, BERLIN));
+        scheduler.schedule(alarm, tile, ZonedDateTime.of(2021, 6, 1, 9, 30, 0, 0, BERLIN));
+
+        // Another tile that shares the scheduler checks the alarms
+        scheduler.checkAlarms(ZonedDateTime.of(2021, 6, 1, 10, 0, 1, 0, BERLIN));
+        scheduler.checkAlarms(ZonedDateTime.of(2021, 6, 1, 11, 0, 1, 0, BERLIN));
+        assertEquals(0, fired[0]);
+        // The due alarm is parked outside of the heap instead of being polled on every check
+        assertEquals(0, scheduler.getQueueSize());
+        assertTrue(scheduler.isScheduled(alarm));
+
+        tile.setAlarmsEnabled(true);
+        scheduler.checkAlarms(ZonedDateTime.of(2021, 6, 1, 11, 30, 0, 0, BERLIN));
+        assertEquals(1, fired[0]);
+        assertEquals(ZonedDateTime.of(2021, 6, 1, 12, 0, 0, 0, BERLIN), scheduler.getNextFireTime(alarm));
+    }
+
+    @Test public void sharedSchedulerToleratesClockSkewOfTiles() {
+        final AlarmScheduler scheduler = new AlarmScheduler();
+        final ZonedDateTime  start     = ZonedDateTime.of(2021, 6, 1, 9, 30, 0, 0, BERLIN);
+        final long[]         skews     = { 0, -5, 3 };
+        final Tile[]         tiles     = new Tile[skews.length];
+        final Alarm[]        alarms    = new Alarm[skews.length];
+        final int[]          fired     = new int[skews.length];
+        for (int i = 0 ; i < tiles.length ; i++) {
+            final int index = i;
+            tiles[i] = new Tile();
+            tiles[i].setAlarmScheduler(scheduler);
+            tiles[i].setAlarmsEnabled(true);
+            tiles[i].setOnAlarm(e -> fired[index]++);
+            alarms[i] = new Alarm(Repetition.HOURLY, ZonedDateTime.of(2021, 6, 1, 0, i, 0, 0, BERLIN));
+            scheduler.schedule(alarms[i], tiles[i], start);
+        }
+        // Each tile ticks every second on its own, slightly skewed clock
+        for (int second = 0 ; second <= 3 * 3600 ; second++) {
+            for (long skew : skews) { scheduler.checkAlarms(start.plusSeconds(second).plusNanos(skew * 1_000_000)); }
+        }
+        // 10:0x, 11:0x and 12:0x
+        for (int i = 0 ; i < tiles.length ; i++) { assertEquals(3, fired[i]); }
+
+        // Setting the clock back by more than the tolerance reschedules the alarms
+        scheduler.checkAlarms(start.plusHours(1));
+        assertEquals(3, fired[0]);
+        assertEquals(ZonedDateTime.of(2021, 6, 1, 11, 0, 0, 0, BERLIN), scheduler.getNextFireTime(alarms[0]));
+    }
+
+    @Test public void changedAlarmIsRescheduled() {
+        final AlarmScheduler scheduler = new AlarmScheduler();
+        final Alarm          alarm     = new Alarm(Repetition.HOURLY, ZonedDateTime.of(2021, 6, 1, 0, 0, 0, 0, BERLIN));
+        scheduler.schedule(alarm, null, ZonedDateTime.of(2021, 6, 1, 9, 30, 0, 0, BERLIN));
+        assertEquals(ZonedDateTime.of(2021, 6, 1, 10, 0, 0, 0, BERLIN), scheduler.getNextFireTime(alarm));
+
+        alarm.setTime(ZonedDateTime.of(2021, 6, 1, 0, 45, 0, 0, BERLIN));
+        assertEquals(ZonedDateTime.of(2021, 6, 1, 9, 45, 0, 0, BERLIN), scheduler.getNextFireTime(alarm));
+
+        alarm.setRepetition(Repetition.DAILY);
+        assertEquals(ZonedDateTime.of(2021, 6, 2, 0, 45, 0, 0, BERLIN), scheduler.getNextFireTime(alarm));
+
+        // A cancelled alarm is no longer touched by the scheduler
+        scheduler.cancel(alarm);
+        alarm.setTime(ZonedDateTime.of(2021, 6, 1, 0, 15, 0, 0, BERLIN));
+        assertFalse(scheduler.isScheduled(alarm));
+    }
+}
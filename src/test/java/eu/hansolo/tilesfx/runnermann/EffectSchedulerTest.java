@@ -0,0 +1,115 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann;
+
+import eu.hansolo.tilesfx.runnermann.EffectScheduler.Registration;
+import javafx.scene.layout.Region;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class EffectSchedulerTest {
+    private static final long SECOND = 1_000_000_000L;
+
+
+    @BeforeAll public static void startFx() { HeadlessFx.start(); }
+
+    @Test public void pausesEffectOfNodeThatIsNotShowing() {
+        HeadlessFx.runAndWait(() -> {
+            final EffectScheduler scheduler    = new EffectScheduler();
+            final int[]           calls        = new int[1];
+            final Registration    registration = scheduler.register(new Region(), 60, NOW -> calls[0]++);
+            registration.start();
+            scheduler.pulse(System.nanoTime() + SECOND);
+            assertEquals(0, calls[0]);
+            assertFalse(registration.isShowing());
+            registration.unregister();
+        });
+    }
+
+    @Test public void callsOnlyRunningEffects() {
+        HeadlessFx.runAndWait(() -> {
+            final EffectScheduler    scheduler     = new EffectScheduler();
+            final int[]              calls         = new int[1];
+            final List<Registration> registrations = new ArrayList<>();
+            // Slow calls (e.g. after a collection) must not defer effects
+            scheduler.setFrameBudget(Long.MAX_VALUE);
+            for (int i = 0 ; i < 1_000 ; i++) { registrations.add(scheduler.register(null, 60, NOW -> calls[0]++)); }
+            registrations.get(10).start();
+            registrations.get(20).start();
+            assertEquals(1_000, scheduler.getNoOfEffects());
+            assertEquals(2, scheduler.getNoOfRunningEffects());
+
+            long now = System.nanoTime() + SECOND;
+            scheduler.pulse(now);
+            assertEquals(2, calls[0]);
+
+            registrations.get(10).stop();
+            registrations.get(20).unregister();
+            registrations.get(30).start();
+            scheduler.pulse(now += SECOND);
+            assertEquals(3, calls[0]);
+            assertEquals(999, scheduler.getNoOfEffects());
+            assertEquals(1, scheduler.getNoOfRunningEffects());
+
+            // Unregistered effects can't be started again
+            registrations.get(20).start();
+            registrations.get(20).unregister();
+            assertEquals(1, scheduler.getNoOfRunningEffects());
+            assertEquals(999, scheduler.getNoOfEffects());
+
+            registrations.get(30).stop();
+            registrations.get(10).start();
+            scheduler.pulse(now + SECOND);
+            assertEquals(4, calls[0]);
+            registrations.get(10).stop();
+        });
+    }
+
+    @Test public void effectsCanStopThemselves() {
+        HeadlessFx.runAndWait(() -> {
+            final EffectScheduler scheduler = new EffectScheduler();
+            final int[]           calls     = new int[1];
+            final Registration[]  effects   = new Registration[3];
+            scheduler.setFrameBudget(Long.MAX_VALUE);
+            for (int i = 0 ; i < effects.length ; i++) {
+                final int index = i;
+                effects[i] = scheduler.register(null, 60, NOW -> {
+                    calls[0]++;
+                    effects[index].stop();
+                });
+                effects[i].start();
+            }
+            scheduler.pulse(System.nanoTime() + SECOND);
+            assertEquals(3, calls[0]);
+            assertEquals(0, scheduler.getNoOfRunningEffects());
+
+            effects[1].start();
+            assertTrue(effects[1].isRunning());
+            scheduler.pulse(System.nanoTime() + 2 * SECOND);
+            assertEquals(4, calls[0]);
+        });
+    }
+}
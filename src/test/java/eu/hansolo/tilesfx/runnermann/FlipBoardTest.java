@@ -0,0 +1,113 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann;
+
+import eu.hansolo.tilesfx.runnermann.Tile.SkinType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+public class FlipBoardTest {
+    private static final long STAGGER_IN_MS = 1_000;
+    private static final long STAGGER       = STAGGER_IN_MS * 1_000_000L;
+
+
+    @BeforeAll public static void startFx() { HeadlessFx.start(); }
+
+    @Test public void startsFlipsWithStagger() {
+        HeadlessFx.runAndWait(() -> {
+            final EffectScheduler scheduler = new EffectScheduler();
+            final List<Tile>      tiles     = createTiles(5);
+            final FlipBoard       board     = new FlipBoard(tiles, scheduler);
+            scheduler.setFrameBudget(Long.MAX_VALUE);
+            board.setStaggerInMS(STAGGER_IN_MS);
+
+            // The stagger is long enough that the time between setText() and the pulses doesn't matter
+            board.setText("ABC");
+            final long start = System.nanoTime();
+            assertEquals(List.of("A", "", "", "", ""), flipTexts(tiles));
+            assertEquals(4, board.getNoOfPendingFlips());
+
+            scheduler.pulse(start + STAGGER / 2);
+            assertEquals(List.of("A", "", "", "", ""), flipTexts(tiles));
+
+            scheduler.pulse(start + STAGGER + STAGGER / 2);
+            assertEquals(List.of("A", "B", "", "", ""), flipTexts(tiles));
+
+            // Tiles behind the end of the text show a blank
+            scheduler.pulse(start + 3 * STAGGER + STAGGER / 2);
+            assertEquals(List.of("A", "B", "C", " ", ""), flipTexts(tiles));
+            assertEquals(1, board.getNoOfPendingFlips());
+
+            // A new text replaces the flips that didn't start yet
+            board.setText("XYZ");
+            final long restart = System.nanoTime();
+            assertEquals(List.of("X", "B", "C", " ", ""), flipTexts(tiles));
+            scheduler.pulse(restart + 4 * STAGGER + STAGGER / 2);
+            assertEquals(List.of("X", "Y", "Z", " ", " "), flipTexts(tiles));
+            assertEquals(0, board.getNoOfPendingFlips());
+            board.dispose();
+        });
+    }
+
+    @Test public void startsAllFlipsWithoutStagger() {
+        HeadlessFx.runAndWait(() -> {
+            final EffectScheduler scheduler = new EffectScheduler();
+            final List<Tile>      tiles     = createTiles(3);
+            final FlipBoard       board     = new FlipBoard(tiles, scheduler);
+            board.setStaggerInMS(0);
+            board.setText("HEY");
+            assertEquals(List.of("H", "E", "Y"), flipTexts(tiles));
+            assertEquals(0, board.getNoOfPendingFlips());
+            board.dispose();
+        });
+    }
+
+    @Test public void stopKeepsStartedFlips() {
+        HeadlessFx.runAndWait(() -> {
+            final EffectScheduler scheduler = new EffectScheduler();
+            final List<Tile>      tiles     = createTiles(3);
+            final FlipBoard       board     = new FlipBoard(tiles, scheduler);
+            board.setStaggerInMS(STAGGER_IN_MS);
+            board.setText("ABC");
+            final long start = System.nanoTime();
+            board.stop();
+            scheduler.pulse(start + 3 * STAGGER);
+            assertEquals(List.of("A", "", ""), flipTexts(tiles));
+            assertEquals(0, board.getNoOfPendingFlips());
+            board.dispose();
+        });
+    }
+
+    private static List<Tile> createTiles(final int NO_OF_TILES) {
+        final List<Tile> tiles = new ArrayList<>(NO_OF_TILES);
+        for (int i = 0 ; i < NO_OF_TILES ; i++) { tiles.add(new Tile(SkinType.FLIP)); }
+        return tiles;
+    }
+
+    private static List<String> flipTexts(final List<Tile> TILES) {
+        final List<String> texts = new ArrayList<>(TILES.size());
+        for (Tile tile : TILES) { texts.add(tile.getFlipText()); }
+        return texts;
+    }
+}
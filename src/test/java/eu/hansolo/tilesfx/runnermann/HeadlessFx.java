@@ -0,0 +1,97 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann;
+
+import javafx.application.Platform;
+import javafx.scene.text.Text;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+
+
+/**
+ * Starts the JavaFX toolkit once for all tests. The surefire configuration
+ * in the pom selects the headless Monocle platform with the software
+ * pipeline, so no display is needed.
+ */
+public final class HeadlessFx {
+    private static boolean started;
+    private static Boolean textAvailable;
+
+
+    // ******************** Constructors **************************************
+    private HeadlessFx() {}
+
+
+    // ******************** Methods *******************************************
+    public static synchronized void start() {
+        if (started) { return; }
+        final CountDownLatch latch = new CountDownLatch(1);
+        try {
+            Platform.startup(latch::countDown);
+        } catch (IllegalStateException e) {
+            // Toolkit already running
+            latch.countDown();
+        }
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Tests show and hide windows, the toolkit must keep running after the last one was closed
+        Platform.setImplicitExit(false);
+        started = true;
+    }
+
+    /**
+     * Returns true if text can be laid out. Fonts need the native text
+     * stack of the platform (e.g. pango on Linux), tests of nodes that
+     * contain text are skipped on hosts without it.
+     * @return true if text can be laid out
+     */
+    public static synchronized boolean isTextAvailable() {
+        if (null == textAvailable) {
+            try {
+                new Text("0").getLayoutBounds();
+                textAvailable = true;
+            } catch (LinkageError e) {
+                textAvailable = false;
+            }
+        }
+        return textAvailable;
+    }
+
+    /**
+     * Runs the given task on the JavaFX application thread and waits
+     * for it to finish.
+     * @param TASK
+     */
+    public static void runAndWait(final Runnable TASK) {
+        if (Platform.isFxApplicationThread()) {
+            TASK.run();
+            return;
+        }
+        final FutureTask<Void> future = new FutureTask<>(TASK, null);
+        Platform.runLater(future);
+        try {
+            future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann;
+
+import eu.hansolo.tilesfx.runnermann.PulseProfiler.Frame;
+import eu.hansolo.tilesfx.runnermann.PulseProfiler.Sample;
+import eu.hansolo.tilesfx.runnermann.Tile.SkinType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class PulseProfilerTest {
+
+    @BeforeAll public static void startFx() { HeadlessFx.start(); }
+
+    @AfterEach public void disableProfiler() {
+        HeadlessFx.runAndWait(() -> {
+            PulseProfiler.setEnabled(false);
+            PulseProfiler.clear();
+        });
+    }
+
+    @Test public void workIsAttributedPerTileAndTag() {
+        HeadlessFx.runAndWait(() -> {
+            final Tile gauge      = new Tile(SkinType.GAUGE);
+            final Tile percentage = new Tile(SkinType.PERCENTAGE);
+            gauge.setId("gauge");
+            percentage.setId("percentage");
+            PulseProfiler.clear();
+            PulseProfiler.setEnabled(true);
+            // Closes the frame of the work that was measured before
+            PulseProfiler.closeFrame(System.nanoTime());
+
+            PulseProfiler.measure(gauge, "tick", () -> work(2_000_000));
+            PulseProfiler.measure(percentage, "tick", () -> work(1_000_000));
+            PulseProfiler.measure(gauge, "tick", () -> work(2_000_000));
+            // Nested measurements only count once for the outermost tile and tag
+            PulseProfiler.measure(gauge, new String("REDRAW"), () -> PulseProfiler.measure(percentage, "REDRAW", () -> work(1_000_000)));
+            PulseProfiler.measure(gauge, "REDRAW", () -> work(1_000_000));
+            PulseProfiler.measure(null, "tick", () -> work(100_000));
+            PulseProfiler.closeFrame(System.nanoTime());
+
+            final List<Frame>  frames  = PulseProfiler.getFrames();
+            final List<Sample> samples = frames.get(frames.size() - 1).getSamples();
+            assertEquals(4, samples.size());
+            final Sample gaugeTick = sample(samples, "gauge", "tick");
+            assertEquals(2, gaugeTick.getCount());
+            assertEquals(SkinType.GAUGE.name(), gaugeTick.getSkinType());
+            assertTrue(gaugeTick.getNanos() >= 4_000_000);
+            assertEquals(2, sample(samples, "gauge", "REDRAW").getCount());
+            final Sample percentageTick = sample(samples, "percentage", "tick");
+            assertEquals(1, percentageTick.getCount());
+            assertEquals(SkinType.PERCENTAGE.name(), percentageTick.getSkinType());
+            assertEquals(1, sample(samples, "", "tick").getCount());
+            // Sorted by time
+            assertEquals(gaugeTick, samples.get(0));
+
+            final Map<String, Long> bySkinType = PulseProfiler.getBreakdownBySkinType();
+            assertEquals(SkinType.GAUGE.name(), bySkinType.keySet().iterator().next());
+            assertTrue(bySkinType.get(SkinType.GAUGE.name()) > bySkinType.get(SkinType.PERCENTAGE.name()));
+            final Map<String, Long> byTile = PulseProfiler.getBreakdownByTile();
+            assertEquals("gauge", byTile.keySet().iterator().next());
+            assertTrue(byTile.containsKey("percentage"));
+        });
+    }
+
+    private static Sample sample(final List<Sample> SAMPLES, final String TILE_ID, final String TAG) {
+        return SAMPLES.stream().filter(sample -> sample.getTileId().equals(TILE_ID) && sample.getTag().equals(TAG)).findFirst().orElseThrow();
+    }
+
+    private static void work(final long NANOS) {
+        final long end = System.nanoTime() + NANOS;
+        while (System.nanoTime() < end) { Thread.onSpinWait(); }
+    }
+}
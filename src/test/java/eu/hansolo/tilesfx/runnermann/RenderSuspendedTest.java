@@ -0,0 +1,110 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann;
+
+import eu.hansolo.tilesfx.runnermann.events.TileEvent;
+import eu.hansolo.tilesfx.runnermann.events.TileEvent.EventType;
+import eu.hansolo.tilesfx.runnermann.skins.TileSkin;
+import javafx.scene.Scene;
+import javafx.scene.layout.StackPane;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class RenderSuspendedTest {
+    private static final int NO_OF_VALUES = 100_000;
+
+
+    @BeforeAll public static void startFx() { HeadlessFx.start(); }
+
+    @Test public void hiddenTileOnlyCatchesUpOnce() {
+        HeadlessFx.runAndWait(() -> {
+            final Tile         tile  = new Tile();
+            final CountingSkin skin  = new CountingSkin(tile);
+            final Stage        stage = new Stage();
+            tile.setAnimated(false);
+            tile.setSkin(skin);
+            stage.setScene(new Scene(new StackPane(tile), 200, 200));
+            stage.show();
+
+            // Hidden by a parent
+            tile.getParent().setVisible(false);
+            TileVisibility.update(tile);
+            assertTrue(tile.isRenderSuspended());
+            skin.reset();
+
+            for (int i = 1 ; i <= NO_OF_VALUES ; i++) {
+                tile.setValue(i % 100);
+                if (0 == i % 1_000) { tile.fireTileEvent(new TileEvent(EventType.REDRAW)); }
+            }
+            assertEquals(0, skin.redraws);
+            assertEquals(0, skin.values);
+            assertEquals(0, skin.catchUps);
+            assertEquals(NO_OF_VALUES, skin.modelUpdates);
+
+            tile.getParent().setVisible(true);
+            TileVisibility.update(tile);
+            assertFalse(tile.isRenderSuspended());
+            assertEquals(1, skin.catchUps);
+            assertEquals(1, skin.redraws);
+            assertEquals(NO_OF_VALUES % 100, skin.lastValue);
+            stage.hide();
+        });
+    }
+
+
+    private static class CountingSkin extends TileSkin {
+        private int    redraws;
+        private int    values;
+        private int    catchUps;
+        private int    modelUpdates;
+        private double lastValue;
+
+
+        CountingSkin(final Tile TILE) { super(TILE); }
+
+
+        void reset() {
+            redraws      = 0;
+            values       = 0;
+            catchUps     = 0;
+            modelUpdates = 0;
+        }
+
+        @Override protected void redraw() { redraws++; }
+
+        @Override protected void resize() {}
+
+        @Override protected void handleCurrentValue(final double VALUE) {
+            values++;
+            lastValue = VALUE;
+        }
+
+        @Override protected void updateModel(final double VALUE) { modelUpdates++; }
+
+        @Override protected void catchUp() {
+            catchUps++;
+            lastValue = tile.getCurrentValue();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann;
+
+import eu.hansolo.tilesfx.runnermann.chart.ChartData;
+import eu.hansolo.tilesfx.runnermann.events.TileEvent;
+import eu.hansolo.tilesfx.runnermann.events.TileEvent.EventType;
+import javafx.scene.Scene;
+import javafx.scene.control.SkinBase;
+import javafx.scene.layout.StackPane;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+public class TileEventQueueTest {
+    // The tile queues some events of its own while it is created
+    private static final Set<EventType> TYPES = Set.of(EventType.SHOW_NOTIFY_REGION, EventType.HIDE_NOTIFY_REGION, EventType.SELECTED_CHART_DATA);
+
+
+    @BeforeAll public static void startFx() { HeadlessFx.start(); }
+
+    @Test public void deliversLastOfOppositeEvents() {
+        final List<EventType> types = deliverQueued(tile -> {
+            tile.showNotifyRegion(true);
+            tile.showNotifyRegion(false);
+            tile.showNotifyRegion(true);
+        });
+        assertEquals(List.of(EventType.HIDE_NOTIFY_REGION, EventType.SHOW_NOTIFY_REGION), types);
+    }
+
+    @Test public void collapsesRepeatedEvents() {
+        final List<EventType> types = deliverQueued(tile -> {
+            for (int i = 0 ; i < 1_000 ; i++) {
+                tile.showNotifyRegion(true);
+                tile.showNotifyRegion(false);
+            }
+        });
+        assertEquals(List.of(EventType.SHOW_NOTIFY_REGION, EventType.HIDE_NOTIFY_REGION), types);
+    }
+
+    @Test public void keepsEventsWithData() {
+        final List<EventType> types = deliverQueued(tile -> {
+            for (int i = 0 ; i < 3 ; i++) { tile.fireTileEvent(new TileEvent(EventType.SELECTED_CHART_DATA, new ChartData(i))); }
+        });
+        assertEquals(List.of(EventType.SELECTED_CHART_DATA, EventType.SELECTED_CHART_DATA, EventType.SELECTED_CHART_DATA), types);
+    }
+
+    // Fires events on a tile that is not showing and returns the types of the queued events that are delivered when the tile is shown
+    private static List<EventType> deliverQueued(final Consumer<Tile> FIRE) {
+        final List<EventType> types = new ArrayList<>();
+        HeadlessFx.runAndWait(() -> {
+            final Tile tile = new Tile();
+            // The skins need native text rendering which is not available on the headless platform
+            tile.setSkin(new SkinBase<>(tile) {});
+            final Stage stage = new Stage();
+            stage.setScene(new Scene(new StackPane(tile), 200, 200));
+            FIRE.accept(tile);
+            tile.setOnTileEvent(e -> { if (TYPES.contains(e.getEventType())) { types.add(e.getEventType()); } });
+            stage.show();
+            stage.hide();
+        });
+        return types;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann;
+
+import eu.hansolo.tilesfx.runnermann.Tile.SkinType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Bounds the retained heap of unskinned tiles of every SkinType by the
+ * bytes the current thread allocates while creating them. Unlike a heap
+ * delta this doesn't depend on when the garbage collector runs. Before
+ * the side table for rarely used properties an unskinned tile retained
+ * about 43 KB. The measured sizes are written to
+ * target/tile-footprint.txt.
+ */
+public class TileFootprintTest {
+    private static final int    NO_OF_TILES        = 50;
+    private static final long   MAX_BYTES_PER_TILE = 10_000;
+    private static final String THREAD_MBEAN       = ManagementFactory.THREAD_MXBEAN_NAME;
+
+
+    @BeforeAll public static void startFx() { HeadlessFx.start(); }
+
+    @Test public void unskinnedTilesOfEverySkinTypeAreSmall() throws JMException, IOException {
+        final List<String> report = new ArrayList<>();
+        final List<String> tooBig = new ArrayList<>();
+        for (SkinType skinType : SkinType.values()) {
+            // Warm up class loading and the static state of the tile
+            createTiles(skinType);
+            final long before = allocatedBytes();
+            createTiles(skinType);
+            final long bytesPerTile = (allocatedBytes() - before) / NO_OF_TILES;
+            report.add(String.format("%-30s %8d", skinType, bytesPerTile));
+            if (bytesPerTile >= MAX_BYTES_PER_TILE) { tooBig.add(skinType + " (" + bytesPerTile + " bytes)"); }
+        }
+        final Path target = Paths.get("target");
+        if (Files.isDirectory(target)) { Files.write(target.resolve("tile-footprint.txt"), report); }
+        assertTrue(tooBig.isEmpty(), "Tiles bigger than " + MAX_BYTES_PER_TILE + " bytes: " + tooBig);
+    }
+
+    private static Tile[] createTiles(final SkinType SKIN_TYPE) {
+        final Tile[] tiles = new Tile[NO_OF_TILES];
+        for (int i = 0 ; i < NO_OF_TILES ; i++) { tiles[i] = new Tile(SKIN_TYPE); }
+        return tiles;
+    }
+
+    // Read through the platform MBean server, com.sun.management isn't visible to this module
+    private static long allocatedBytes() throws JMException {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        return (Long) server.getAttribute(new ObjectName(THREAD_MBEAN), "CurrentThreadAllocatedBytes");
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann;
+
+import eu.hansolo.tilesfx.runnermann.TileMetrics.Operation;
+import eu.hansolo.tilesfx.runnermann.events.TileEvent;
+import eu.hansolo.tilesfx.runnermann.events.TileEvent.EventType;
+import eu.hansolo.tilesfx.runnermann.skins.TileSkin;
+import javafx.scene.Scene;
+import javafx.scene.layout.StackPane;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class TileMetricsTest {
+
+    @BeforeAll public static void startFx() { HeadlessFx.start(); }
+
+    @AfterEach public void disableMetrics() {
+        TileMetrics.setEnabled(false);
+        TileMetrics.resetAll();
+    }
+
+    @Test public void noMetricsAsLongAsDisabled() {
+        TileMetrics.setEnabled(false);
+        assertNull(new Tile().getMetrics());
+    }
+
+    @Test public void skinOperationsAreRecordedPerTileAndInTheAggregate() throws JMException {
+        TileMetrics.setEnabled(true);
+        TileMetrics.resetAll();
+        final TileMetrics[] tileMetrics = new TileMetrics[1];
+        HeadlessFx.runAndWait(() -> {
+            final Tile  tile  = new Tile();
+            final Stage stage = new Stage();
+            tile.setId("metrics");
+            tile.setAnimated(false);
+            tile.setSkin(new TileSkin(tile));
+            stage.setScene(new Scene(new StackPane(tile), 200, 200));
+            stage.show();
+
+            final TileMetrics metrics = tile.getMetrics();
+            assertNotNull(metrics);
+            assertSame(metrics, tile.getMetrics());
+            tileMetrics[0] = metrics;
+            metrics.reset();
+            final long aggregateValues = TileMetrics.getAggregate().getCurrentValueLatency().getCount();
+            for (int i = 1 ; i <= 10 ; i++) { tile.setValue(i); }
+            assertEquals(10, metrics.getCurrentValueLatency().getCount());
+            assertEquals(aggregateValues + 10, TileMetrics.getAggregate().getCurrentValueLatency().getCount());
+
+            metrics.reset();
+            tile.fireTileEvent(new TileEvent(EventType.REDRAW));
+            assertEquals(1, metrics.getEventsFired());
+            assertEquals(1, metrics.getEventLatency().getCount());
+            assertTrue(TileMetrics.snapshot().stream().anyMatch(snapshot -> snapshot.getId().equals(metrics.getTileId())));
+
+            metrics.reset();
+            assertEquals(0, metrics.getHistogram(Operation.CURRENT_VALUE).getCount());
+            assertEquals(0, metrics.getEventsFired());
+            stage.hide();
+        });
+        assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(tileMetrics[0].getObjectName()));
+    }
+
+    @Test public void eventsOfHiddenTilesAreQueuedAndCollapsed() {
+        TileMetrics.setEnabled(true);
+        final Tile        tile    = new Tile();
+        final TileMetrics metrics = tile.getMetrics();
+        final TileEvent   redraw  = new TileEvent(EventType.REDRAW);
+        // The tile already queued the events of its initialization
+        metrics.reset();
+        tile.fireTileEvent(redraw);
+        tile.fireTileEvent(redraw);
+        tile.fireTileEvent(redraw);
+        assertEquals(0, metrics.getEventsFired());
+        assertEquals(1, metrics.getEventsQueued());
+        assertEquals(2, metrics.getEventsCollapsed());
+    }
+}
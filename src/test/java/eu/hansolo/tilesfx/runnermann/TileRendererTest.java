@@ -0,0 +1,98 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann;
+
+import eu.hansolo.tilesfx.runnermann.Tile.SkinType;
+import eu.hansolo.tilesfx.runnermann.chart.ChartData;
+import eu.hansolo.tilesfx.runnermann.skins.TileSkin;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class TileRendererTest {
+
+    @BeforeAll public static void startFx() { HeadlessFx.start(); }
+
+    @Test public void capsScenesPerSkinTypeAndQueuesJobsPerSkinType() throws Exception {
+        final TileRenderer                           renderer = new TileRenderer();
+        final List<Integer>                          started  = new ArrayList<>();
+        final List<CompletableFuture<WritableImage>> futures  = new ArrayList<>();
+        renderer.setMaxScenesPerSkinType(2);
+        // Submitted on the FX thread, so all jobs are queued before the first pulse
+        HeadlessFx.runAndWait(() -> {
+            for (int i = 0 ; i < 13 ; i++) {
+                final int      id       = i;
+                final SkinType skinType = i < 10 ? SkinType.GAUGE : SkinType.PERCENTAGE;
+                futures.add(renderer.render(TileBuilder.create().skinType(skinType).backgroundColor(Color.RED), textFree(tile -> started.add(id)), 100, 100));
+            }
+            assertEquals(13, renderer.getNoOfPendingJobs());
+        });
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+
+        assertEquals(13, renderer.getNoOfRenderedImages());
+        assertEquals(0, renderer.getNoOfPendingJobs());
+        assertEquals(0, renderer.getNoOfRunningJobs());
+        // Two scenes per SkinType
+        assertEquals(4, renderer.getNoOfScenes());
+        // The jobs of each SkinType start in the order they were submitted
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), started.stream().filter(id -> id < 10).toList());
+        assertEquals(List.of(10, 11, 12), started.stream().filter(id -> id >= 10).toList());
+        // The PERCENTAGE jobs don't wait for the GAUGE jobs that have no free scene
+        assertTrue(started.indexOf(11) < started.indexOf(2));
+
+        final WritableImage image = futures.get(0).get();
+        assertEquals(100, image.getWidth());
+        assertEquals(Color.RED, image.getPixelReader().getColor(50, 50));
+    }
+
+    @Test public void releasesAnimationsOfRenderedTiles() throws Exception {
+        final TileRenderer renderer = new TileRenderer();
+        renderer.render(TileBuilder.create().skinType(SkinType.GAUGE), textFree(tile -> {
+            // The value of the offscreen tile is not animated but its chart data is
+            tile.setAnimated(true);
+            tile.setAnimationDuration(60_000);
+            final ChartData data = new ChartData(10);
+            tile.addChartData(data);
+            data.setValue(90);
+            assertTrue(ChartData.getAnimator().getNoOfAnimations() > 0);
+        }), 100, 100).get(30, TimeUnit.SECONDS);
+        HeadlessFx.runAndWait(() -> {
+            assertEquals(0, Tile.getAnimator().getNoOfAnimations());
+            assertEquals(0, ChartData.getAnimator().getNoOfAnimations());
+        });
+    }
+
+    // The skins of the SkinTypes need native text rendering which is not available on the headless platform
+    private static Consumer<Tile> textFree(final Consumer<Tile> DATA) {
+        return tile -> {
+            tile.setSkin(new TileSkin(tile));
+            DATA.accept(tile);
+        };
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann;
+
+import eu.hansolo.tilesfx.runnermann.chart.ChartData;
+import eu.hansolo.tilesfx.runnermann.events.TileEvent.EventType;
+import eu.hansolo.tilesfx.runnermann.skins.LeaderBoardItem;
+import eu.hansolo.tilesfx.runnermann.skins.TileSkin;
+import eu.hansolo.tilesfx.runnermann.tools.MappedTimeSeriesStore;
+import eu.hansolo.tilesfx.runnermann.tools.TimeData;
+import javafx.scene.Scene;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+
+public class TileSnapshotTest {
+    private static final Instant START = Instant.ofEpochMilli(1_700_000_000_000L);
+
+
+    @BeforeAll public static void startFx() { HeadlessFx.start(); }
+
+    @Test public void writeReadAndRestore(@TempDir final Path DIR) throws IOException {
+        try (MappedTimeSeriesStore sourceStore = new MappedTimeSeriesStore(DIR.resolve("source.tss"));
+             MappedTimeSeriesStore targetStore = new MappedTimeSeriesStore(DIR.resolve("target.tss"))) {
+            final Tile source = new Tile();
+            source.setAnimated(false);
+            source.setValue(42);
+            source.setMinMeasuredValue(3);
+            source.setMaxMeasuredValue(77);
+            for (int i = 0 ; i < 5 ; i++) { source.getMovingAverage().addData(new TimeData(i * 10, START.plusSeconds(i))); }
+            source.addChartData(new ChartData("A", 1, START, Duration.ofSeconds(5), Color.RED), new ChartData("B", 2, Color.BLUE));
+            source.addSection(new Section(0, 50, "Low", null, Color.GREEN, Color.LIME, Color.WHITE, "low"));
+            source.setTimeSeriesStore(sourceStore);
+            for (int i = 0 ; i < 10 ; i++) { sourceStore.append(START.toEpochMilli() + i, i); }
+            // The target store already contains the first records, e.g. because it is backed by the same file
+            for (int i = 0 ; i < 4 ; i++) { targetStore.append(START.toEpochMilli() + i, i); }
+
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            TileSnapshot.of(List.of(source)).writeTo(bytes);
+            final TileSnapshot snapshot = TileSnapshot.readFrom(new ByteArrayInputStream(bytes.toByteArray()));
+            assertEquals(1, snapshot.getNoOfTiles());
+
+            final Tile target = new Tile();
+            target.setTimeSeriesStore(targetStore);
+            target.addChartData(new ChartData("Old", 5));
+            snapshot.restore(List.of(target));
+
+            assertEquals(42, target.getValue());
+            assertEquals(42, target.getCurrentValue());
+            assertEquals(3, target.getMinMeasuredValue());
+            assertEquals(77, target.getMaxMeasuredValue());
+
+            final List<TimeData> window = new ArrayList<>(target.getMovingAverage().getWindow());
+            assertEquals(5, window.size());
+            assertEquals(40, window.get(4).getValue());
+            assertEquals(START.plusSeconds(4), window.get(4).getTimestamp());
+
+            assertEquals(2, target.getChartData().size());
+            final ChartData data = target.getChartData().get(0);
+            assertEquals("A", data.getName());
+            assertEquals(1, data.getValue());
+            assertEquals(START, data.getTimestamp());
+            assertEquals(Duration.ofSeconds(5), data.getDuration());
+            assertEquals(Color.RED, data.getFillColor());
+            assertEquals("B", target.getChartData().get(1).getName());
+
+            assertEquals(1, target.getSections().size());
+            final Section section = target.getSections().get(0);
+            assertEquals(50, section.getStop());
+            assertEquals("Low", section.getText());
+            assertEquals(Color.LIME, section.getHighlightColor());
+            assertEquals("low", section.getStyleClass());
+
+            // Only the records that are newer than the last record of the store are appended
+            assertEquals(10, targetStore.size());
+            for (int i = 0 ; i < 10 ; i++) {
+                assertEquals(START.toEpochMilli() + i, targetStore.getEpochMillis(i));
+                assertEquals(i, targetStore.getValue(i));
+            }
+        }
+    }
+
+    @Test public void leaderBoardItemsAreRestored() throws IOException {
+        // Leader board items are nodes with text
+        assumeTrue(HeadlessFx.isTextAvailable());
+        final Tile source = new Tile();
+        source.addLeaderBoardItem(new LeaderBoardItem("First", 99, START, Duration.ofMinutes(1)));
+        source.addLeaderBoardItem(new LeaderBoardItem("Second", 50));
+
+        final Tile target = new Tile();
+        target.addLeaderBoardItem(new LeaderBoardItem("Old", 1));
+        TileSnapshot.of(List.of(source)).restore(List.of(target));
+
+        assertEquals(2, target.getLeaderBoardItems().size());
+        final LeaderBoardItem item = target.getLeaderBoardItems().get(0);
+        assertEquals("First", item.getName());
+        assertEquals(99, item.getValue());
+        assertEquals(START, item.getTimestamp());
+        assertEquals(Duration.ofMinutes(1), item.getDuration());
+        assertEquals("Second", target.getLeaderBoardItems().get(1).getName());
+    }
+
+    @Test public void restoreFiresNoValueEvent() {
+        HeadlessFx.runAndWait(() -> {
+            final Tile source = new Tile();
+            source.setAnimated(false);
+            source.setValue(60);
+
+            final Tile            target = new Tile();
+            final List<EventType> events = new ArrayList<>();
+            final Stage           stage  = new Stage();
+            target.setAnimated(false);
+            target.setSkin(new TileSkin(target));
+            stage.setScene(new Scene(new StackPane(target), 200, 200));
+            stage.show();
+            target.addTileEventListener(e -> events.add(e.getEventType()));
+
+            try {
+                TileSnapshot.of(List.of(source)).restore(List.of(target));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            assertEquals(60, target.getValue());
+            assertTrue(events.contains(EventType.RECALC));
+            assertTrue(!events.contains(EventType.VALUE), events.toString());
+            stage.hide();
+        });
+    }
+
+    @Test public void corruptHeaderIsRejected() throws IOException {
+        assertThrows(IOException.class, () -> TileSnapshot.readFrom(new ByteArrayInputStream(header(0, 1))));
+        assertThrows(IOException.class, () -> TileSnapshot.readFrom(new ByteArrayInputStream(header(TileSnapshot.VERSION + 1, 1))));
+        assertThrows(IOException.class, () -> TileSnapshot.readFrom(new ByteArrayInputStream(header(TileSnapshot.VERSION, -1))));
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream      out   = new DataOutputStream(bytes);
+        out.write(header(TileSnapshot.VERSION, 1));
+        out.writeInt(-5);
+        assertThrows(IOException.class, () -> TileSnapshot.readFrom(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    @Test public void corruptTileStateIsRejectedBeforeTheTileIsChanged() throws IOException {
+        final ByteArrayOutputStream state = new ByteArrayOutputStream();
+        final DataOutputStream      out   = new DataOutputStream(state);
+        out.writeDouble(10);
+        out.writeDouble(0);
+        out.writeDouble(20);
+        // Negative size of the moving average window
+        out.writeInt(-1);
+        out.flush();
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream      file  = new DataOutputStream(bytes);
+        file.write(header(TileSnapshot.VERSION, 1));
+        file.writeInt(state.size());
+        file.write(state.toByteArray());
+        file.flush();
+
+        final TileSnapshot snapshot = TileSnapshot.readFrom(new ByteArrayInputStream(bytes.toByteArray()));
+        final Tile         tile     = new Tile();
+        assertThrows(IOException.class, () -> snapshot.restore(0, tile));
+        assertEquals(0, tile.getValue());
+        assertNull(tile.getTimeSeriesStore());
+    }
+
+    private static byte[] header(final int VERSION, final int NO_OF_TILES) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream      out   = new DataOutputStream(bytes);
+        out.writeLong(0x5449_4C45_534E_4150L);
+        out.writeInt(VERSION);
+        out.writeInt(NO_OF_TILES);
+        out.flush();
+        return bytes.toByteArray();
+    }
+}
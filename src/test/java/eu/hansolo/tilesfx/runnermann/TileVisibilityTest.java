@@ -0,0 +1,147 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann;
+
+import eu.hansolo.tilesfx.runnermann.skins.TileSkin;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class TileVisibilityTest {
+    private Stage stage;
+
+
+    @BeforeAll public static void startFx() { HeadlessFx.start(); }
+
+    @BeforeEach public void disablePolling() {
+        HeadlessFx.runAndWait(() -> TileVisibility.setPollingEnabled(false));
+    }
+
+    @AfterEach public void hideStage() {
+        HeadlessFx.runAndWait(() -> { if (null != stage) { stage.hide(); } });
+    }
+
+    @Test public void parentVisibilityAndOpacitySuspendRendering() {
+        final Tile      tile   = createTile();
+        final StackPane parent = new StackPane(tile);
+        show(new StackPane(parent));
+        assertSuspended(tile, false);
+
+        HeadlessFx.runAndWait(() -> parent.setVisible(false));
+        assertSuspended(tile, true);
+        HeadlessFx.runAndWait(() -> parent.setVisible(true));
+        assertSuspended(tile, false);
+
+        HeadlessFx.runAndWait(() -> parent.setOpacity(0));
+        assertSuspended(tile, true);
+        HeadlessFx.runAndWait(() -> parent.setOpacity(1));
+        assertSuspended(tile, false);
+    }
+
+    @Test public void scrollingOutOfTheViewportSuspendsRendering() {
+        final Tile   tile   = createTile();
+        final Region filler = new Region();
+        filler.setMinHeight(1_000);
+        final ScrollPane scrollPane = new ScrollPane(new VBox(tile, filler));
+        show(scrollPane);
+        assertSuspended(tile, false);
+
+        HeadlessFx.runAndWait(() -> {
+            scrollPane.setVvalue(1);
+            scrollPane.layout();
+        });
+        assertSuspended(tile, true);
+
+        HeadlessFx.runAndWait(() -> {
+            scrollPane.setVvalue(0);
+            scrollPane.layout();
+        });
+        assertSuspended(tile, false);
+    }
+
+    @Test public void hidingTheWindowSuspendsRendering() {
+        final Tile tile = createTile();
+        show(new StackPane(tile));
+        assertSuspended(tile, false);
+
+        HeadlessFx.runAndWait(() -> stage.hide());
+        assertSuspended(tile, true);
+        HeadlessFx.runAndWait(() -> stage.show());
+        assertSuspended(tile, false);
+    }
+
+    @Test public void movingTheTileToAnotherParentIsFollowed() {
+        final Tile      tile   = createTile();
+        final StackPane first  = new StackPane(tile);
+        final StackPane second = new StackPane();
+        show(new VBox(first, second));
+
+        HeadlessFx.runAndWait(() -> second.getChildren().add(tile));
+        HeadlessFx.runAndWait(() -> second.setVisible(false));
+        assertSuspended(tile, true);
+        // Changes of the old parent must not be observed anymore
+        HeadlessFx.runAndWait(() -> {
+            first.setVisible(false);
+            second.setVisible(true);
+        });
+        assertSuspended(tile, false);
+    }
+
+
+    private Tile createTile() {
+        final Tile[] tile = new Tile[1];
+        HeadlessFx.runAndWait(() -> {
+            tile[0] = new Tile();
+            tile[0].setAnimated(false);
+            tile[0].setPrefSize(100, 100);
+            tile[0].setSkin(new TileSkin(tile[0]));
+        });
+        return tile[0];
+    }
+
+    private void show(final Parent ROOT) {
+        HeadlessFx.runAndWait(() -> {
+            stage = new Stage();
+            stage.setScene(new Scene(ROOT, 200, 200));
+            stage.show();
+        });
+    }
+
+    // The checks run at the end of the event that changed the visibility
+    private static void assertSuspended(final Tile TILE, final boolean SUSPENDED) {
+        HeadlessFx.runAndWait(() -> {
+            if (SUSPENDED) {
+                assertTrue(TILE.isRenderSuspended());
+            } else {
+                assertFalse(TILE.isRenderSuspended());
+            }
+        });
+    }
+}
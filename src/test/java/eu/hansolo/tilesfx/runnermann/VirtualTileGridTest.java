@@ -0,0 +1,161 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann;
+
+import eu.hansolo.tilesfx.runnermann.Tile.SkinType;
+import eu.hansolo.tilesfx.runnermann.skins.TileSkin;
+import javafx.scene.Scene;
+import javafx.scene.control.Skin;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class VirtualTileGridTest {
+    private static final int NO_OF_TILES = 40;
+    private static final int NO_OF_COLS  = 2;
+
+
+    @BeforeAll public static void startFx() { HeadlessFx.start(); }
+
+    @Test public void attachesOnlyTheTilesInTheViewport() {
+        HeadlessFx.runAndWait(() -> {
+            final List<Tile>      tiles = createTiles(SkinType.GAUGE);
+            final VirtualTileGrid grid  = createGrid(tiles);
+            final Stage           stage = show(grid);
+
+            // Rows 0 to 2 touch the 200px high viewport
+            for (int i = 0 ; i < NO_OF_TILES ; i++) {
+                assertEquals(i < 6, grid.isAttached(tiles.get(i)), "Tile " + i);
+                assertEquals(i < 6, tiles.get(i).getParent() != null, "Tile " + i);
+            }
+            assertNotNull(tiles.get(0).getSkin());
+            assertNull(tiles.get(NO_OF_TILES - 1).getSkin());
+
+            grid.scrollTo(NO_OF_TILES - 1);
+            pulse(grid);
+            assertTrue(grid.isAttached(tiles.get(NO_OF_TILES - 1)));
+            assertNotNull(tiles.get(NO_OF_TILES - 1).getSkin());
+            assertFalse(grid.isAttached(tiles.get(0)));
+            assertNull(tiles.get(0).getParent());
+            // At the bottom the last two rows fill the viewport
+            assertEquals(4, grid.getAttachedTiles().size());
+
+            // A parked tile keeps its skin and gets it back when it is attached again
+            final Skin<?> skin = tiles.get(0).getSkin();
+            assertNotNull(skin);
+            grid.scrollTo(0);
+            pulse(grid);
+            assertTrue(grid.isAttached(tiles.get(0)));
+            assertSame(skin, tiles.get(0).getSkin());
+
+            // Removed tiles are detached
+            final Tile removed = tiles.get(0);
+            grid.getTiles().remove(removed);
+            pulse(grid);
+            assertFalse(grid.isAttached(removed));
+            assertNull(removed.getParent());
+            stage.hide();
+        });
+    }
+
+    @Test public void poolIsBoundPerSkinType() {
+        HeadlessFx.runAndWait(() -> {
+            final List<Tile> tiles = new ArrayList<>();
+            for (int i = 0 ; i < NO_OF_TILES ; i++) { tiles.add(new PlainTile(0 == i % 2 ? SkinType.GAUGE : SkinType.PERCENTAGE)); }
+            final VirtualTileGrid grid  = createGrid(tiles);
+            grid.setPoolSize(2);
+            final Stage           stage = show(grid);
+
+            // Scroll through the whole grid, every tile gets attached and parked once
+            for (int i = 0 ; i < NO_OF_TILES ; i += NO_OF_COLS) {
+                grid.scrollTo(i);
+                pulse(grid);
+            }
+            int parkedGauges      = 0;
+            int parkedPercentages = 0;
+            for (Tile tile : tiles) {
+                if (grid.isAttached(tile)) {
+                    assertNotNull(tile.getSkin());
+                } else if (null != tile.getSkin()) {
+                    if (SkinType.GAUGE == tile.getSkinType()) { parkedGauges++; } else { parkedPercentages++; }
+                }
+            }
+            assertEquals(2, parkedGauges);
+            assertEquals(2, parkedPercentages);
+
+            grid.setPoolSize(1);
+            grid.clearPool();
+            for (Tile tile : tiles) {
+                assertEquals(grid.isAttached(tile), null != tile.getSkin());
+            }
+            stage.hide();
+        });
+    }
+
+    private static List<Tile> createTiles(final SkinType SKIN_TYPE) {
+        final List<Tile> tiles = new ArrayList<>(NO_OF_TILES);
+        for (int i = 0 ; i < NO_OF_TILES ; i++) { tiles.add(new PlainTile(SKIN_TYPE)); }
+        return tiles;
+    }
+
+    private static VirtualTileGrid createGrid(final List<Tile> TILES) {
+        final VirtualTileGrid grid = new VirtualTileGrid(NO_OF_COLS, TILES.toArray(new Tile[0]));
+        grid.setHgap(0);
+        grid.setVgap(0);
+        grid.setOverscan(0);
+        grid.setCellHeight(100);
+        return grid;
+    }
+
+    private static Stage show(final VirtualTileGrid GRID) {
+        final Stage stage = new Stage();
+        stage.setScene(new Scene(GRID, 220, 200));
+        stage.show();
+        pulse(GRID);
+        return stage;
+    }
+
+    // Tiles that were attached by the layout get their skin with the next css pass
+    private static void pulse(final VirtualTileGrid GRID) {
+        GRID.layout();
+        GRID.applyCss();
+    }
+
+
+    // ******************** Inner Classes *************************************
+    // The skins of the SkinTypes contain text which needs the native text stack
+    private static class PlainTile extends Tile {
+        PlainTile(final SkinType SKIN_TYPE) {
+            super(SKIN_TYPE);
+            setAnimated(false);
+        }
+
+        @Override protected Skin createDefaultSkin() { return new TileSkin(this); }
+    }
+}
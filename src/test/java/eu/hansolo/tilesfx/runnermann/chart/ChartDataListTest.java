@@ -0,0 +1,123 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.chart;
+
+import eu.hansolo.tilesfx.runnermann.HeadlessFx;
+import eu.hansolo.tilesfx.runnermann.Tile;
+import eu.hansolo.tilesfx.runnermann.events.ChartDataEvent.EventType;
+import eu.hansolo.tilesfx.runnermann.events.ChartDataEventListener;
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class ChartDataListTest {
+
+    @BeforeAll public static void startFx() { HeadlessFx.start(); }
+
+    @Test public void transactionWithValuesIsOneChangeAndVisible() {
+        final Tile            tile    = new Tile();
+        final List<ChartData> items   = List.of(new ChartData("A", 1), new ChartData("B", 2), new ChartData("C", 3));
+        final int[]           changes = new int[1];
+        final int[]           updates = new int[1];
+        final int[]           events  = new int[items.size()];
+        tile.setAnimated(false);
+        tile.setChartData(items);
+        tile.getChartData().addListener((ListChangeListener<ChartData>) change -> {
+            changes[0]++;
+            while (change.next()) {
+                if (change.wasUpdated()) { updates[0]++; }
+            }
+        });
+        for (int i = 0 ; i < items.size() ; i++) {
+            final int index = i;
+            items.get(i).addChartDataEventListener(e -> {
+                // Skins redraw the item on its events, after the list change and with the last value
+                events[index]++;
+                assertEquals(EventType.FINISHED, e.getType());
+                assertEquals(1, changes[0]);
+            });
+        }
+
+        tile.updateChartData(transaction -> {
+            transaction.setValue(0, 10);
+            transaction.setValue(0, 11);
+            transaction.setValue(items.get(1), 20);
+        });
+
+        assertEquals(1, changes[0]);
+        assertTrue(updates[0] > 0);
+        assertEquals(1, events[0]);
+        assertEquals(1, events[1]);
+        assertEquals(0, events[2]);
+        assertEquals(11, items.get(0).getValue());
+        assertEquals(1, items.get(0).getOldValue());
+        assertEquals(20, items.get(1).getValue());
+    }
+
+    @Test public void nextTransactionReportsValueAgain() {
+        final ChartDataList list   = new ChartDataList();
+        final ChartData     data   = new ChartData("A", 1);
+        final List<Double>  values = new ArrayList<>();
+        data.setAnimated(false);
+        list.add(data);
+        data.addChartDataEventListener(e -> values.add(e.getData().getValue()));
+
+        list.update(transaction -> transaction.setValue(0, 5));
+        list.update(transaction -> transaction.setValue(0, 6));
+        list.update(transaction -> transaction.add(new ChartData("B", 2)));
+
+        assertEquals(List.of(5.0, 6.0), values);
+        assertFalse(list.isEmpty());
+    }
+
+    @Test public void sharedListenerIsNotifiedOncePerTransaction() {
+        final ChartDataList   list      = new ChartDataList();
+        final List<ChartData> items     = new ArrayList<>();
+        final List<ChartData> sources   = new ArrayList<>();
+        final int[]           ownEvents = new int[1];
+        // Like the listener of a skin that redraws the whole chart on an event of any item
+        final ChartDataEventListener redraw = e -> sources.add(e.getData());
+        for (int i = 0 ; i < 100 ; i++) {
+            final ChartData data = new ChartData("Item " + i, i);
+            data.setAnimated(false);
+            data.addChartDataEventListener(redraw);
+            items.add(data);
+        }
+        items.get(0).addChartDataEventListener(e -> ownEvents[0]++);
+        list.addAll(items);
+
+        list.update(transaction -> {
+            for (int i = 0 ; i < items.size() ; i++) { transaction.setValue(i, i * 2); }
+        });
+        assertEquals(List.of(items.get(99)), sources);
+        assertEquals(1, ownEvents[0]);
+
+        sources.clear();
+        list.update(transaction -> transaction.setValue(items.get(5), 1));
+        assertEquals(List.of(items.get(5)), sources);
+        assertEquals(1, ownEvents[0]);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.chart;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class SunburstChartTest {
+    private static final double RING_RADIUS_STEP = 50;
+    private static final double BAR_WIDTH        = 40;
+    private static final int    NO_OF_LEVELS     = 3;   // Level 0 is the root, rings 1 and 2 are drawn
+
+
+    @Test public void picksRingByDistanceToCenter() {
+        // Ring 1 covers the radii 30 to 70, ring 2 the radii 80 to 120
+        assertEquals(-1, SunburstChart.pickRing(10, RING_RADIUS_STEP, BAR_WIDTH, NO_OF_LEVELS));
+        assertEquals(-1, SunburstChart.pickRing(29.9, RING_RADIUS_STEP, BAR_WIDTH, NO_OF_LEVELS));
+        assertEquals(1, SunburstChart.pickRing(30, RING_RADIUS_STEP, BAR_WIDTH, NO_OF_LEVELS));
+        assertEquals(1, SunburstChart.pickRing(70, RING_RADIUS_STEP, BAR_WIDTH, NO_OF_LEVELS));
+        // Gap between the rings
+        assertEquals(-1, SunburstChart.pickRing(72, RING_RADIUS_STEP, BAR_WIDTH, NO_OF_LEVELS));
+        assertEquals(-1, SunburstChart.pickRing(78, RING_RADIUS_STEP, BAR_WIDTH, NO_OF_LEVELS));
+        assertEquals(2, SunburstChart.pickRing(80, RING_RADIUS_STEP, BAR_WIDTH, NO_OF_LEVELS));
+        assertEquals(2, SunburstChart.pickRing(120, RING_RADIUS_STEP, BAR_WIDTH, NO_OF_LEVELS));
+        // Behind the outermost ring
+        assertEquals(-1, SunburstChart.pickRing(120.1, RING_RADIUS_STEP, BAR_WIDTH, NO_OF_LEVELS));
+        assertEquals(-1, SunburstChart.pickRing(150, RING_RADIUS_STEP, BAR_WIDTH, NO_OF_LEVELS));
+    }
+
+    @Test public void measuresAnglesClockwiseFrom12OClock() {
+        assertEquals(0, SunburstChart.clockwiseAngle(0, 10), 1e-9);
+        assertEquals(90, SunburstChart.clockwiseAngle(10, 0), 1e-9);
+        assertEquals(180, SunburstChart.clockwiseAngle(0, -10), 1e-9);
+        assertEquals(270, SunburstChart.clockwiseAngle(-10, 0), 1e-9);
+        assertEquals(315, SunburstChart.clockwiseAngle(-10, 10), 1e-9);
+        // Just left of 12 o'clock
+        final double angle = SunburstChart.clockwiseAngle(-1e-6, 10);
+        assertEquals(360, angle, 1e-4);
+        assertTrue(angle < 360);
+    }
+
+    @Test public void picksSegmentByEndAngle() {
+        // Segments 0 to 90, 90 to 200 and 200 to 300 degrees, nothing from 300 to 360
+        final double[] endAngles = { 90, 200, 300, 0 };
+        assertEquals(0, SunburstChart.pickSegment(endAngles, 3, 0));
+        assertEquals(0, SunburstChart.pickSegment(endAngles, 3, 89.9));
+        // Angles on the end of a segment belong to the next segment
+        assertEquals(1, SunburstChart.pickSegment(endAngles, 3, 90));
+        assertEquals(1, SunburstChart.pickSegment(endAngles, 3, 199.9));
+        assertEquals(2, SunburstChart.pickSegment(endAngles, 3, 200));
+        assertEquals(-1, SunburstChart.pickSegment(endAngles, 3, 300));
+        assertEquals(-1, SunburstChart.pickSegment(endAngles, 3, 359.9));
+        // Only the given number of segments is searched, the array may be longer
+        assertEquals(-1, SunburstChart.pickSegment(endAngles, 2, 250));
+        assertEquals(-1, SunburstChart.pickSegment(endAngles, 0, 10));
+    }
+}
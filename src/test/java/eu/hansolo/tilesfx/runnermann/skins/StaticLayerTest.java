@@ -0,0 +1,160 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.skins;
+
+import eu.hansolo.tilesfx.runnermann.HeadlessFx;
+import eu.hansolo.tilesfx.runnermann.Section;
+import eu.hansolo.tilesfx.runnermann.Tile;
+import eu.hansolo.tilesfx.runnermann.events.TileEvent;
+import eu.hansolo.tilesfx.runnermann.events.TileEvent.EventType;
+import javafx.scene.Scene;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+
+public class StaticLayerTest {
+
+    @BeforeAll public static void startFx() { HeadlessFx.start(); }
+
+    @Test public void realSkinsDrawTheirStaticLayerOnlyForStaticChanges() {
+        // The real skins contain text
+        assumeTrue(HeadlessFx.isTextAvailable());
+        assertStaticLayerOnlyForStaticChanges("Gauge", (tile, counter) -> new GaugeTileSkin(tile) {
+            @Override protected void drawStaticLayer() { counter[0]++; super.drawStaticLayer(); }
+        });
+        assertStaticLayerOnlyForStaticChanges("Gauge2", (tile, counter) -> new Gauge2TileSkin(tile) {
+            @Override protected void drawStaticLayer() { counter[0]++; super.drawStaticLayer(); }
+        });
+        assertStaticLayerOnlyForStaticChanges("BarGauge", (tile, counter) -> new BarGaugeTileSkin(tile) {
+            @Override protected void drawStaticLayer() { counter[0]++; super.drawStaticLayer(); }
+        });
+        assertStaticLayerOnlyForStaticChanges("Percentage", (tile, counter) -> new PercentageTileSkin(tile) {
+            @Override protected void drawStaticLayer() { counter[0]++; super.drawStaticLayer(); }
+        });
+        assertStaticLayerOnlyForStaticChanges("CircularProgress", (tile, counter) -> new CircularProgressTileSkin(tile) {
+            @Override protected void drawStaticLayer() { counter[0]++; super.drawStaticLayer(); }
+        });
+    }
+
+    @Test public void sectionChangedInPlaceRedrawsStaticLayer() {
+        HeadlessFx.runAndWait(() -> {
+            final Tile         tile    = new Tile();
+            final Section      section = new Section(0, 50, Color.GREEN);
+            final CountingSkin skin    = new CountingSkin(tile);
+            final Stage        stage   = new Stage();
+            tile.setAnimated(false);
+            tile.addSection(section);
+            tile.setSkin(skin);
+            stage.setScene(new Scene(new StackPane(tile), 200, 200));
+            stage.show();
+            tile.layout();
+
+            // Values don't touch the static layer
+            skin.staticLayers = 0;
+            tile.setValue(30);
+            tile.setValue(60);
+            assertEquals(0, skin.staticLayers);
+
+            section.setColor(Color.RED);
+            assertEquals(1, skin.staticLayers);
+            section.setStart(10);
+            assertEquals(2, skin.staticLayers);
+            assertEquals(section, tile.getSectionIndex().getSection(15));
+
+            // A section that was removed doesn't affect the tile anymore
+            tile.removeSection(section);
+            tile.fireTileEvent(new TileEvent(EventType.REDRAW));
+            final int staticLayers = skin.staticLayers;
+            section.setColor(Color.BLUE);
+            assertEquals(staticLayers, skin.staticLayers);
+            stage.hide();
+        });
+    }
+
+
+    private static void assertStaticLayerOnlyForStaticChanges(final String NAME, final BiFunction<Tile, int[], TileSkin> SKIN) {
+        HeadlessFx.runAndWait(() -> {
+            final Tile  tile         = new Tile();
+            final int[] staticLayers = new int[1];
+            final Stage stage        = new Stage();
+            tile.setAnimated(false);
+            tile.setSkin(SKIN.apply(tile, staticLayers));
+            stage.setScene(new Scene(new Pane(tile), 300, 300));
+            stage.show();
+            tile.resize(200, 200);
+            tile.layout();
+
+            staticLayers[0] = 0;
+            for (int i = 0 ; i < 100 ; i++) { tile.setValue(i); }
+            tile.fireTileEvent(new TileEvent(EventType.REDRAW));
+            assertEquals(0, staticLayers[0], NAME + " drew its static layer for values or an unchanged redraw");
+
+            tile.resize(150, 150);
+            tile.layout();
+            assertTrue(staticLayers[0] > 0, NAME + " didn't draw its static layer for a new size");
+
+            staticLayers[0] = 0;
+            tile.fireTileEvent(new TileEvent(EventType.RECALC));
+            assertEquals(1, staticLayers[0], NAME + " didn't draw its invalidated static layer once");
+            stage.hide();
+        });
+    }
+
+    // Draws its static layer like GaugeTileSkin but without text, so it also runs without the native text stack
+    private static class CountingSkin extends TileSkin {
+        private int    staticLayers;
+        private double layerWidth;
+        private double layerHeight;
+        private Color  layerBackgroundColor;
+
+
+        CountingSkin(final Tile TILE) { super(TILE); }
+
+
+        @Override protected void redraw() {
+            super.redraw();
+            updateStaticLayer();
+        }
+
+        @Override protected void resize() {
+            super.resize();
+            updateStaticLayer();
+        }
+
+        @Override protected boolean hasStaticLayerChanged() {
+            final Color backgroundColor = tile.getBackgroundColor();
+            if (width == layerWidth && height == layerHeight && backgroundColor.equals(layerBackgroundColor)) { return false; }
+            layerWidth           = width;
+            layerHeight          = height;
+            layerBackgroundColor = backgroundColor;
+            return true;
+        }
+
+        @Override protected void drawStaticLayer() { staticLayers++; }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.skins;
+
+import eu.hansolo.tilesfx.runnermann.HeadlessFx;
+import eu.hansolo.tilesfx.runnermann.Tile;
+import eu.hansolo.tilesfx.runnermann.Tile.SkinType;
+import eu.hansolo.tilesfx.runnermann.chart.ChartData;
+import eu.hansolo.tilesfx.runnermann.tools.Location;
+import eu.hansolo.tilesfx.runnermann.tools.MarkerLayer;
+import javafx.scene.Node;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+
+public class WorldMapTileSkinTest {
+
+    @BeforeAll public static void startFx() { HeadlessFx.start(); }
+
+    @Test public void removingPoiByLocationRemovesItsCircle() {
+        assumeTrue(HeadlessFx.isTextAvailable());
+        final Location berlin = new Location(52.52, 13.40, "Berlin", Color.RED);
+        final Location paris  = new Location(48.86, 2.35, "Paris", Color.BLUE);
+        HeadlessFx.runAndWait(() -> {
+            final Tile             tile = new Tile(SkinType.WORLDMAP);
+            tile.getPoiList().addAll(berlin, paris);
+            final WorldMapTileSkin skin = new WorldMapTileSkin(tile);
+            assertEquals(2, circlesOf(skin).size());
+
+            tile.removePoiLocation(berlin);
+            final List<Circle> circles = circlesOf(skin);
+            assertEquals(1, circles.size());
+            assertEquals(Color.BLUE, circles.get(0).getFill());
+        });
+    }
+
+    @Test public void duplicatePoiKeepsCircleUntilLastRemoval() {
+        assumeTrue(HeadlessFx.isTextAvailable());
+        final Location berlin = new Location(52.52, 13.40, "Berlin", Color.RED);
+        HeadlessFx.runAndWait(() -> {
+            final Tile             tile = new Tile(SkinType.WORLDMAP);
+            tile.getPoiList().addAll(berlin, berlin);
+            final WorldMapTileSkin skin = new WorldMapTileSkin(tile);
+            assertEquals(1, circlesOf(skin).size());
+
+            tile.getPoiList().remove(berlin);
+            assertEquals(1, circlesOf(skin).size());
+            tile.getPoiList().remove(berlin);
+            assertTrue(circlesOf(skin).isEmpty());
+        });
+    }
+
+    @Test public void duplicateLocationOnMarkerLayerLeavesNoOrphan() {
+        assumeTrue(HeadlessFx.isTextAvailable());
+        final Location  berlin = new Location(52.52, 13.40, "Berlin", Color.RED);
+        final ChartData data   = new ChartData("Berlin");
+        data.setLocation(berlin);
+        HeadlessFx.runAndWait(() -> {
+            final Tile             tile = new Tile(SkinType.WORLDMAP);
+            tile.setMarkerLayerEnabled(true);
+            tile.addPoiLocation(berlin);
+            tile.getChartData().add(data);
+            final WorldMapTileSkin skin  = new WorldMapTileSkin(tile);
+            final MarkerLayer      layer = markerLayerOf(skin);
+            assertEquals(2, layer.getNoOfMarkers());
+
+            tile.removePoiLocation(berlin);
+            assertEquals(1, layer.getNoOfMarkers());
+            tile.getChartData().remove(data);
+            assertEquals(0, layer.getNoOfMarkers());
+        });
+    }
+
+
+    // ******************** Methods *******************************************
+    private static List<Circle> circlesOf(final WorldMapTileSkin SKIN) {
+        return SKIN.getPane().getChildren().stream()
+                   .filter(node -> node instanceof Circle)
+                   .map(node -> (Circle) node)
+                   .collect(Collectors.toList());
+    }
+
+    private static MarkerLayer markerLayerOf(final WorldMapTileSkin SKIN) {
+        for (Node node : SKIN.getPane().getChildren()) {
+            if (node instanceof MarkerLayer) { return (MarkerLayer) node; }
+        }
+        throw new AssertionError("No marker layer");
+    }
+}
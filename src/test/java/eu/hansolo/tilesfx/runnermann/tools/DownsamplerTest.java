@@ -0,0 +1,182 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import eu.hansolo.tilesfx.runnermann.Tile.Downsampling;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class DownsamplerTest {
+    private static final int    COUNT     = 10_000;
+    private static final int    WIDTH     = 400;
+    private static final double AMPLITUDE = 100;
+
+
+    @Test public void minMaxKeepsEnvelopeOfEveryBucket() {
+        final double[] x = new double[COUNT];
+        final double[] y = noise(x, 42);
+        y[1234] =  10 * AMPLITUDE;
+        y[5678] = -10 * AMPLITUDE;
+        final int   threshold = Downsampler.getThreshold(Downsampling.MIN_MAX, WIDTH);
+        final int[] kept      = Downsampler.minMax(x, y, COUNT, threshold);
+        assertValid(kept, threshold);
+
+        // Every pixel column shows the same vertical extent as the full series
+        final double[] fullMin = new double[WIDTH];
+        final double[] fullMax = new double[WIDTH];
+        final double[] keptMin = new double[WIDTH];
+        final double[] keptMax = new double[WIDTH];
+        Arrays.fill(fullMin, Double.MAX_VALUE);
+        Arrays.fill(fullMax, -Double.MAX_VALUE);
+        Arrays.fill(keptMin, Double.MAX_VALUE);
+        Arrays.fill(keptMax, -Double.MAX_VALUE);
+        for (int i = 1 ; i < COUNT - 1 ; i++) {
+            final int b = bucket(x, i, WIDTH);
+            fullMin[b] = Math.min(fullMin[b], y[i]);
+            fullMax[b] = Math.max(fullMax[b], y[i]);
+        }
+        for (int i = 1 ; i < kept.length - 1 ; i++) {
+            final int b = bucket(x, kept[i], WIDTH);
+            keptMin[b] = Math.min(keptMin[b], y[kept[i]]);
+            keptMax[b] = Math.max(keptMax[b], y[kept[i]]);
+        }
+        for (int b = 0 ; b < WIDTH ; b++) {
+            assertEquals(fullMin[b], keptMin[b], "min of bucket " + b);
+            assertEquals(fullMax[b], keptMax[b], "max of bucket " + b);
+        }
+    }
+
+    @Test public void lttbFollowsShapeOfSeries() {
+        final double[] x = new double[COUNT];
+        final double[] y = new double[COUNT];
+        for (int i = 0 ; i < COUNT ; i++) {
+            x[i] = i;
+            y[i] = AMPLITUDE * Math.sin(i * 2 * Math.PI / 2_000);
+        }
+        final int[] kept = Downsampler.lttb(x, y, COUNT, WIDTH);
+        assertValid(kept, WIDTH);
+        assertEquals(WIDTH, kept.length);
+        // The polyline of the kept points deviates less than 1% of the amplitude from the full series
+        assertTrue(maxDeviation(x, y, kept) < AMPLITUDE * 0.01);
+    }
+
+    @Test public void lttbKeepsSpikes() {
+        final double[] x = new double[COUNT];
+        final double[] y = noise(x, 7);
+        final int[] spikes = { 777, 3_333, 6_001, 9_876 };
+        for (int spike : spikes) { y[spike] = 10 * AMPLITUDE; }
+        final int[] kept = Downsampler.lttb(x, y, COUNT, WIDTH);
+        assertValid(kept, WIDTH);
+        for (int spike : spikes) { assertTrue(Arrays.binarySearch(kept, spike) >= 0, "spike at " + spike); }
+    }
+
+    @Test public void slidingWindowKeepsFidelity() {
+        final Random      random  = new Random(3);
+        final Downsampler lttb    = new Downsampler(Downsampling.LTTB, WIDTH);
+        final Downsampler minMax  = new Downsampler(Downsampling.MIN_MAX, Downsampler.getThreshold(Downsampling.MIN_MAX, WIDTH));
+        final int         window  = 5_000;
+        double            phase   = 0;
+        for (int i = 0 ; i < 3 * window ; i++) {
+            final double value = AMPLITUDE * Math.sin(phase) + random.nextDouble();
+            phase += 2 * Math.PI / 1_000;
+            lttb.add(value);
+            minMax.add(value);
+            if (lttb.size() > window) {
+                lttb.removeFirst(1);
+                minMax.removeFirst(1);
+            }
+            if (i % 997 == 0 && lttb.size() > WIDTH) {
+                assertWindow(lttb);
+                assertWindow(minMax);
+            }
+        }
+    }
+
+
+    // ******************** Methods *******************************************
+    private static double[] noise(final double[] X, final long SEED) {
+        final Random   random = new Random(SEED);
+        final double[] y      = new double[X.length];
+        for (int i = 0 ; i < X.length ; i++) {
+            X[i] = i;
+            y[i] = random.nextDouble() * AMPLITUDE;
+        }
+        return y;
+    }
+
+    // Same bucket as Downsampler.minMax() for x values with the same distance
+    private static int bucket(final double[] X, final int INDEX, final int BUCKETS) {
+        final double spanX = X[X.length - 1] - X[0];
+        return Math.max(0, Math.min(BUCKETS - 1, (int) ((X[INDEX] - X[0]) / spanX * BUCKETS)));
+    }
+
+    private static void assertValid(final int[] KEPT, final int THRESHOLD) {
+        assertTrue(KEPT.length <= THRESHOLD, "kept " + KEPT.length + " points");
+        assertEquals(0, KEPT[0]);
+        assertEquals(COUNT - 1, KEPT[KEPT.length - 1]);
+        for (int i = 1 ; i < KEPT.length ; i++) { assertTrue(KEPT[i] > KEPT[i - 1], "sorted at " + i); }
+    }
+
+    private static double maxDeviation(final double[] X, final double[] Y, final int[] KEPT) {
+        double max = 0;
+        for (int k = 1 ; k < KEPT.length ; k++) {
+            final int a = KEPT[k - 1];
+            final int b = KEPT[k];
+            for (int i = a ; i <= b ; i++) {
+                final double interpolated = Y[a] + (Y[b] - Y[a]) * (X[i] - X[a]) / (X[b] - X[a]);
+                max = Math.max(max, Math.abs(interpolated - Y[i]));
+            }
+        }
+        return max;
+    }
+
+    // The sampled points of the window are sorted and contain the first and the last point, min and max of the window
+    private static void assertWindow(final Downsampler SAMPLER) {
+        final int size  = SAMPLER.size();
+        final int count = SAMPLER.downsample();
+        assertTrue(count <= SAMPLER.getThreshold(), "kept " + count + " points");
+        assertEquals(0, SAMPLER.getSampledIndex(0));
+        assertEquals(size - 1, SAMPLER.getSampledIndex(count - 1));
+        double fullMin = Double.MAX_VALUE;
+        double fullMax = -Double.MAX_VALUE;
+        for (int i = 0 ; i < size ; i++) {
+            fullMin = Math.min(fullMin, SAMPLER.getY(i));
+            fullMax = Math.max(fullMax, SAMPLER.getY(i));
+        }
+        double keptMin = Double.MAX_VALUE;
+        double keptMax = -Double.MAX_VALUE;
+        for (int i = 0 ; i < count ; i++) {
+            if (i > 0) { assertTrue(SAMPLER.getSampledIndex(i) > SAMPLER.getSampledIndex(i - 1), "sorted at " + i); }
+            keptMin = Math.min(keptMin, SAMPLER.getSampledY(i));
+            keptMax = Math.max(keptMax, SAMPLER.getSampledY(i));
+        }
+        if (Downsampling.MIN_MAX == SAMPLER.getMode()) {
+            assertEquals(fullMin, keptMin);
+            assertEquals(fullMax, keptMax);
+        } else {
+            // The peaks of the sine are kept within the noise
+            assertTrue(fullMax - keptMax < 1 && keptMin - fullMin < 1, "peaks " + keptMin + " " + keptMax);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import eu.hansolo.tilesfx.runnermann.HeadlessFx;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+
+public class GlyphAtlasTest {
+    private static final List<String> CHARACTERS = List.of("A", "B", "C");
+
+
+    @BeforeAll public static void startFx() { HeadlessFx.start(); }
+
+    @Test public void resizingWithinOneStepSharesTheAtlas() {
+        // Fonts need the native text stack
+        assumeTrue(HeadlessFx.isTextAvailable());
+        HeadlessFx.runAndWait(() -> {
+            GlyphAtlas.clearCache();
+            final GlyphAtlas atlas = get(100.5);
+            for (double size = 100.5 ; size <= 104 ; size += 0.25) { assertSame(atlas, get(size), "Size " + size); }
+            assertEquals(1, GlyphAtlas.getNoOfCachedAtlases());
+            assertEquals(104, atlas.getFlapWidth());
+            assertNotSame(atlas, get(104.5));
+            GlyphAtlas.clearCache();
+        });
+    }
+
+    private static GlyphAtlas get(final double SIZE) {
+        return GlyphAtlas.get(CHARACTERS, Font.font(SIZE * 0.75), Color.WHITE, Color.BLACK, SIZE, SIZE, SIZE * 0.495, SIZE * 0.025, 1.0);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+
+public class HitTestIndexTest {
+
+    @Test public void picksTopmostItem() {
+        final HitTestIndex<String> index = new HitTestIndex<>();
+        index.reset(0, 0, 100, 100, 10);
+        index.add("bottom", 10, 10, 60, 60);
+        index.add("top", 40, 40, 90, 90);
+        assertEquals(2, index.size());
+        assertEquals("bottom", index.pick(20, 20));
+        assertEquals("top", index.pick(50, 50));
+        assertEquals("top", index.pick(80, 80));
+        assertNull(index.pick(95, 5));
+        // The precise test lets the items below through
+        assertEquals("bottom", index.pick(50, 50, (item, x, y) -> "bottom".equals(item)));
+        assertNull(index.pick(80, 80, (item, x, y) -> false));
+    }
+
+    @Test public void picksOnBoundsAndCellEdges() {
+        final HitTestIndex<String> index = new HitTestIndex<>();
+        index.reset(0, 0, 100, 100, 10);
+        index.add("item", 20, 20, 30, 30);
+        assertEquals("item", index.pick(20, 20));
+        assertEquals("item", index.pick(30, 30));
+        assertNull(index.pick(19.99, 25));
+        assertNull(index.pick(30.01, 25));
+    }
+
+    @Test public void clampsToGridBounds() {
+        final HitTestIndex<String> index = new HitTestIndex<>();
+        index.reset(0, 0, 100, 100, 10);
+        index.add("edge", 90, 90, 100, 100);
+        index.add("overhang", -20, 40, 10, 50);
+        index.add("outside", 150, 150, 160, 160);
+        // The max edge of the area belongs to the last cell
+        assertEquals("edge", index.pick(100, 100));
+        // Parts outside of the area are found in the border cells
+        assertEquals("overhang", index.pick(-10, 45));
+        assertNull(index.pick(-30, 45));
+        assertNull(index.pick(155, 155));
+        assertNull(index.pick(Double.MAX_VALUE, -Double.MAX_VALUE));
+    }
+
+    @Test public void limitsNoOfCellsAndResets() {
+        final HitTestIndex<Integer> index = new HitTestIndex<>();
+        // A cell size of 1 would need 10,000 cells per axis
+        index.reset(0, 0, 10_000, 10_000, 1);
+        for (int i = 0 ; i < 1_000 ; i++) { index.add(i, i * 10, i * 10, i * 10 + 5, i * 10 + 5); }
+        assertEquals(500, index.pick(5_002, 5_002));
+        assertNull(index.pick(5_007, 5_007));
+
+        index.reset(-50, -50, 50, 50, 10);
+        assertEquals(0, index.size());
+        assertNull(index.pick(2, 2));
+        index.add(7, -10, -10, 10, 10);
+        assertEquals(7, index.pick(0, 0));
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class LatencyHistogramTest {
+
+    @Test public void smallValuesAreExact() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 0 ; i < 32 ; i++) { histogram.record(i); }
+        assertEquals(32, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(31, histogram.getMax());
+        assertEquals(15.5, histogram.getMean(), 1e-9);
+        assertEquals(15, histogram.getValueAtPercentile(50));
+        assertEquals(31, histogram.getValueAtPercentile(100));
+    }
+
+    @Test public void percentilesStayWithinRelativeError() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1 ; i <= 100_000 ; i++) { histogram.record(i * 1_000); }
+        for (double percentile : new double[] { 1, 50, 90, 99, 99.9 }) {
+            final double expected = percentile / 100.0 * 100_000 * 1_000;
+            final long   actual   = histogram.getValueAtPercentile(percentile);
+            assertTrue(actual >= expected - 1_000, percentile + "%: " + actual);
+            assertTrue(actual <= expected * (1 + 1.0 / 16), percentile + "%: " + actual);
+        }
+        assertEquals(100_000_000, histogram.getValueAtPercentile(100));
+        // The upper bound of the bucket of the smallest value
+        assertTrue(histogram.getValueAtPercentile(0) >= 1_000);
+        assertTrue(histogram.getValueAtPercentile(0) <= 1_000 * (1 + 1.0 / 16));
+    }
+
+    @Test public void outOfRangeValuesAreClamped() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(0, histogram.getMin());
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.getMax());
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.getValueAtPercentile(100));
+    }
+
+    @Test public void addCopyAndReset() {
+        final LatencyHistogram first  = new LatencyHistogram();
+        final LatencyHistogram second = new LatencyHistogram();
+        first.record(10);
+        first.record(20);
+        second.record(5);
+        second.record(1_000);
+
+        final LatencyHistogram copy = new LatencyHistogram(first);
+        copy.add(second);
+        copy.add(new LatencyHistogram());
+        assertEquals(4, copy.getCount());
+        assertEquals(5, copy.getMin());
+        assertEquals(1_000, copy.getMax());
+        assertEquals(1_035, copy.getTotal(), 1e-9);
+        // The copy is independent of the original
+        assertEquals(2, first.getCount());
+        assertEquals(10, first.getMin());
+
+        copy.reset();
+        assertTrue(copy.isEmpty());
+        assertEquals(0, copy.getMin());
+        assertEquals(0, copy.getMax());
+        assertEquals(0, copy.getMean());
+        assertEquals(0, copy.getValueAtPercentile(50));
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class MapCommandQueueTest {
+    private List<String>    scripts;
+    private List<Runnable>  pulses;
+    private MapCommandQueue queue;
+
+
+    @BeforeEach public void setup() {
+        scripts = new ArrayList<>();
+        pulses  = new ArrayList<>();
+        queue   = new MapCommandQueue(SCRIPT -> {
+            scripts.add(SCRIPT);
+            return null;
+        }, pulses::add);
+    }
+
+    @Test public void sendsAllCommandsOfOnePulseInOneRoundTrip() {
+        for (int i = 0 ; i < 1_000 ; i++) {
+            queue.moveLocation(new Location(50 + i * 0.001, 7, "Location " + i));
+            queue.addPoi(new Location(50, 7 + i * 0.001, "Poi " + i, Color.RED));
+        }
+        queue.zoomToLocation(12);
+        assertEquals(1, pulses.size());
+        assertTrue(scripts.isEmpty());
+
+        runPulses();
+        assertEquals(1, scripts.size());
+        assertEquals(1, queue.getNoOfRoundTrips());
+        assertEquals(0, queue.getNoOfPendingCommands());
+
+        // The location is coalesced to the latest one, all pois are kept
+        final String script = scripts.get(0);
+        assertTrue(script.startsWith("document.applyCommands(["));
+        assertEquals(1, count(script, "\"op\":\"location\""));
+        assertTrue(script.contains("\"name\":\"Location 999\""));
+        assertEquals(1_000, count(script, "\"op\":\"addPoi\""));
+
+        // Nothing pending, nothing sent
+        queue.flush();
+        assertEquals(1, queue.getNoOfRoundTrips());
+    }
+
+    @Test public void schedulesNextFlushAfterFlush() {
+        queue.setLocationColor("#ff0000");
+        runPulses();
+        queue.setLocationColor("#00ff00");
+        queue.setLocationColor("#0000ff");
+        assertEquals(1, pulses.size());
+        runPulses();
+        assertEquals(2, queue.getNoOfRoundTrips());
+        assertTrue(scripts.get(1).contains("#0000ff"));
+        assertFalse(scripts.get(1).contains("#00ff00"));
+    }
+
+    @Test public void newTrackReplacesPendingTrackCommands() {
+        final List<Location> track = new ArrayList<>();
+        for (int i = 0 ; i < 10 ; i++) { track.add(new Location(50 + i * 0.01, 7, "P" + i)); }
+        queue.setTrack(track.subList(0, 5), "#ff0000");
+        queue.appendToTrack(track, 5, "#ff0000");
+        queue.setTrack(track, "#00ff00");
+        runPulses();
+        assertEquals(1, scripts.size());
+        assertEquals(1, count(scripts.get(0), "\"op\":\"track\""));
+        assertEquals(0, count(scripts.get(0), "\"op\":\"appendTrack\""));
+        assertTrue(scripts.get(0).contains("#00ff00"));
+    }
+
+    @Test public void appendsLargeTrackIncrementally() {
+        final List<Location> track = new ArrayList<>();
+        for (int i = 0 ; i < 100 ; i++) { track.add(new Location(50 + i * 0.0001, 7, "P" + i)); }
+        queue.setTrack(track, "#ff0000");
+        runPulses();
+
+        // One round trip per pulse that only carries the new locations
+        for (int pulse = 1 ; pulse < 100 ; pulse++) {
+            final int from = track.size();
+            for (int i = 0 ; i < 100 ; i++) { track.add(new Location(50 + (from + i) * 0.0001, 7, "P" + (from + i))); }
+            queue.appendToTrack(track, from, "#ff0000");
+            runPulses();
+            final String script = scripts.get(pulse);
+            assertEquals(1, count(script, "\"op\":\"appendTrack\""));
+            assertEquals(100, count(script, "\"P"));
+            assertTrue(script.contains("\"P" + from + "\""));
+            assertFalse(script.contains("\"P" + (from - 1) + "\""));
+        }
+        assertEquals(10_000, track.size());
+        assertEquals(100, queue.getNoOfRoundTrips());
+
+        // Appends without a pulse in between share one round trip
+        for (int i = 0 ; i < 10 ; i++) {
+            final int from = track.size();
+            track.add(new Location(51, 7, "Q" + i));
+            queue.appendToTrack(track, from, "#ff0000");
+        }
+        assertEquals(1, pulses.size());
+        runPulses();
+        assertEquals(101, queue.getNoOfRoundTrips());
+        assertEquals(10, count(scripts.get(100), "\"op\":\"appendTrack\""));
+
+        // Appending nothing new doesn't cost a round trip
+        queue.appendToTrack(track, track.size(), "#ff0000");
+        assertTrue(pulses.isEmpty());
+    }
+
+    @Test public void escapesTexts() {
+        queue.moveLocation(new Location(50, 7, "a\"b\\c\n</script>\u2028"));
+        runPulses();
+        assertTrue(scripts.get(0).contains("\"name\":\"a\\\"b\\\\c\\n\\u003c/script>\\u2028\""));
+    }
+
+    private void runPulses() {
+        final List<Runnable> due = new ArrayList<>(pulses);
+        pulses.clear();
+        due.forEach(Runnable::run);
+    }
+
+    private static int count(final String TEXT, final String PART) {
+        int count = 0;
+        for (int index = TEXT.indexOf(PART) ; index >= 0 ; index = TEXT.indexOf(PART, index + PART.length())) { count++; }
+        return count;
+    }
+}
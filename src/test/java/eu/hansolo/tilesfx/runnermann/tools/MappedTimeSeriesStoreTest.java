@@ -0,0 +1,123 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+public class MappedTimeSeriesStoreTest {
+    private static final int SEGMENT_RECORDS = MappedTimeSeriesStore.INDEX_INTERVAL;
+
+
+    @Test public void reopenedStoreKeepsRecords(@TempDir final Path DIR) throws IOException {
+        final Path file = DIR.resolve("history.tss");
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(file, SEGMENT_RECORDS)) {
+            for (int i = 0 ; i < 100 ; i++) { store.append(1_000L * i, i * 0.5); }
+        }
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(file, SEGMENT_RECORDS)) {
+            assertEquals(100, store.size());
+            assertEquals(99_000L, store.getLastEpochMillis());
+            assertEquals(49.5, store.getValue(99));
+            // A restarted application continues the history
+            store.append(100_000L, 50);
+            assertEquals(101, store.size());
+            assertEquals(50, store.getValue(100));
+        }
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(file, SEGMENT_RECORDS)) {
+            assertEquals(101, store.size());
+            assertEquals(49, store.indexOf(49_000L));
+        }
+    }
+
+    @Test public void restartWithoutCloseSeesWrittenRecords(@TempDir final Path DIR) throws IOException {
+        final Path                  file  = DIR.resolve("history.tss");
+        final MappedTimeSeriesStore store = new MappedTimeSeriesStore(file, SEGMENT_RECORDS);
+        for (int i = 0 ; i < 10 ; i++) { store.append(i, i); }
+        // The second instance stands for the restarted application, the first one was never closed
+        try (MappedTimeSeriesStore restarted = new MappedTimeSeriesStore(file, SEGMENT_RECORDS)) {
+            assertEquals(10, restarted.size());
+            assertEquals(9, restarted.getValue(9));
+        }
+        store.close();
+    }
+
+    @Test public void recordsSpanSegments(@TempDir final Path DIR) throws IOException {
+        final Path file  = DIR.resolve("history.tss");
+        final int  count = SEGMENT_RECORDS * 3 + 17;
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(file, SEGMENT_RECORDS)) {
+            for (int i = 0 ; i < count ; i++) { store.append(i * 10L, i); }
+            assertEquals(count, store.size());
+            assertEquals(SEGMENT_RECORDS * 10L, store.getEpochMillis(SEGMENT_RECORDS));
+            assertEquals(SEGMENT_RECORDS - 1, store.getValue(SEGMENT_RECORDS - 1));
+
+            // A scan across the segment borders hands over every record in order
+            final long[] next = { SEGMENT_RECORDS - 5 };
+            final long   read = store.scanIndices(next[0], count, (epochMillis, value) -> {
+                assertEquals(next[0] * 10L, epochMillis);
+                assertEquals(next[0]++, value);
+            });
+            assertEquals(count - SEGMENT_RECORDS + 5, read);
+            assertEquals(count, next[0]);
+        }
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(file, SEGMENT_RECORDS)) {
+            assertEquals(count, store.size());
+            assertEquals(count - 1, store.getValue(count - 1));
+        }
+    }
+
+    @Test public void indexOfFindsFirstRecordAtOrAfterTimestamp(@TempDir final Path DIR) throws IOException {
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(DIR.resolve("history.tss"), SEGMENT_RECORDS)) {
+            assertEquals(0, store.indexOf(0));
+            // Two records per timestamp, timestamps 100, 110, 120...
+            final int count = 5_000;
+            for (int i = 0 ; i < count ; i++) { store.append(100 + (i / 2) * 10L, i); }
+            assertEquals(0, store.indexOf(Long.MIN_VALUE));
+            assertEquals(0, store.indexOf(100));
+            assertEquals(2, store.indexOf(101));
+            assertEquals(2, store.indexOf(110));
+            // Duplicates on both sides of a block of the sparse index
+            final long blockStart = 100 + (MappedTimeSeriesStore.INDEX_INTERVAL / 2) * 10L;
+            assertEquals(MappedTimeSeriesStore.INDEX_INTERVAL, store.indexOf(blockStart));
+            assertEquals(MappedTimeSeriesStore.INDEX_INTERVAL - 2, store.indexOf(blockStart - 10));
+            assertEquals(MappedTimeSeriesStore.INDEX_INTERVAL, store.indexOf(blockStart - 9));
+            assertEquals(count - 2, store.indexOf(store.getLastEpochMillis()));
+            assertEquals(count, store.indexOf(store.getLastEpochMillis() + 1));
+            assertEquals(count, store.indexOf(Long.MAX_VALUE));
+        }
+    }
+
+    @Test public void rejectsOtherVersions(@TempDir final Path DIR) throws IOException {
+        final Path file = DIR.resolve("history.tss");
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(file, SEGMENT_RECORDS)) { store.append(1, 1); }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(0, 2), 8);
+        }
+        assertThrows(IOException.class, () -> new MappedTimeSeriesStore(file, SEGMENT_RECORDS));
+    }
+}
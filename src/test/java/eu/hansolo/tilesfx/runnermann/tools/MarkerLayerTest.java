@@ -0,0 +1,103 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import eu.hansolo.tilesfx.runnermann.HeadlessFx;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class MarkerLayerTest {
+    private static final double SIZE   = 180;
+    private static final double RADIUS = 2;    // cells of 12 x 12 pixels, clusters of two markers without text
+
+
+    @BeforeAll public static void startFx() { HeadlessFx.start(); }
+
+    @Test public void removedMarkerLeavesNoGhostInNeighbourCell() {
+        final MarkerLayer layer  = createLayer(23.5, 45);
+        final Object      marker = new Object();
+        HeadlessFx.runAndWait(() -> layer.add(marker, 0, 0, Color.RED));
+        drawPendingChanges(layer);
+        // The marker reaches from cell 1 into cell 2
+        assertTrue(opacityAt(layer, 24.5, 45) > 0);
+
+        HeadlessFx.runAndWait(() -> layer.remove(marker));
+        drawPendingChanges(layer);
+        assertEquals(0, opacityAt(layer, 24.5, 45));
+        assertEquals(0, opacityAt(layer, 23.5, 45));
+    }
+
+    @Test public void shrinkingClusterLeavesNoGhostInNeighbourCell() {
+        final MarkerLayer layer  = createLayer(22, 45);
+        final Object      first  = new Object();
+        final Object      second = new Object();
+        HeadlessFx.runAndWait(() -> {
+            layer.setClusteringEnabled(true);
+            layer.add(first, 0, 0, Color.RED);
+            layer.add(second, 0, 0, Color.RED);
+        });
+        drawPendingChanges(layer);
+        // The cluster of two markers reaches about 5 pixels from the center into cell 2
+        assertTrue(opacityAt(layer, 26, 45) > 0);
+
+        HeadlessFx.runAndWait(() -> layer.remove(second));
+        drawPendingChanges(layer);
+        assertEquals(0, opacityAt(layer, 26, 45));
+        assertTrue(opacityAt(layer, 22, 45) > 0);
+    }
+
+
+    // ******************** Methods *******************************************
+    // Places latitude 0 and longitude 0 at the given canvas position
+    private static MarkerLayer createLayer(final double X, final double Y) {
+        final AtomicReference<MarkerLayer> layer = new AtomicReference<>();
+        HeadlessFx.runAndWait(() -> {
+            final double[] xy = Helper.latLonToXY(0, 0);
+            layer.set(new MarkerLayer());
+            layer.get().setWidth(SIZE);
+            layer.get().setHeight(SIZE);
+            layer.get().setTransform(1, 1, X - xy[0], Y - xy[1], RADIUS);
+        });
+        return layer.get();
+    }
+
+    // Draws the dirty cells right away instead of waiting for the next pulse
+    private static void drawPendingChanges(final MarkerLayer LAYER) {
+        HeadlessFx.runAndWait(LAYER::drawPendingChanges);
+    }
+
+    private static double opacityAt(final MarkerLayer LAYER, final double X, final double Y) {
+        final AtomicReference<Double> opacity = new AtomicReference<>();
+        HeadlessFx.runAndWait(() -> {
+            final SnapshotParameters parameters = new SnapshotParameters();
+            parameters.setFill(Color.TRANSPARENT);
+            final WritableImage image = LAYER.snapshot(parameters, null);
+            opacity.set(image.getPixelReader().getColor((int) X, (int) Y).getOpacity());
+        });
+        return opacity.get();
+    }
+}
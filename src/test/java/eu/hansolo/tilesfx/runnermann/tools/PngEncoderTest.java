@@ -0,0 +1,97 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import eu.hansolo.tilesfx.runnermann.HeadlessFx;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+
+public class PngEncoderTest {
+
+    @BeforeAll public static void startFx() { HeadlessFx.start(); }
+
+    @Test public void decodedImageHasSamePixels() {
+        final WritableImage image   = createImage(37, 23);
+        final Image         decoded = new Image(new ByteArrayInputStream(PngEncoder.encode(image)));
+        assertFalse(decoded.isError());
+        assertEquals(image.getWidth(), decoded.getWidth());
+        assertEquals(image.getHeight(), decoded.getHeight());
+
+        final PixelReader expected = image.getPixelReader();
+        final PixelReader actual   = decoded.getPixelReader();
+        for (int y = 0 ; y < 23 ; y++) {
+            for (int x = 0 ; x < 37 ; x++) {
+                final int argb = expected.getArgb(x, y);
+                if (0 == argb >>> 24) {
+                    assertEquals(0, actual.getArgb(x, y) >>> 24);
+                } else {
+                    assertEquals(argb, actual.getArgb(x, y), "Pixel " + x + ", " + y);
+                }
+            }
+        }
+    }
+
+    @Test public void writesPngFile() throws IOException {
+        final Path file = Files.createTempFile("tile", ".png");
+        try {
+            PngEncoder.write(createImage(16, 16), file);
+            final byte[] bytes = Files.readAllBytes(file);
+            // PNG signature
+            assertEquals((byte) 0x89, bytes[0]);
+            assertEquals('P', bytes[1]);
+            assertEquals('N', bytes[2]);
+            assertEquals('G', bytes[3]);
+            assertEquals(16, new Image(file.toUri().toString()).getWidth());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Opaque gradients, a fully transparent column and a row of opaque gray
+    private static WritableImage createImage(final int WIDTH, final int HEIGHT) {
+        final WritableImage image  = new WritableImage(WIDTH, HEIGHT);
+        final PixelWriter   writer = image.getPixelWriter();
+        for (int y = 0 ; y < HEIGHT ; y++) {
+            for (int x = 0 ; x < WIDTH ; x++) {
+                final int argb;
+                if (0 == x) {
+                    argb = 0;
+                } else if (0 == y) {
+                    argb = 0xFF808080;
+                } else {
+                    argb = 0xFF000000 | (x * 255 / WIDTH) << 16 | (y * 255 / HEIGHT) << 8 | ((x + y) * 7 & 0xFF);
+                }
+                writer.setArgb(x, y, argb);
+            }
+        }
+        return image;
+    }
+}
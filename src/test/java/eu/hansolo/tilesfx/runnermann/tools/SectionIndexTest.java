@@ -0,0 +1,157 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import eu.hansolo.tilesfx.runnermann.HeadlessFx;
+import eu.hansolo.tilesfx.runnermann.Section;
+import eu.hansolo.tilesfx.runnermann.Tile;
+import eu.hansolo.tilesfx.runnermann.TimeSection;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class SectionIndexTest {
+
+    @BeforeAll public static void startFx() { HeadlessFx.start(); }
+
+    @Test public void findsSectionsOfValue() {
+        final Section low  = new Section(0, 50, Color.GREEN);
+        final Section high = new Section(40, 100, Color.RED);
+        final SectionIndex index = new SectionIndex(List.of(low, high));
+        assertSame(low, index.getSection(10));
+        assertEquals(List.of(low, high), index.getSections(45));
+        assertSame(high, index.getSection(100));
+        assertNull(index.getSection(101));
+    }
+
+    @Test public void rebuildsAfterSectionChangedInPlace() {
+        final Tile    tile    = new Tile();
+        final Section section = new Section(0, 10, Color.RED);
+        tile.getSections().add(section);
+        assertSame(section, tile.getSectionIndex().getSection(5));
+
+        section.setStart(20);
+        section.setStop(30);
+        assertNull(tile.getSectionIndex().getSection(5));
+        assertSame(section, tile.getSectionIndex().getSection(25));
+
+        section.stopProperty().set(40);
+        assertSame(section, tile.getSectionIndex().getSection(35));
+    }
+
+    @Test public void keepsUpdateHandlerOfSection() {
+        final Tile    tile    = new Tile();
+        final Section section = new Section(0, 10, Color.RED);
+        final int[]   updates = new int[1];
+        section.setOnSectionUpdate(e -> updates[0]++);
+        tile.getSections().add(section);
+        section.setStart(5);
+        assertEquals(1, updates[0]);
+    }
+
+    @Test public void stopsListeningToRemovedSections() {
+        final Tile    tile    = new Tile();
+        final Section section = new Section(0, 10, Color.RED);
+        tile.getSections().add(section);
+        final SectionIndex index = tile.getSectionIndex();
+        tile.getSections().remove(section);
+        final SectionIndex emptyIndex = tile.getSectionIndex();
+        assertNotSame(index, emptyIndex);
+        assertTrue(emptyIndex.isEmpty());
+        section.setStart(5);
+        assertSame(emptyIndex, tile.getSectionIndex());
+    }
+
+    @Test public void sectionDoesNotKeepTileAlive() {
+        final Section             section = new Section(0, 10, Color.RED);
+        final WeakReference<Tile> tile    = addToTile(section);
+        for (int i = 0 ; i < 20 && null != tile.get() ; i++) { System.gc(); }
+        assertNull(tile.get());
+        // Firing the update of a section without tiles must not fail
+        section.setStart(5);
+    }
+
+    @Test public void firesEnteredAndLeftEvents() {
+        final Section      low    = new Section(0, 50, Color.GREEN);
+        final Section      high   = new Section(40, 100, Color.RED);
+        final List<String> events = new ArrayList<>();
+        low.setOnSectionEntered(e -> events.add("low entered"));
+        low.setOnSectionLeft(e -> events.add("low left"));
+        high.setOnSectionEntered(e -> events.add("high entered"));
+        high.setOnSectionLeft(e -> events.add("high left"));
+        final SectionIndex index = new SectionIndex(List.of(low, high));
+
+        index.checkForValue(10);
+        assertEquals(List.of("low entered"), events);
+        index.checkForValue(20);
+        assertEquals(List.of("low entered"), events);
+        events.clear();
+        index.checkForValue(45);
+        assertEquals(List.of("high entered"), events);
+        events.clear();
+        index.checkForValue(50);
+        index.checkForValue(60);
+        assertEquals(List.of("low left"), events);
+        events.clear();
+        index.checkForValue(101);
+        assertEquals(List.of("high left"), events);
+        events.clear();
+        index.checkForValue(5);
+        assertEquals(List.of("low entered"), events);
+        events.clear();
+        // A replacing index continues from the checked value
+        final SectionIndex replacement = new SectionIndex(List.of(low, high), index.getCheckedValue());
+        replacement.checkForValue(6);
+        assertEquals(List.of(), events);
+    }
+
+    @Test public void rebuildsAfterTimeSectionChangedInPlace() {
+        final Tile        tile    = new Tile();
+        final TimeSection section = new TimeSection(LocalTime.of(8, 0), LocalTime.of(9, 0), Color.RED);
+        section.setActive(true);
+        tile.getTimeSections().add(section);
+        assertSame(section, tile.getTimeSectionIndex().getSection(LocalTime.of(8, 30), DayOfWeek.MONDAY));
+
+        section.setStart(LocalTime.of(10, 0));
+        section.setStop(LocalTime.of(11, 0));
+        assertNull(tile.getTimeSectionIndex().getSection(LocalTime.of(8, 30), DayOfWeek.MONDAY));
+        assertSame(section, tile.getTimeSectionIndex().getSection(LocalTime.of(10, 30), DayOfWeek.MONDAY));
+
+        section.removeDay(DayOfWeek.MONDAY);
+        assertNull(tile.getTimeSectionIndex().getSection(LocalTime.of(10, 30), DayOfWeek.MONDAY));
+    }
+
+    private static WeakReference<Tile> addToTile(final Section SECTION) {
+        final Tile tile = new Tile();
+        tile.getSections().add(SECTION);
+        return new WeakReference<>(tile);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2016-2021 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.tilesfx.runnermann.tools;
+
+import eu.hansolo.tilesfx.runnermann.HeadlessFx;
+import eu.hansolo.tilesfx.runnermann.Tile;
+import javafx.animation.Interpolator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class ValueAnimatorTest {
+
+    @BeforeAll public static void startFx() { HeadlessFx.start(); }
+
+    @Test public void movesLastSlotIntoRemovedSlot() {
+        final ValueAnimator<Item> animator = new ValueAnimator<>(new ItemCallback(), 2);
+        final Item first  = new Item();
+        final Item second = new Item();
+        HeadlessFx.runAndWait(() -> {
+            animator.animate(first, 0, 0, 10, 10_000, Interpolator.LINEAR);
+            animator.animate(first, 1, 0, 10, 10_000, Interpolator.LINEAR);
+            animator.animate(second, 0, 0, 10, 10_000, Interpolator.LINEAR);
+            assertEquals(3, animator.getNoOfAnimations());
+
+            animator.stop(first, 0);
+            assertEquals(2, animator.getNoOfAnimations());
+            assertEquals(-1, first.slots[0]);
+            assertEquals(0, second.slots[0]);
+            assertEquals(1, first.slots[1]);
+            assertTrue(animator.isAnimating(first));
+            assertFalse(animator.isAnimating(first, 0));
+            animator.stop(first, 1);
+            animator.stop(second, 0);
+            assertEquals(0, animator.getNoOfAnimations());
+        });
+    }
+
+    @Test public void retargetsRunningAnimation() {
+        final ValueAnimator<Item> animator = new ValueAnimator<>(new ItemCallback(), 1);
+        final Item item = new Item();
+        HeadlessFx.runAndWait(() -> {
+            animator.animate(item, 0, 0, 10, 10_000, Interpolator.LINEAR);
+            animator.animate(item, 0, 5, 20, 10_000, Interpolator.LINEAR);
+            assertEquals(1, animator.getNoOfAnimations());
+            animator.finish(item);
+            assertEquals(0, animator.getNoOfAnimations());
+            assertEquals(List.of(20.0), item.values);
+            assertEquals(1, item.finished);
+            assertFalse(animator.isAnimating(item));
+        });
+    }
+
+    @Test public void finishesTileAnimation() throws InterruptedException {
+        final Tile tile = new Tile();
+        tile.setAnimated(true);
+        tile.setAnimationDuration(10);
+        // Values that are set faster than the animation duration are not animated
+        Thread.sleep(20);
+        HeadlessFx.runAndWait(() -> {
+            tile.setValue(50);
+            assertTrue(Tile.getAnimator().isAnimating(tile));
+            Tile.getAnimator().finish(tile);
+            assertFalse(Tile.getAnimator().isAnimating(tile));
+            assertEquals(50, tile.getCurrentValue());
+        });
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static class Item {
+        private final int[]        slots    = { -1, -1 };
+        private final List<Double> values   = new ArrayList<>();
+        private       int          finished = 0;
+    }
+
+    private static class ItemCallback implements ValueAnimator.Callback<Item> {
+        @Override public int getSlot(final Item ITEM, final int CHANNEL) { return ITEM.slots[CHANNEL]; }
+        @Override public void setSlot(final Item ITEM, final int CHANNEL, final int SLOT) { ITEM.slots[CHANNEL] = SLOT; }
+        @Override public void update(final Item ITEM, final int CHANNEL, final double VALUE) { ITEM.values.add(VALUE); }
+        @Override public void finish(final Item ITEM, final int CHANNEL) { ITEM.finished++; }
+    }
+}